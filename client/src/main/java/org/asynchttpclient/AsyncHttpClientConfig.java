@@ -23,6 +23,8 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
+import org.asynchttpclient.cache.HttpCache;
+import org.asynchttpclient.cache.RequestCoalescer;
 import org.asynchttpclient.channel.ChannelPool;
 import org.asynchttpclient.channel.KeepAliveStrategy;
 import org.asynchttpclient.cookie.CookieStore;
@@ -37,9 +39,11 @@ import org.asynchttpclient.proxy.ProxyServerSelector;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.net.InetAddress;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 
@@ -211,6 +215,20 @@ public interface AsyncHttpClientConfig {
      */
     CookieStore getCookieStore();
 
+    /**
+     * Return the HTTP cache that serves and stores the responses, as described in RFC 9111
+     *
+     * @return the {@link HttpCache}, or null if responses aren't cached
+     */
+    @Nullable HttpCache getHttpCache();
+
+    /**
+     * Return the coalescer that makes identical GET and HEAD requests in flight at the same time share a single exchange
+     *
+     * @return the {@link RequestCoalescer}, or null if requests aren't coalesced
+     */
+    @Nullable RequestCoalescer getRequestCoalescer();
+
     /**
      * Return the delay in milliseconds to evict expired cookies from {@linkplain CookieStore}
      *
@@ -230,6 +248,12 @@ public interface AsyncHttpClientConfig {
      */
     boolean isDisableUrlEncodingForBoundRequests();
 
+    /**
+     * @return the maximum number of parsed {@link org.asynchttpclient.uri.Uri}s the client keeps for the urls of its bound requests,
+     * 0 to parse each url. See {@link org.asynchttpclient.uri.UriCache}.
+     */
+    int getUriCacheSize();
+
     /**
      * @return true if AHC is to use a LAX cookie encoder, eg accept illegal chars in cookie value
      */
@@ -248,6 +272,13 @@ public interface AsyncHttpClientConfig {
      */
     Duration getConnectionTtl();
 
+    /**
+     * @return the maximum number of requests that can be outstanding on a pooled connection: idempotent requests without a body are
+     * then sent on a connection that's still waiting for the responses of the previous ones, which come back in order, rather than on a
+     * new connection, and replayed if it closes before answering them. 1, the default, disables HTTP/1.1 pipelining.
+     */
+    int getMaxPipelinedRequests();
+
     boolean isUseOpenSsl();
 
     boolean isUseInsecureTrustManager();
@@ -298,10 +329,98 @@ public interface AsyncHttpClientConfig {
 
     int getChunkedFileChunkSize();
 
+    /**
+     * Uploaded files that can't be sent with zero-copy, typically over TLS or when zero-copy is disabled, are read in chunks.
+     * When this is enabled, those reads are performed with an {@link java.nio.channels.AsynchronousFileChannel} instead of blocking the event loop,
+     * and chunks are sized after the channel's writability, from {@link #getChunkedFileChunkSize()} up to 8 times that value.
+     *
+     * @return true if files must be read off the event loop when zero-copy is not possible
+     */
+    boolean isUseAsyncFileChannel();
+
+    /**
+     * @return the maximum number of chunks read ahead on the {@link #getBlockingIoExecutor()} while they wait for the channel to accept them
+     */
+    int getBlockingIoPrefetchChunks();
+
+    /**
+     * Return the {@link ExecutorService} used to read request bodies that would otherwise block the event loop,
+     * such as {@link java.io.InputStream} bodies and multipart bodies with an {@link org.asynchttpclient.request.body.multipart.InputStreamPart}.
+     * It's also used for the completion handlers of asynchronous file reads, see {@link #isUseAsyncFileChannel()}.
+     * The executor is owned by the caller and isn't shut down when the client is closed.
+     *
+     * @return the {@link ExecutorService} used for blocking body reads. If none has been explicitly provided, this method returns {@code null}
+     * and those reads happen on the event loop
+     */
+    @Nullable ExecutorService getBlockingIoExecutor();
+
     int getWebSocketMaxBufferSize();
 
     int getWebSocketMaxFrameSize();
 
+    /**
+     * @return true if the flushes of a WebSocket are consolidated, so that the frames sent during the same event loop tick
+     * are written with a single syscall
+     */
+    boolean isWebSocketFlushConsolidation();
+
+    /**
+     * @return the number of bytes that can be pending in the outbound buffer of a WebSocket before it stops being writable.
+     * It becomes writable again once half of them have been written. When negative, WebSockets keep the water marks of
+     * their channel, ie the {@link io.netty.channel.ChannelOption#WRITE_BUFFER_WATER_MARK} channel option or Netty's default.
+     */
+    int getWebSocketWriteBufferHighWaterMark();
+
+    /**
+     * @return true if WebSockets are optimized for memory footprint, for clients holding very large numbers of mostly idle WebSockets
+     */
+    boolean isWebSocketLowMemoryFootprint();
+
+    /**
+     * @return the interval between the pings sent on idle and busy WebSockets alike, zero to disable the heartbeat
+     */
+    Duration getWebSocketPingInterval();
+
+    /**
+     * @return the time a WebSocket heartbeat waits for a pong after sending a ping
+     */
+    Duration getWebSocketPongTimeout();
+
+    /**
+     * @return true if the WebSocket heartbeat closes the WebSockets whose peer didn't answer a ping in time
+     */
+    boolean isWebSocketCloseOnMissedPong();
+
+    /**
+     * @return the deflate compression level of WebSocket messages, from 0 to 9
+     */
+    int getWebSocketCompressionLevel();
+
+    /**
+     * @return the size under which unfragmented WebSocket messages are sent uncompressed
+     */
+    int getWebSocketCompressionMinSize();
+
+    /**
+     * @return true if WebSocket compression offers {@code client_no_context_takeover}
+     */
+    boolean isWebSocketClientNoContextTakeover();
+
+    /**
+     * @return true if WebSocket compression requests {@code server_no_context_takeover}
+     */
+    boolean isWebSocketServerNoContextTakeover();
+
+    /**
+     * @return the {@code server_max_window_bits} requested by WebSocket compression, from 8 to 15
+     */
+    int getWebSocketServerMaxWindowBits();
+
+    /**
+     * @return true if the bytes and time spent compressing and decompressing WebSocket messages are reported in {@link ClientStats}
+     */
+    boolean isWebSocketCompressionMetrics();
+
     boolean isKeepEncodingHeader();
 
     Duration getShutdownQuietPeriod();
@@ -358,6 +477,18 @@ public interface AsyncHttpClientConfig {
 
     int getSoRcvBuf();
 
+    /**
+     * @return the local addresses that new connections are bound to, in turn, when the request doesn't set its own,
+     * so that each can use the whole ephemeral port range to a given destination
+     */
+    List<InetAddress> getLocalAddresses();
+
+    /**
+     * @return true if the sockets bound to a local address should set {@code IP_BIND_ADDRESS_NO_PORT}, so that their port
+     * is only picked on connect, for the 4-tuple, on Linux native transports whose Netty version supports it
+     */
+    boolean isIpBindAddressNoPort();
+
     @Nullable ByteBufAllocator getAllocator();
 
     int getIoThreadsCount();
@@ -25,9 +25,27 @@ import java.util.Objects;
 public class ClientStats {
 
     private final Map<String, HostStats> statsPerHost;
+    private final WebSocketStats webSocketStats;
+    private final PartitionStats partitionStats;
+    private final long portExhaustionCount;
 
     public ClientStats(Map<String, HostStats> statsPerHost) {
+        this(statsPerHost, WebSocketStats.EMPTY);
+    }
+
+    public ClientStats(Map<String, HostStats> statsPerHost, WebSocketStats webSocketStats) {
+        this(statsPerHost, webSocketStats, PartitionStats.EMPTY);
+    }
+
+    public ClientStats(Map<String, HostStats> statsPerHost, WebSocketStats webSocketStats, PartitionStats partitionStats) {
+        this(statsPerHost, webSocketStats, partitionStats, 0);
+    }
+
+    public ClientStats(Map<String, HostStats> statsPerHost, WebSocketStats webSocketStats, PartitionStats partitionStats, long portExhaustionCount) {
         this.statsPerHost = Collections.unmodifiableMap(statsPerHost);
+        this.webSocketStats = webSocketStats;
+        this.partitionStats = partitionStats;
+        this.portExhaustionCount = portExhaustionCount;
     }
 
     /**
@@ -72,6 +90,27 @@ public class ClientStats {
                 .sum();
     }
 
+    /**
+     * @return the cumulated activity of the WebSockets
+     */
+    public WebSocketStats getWebSocketStats() {
+        return webSocketStats;
+    }
+
+    /**
+     * @return the per-host state held by the connection pool and limiter
+     */
+    public PartitionStats getPartitionStats() {
+        return partitionStats;
+    }
+
+    /**
+     * @return the number of connections that failed because no local port was free, see {@link AsyncHttpClientConfig#getLocalAddresses()}
+     */
+    public long getPortExhaustionCount() {
+        return portExhaustionCount;
+    }
+
     @Override
     public String toString() {
         return "There are " + getTotalConnectionCount() +
@@ -88,11 +127,13 @@ public class ClientStats {
             return false;
         }
         final ClientStats that = (ClientStats) o;
-        return Objects.equals(statsPerHost, that.statsPerHost);
+        return Objects.equals(statsPerHost, that.statsPerHost) && Objects.equals(webSocketStats, that.webSocketStats)
+                && Objects.equals(partitionStats, that.partitionStats)
+                && portExhaustionCount == that.portExhaustionCount;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(statsPerHost);
+        return Objects.hash(statsPerHost, webSocketStats, partitionStats, portExhaustionCount);
     }
 }
@@ -21,6 +21,8 @@ import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import org.asynchttpclient.cache.HttpCache;
+import org.asynchttpclient.cache.RequestCoalescer;
 import org.asynchttpclient.channel.ChannelPool;
 import org.asynchttpclient.cookie.CookieEvictionTask;
 import org.asynchttpclient.cookie.CookieStore;
@@ -30,6 +32,7 @@ import org.asynchttpclient.filter.RequestFilter;
 import org.asynchttpclient.handler.resumable.ResumableAsyncHandler;
 import org.asynchttpclient.netty.channel.ChannelManager;
 import org.asynchttpclient.netty.request.NettyRequestSender;
+import org.asynchttpclient.uri.UriCache;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +67,7 @@ public class DefaultAsyncHttpClient implements AsyncHttpClient {
     private final NettyRequestSender requestSender;
     private final boolean allowStopNettyTimer;
     private final Timer nettyTimer;
+    private final @Nullable UriCache uriCache;
 
     /**
      * Default signature calculator to use for all requests constructed by this
@@ -108,6 +112,7 @@ public class DefaultAsyncHttpClient implements AsyncHttpClient {
         channelManager = new ChannelManager(config, nettyTimer);
         requestSender = new NettyRequestSender(config, channelManager, nettyTimer, new AsyncHttpClientState(closed));
         channelManager.configureBootstraps(requestSender);
+        uriCache = config.getUriCacheSize() > 0 ? new UriCache(config.getUriCacheSize()) : null;
 
         CookieStore cookieStore = config.getCookieStore();
         if (cookieStore != null) {
@@ -229,7 +234,8 @@ public class DefaultAsyncHttpClient implements AsyncHttpClient {
 
     @Override
     public <T> ListenableFuture<T> executeRequest(Request request, AsyncHandler<T> handler) {
-        if (config.getCookieStore() != null) {
+        // the cookies from the cookie store are added when the request is encoded, unless the cache or the coalescer need them to key it
+        if (config.getCookieStore() != null && (config.getHttpCache() != null || config.getRequestCoalescer() != null)) {
             try {
                 List<Cookie> cookies = config.getCookieStore().get(request.getUri());
                 if (!cookies.isEmpty()) {
@@ -277,13 +283,25 @@ public class DefaultAsyncHttpClient implements AsyncHttpClient {
 
     private <T> ListenableFuture<T> execute(Request request, final AsyncHandler<T> asyncHandler) {
         try {
-            return requestSender.sendRequest(request, asyncHandler, null);
+            RequestCoalescer requestCoalescer = config.getRequestCoalescer();
+            if (requestCoalescer != null) {
+                return requestCoalescer.execute(request, asyncHandler, this::send);
+            }
+            return send(request, asyncHandler);
         } catch (Exception e) {
             asyncHandler.onThrowable(e);
             return new ListenableFuture.CompletedFailure<>(e);
         }
     }
 
+    private <T> ListenableFuture<T> send(Request request, AsyncHandler<T> asyncHandler) {
+        HttpCache httpCache = config.getHttpCache();
+        if (httpCache != null) {
+            return httpCache.execute(request, asyncHandler, requestSender);
+        }
+        return requestSender.sendRequest(request, asyncHandler, null);
+    }
+
     /**
      * Configure and execute the associated {@link RequestFilter}. This class
      * may decorate the {@link Request} and {@link AsyncHandler}
@@ -321,7 +339,7 @@ public class DefaultAsyncHttpClient implements AsyncHttpClient {
 
     @Override
     public ClientStats getClientStats() {
-        return channelManager.getClientStats();
+        return channelManager.getClientStats(requestSender.getConnectionSemaphore());
     }
 
     @Override
@@ -330,7 +348,14 @@ public class DefaultAsyncHttpClient implements AsyncHttpClient {
     }
 
     protected BoundRequestBuilder requestBuilder(String method, String url) {
-        return new BoundRequestBuilder(this, method, config.isDisableUrlEncodingForBoundRequests()).setUrl(url).setSignatureCalculator(signatureCalculator);
+        BoundRequestBuilder builder = new BoundRequestBuilder(this, method, config.isDisableUrlEncodingForBoundRequests());
+        UriCache uriCache = this.uriCache;
+        if (uriCache != null) {
+            builder.setUri(uriCache.get(url));
+        } else {
+            builder.setUrl(url);
+        }
+        return builder.setSignatureCalculator(signatureCalculator);
     }
 
     protected BoundRequestBuilder requestBuilder(Request prototype) {
@@ -21,6 +21,8 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.Timer;
+import org.asynchttpclient.cache.HttpCache;
+import org.asynchttpclient.cache.RequestCoalescer;
 import org.asynchttpclient.channel.ChannelPool;
 import org.asynchttpclient.channel.DefaultKeepAliveStrategy;
 import org.asynchttpclient.channel.KeepAliveStrategy;
@@ -36,17 +38,21 @@ import org.asynchttpclient.proxy.ProxyServerSelector;
 import org.asynchttpclient.util.ProxyUtils;
 import org.jetbrains.annotations.Nullable;
 
+import java.net.InetAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultAcquireFreeChannelTimeout;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultAggregateWebSocketFrameFragments;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultBlockingIoPrefetchChunks;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultChunkedFileChunkSize;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultCompressionEnforced;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultConnectTimeout;
@@ -70,10 +76,12 @@ import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultHt
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultHttpClientCodecMaxHeaderSize;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultHttpClientCodecMaxInitialLineLength;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultIoThreadsCount;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultIpBindAddressNoPort;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultKeepAlive;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultKeepEncodingHeader;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultMaxConnections;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultMaxConnectionsPerHost;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultMaxPipelinedRequests;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultMaxRedirects;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultMaxRequestRetry;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultPooledConnectionIdleTimeout;
@@ -91,6 +99,8 @@ import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultSs
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultStrict302Handling;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultTcpNoDelay;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultThreadPoolName;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUriCacheSize;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUseAsyncFileChannel;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUseInsecureTrustManager;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUseLaxCookieEncoder;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUseNativeTransport;
@@ -100,8 +110,20 @@ import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUs
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUseProxySelector;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultUserAgent;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultValidateResponseHeaders;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketClientNoContextTakeover;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketCloseOnMissedPong;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketCompressionLevel;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketCompressionMetrics;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketCompressionMinSize;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketFlushConsolidation;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketLowMemoryFootprint;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketMaxBufferSize;
 import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketMaxFrameSize;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketPingInterval;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketPongTimeout;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketServerMaxWindowBits;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketServerNoContextTakeover;
+import static org.asynchttpclient.config.AsyncHttpClientConfigDefaults.defaultWebSocketWriteBufferHighWaterMark;
 
 /**
  * Configuration class to use with a {@link AsyncHttpClient}. System property can be also used to configure this object default behavior by doing: <br>
@@ -122,6 +144,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
     private final @Nullable Realm realm;
     private final int maxRequestRetry;
     private final boolean disableUrlEncodingForBoundRequests;
+    private final int uriCacheSize;
     private final boolean useLaxCookieEncoder;
     private final boolean disableZeroCopy;
     private final boolean keepEncodingHeader;
@@ -133,6 +156,18 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
     private final boolean enablewebSocketCompression;
     private final int webSocketMaxBufferSize;
     private final int webSocketMaxFrameSize;
+    private final boolean webSocketFlushConsolidation;
+    private final int webSocketWriteBufferHighWaterMark;
+    private final boolean webSocketLowMemoryFootprint;
+    private final Duration webSocketPingInterval;
+    private final Duration webSocketPongTimeout;
+    private final boolean webSocketCloseOnMissedPong;
+    private final int webSocketCompressionLevel;
+    private final int webSocketCompressionMinSize;
+    private final boolean webSocketClientNoContextTakeover;
+    private final boolean webSocketServerNoContextTakeover;
+    private final int webSocketServerMaxWindowBits;
+    private final boolean webSocketCompressionMetrics;
 
     // timeouts
     private final Duration connectTimeout;
@@ -146,6 +181,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
     private final Duration pooledConnectionIdleTimeout;
     private final Duration connectionPoolCleanerPeriod;
     private final Duration connectionTtl;
+    private final int maxPipelinedRequests;
     private final int maxConnections;
     private final int maxConnectionsPerHost;
     private final int acquireFreeChannelTimeout;
@@ -173,6 +209,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
 
     // cookie store
     private final CookieStore cookieStore;
+    private final @Nullable HttpCache httpCache;
+    private final @Nullable RequestCoalescer requestCoalescer;
     private final int expiredCookieEvictionDelay;
 
     // internals
@@ -182,6 +220,9 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
     private final int httpClientCodecMaxChunkSize;
     private final int httpClientCodecInitialBufferSize;
     private final int chunkedFileChunkSize;
+    private final boolean useAsyncFileChannel;
+    private final int blockingIoPrefetchChunks;
+    private final @Nullable ExecutorService blockingIoExecutor;
     private final Map<ChannelOption<Object>, Object> channelOptions;
     private final @Nullable EventLoopGroup eventLoopGroup;
     private final boolean useNativeTransport;
@@ -193,6 +234,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
     private final int soLinger;
     private final int soSndBuf;
     private final int soRcvBuf;
+    private final List<InetAddress> localAddresses;
+    private final boolean ipBindAddressNoPort;
     private final @Nullable Timer nettyTimer;
     private final @Nullable ThreadFactory threadFactory;
     private final @Nullable Consumer<Channel> httpAdditionalChannelInitializer;
@@ -212,6 +255,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                                          @Nullable Realm realm,
                                          int maxRequestRetry,
                                          boolean disableUrlEncodingForBoundRequests,
+                                         int uriCacheSize,
                                          boolean useLaxCookieEncoder,
                                          boolean disableZeroCopy,
                                          boolean keepEncodingHeader,
@@ -232,6 +276,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                                          Duration pooledConnectionIdleTimeout,
                                          Duration connectionPoolCleanerPeriod,
                                          Duration connectionTtl,
+                                         int maxPipelinedRequests,
                                          int maxConnections,
                                          int maxConnectionsPerHost,
                                          int acquireFreeChannelTimeout,
@@ -259,6 +304,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
 
                                          // cookie store
                                          CookieStore cookieStore,
+                                         @Nullable HttpCache httpCache,
+                                         @Nullable RequestCoalescer requestCoalescer,
                                          int expiredCookieEvictionDelay,
 
                                          // tuning
@@ -268,6 +315,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                                          int soLinger,
                                          int soSndBuf,
                                          int soRcvBuf,
+                                         List<InetAddress> localAddresses,
+                                         boolean ipBindAddressNoPort,
 
                                          // internals
                                          String threadPoolName,
@@ -276,8 +325,23 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                                          int httpClientCodecMaxChunkSize,
                                          int httpClientCodecInitialBufferSize,
                                          int chunkedFileChunkSize,
+                                         boolean useAsyncFileChannel,
+                                         int blockingIoPrefetchChunks,
+                                         @Nullable ExecutorService blockingIoExecutor,
                                          int webSocketMaxBufferSize,
                                          int webSocketMaxFrameSize,
+                                         boolean webSocketFlushConsolidation,
+                                         int webSocketWriteBufferHighWaterMark,
+                                         boolean webSocketLowMemoryFootprint,
+                                         Duration webSocketPingInterval,
+                                         Duration webSocketPongTimeout,
+                                         boolean webSocketCloseOnMissedPong,
+                                         int webSocketCompressionLevel,
+                                         int webSocketCompressionMinSize,
+                                         boolean webSocketClientNoContextTakeover,
+                                         boolean webSocketServerNoContextTakeover,
+                                         int webSocketServerMaxWindowBits,
+                                         boolean webSocketCompressionMetrics,
                                          Map<ChannelOption<Object>, Object> channelOptions,
                                          @Nullable EventLoopGroup eventLoopGroup,
                                          boolean useNativeTransport,
@@ -302,6 +366,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         this.realm = realm;
         this.maxRequestRetry = maxRequestRetry;
         this.disableUrlEncodingForBoundRequests = disableUrlEncodingForBoundRequests;
+        this.uriCacheSize = uriCacheSize;
         this.useLaxCookieEncoder = useLaxCookieEncoder;
         this.disableZeroCopy = disableZeroCopy;
         this.keepEncodingHeader = keepEncodingHeader;
@@ -313,6 +378,18 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         this.enablewebSocketCompression = enablewebSocketCompression;
         this.webSocketMaxBufferSize = webSocketMaxBufferSize;
         this.webSocketMaxFrameSize = webSocketMaxFrameSize;
+        this.webSocketFlushConsolidation = webSocketFlushConsolidation;
+        this.webSocketWriteBufferHighWaterMark = webSocketWriteBufferHighWaterMark;
+        this.webSocketLowMemoryFootprint = webSocketLowMemoryFootprint;
+        this.webSocketPingInterval = webSocketPingInterval;
+        this.webSocketPongTimeout = webSocketPongTimeout;
+        this.webSocketCloseOnMissedPong = webSocketCloseOnMissedPong;
+        this.webSocketCompressionLevel = webSocketCompressionLevel;
+        this.webSocketCompressionMinSize = webSocketCompressionMinSize;
+        this.webSocketClientNoContextTakeover = webSocketClientNoContextTakeover;
+        this.webSocketServerNoContextTakeover = webSocketServerNoContextTakeover;
+        this.webSocketServerMaxWindowBits = webSocketServerMaxWindowBits;
+        this.webSocketCompressionMetrics = webSocketCompressionMetrics;
 
         // timeouts
         this.connectTimeout = connectTimeout;
@@ -326,6 +403,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         this.pooledConnectionIdleTimeout = pooledConnectionIdleTimeout;
         this.connectionPoolCleanerPeriod = connectionPoolCleanerPeriod;
         this.connectionTtl = connectionTtl;
+        this.maxPipelinedRequests = maxPipelinedRequests;
         this.maxConnections = maxConnections;
         this.maxConnectionsPerHost = maxConnectionsPerHost;
         this.acquireFreeChannelTimeout = acquireFreeChannelTimeout;
@@ -353,6 +431,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
 
         // cookie store
         this.cookieStore = cookieStore;
+        this.httpCache = httpCache;
+        this.requestCoalescer = requestCoalescer;
         this.expiredCookieEvictionDelay = expiredCookieEvictionDelay;
 
         // tuning
@@ -362,6 +442,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         this.soLinger = soLinger;
         this.soSndBuf = soSndBuf;
         this.soRcvBuf = soRcvBuf;
+        this.localAddresses = localAddresses;
+        this.ipBindAddressNoPort = ipBindAddressNoPort;
 
         // internals
         this.threadPoolName = threadPoolName;
@@ -370,6 +452,9 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         this.httpClientCodecMaxChunkSize = httpClientCodecMaxChunkSize;
         this.httpClientCodecInitialBufferSize = httpClientCodecInitialBufferSize;
         this.chunkedFileChunkSize = chunkedFileChunkSize;
+        this.useAsyncFileChannel = useAsyncFileChannel;
+        this.blockingIoPrefetchChunks = blockingIoPrefetchChunks;
+        this.blockingIoExecutor = blockingIoExecutor;
         this.channelOptions = channelOptions;
         this.eventLoopGroup = eventLoopGroup;
         this.useNativeTransport = useNativeTransport;
@@ -441,6 +526,11 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         return disableUrlEncodingForBoundRequests;
     }
 
+    @Override
+    public int getUriCacheSize() {
+        return uriCacheSize;
+    }
+
     @Override
     public boolean isUseLaxCookieEncoder() {
         return useLaxCookieEncoder;
@@ -482,6 +572,66 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         return webSocketMaxFrameSize;
     }
 
+    @Override
+    public boolean isWebSocketFlushConsolidation() {
+        return webSocketFlushConsolidation;
+    }
+
+    @Override
+    public int getWebSocketWriteBufferHighWaterMark() {
+        return webSocketWriteBufferHighWaterMark;
+    }
+
+    @Override
+    public boolean isWebSocketLowMemoryFootprint() {
+        return webSocketLowMemoryFootprint;
+    }
+
+    @Override
+    public Duration getWebSocketPingInterval() {
+        return webSocketPingInterval;
+    }
+
+    @Override
+    public Duration getWebSocketPongTimeout() {
+        return webSocketPongTimeout;
+    }
+
+    @Override
+    public boolean isWebSocketCloseOnMissedPong() {
+        return webSocketCloseOnMissedPong;
+    }
+
+    @Override
+    public int getWebSocketCompressionLevel() {
+        return webSocketCompressionLevel;
+    }
+
+    @Override
+    public int getWebSocketCompressionMinSize() {
+        return webSocketCompressionMinSize;
+    }
+
+    @Override
+    public boolean isWebSocketClientNoContextTakeover() {
+        return webSocketClientNoContextTakeover;
+    }
+
+    @Override
+    public boolean isWebSocketServerNoContextTakeover() {
+        return webSocketServerNoContextTakeover;
+    }
+
+    @Override
+    public int getWebSocketServerMaxWindowBits() {
+        return webSocketServerMaxWindowBits;
+    }
+
+    @Override
+    public boolean isWebSocketCompressionMetrics() {
+        return webSocketCompressionMetrics;
+    }
+
     // timeouts
     @Override
     public Duration getConnectTimeout() {
@@ -529,6 +679,11 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         return connectionTtl;
     }
 
+    @Override
+    public int getMaxPipelinedRequests() {
+        return maxPipelinedRequests;
+    }
+
     @Override
     public int getMaxConnections() {
         return maxConnections;
@@ -642,6 +797,16 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         return cookieStore;
     }
 
+    @Override
+    public @Nullable HttpCache getHttpCache() {
+        return httpCache;
+    }
+
+    @Override
+    public @Nullable RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
     @Override
     public int expiredCookieEvictionDelay() {
         return expiredCookieEvictionDelay;
@@ -678,6 +843,16 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         return soRcvBuf;
     }
 
+    @Override
+    public List<InetAddress> getLocalAddresses() {
+        return localAddresses;
+    }
+
+    @Override
+    public boolean isIpBindAddressNoPort() {
+        return ipBindAddressNoPort;
+    }
+
     // internals
     @Override
     public String getThreadPoolName() {
@@ -709,6 +884,21 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         return chunkedFileChunkSize;
     }
 
+    @Override
+    public boolean isUseAsyncFileChannel() {
+        return useAsyncFileChannel;
+    }
+
+    @Override
+    public int getBlockingIoPrefetchChunks() {
+        return blockingIoPrefetchChunks;
+    }
+
+    @Override
+    public @Nullable ExecutorService getBlockingIoExecutor() {
+        return blockingIoExecutor;
+    }
+
     @Override
     public Map<ChannelOption<Object>, Object> getChannelOptions() {
         return channelOptions;
@@ -793,6 +983,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         private @Nullable Realm realm;
         private int maxRequestRetry = defaultMaxRequestRetry();
         private boolean disableUrlEncodingForBoundRequests = defaultDisableUrlEncodingForBoundRequests();
+        private int uriCacheSize = defaultUriCacheSize();
         private boolean useLaxCookieEncoder = defaultUseLaxCookieEncoder();
         private boolean disableZeroCopy = defaultDisableZeroCopy();
         private boolean keepEncodingHeader = defaultKeepEncodingHeader();
@@ -806,6 +997,18 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         private boolean enablewebSocketCompression = defaultEnableWebSocketCompression();
         private int webSocketMaxBufferSize = defaultWebSocketMaxBufferSize();
         private int webSocketMaxFrameSize = defaultWebSocketMaxFrameSize();
+        private boolean webSocketFlushConsolidation = defaultWebSocketFlushConsolidation();
+        private int webSocketWriteBufferHighWaterMark = defaultWebSocketWriteBufferHighWaterMark();
+        private boolean webSocketLowMemoryFootprint = defaultWebSocketLowMemoryFootprint();
+        private Duration webSocketPingInterval = defaultWebSocketPingInterval();
+        private Duration webSocketPongTimeout = defaultWebSocketPongTimeout();
+        private boolean webSocketCloseOnMissedPong = defaultWebSocketCloseOnMissedPong();
+        private int webSocketCompressionLevel = defaultWebSocketCompressionLevel();
+        private int webSocketCompressionMinSize = defaultWebSocketCompressionMinSize();
+        private boolean webSocketClientNoContextTakeover = defaultWebSocketClientNoContextTakeover();
+        private boolean webSocketServerNoContextTakeover = defaultWebSocketServerNoContextTakeover();
+        private int webSocketServerMaxWindowBits = defaultWebSocketServerMaxWindowBits();
+        private boolean webSocketCompressionMetrics = defaultWebSocketCompressionMetrics();
 
         // timeouts
         private Duration connectTimeout = defaultConnectTimeout();
@@ -819,6 +1022,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         private Duration pooledConnectionIdleTimeout = defaultPooledConnectionIdleTimeout();
         private Duration connectionPoolCleanerPeriod = defaultConnectionPoolCleanerPeriod();
         private Duration connectionTtl = defaultConnectionTtl();
+        private int maxPipelinedRequests = defaultMaxPipelinedRequests();
         private int maxConnections = defaultMaxConnections();
         private int maxConnectionsPerHost = defaultMaxConnectionsPerHost();
         private int acquireFreeChannelTimeout = defaultAcquireFreeChannelTimeout();
@@ -841,6 +1045,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
 
         // cookie store
         private CookieStore cookieStore = new ThreadSafeCookieStore();
+        private @Nullable HttpCache httpCache;
+        private @Nullable RequestCoalescer requestCoalescer;
         private int expiredCookieEvictionDelay = defaultExpiredCookieEvictionDelay();
 
         // tuning
@@ -850,6 +1056,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         private int soLinger = defaultSoLinger();
         private int soSndBuf = defaultSoSndBuf();
         private int soRcvBuf = defaultSoRcvBuf();
+        private final List<InetAddress> localAddresses = new LinkedList<>();
+        private boolean ipBindAddressNoPort = defaultIpBindAddressNoPort();
 
         // internals
         private String threadPoolName = defaultThreadPoolName();
@@ -858,6 +1066,9 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
         private int httpClientCodecMaxChunkSize = defaultHttpClientCodecMaxChunkSize();
         private int httpClientCodecInitialBufferSize = defaultHttpClientCodecInitialBufferSize();
         private int chunkedFileChunkSize = defaultChunkedFileChunkSize();
+        private boolean useAsyncFileChannel = defaultUseAsyncFileChannel();
+        private int blockingIoPrefetchChunks = defaultBlockingIoPrefetchChunks();
+        private @Nullable ExecutorService blockingIoExecutor;
         private boolean useNativeTransport = defaultUseNativeTransport();
         private boolean useOnlyEpollNativeTransport = defaultUseOnlyEpollNativeTransport();
         private @Nullable ByteBufAllocator allocator;
@@ -886,16 +1097,31 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             realm = config.getRealm();
             maxRequestRetry = config.getMaxRequestRetry();
             disableUrlEncodingForBoundRequests = config.isDisableUrlEncodingForBoundRequests();
+            uriCacheSize = config.getUriCacheSize();
             useLaxCookieEncoder = config.isUseLaxCookieEncoder();
             disableZeroCopy = config.isDisableZeroCopy();
             keepEncodingHeader = config.isKeepEncodingHeader();
             proxyServerSelector = config.getProxyServerSelector();
+            httpCache = config.getHttpCache();
+            requestCoalescer = config.getRequestCoalescer();
 
             // websocket
             aggregateWebSocketFrameFragments = config.isAggregateWebSocketFrameFragments();
             enablewebSocketCompression = config.isEnableWebSocketCompression();
             webSocketMaxBufferSize = config.getWebSocketMaxBufferSize();
             webSocketMaxFrameSize = config.getWebSocketMaxFrameSize();
+            webSocketFlushConsolidation = config.isWebSocketFlushConsolidation();
+            webSocketWriteBufferHighWaterMark = config.getWebSocketWriteBufferHighWaterMark();
+            webSocketLowMemoryFootprint = config.isWebSocketLowMemoryFootprint();
+            webSocketPingInterval = config.getWebSocketPingInterval();
+            webSocketPongTimeout = config.getWebSocketPongTimeout();
+            webSocketCloseOnMissedPong = config.isWebSocketCloseOnMissedPong();
+            webSocketCompressionLevel = config.getWebSocketCompressionLevel();
+            webSocketCompressionMinSize = config.getWebSocketCompressionMinSize();
+            webSocketClientNoContextTakeover = config.isWebSocketClientNoContextTakeover();
+            webSocketServerNoContextTakeover = config.isWebSocketServerNoContextTakeover();
+            webSocketServerMaxWindowBits = config.getWebSocketServerMaxWindowBits();
+            webSocketCompressionMetrics = config.isWebSocketCompressionMetrics();
 
             // timeouts
             connectTimeout = config.getConnectTimeout();
@@ -908,6 +1134,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             keepAlive = config.isKeepAlive();
             pooledConnectionIdleTimeout = config.getPooledConnectionIdleTimeout();
             connectionTtl = config.getConnectionTtl();
+            maxPipelinedRequests = config.getMaxPipelinedRequests();
             maxConnections = config.getMaxConnections();
             maxConnectionsPerHost = config.getMaxConnectionsPerHost();
             channelPool = config.getChannelPool();
@@ -937,6 +1164,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             soLinger = config.getSoLinger();
             soSndBuf = config.getSoSndBuf();
             soRcvBuf = config.getSoRcvBuf();
+            localAddresses.addAll(config.getLocalAddresses());
+            ipBindAddressNoPort = config.isIpBindAddressNoPort();
 
             // internals
             threadPoolName = config.getThreadPoolName();
@@ -944,6 +1173,9 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             httpClientCodecMaxHeaderSize = config.getHttpClientCodecMaxHeaderSize();
             httpClientCodecMaxChunkSize = config.getHttpClientCodecMaxChunkSize();
             chunkedFileChunkSize = config.getChunkedFileChunkSize();
+            useAsyncFileChannel = config.isUseAsyncFileChannel();
+            blockingIoPrefetchChunks = config.getBlockingIoPrefetchChunks();
+            blockingIoExecutor = config.getBlockingIoExecutor();
             channelOptions.putAll(config.getChannelOptions());
             eventLoopGroup = config.getEventLoopGroup();
             useNativeTransport = config.isUseNativeTransport();
@@ -1026,6 +1258,11 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             return this;
         }
 
+        public Builder setUriCacheSize(int uriCacheSize) {
+            this.uriCacheSize = uriCacheSize;
+            return this;
+        }
+
         public Builder setUseLaxCookieEncoder(boolean useLaxCookieEncoder) {
             this.useLaxCookieEncoder = useLaxCookieEncoder;
             return this;
@@ -1091,6 +1328,147 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             return this;
         }
 
+        /**
+         * Consolidate the flushes of WebSockets with a Netty {@link io.netty.handler.flush.FlushConsolidationHandler}:
+         * frames sent during the same event loop tick are written with a single syscall, at the cost of a slight delay.
+         *
+         * @param webSocketFlushConsolidation true to consolidate flushes
+         * @return the same builder instance
+         */
+        public Builder setWebSocketFlushConsolidation(boolean webSocketFlushConsolidation) {
+            this.webSocketFlushConsolidation = webSocketFlushConsolidation;
+            return this;
+        }
+
+        /**
+         * Bound the outbound buffer of WebSockets: once more than this number of bytes are pending,
+         * {@link org.asynchttpclient.ws.WebSocket#isWritable()} returns false and the frames sent with the
+         * {@code send*FrameWhenWritable} methods are held back until half of them have been written.
+         * Unset by default, so that WebSockets keep the water marks of their channel.
+         *
+         * @param webSocketWriteBufferHighWaterMark the high water mark, in bytes, or a negative value to keep the channel's
+         * @return the same builder instance
+         */
+        public Builder setWebSocketWriteBufferHighWaterMark(int webSocketWriteBufferHighWaterMark) {
+            this.webSocketWriteBufferHighWaterMark = webSocketWriteBufferHighWaterMark;
+            return this;
+        }
+
+        /**
+         * Optimize WebSockets for memory footprint, for clients holding very large numbers of mostly idle WebSockets:
+         * <ul>
+         * <li>stateless handlers are shared by all the WebSockets</li>
+         * <li>the frame aggregator is only installed once a fragmented frame is received</li>
+         * <li>compression negotiates no context takeover, so that compression state is released after each message instead of being kept
+         * for the lifetime of the WebSocket, at the cost of a lower compression ratio</li>
+         * </ul>
+         *
+         * @param webSocketLowMemoryFootprint true to optimize WebSockets for memory footprint
+         * @return the same builder instance
+         */
+        public Builder setWebSocketLowMemoryFootprint(boolean webSocketLowMemoryFootprint) {
+            this.webSocketLowMemoryFootprint = webSocketLowMemoryFootprint;
+            return this;
+        }
+
+        /**
+         * Enable the WebSocket heartbeat: a ping is sent at this interval on every WebSocket, and a pong is expected
+         * within {@link #setWebSocketPongTimeout(Duration)}. All the heartbeats are driven by the client's timer.
+         *
+         * @param webSocketPingInterval the ping interval, zero to disable the heartbeat
+         * @return the same builder instance
+         */
+        public Builder setWebSocketPingInterval(Duration webSocketPingInterval) {
+            this.webSocketPingInterval = webSocketPingInterval;
+            return this;
+        }
+
+        /**
+         * @param webSocketPongTimeout the time the WebSocket heartbeat waits for a pong after sending a ping
+         * @return the same builder instance
+         */
+        public Builder setWebSocketPongTimeout(Duration webSocketPongTimeout) {
+            this.webSocketPongTimeout = webSocketPongTimeout;
+            return this;
+        }
+
+        /**
+         * @param webSocketCloseOnMissedPong true to close the WebSockets whose peer didn't answer a heartbeat ping in time,
+         *                                   false to only count the missed pongs and keep pinging
+         * @return the same builder instance
+         */
+        public Builder setWebSocketCloseOnMissedPong(boolean webSocketCloseOnMissedPong) {
+            this.webSocketCloseOnMissedPong = webSocketCloseOnMissedPong;
+            return this;
+        }
+
+        /**
+         * @param webSocketCompressionLevel the deflate compression level of WebSocket messages, from 0 (fastest) to 9 (smallest)
+         * @return the same builder instance
+         */
+        public Builder setWebSocketCompressionLevel(int webSocketCompressionLevel) {
+            this.webSocketCompressionLevel = webSocketCompressionLevel;
+            return this;
+        }
+
+        /**
+         * Send small WebSocket messages uncompressed, as deflating them costs CPU for little or no gain.
+         * Fragmented messages are always compressed, as their size isn't known upfront.
+         *
+         * @param webSocketCompressionMinSize the size in bytes under which unfragmented messages aren't compressed
+         * @return the same builder instance
+         */
+        public Builder setWebSocketCompressionMinSize(int webSocketCompressionMinSize) {
+            this.webSocketCompressionMinSize = webSocketCompressionMinSize;
+            return this;
+        }
+
+        /**
+         * Offer {@code client_no_context_takeover} when negotiating permessage-deflate: when the server accepts it, the compression
+         * state is released after each message sent instead of being kept for the lifetime of the WebSocket, at the cost of a lower
+         * compression ratio.
+         *
+         * @param webSocketClientNoContextTakeover true to offer client_no_context_takeover
+         * @return the same builder instance
+         */
+        public Builder setWebSocketClientNoContextTakeover(boolean webSocketClientNoContextTakeover) {
+            this.webSocketClientNoContextTakeover = webSocketClientNoContextTakeover;
+            return this;
+        }
+
+        /**
+         * Request {@code server_no_context_takeover} when negotiating permessage-deflate, so that the decompression state is released
+         * after each message received instead of being kept for the lifetime of the WebSocket. Servers that don't support it decline compression.
+         *
+         * @param webSocketServerNoContextTakeover true to request server_no_context_takeover
+         * @return the same builder instance
+         */
+        public Builder setWebSocketServerNoContextTakeover(boolean webSocketServerNoContextTakeover) {
+            this.webSocketServerNoContextTakeover = webSocketServerNoContextTakeover;
+            return this;
+        }
+
+        /**
+         * @param webSocketServerMaxWindowBits the {@code server_max_window_bits} requested when negotiating permessage-deflate, from 8 to 15.
+         *                                     A smaller window lowers the server's memory usage and compression ratio.
+         * @return the same builder instance
+         */
+        public Builder setWebSocketServerMaxWindowBits(int webSocketServerMaxWindowBits) {
+            this.webSocketServerMaxWindowBits = webSocketServerMaxWindowBits;
+            return this;
+        }
+
+        /**
+         * Report the bytes and time spent compressing and decompressing WebSocket messages in {@link org.asynchttpclient.ClientStats}.
+         *
+         * @param webSocketCompressionMetrics true to measure WebSocket compression
+         * @return the same builder instance
+         */
+        public Builder setWebSocketCompressionMetrics(boolean webSocketCompressionMetrics) {
+            this.webSocketCompressionMetrics = webSocketCompressionMetrics;
+            return this;
+        }
+
         // timeouts
         public Builder setConnectTimeout(Duration connectTimeout) {
             this.connectTimeout = connectTimeout;
@@ -1138,6 +1516,11 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             return this;
         }
 
+        public Builder setMaxPipelinedRequests(int maxPipelinedRequests) {
+            this.maxPipelinedRequests = maxPipelinedRequests;
+            return this;
+        }
+
         public Builder setMaxConnections(int maxConnections) {
             this.maxConnections = maxConnections;
             return this;
@@ -1267,6 +1650,16 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             return this;
         }
 
+        public Builder setHttpCache(HttpCache httpCache) {
+            this.httpCache = httpCache;
+            return this;
+        }
+
+        public Builder setRequestCoalescer(RequestCoalescer requestCoalescer) {
+            this.requestCoalescer = requestCoalescer;
+            return this;
+        }
+
         public Builder setExpiredCookieEvictionDelay(int expiredCookieEvictionDelay) {
             this.expiredCookieEvictionDelay = expiredCookieEvictionDelay;
             return this;
@@ -1303,6 +1696,22 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             return this;
         }
 
+        public Builder setLocalAddresses(List<InetAddress> localAddresses) {
+            this.localAddresses.clear();
+            this.localAddresses.addAll(localAddresses);
+            return this;
+        }
+
+        public Builder addLocalAddress(InetAddress localAddress) {
+            localAddresses.add(localAddress);
+            return this;
+        }
+
+        public Builder setIpBindAddressNoPort(boolean ipBindAddressNoPort) {
+            this.ipBindAddressNoPort = ipBindAddressNoPort;
+            return this;
+        }
+
         // internals
         public Builder setThreadPoolName(String threadPoolName) {
             this.threadPoolName = threadPoolName;
@@ -1334,6 +1743,21 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
             return this;
         }
 
+        public Builder setUseAsyncFileChannel(boolean useAsyncFileChannel) {
+            this.useAsyncFileChannel = useAsyncFileChannel;
+            return this;
+        }
+
+        public Builder setBlockingIoPrefetchChunks(int blockingIoPrefetchChunks) {
+            this.blockingIoPrefetchChunks = blockingIoPrefetchChunks;
+            return this;
+        }
+
+        public Builder setBlockingIoExecutor(ExecutorService blockingIoExecutor) {
+            this.blockingIoExecutor = blockingIoExecutor;
+            return this;
+        }
+
         public Builder setHashedWheelTickDuration(long hashedWheelTickDuration) {
             this.hashedWheelTickDuration = hashedWheelTickDuration;
             return this;
@@ -1428,6 +1852,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                     realm,
                     maxRequestRetry,
                     disableUrlEncodingForBoundRequests,
+                    uriCacheSize,
                     useLaxCookieEncoder,
                     disableZeroCopy,
                     keepEncodingHeader,
@@ -1444,6 +1869,7 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                     pooledConnectionIdleTimeout,
                     connectionPoolCleanerPeriod,
                     connectionTtl,
+                    maxPipelinedRequests,
                     maxConnections,
                     maxConnectionsPerHost,
                     acquireFreeChannelTimeout,
@@ -1465,6 +1891,8 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                     responseFilters.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(responseFilters),
                     ioExceptionFilters.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(ioExceptionFilters),
                     cookieStore,
+                    httpCache,
+                    requestCoalescer,
                     expiredCookieEvictionDelay,
                     tcpNoDelay,
                     soReuseAddress,
@@ -1472,14 +1900,31 @@ public class DefaultAsyncHttpClientConfig implements AsyncHttpClientConfig {
                     soLinger,
                     soSndBuf,
                     soRcvBuf,
+                    localAddresses.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(localAddresses)),
+                    ipBindAddressNoPort,
                     threadPoolName,
                     httpClientCodecMaxInitialLineLength,
                     httpClientCodecMaxHeaderSize,
                     httpClientCodecMaxChunkSize,
                     httpClientCodecInitialBufferSize,
                     chunkedFileChunkSize,
+                    useAsyncFileChannel,
+                    blockingIoPrefetchChunks,
+                    blockingIoExecutor,
                     webSocketMaxBufferSize,
                     webSocketMaxFrameSize,
+                    webSocketFlushConsolidation,
+                    webSocketWriteBufferHighWaterMark,
+                    webSocketLowMemoryFootprint,
+                    webSocketPingInterval,
+                    webSocketPongTimeout,
+                    webSocketCloseOnMissedPong,
+                    webSocketCompressionLevel,
+                    webSocketCompressionMinSize,
+                    webSocketClientNoContextTakeover,
+                    webSocketServerNoContextTakeover,
+                    webSocketServerMaxWindowBits,
+                    webSocketCompressionMetrics,
                     channelOptions.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(channelOptions),
                     eventLoopGroup,
                     useNativeTransport,
@@ -20,6 +20,7 @@ import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.resolver.NameResolver;
 import org.asynchttpclient.channel.ChannelPoolPartitioning;
 import org.asynchttpclient.proxy.ProxyServer;
+import org.asynchttpclient.request.body.BodyCompression;
 import org.asynchttpclient.request.body.generator.BodyGenerator;
 import org.asynchttpclient.request.body.multipart.Part;
 import org.asynchttpclient.uri.Uri;
@@ -45,6 +46,7 @@ public class DefaultRequest implements Request {
     private final Uri uri;
     private final @Nullable InetAddress address;
     private final @Nullable InetAddress localAddress;
+    private final @Nullable String unixDomainSocket;
     private final HttpHeaders headers;
     private final List<Cookie> cookies;
     private final byte @Nullable [] byteData;
@@ -65,6 +67,7 @@ public class DefaultRequest implements Request {
     private final @Nullable Charset charset;
     private final ChannelPoolPartitioning channelPoolPartitioning;
     private final NameResolver<InetAddress> nameResolver;
+    private final @Nullable BodyCompression bodyCompression;
 
     // lazily loaded
     private @Nullable List<Param> queryParams;
@@ -73,6 +76,7 @@ public class DefaultRequest implements Request {
                           Uri uri,
                           @Nullable InetAddress address,
                           @Nullable InetAddress localAddress,
+                          @Nullable String unixDomainSocket,
                           HttpHeaders headers,
                           List<Cookie> cookies,
                           byte @Nullable [] byteData,
@@ -93,11 +97,13 @@ public class DefaultRequest implements Request {
                           long rangeOffset,
                           @Nullable Charset charset,
                           ChannelPoolPartitioning channelPoolPartitioning,
-                          NameResolver<InetAddress> nameResolver) {
+                          NameResolver<InetAddress> nameResolver,
+                          @Nullable BodyCompression bodyCompression) {
         this.method = method;
         this.uri = uri;
         this.address = address;
         this.localAddress = localAddress;
+        this.unixDomainSocket = unixDomainSocket;
         this.headers = headers;
         this.cookies = cookies;
         this.byteData = byteData;
@@ -119,6 +125,7 @@ public class DefaultRequest implements Request {
         this.charset = charset;
         this.channelPoolPartitioning = channelPoolPartitioning;
         this.nameResolver = nameResolver;
+        this.bodyCompression = bodyCompression;
     }
 
     @Override
@@ -146,6 +153,11 @@ public class DefaultRequest implements Request {
         return localAddress;
     }
 
+    @Override
+    public @Nullable String getUnixDomainSocket() {
+        return unixDomainSocket;
+    }
+
     @Override
     public HttpHeaders getHeaders() {
         return headers;
@@ -251,6 +263,11 @@ public class DefaultRequest implements Request {
         return nameResolver;
     }
 
+    @Override
+    public @Nullable BodyCompression getBodyCompression() {
+        return bodyCompression;
+    }
+
     @Override
     public List<Param> getQueryParams() {
         // lazy load
@@ -30,6 +30,8 @@
  */
 package org.asynchttpclient;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -148,4 +150,65 @@ public interface ListenableFuture<V> extends Future<V> {
             return future;
         }
     }
+
+    class CompletedSuccess<T> implements ListenableFuture<T> {
+
+        private final @Nullable T value;
+
+        public CompletedSuccess(@Nullable T value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public @Nullable T get() {
+            return value;
+        }
+
+        @Override
+        public @Nullable T get(long timeout, TimeUnit unit) {
+            return value;
+        }
+
+        @Override
+        public void done() {
+        }
+
+        @Override
+        public void abort(Throwable t) {
+        }
+
+        @Override
+        public void touch() {
+        }
+
+        @Override
+        public ListenableFuture<T> addListener(Runnable listener, Executor exec) {
+            if (exec != null) {
+                exec.execute(listener);
+            } else {
+                listener.run();
+            }
+            return this;
+        }
+
+        @Override
+        public CompletableFuture<T> toCompletableFuture() {
+            return CompletableFuture.completedFuture(value);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import java.util.Objects;
+
+/**
+ * A record class representing the per-host state held by an {@link AsyncHttpClient}: the partitions of its connection
+ * pool and of its per-host connection limiter, and how many of them were evicted once unused.
+ */
+public class PartitionStats {
+
+    public static final PartitionStats EMPTY = new PartitionStats(0, 0, 0, 0);
+
+    private final long poolPartitionCount;
+    private final long evictedPoolPartitionCount;
+    private final long semaphorePartitionCount;
+    private final long evictedSemaphorePartitionCount;
+
+    public PartitionStats(long poolPartitionCount, long evictedPoolPartitionCount,
+                          long semaphorePartitionCount, long evictedSemaphorePartitionCount) {
+        this.poolPartitionCount = poolPartitionCount;
+        this.evictedPoolPartitionCount = evictedPoolPartitionCount;
+        this.semaphorePartitionCount = semaphorePartitionCount;
+        this.evictedSemaphorePartitionCount = evictedSemaphorePartitionCount;
+    }
+
+    /**
+     * @return the number of partitions in the connection pool
+     */
+    public long getPoolPartitionCount() {
+        return poolPartitionCount;
+    }
+
+    /**
+     * @return the number of connection pool partitions that were evicted once left empty
+     */
+    public long getEvictedPoolPartitionCount() {
+        return evictedPoolPartitionCount;
+    }
+
+    /**
+     * @return the number of partitions the per-host connection limiter currently tracks
+     */
+    public long getSemaphorePartitionCount() {
+        return semaphorePartitionCount;
+    }
+
+    /**
+     * @return the number of per-host connection limiter partitions that were evicted once their connections were all closed
+     */
+    public long getEvictedSemaphorePartitionCount() {
+        return evictedSemaphorePartitionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "There are " + poolPartitionCount + " pool partitions and " + semaphorePartitionCount + " limiter partitions, " +
+                evictedPoolPartitionCount + " and " + evictedSemaphorePartitionCount + " were evicted.";
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PartitionStats that = (PartitionStats) o;
+        return poolPartitionCount == that.poolPartitionCount &&
+                evictedPoolPartitionCount == that.evictedPoolPartitionCount &&
+                semaphorePartitionCount == that.semaphorePartitionCount &&
+                evictedSemaphorePartitionCount == that.evictedSemaphorePartitionCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(poolPartitionCount, evictedPoolPartitionCount, semaphorePartitionCount, evictedSemaphorePartitionCount);
+    }
+}
@@ -21,6 +21,7 @@ import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.resolver.NameResolver;
 import org.asynchttpclient.channel.ChannelPoolPartitioning;
 import org.asynchttpclient.proxy.ProxyServer;
+import org.asynchttpclient.request.body.BodyCompression;
 import org.asynchttpclient.request.body.generator.BodyGenerator;
 import org.asynchttpclient.request.body.multipart.Part;
 import org.asynchttpclient.uri.Uri;
@@ -73,6 +74,13 @@ public interface Request {
      */
     @Nullable InetAddress getLocalAddress();
 
+    /**
+     * @return the path of the unix domain socket to connect to instead of uri's host and port, which are still used for the Host header
+     */
+    default @Nullable String getUnixDomainSocket() {
+        return null;
+    }
+
     /**
      * @return the HTTP headers
      */
@@ -183,6 +191,13 @@ public interface Request {
      */
     NameResolver<InetAddress> getNameResolver();
 
+    /**
+     * @return the coding to compress the request body with while it's being sent, or {@code null} to send it as is
+     */
+    default @Nullable BodyCompression getBodyCompression() {
+        return null;
+    }
+
     /**
      * @return a new request builder using this request as a prototype
      */
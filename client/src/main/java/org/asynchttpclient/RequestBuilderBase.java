@@ -23,6 +23,7 @@ import io.netty.resolver.NameResolver;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import org.asynchttpclient.channel.ChannelPoolPartitioning;
 import org.asynchttpclient.proxy.ProxyServer;
+import org.asynchttpclient.request.body.BodyCompression;
 import org.asynchttpclient.request.body.generator.BodyGenerator;
 import org.asynchttpclient.request.body.multipart.Part;
 import org.asynchttpclient.uri.Uri;
@@ -70,6 +71,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
     protected @Nullable Uri uri;
     protected @Nullable InetAddress address;
     protected @Nullable InetAddress localAddress;
+    protected @Nullable String unixDomainSocket;
     protected HttpHeaders headers;
     protected @Nullable ArrayList<Cookie> cookies;
     protected byte @Nullable [] byteData;
@@ -91,6 +93,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
     protected @Nullable Charset charset;
     protected ChannelPoolPartitioning channelPoolPartitioning = ChannelPoolPartitioning.PerHostChannelPoolPartitioning.INSTANCE;
     protected NameResolver<InetAddress> nameResolver = DEFAULT_NAME_RESOLVER;
+    protected @Nullable BodyCompression bodyCompression;
 
     protected RequestBuilderBase(String method, boolean disableUrlEncoding) {
         this(method, disableUrlEncoding, true);
@@ -112,6 +115,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
         uri = prototype.getUri();
         address = prototype.getAddress();
         localAddress = prototype.getLocalAddress();
+        unixDomainSocket = prototype.getUnixDomainSocket();
         headers = new DefaultHttpHeaders(validateHeaders);
         headers.add(prototype.getHeaders());
         if (isNonEmpty(prototype.getCookies())) {
@@ -140,6 +144,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
         charset = prototype.getCharset();
         channelPoolPartitioning = prototype.getChannelPoolPartitioning();
         nameResolver = prototype.getNameResolver();
+        bodyCompression = prototype.getBodyCompression();
     }
 
     @SuppressWarnings("unchecked")
@@ -166,6 +171,18 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
         return asDerivedType();
     }
 
+    /**
+     * Sends the request over a unix domain socket, such as the one of a local proxy or sidecar, instead of a TCP connection
+     * to the uri's host and port. This requires the epoll or kqueue native transport.
+     *
+     * @param unixDomainSocket the path of the socket
+     * @return this builder
+     */
+    public T setUnixDomainSocket(@Nullable String unixDomainSocket) {
+        this.unixDomainSocket = unixDomainSocket;
+        return asDerivedType();
+    }
+
     public T setVirtualHost(String virtualHost) {
         this.virtualHost = virtualHost;
         return asDerivedType();
@@ -547,6 +564,22 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
         return asDerivedType();
     }
 
+    /**
+     * Compress the request body on the fly with the given coding. The body is then sent chunked with a matching
+     * {@code Content-Encoding} header, whatever its original type.
+     *
+     * @param bodyCompression the coding to apply, or {@code null} to send the body as is
+     * @return this builder
+     * @throws IllegalStateException if the coding isn't available, see {@link BodyCompression#ensureAvailable()}
+     */
+    public T setBodyCompression(@Nullable BodyCompression bodyCompression) {
+        if (bodyCompression != null) {
+            bodyCompression.ensureAvailable();
+        }
+        this.bodyCompression = bodyCompression;
+        return asDerivedType();
+    }
+
     public T setSignatureCalculator(@Nullable SignatureCalculator signatureCalculator) {
         this.signatureCalculator = signatureCalculator;
         return asDerivedType();
@@ -582,6 +615,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
         rb.uri = uri;
         rb.address = address;
         rb.localAddress = localAddress;
+        rb.unixDomainSocket = unixDomainSocket;
         rb.byteData = byteData;
         rb.compositeByteData = compositeByteData;
         rb.stringData = stringData;
@@ -598,6 +632,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
         rb.charset = charset;
         rb.channelPoolPartitioning = channelPoolPartitioning;
         rb.nameResolver = nameResolver;
+        rb.bodyCompression = bodyCompression;
         Request unsignedRequest = rb.build();
         signatureCalculator.calculateAndAddSignature(unsignedRequest, rb);
         return rb;
@@ -641,6 +676,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
                 finalUri,
                 rb.address,
                 rb.localAddress,
+                rb.unixDomainSocket,
                 rb.headers,
                 cookiesCopy,
                 rb.byteData,
@@ -661,6 +697,7 @@ public abstract class RequestBuilderBase<T extends RequestBuilderBase<T>> {
                 rb.rangeOffset,
                 rb.charset,
                 rb.channelPoolPartitioning,
-                rb.nameResolver);
+                rb.nameResolver,
+                rb.bodyCompression);
     }
 }
@@ -0,0 +1,197 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
+import org.asynchttpclient.uri.Uri;
+import org.asynchttpclient.util.StringBuilderPool;
+import org.asynchttpclient.util.Utf8UrlEncoder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
+import static io.netty.handler.codec.http.HttpHeaderNames.HOST;
+import static java.util.Objects.requireNonNull;
+import static org.asynchttpclient.util.HttpUtils.ACCEPT_ALL_HEADER_VALUE;
+import static org.asynchttpclient.util.HttpUtils.hostHeader;
+import static org.asynchttpclient.util.MiscUtils.isNonEmpty;
+
+/**
+ * A precompiled request for calls that only differ by their path, query parameters, a few headers and their body.
+ * <p>
+ * The invariant part of the prototype request is compiled once: its URI is already encoded, its headers are converted
+ * into {@link AsciiString}s, that Netty copies as is when encoding the request, and the {@code Host} and {@code Accept}
+ * headers are computed upfront. {@link #newRequest(String, List, HttpHeaders, byte[])} then creates requests without
+ * going through a {@link RequestBuilder}.
+ * <p>
+ * The body of the prototype isn't used, as it's not always replayable, and neither is its signature calculator.
+ * The requests created without extra headers share the template's headers, which must not be modified.
+ */
+public final class RequestTemplate {
+
+    private final Request prototype;
+    private final String basePath;
+    private final @Nullable String baseQuery;
+    private final HttpHeaders headers;
+
+    public RequestTemplate(Request prototype) {
+        this.prototype = requireNonNull(prototype, "prototype");
+        Uri uri = prototype.getUri();
+        basePath = uri.getPath();
+        baseQuery = uri.getQuery();
+        headers = compileHeaders(prototype);
+    }
+
+    private static HttpHeaders compileHeaders(Request prototype) {
+        HttpHeaders compiled = new DefaultHttpHeaders();
+        Iterator<Map.Entry<CharSequence, CharSequence>> it = prototype.getHeaders().iteratorCharSequence();
+        while (it.hasNext()) {
+            Map.Entry<CharSequence, CharSequence> header = it.next();
+            compiled.add(preEncoded(header.getKey()), preEncoded(header.getValue()));
+        }
+        if (!compiled.contains(HOST)) {
+            String virtualHost = prototype.getVirtualHost();
+            compiled.set(HOST, preEncoded(virtualHost != null ? virtualHost : hostHeader(prototype.getUri())));
+        }
+        if (!compiled.contains(ACCEPT)) {
+            compiled.set(ACCEPT, ACCEPT_ALL_HEADER_VALUE);
+        }
+        return compiled;
+    }
+
+    private static CharSequence preEncoded(CharSequence value) {
+        if (value instanceof AsciiString) {
+            return value;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                // leave it to the encoder
+                return value;
+            }
+        }
+        return new AsciiString(value);
+    }
+
+    public Request getPrototype() {
+        return prototype;
+    }
+
+    public Request newRequest(String path) {
+        return newRequest(path, Collections.emptyList(), null, null);
+    }
+
+    public Request newRequest(String path, List<Param> queryParams) {
+        return newRequest(path, queryParams, null, null);
+    }
+
+    /**
+     * @param path        the path, appended to the prototype's one and encoded if needed
+     * @param queryParams the query parameters, appended to the prototype's query and encoded
+     * @param headers     the headers that are added to, or replace, the prototype's ones
+     * @param body        the body, if any
+     * @return a request based on this template
+     */
+    public Request newRequest(String path, List<Param> queryParams, @Nullable HttpHeaders headers, byte @Nullable [] body) {
+        Uri prototypeUri = prototype.getUri();
+        Uri uri = new Uri(prototypeUri.getScheme(),
+                prototypeUri.getUserInfo(),
+                prototypeUri.getHost(),
+                prototypeUri.getPort(),
+                path(path),
+                query(queryParams),
+                null);
+
+        HttpHeaders requestHeaders = this.headers;
+        if (headers != null && !headers.isEmpty()) {
+            requestHeaders = new DefaultHttpHeaders().set(this.headers).setAll(headers);
+        }
+
+        return new DefaultRequest(prototype.getMethod(),
+                uri,
+                prototype.getAddress(),
+                prototype.getLocalAddress(),
+                prototype.getUnixDomainSocket(),
+                requestHeaders,
+                prototype.getCookies(),
+                body,
+                null,
+                null,
+                null,
+                null,
+                null,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                prototype.getVirtualHost(),
+                prototype.getProxyServer(),
+                prototype.getRealm(),
+                null,
+                prototype.getFollowRedirect(),
+                prototype.getRequestTimeout(),
+                prototype.getReadTimeout(),
+                prototype.getRangeOffset(),
+                prototype.getCharset(),
+                prototype.getChannelPoolPartitioning(),
+                prototype.getNameResolver(),
+                prototype.getBodyCompression());
+    }
+
+    private String path(String path) {
+        String encodedPath = Utf8UrlEncoder.encodePath(path);
+        if (encodedPath.isEmpty()) {
+            return basePath;
+        } else if (basePath.isEmpty()) {
+            return encodedPath.charAt(0) == '/' ? encodedPath : '/' + encodedPath;
+        }
+
+        boolean baseSlash = basePath.charAt(basePath.length() - 1) == '/';
+        boolean pathSlash = encodedPath.charAt(0) == '/';
+        if (baseSlash && pathSlash) {
+            return basePath + encodedPath.substring(1);
+        } else if (baseSlash || pathSlash) {
+            return basePath + encodedPath;
+        } else {
+            return basePath + '/' + encodedPath;
+        }
+    }
+
+    private @Nullable String query(List<Param> queryParams) {
+        if (queryParams.isEmpty()) {
+            return baseQuery;
+        }
+
+        StringBuilder sb = StringBuilderPool.DEFAULT.stringBuilder();
+        if (isNonEmpty(baseQuery)) {
+            sb.append(baseQuery).append('&');
+        }
+        for (Param param : queryParams) {
+            Utf8UrlEncoder.encodeAndAppendQueryElement(sb, param.getName());
+            String value = param.getValue();
+            if (value != null) {
+                sb.append('=');
+                Utf8UrlEncoder.encodeAndAppendQueryElement(sb, value);
+            }
+            sb.append('&');
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+}
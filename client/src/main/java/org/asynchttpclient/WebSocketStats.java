@@ -0,0 +1,142 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import java.util.Objects;
+
+/**
+ * A record class representing the cumulated activity of the WebSockets of an {@link AsyncHttpClient}.
+ */
+public class WebSocketStats {
+
+    public static final WebSocketStats EMPTY = new WebSocketStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long missedPongCount;
+    private final long closedForMissedPongCount;
+    private final long uncompressedBytesSent;
+    private final long compressedBytesSent;
+    private final long compressionNanos;
+    private final long compressedBytesReceived;
+    private final long decompressedBytesReceived;
+    private final long decompressionNanos;
+
+    public WebSocketStats(long missedPongCount, long closedForMissedPongCount,
+                          long uncompressedBytesSent, long compressedBytesSent, long compressionNanos,
+                          long compressedBytesReceived, long decompressedBytesReceived, long decompressionNanos) {
+        this.missedPongCount = missedPongCount;
+        this.closedForMissedPongCount = closedForMissedPongCount;
+        this.uncompressedBytesSent = uncompressedBytesSent;
+        this.compressedBytesSent = compressedBytesSent;
+        this.compressionNanos = compressionNanos;
+        this.compressedBytesReceived = compressedBytesReceived;
+        this.decompressedBytesReceived = decompressedBytesReceived;
+        this.decompressionNanos = decompressionNanos;
+    }
+
+    /**
+     * @return the number of heartbeat pings that weren't answered in time
+     */
+    public long getMissedPongCount() {
+        return missedPongCount;
+    }
+
+    /**
+     * @return the number of WebSockets closed by the heartbeat because a ping wasn't answered in time
+     */
+    public long getClosedForMissedPongCount() {
+        return closedForMissedPongCount;
+    }
+
+    /**
+     * @return the payload size of the compressed frames that were sent, before compression
+     */
+    public long getUncompressedBytesSent() {
+        return uncompressedBytesSent;
+    }
+
+    /**
+     * @return the payload size of the compressed frames that were sent, after compression
+     */
+    public long getCompressedBytesSent() {
+        return compressedBytesSent;
+    }
+
+    /**
+     * @return the time spent compressing frames, in nanoseconds
+     */
+    public long getCompressionNanos() {
+        return compressionNanos;
+    }
+
+    /**
+     * @return the payload size of the compressed frames that were received, before decompression
+     */
+    public long getCompressedBytesReceived() {
+        return compressedBytesReceived;
+    }
+
+    /**
+     * @return the payload size of the compressed frames that were received, after decompression
+     */
+    public long getDecompressedBytesReceived() {
+        return decompressedBytesReceived;
+    }
+
+    /**
+     * @return the time spent decompressing frames, in nanoseconds
+     */
+    public long getDecompressionNanos() {
+        return decompressionNanos;
+    }
+
+    /**
+     * @return the number of bytes that compression saved on the wire, in both directions
+     */
+    public long getCompressionSavedBytes() {
+        return uncompressedBytesSent - compressedBytesSent + decompressedBytesReceived - compressedBytesReceived;
+    }
+
+    @Override
+    public String toString() {
+        return "WebSockets missed " + missedPongCount + " pongs, " + closedForMissedPongCount + " were closed for missed pongs, and compression saved " +
+                getCompressionSavedBytes() + " bytes in " + (compressionNanos + decompressionNanos) / 1_000_000 + " ms.";
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final WebSocketStats that = (WebSocketStats) o;
+        return missedPongCount == that.missedPongCount &&
+                closedForMissedPongCount == that.closedForMissedPongCount &&
+                uncompressedBytesSent == that.uncompressedBytesSent &&
+                compressedBytesSent == that.compressedBytesSent &&
+                compressionNanos == that.compressionNanos &&
+                compressedBytesReceived == that.compressedBytesReceived &&
+                decompressedBytesReceived == that.decompressedBytesReceived &&
+                decompressionNanos == that.decompressionNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(missedPongCount, closedForMissedPongCount, uncompressedBytesSent, compressedBytesSent, compressionNanos,
+                compressedBytesReceived, decompressedBytesReceived, decompressionNanos);
+    }
+}
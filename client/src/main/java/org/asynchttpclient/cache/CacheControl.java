@@ -0,0 +1,111 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.util.Locale;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CACHE_CONTROL;
+import static io.netty.handler.codec.http.HttpHeaderNames.PRAGMA;
+
+/**
+ * The directives of the <code>Cache-Control</code> header fields that matter to a private cache, see RFC 9111 section 5.2.
+ */
+final class CacheControl {
+
+    static final CacheControl EMPTY = new CacheControl(false, false, false, -1, -1);
+
+    final boolean noStore;
+    final boolean noCache;
+    final boolean onlyIfCached;
+    // in seconds, -1 when absent
+    final long maxAge;
+    final long minFresh;
+
+    private CacheControl(boolean noStore, boolean noCache, boolean onlyIfCached, long maxAge, long minFresh) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.onlyIfCached = onlyIfCached;
+        this.maxAge = maxAge;
+        this.minFresh = minFresh;
+    }
+
+    static CacheControl parse(HttpHeaders headers) {
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean onlyIfCached = false;
+        long maxAge = -1;
+        long minFresh = -1;
+        boolean found = false;
+
+        for (String value : headers.getAll(CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                int eq = directive.indexOf('=');
+                String name = (eq < 0 ? directive : directive.substring(0, eq)).trim().toLowerCase(Locale.ROOT);
+                String argument = eq < 0 ? "" : unquote(directive.substring(eq + 1).trim());
+                found = true;
+                switch (name) {
+                    case "no-store":
+                        noStore = true;
+                        break;
+                    case "no-cache":
+                        noCache = true;
+                        break;
+                    case "only-if-cached":
+                        onlyIfCached = true;
+                        break;
+                    case "max-age":
+                        maxAge = deltaSeconds(argument);
+                        break;
+                    case "min-fresh":
+                        minFresh = deltaSeconds(argument);
+                        break;
+                    default:
+                        // other directives don't apply to a private cache, or are implied by it never serving stale responses
+                }
+            }
+        }
+
+        // RFC 9111 section 5.4: Pragma is only considered when there's no Cache-Control
+        if (!found && headers.containsValue(PRAGMA, "no-cache", true)) {
+            noCache = true;
+        }
+
+        return noStore || noCache || onlyIfCached || maxAge >= 0 || minFresh >= 0
+                ? new CacheControl(noStore, noCache, onlyIfCached, maxAge, minFresh)
+                : EMPTY;
+    }
+
+    private static String unquote(String s) {
+        return s.length() > 1 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"' ? s.substring(1, s.length() - 1) : s;
+    }
+
+    /**
+     * RFC 9111 section 1.2.2: invalid values are treated as absent, and values that overflow as the greatest positive integer.
+     */
+    private static long deltaSeconds(String s) {
+        if (s.isEmpty()) {
+            return -1;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return -1;
+            }
+        }
+        return s.length() > 10 ? Integer.MAX_VALUE : Math.min(Long.parseLong(s), Integer.MAX_VALUE);
+    }
+}
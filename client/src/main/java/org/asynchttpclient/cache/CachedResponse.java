@@ -0,0 +1,267 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.AGE;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONNECTION;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpHeaderNames.DATE;
+import static io.netty.handler.codec.http.HttpHeaderNames.ETAG;
+import static io.netty.handler.codec.http.HttpHeaderNames.EXPIRES;
+import static io.netty.handler.codec.http.HttpHeaderNames.LAST_MODIFIED;
+import static io.netty.handler.codec.http.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.netty.handler.codec.http.HttpHeaderNames.VARY;
+
+/**
+ * A response stored by an {@link HttpCache}, along with what's needed to compute its freshness as described in RFC 9111 section 4.2.
+ * <br>
+ * Instances are immutable: the body is a read-only buffer, that may live on or off heap depending on the {@link HttpCacheStorage}.
+ */
+public final class CachedResponse {
+
+    // HttpHeaderNames.KEEP_ALIVE is deprecated, but the hop-by-hop header is still sent by some servers
+    private static final AsciiString KEEP_ALIVE = AsciiString.cached("keep-alive");
+
+    private final int statusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final ByteBuffer body;
+    private final Map<String, String> varyHeaders;
+    private final long requestTime;
+    private final long responseTime;
+    private final long freshnessLifetime;
+    private final long correctedInitialAge;
+    private final boolean noCache;
+    private final long size;
+
+    /**
+     * @param statusCode   the response status code
+     * @param statusText   the response status text
+     * @param headers      the response headers
+     * @param body         the response body
+     * @param varyHeaders  the values of the request headers nominated by the response's <code>Vary</code> header, by lower case name
+     * @param requestTime  the time the request was sent, in milliseconds since the epoch
+     * @param responseTime the time the response was received, in milliseconds since the epoch
+     */
+    public CachedResponse(int statusCode, String statusText, HttpHeaders headers, ByteBuffer body, Map<String, String> varyHeaders,
+                          long requestTime, long responseTime) {
+        this.statusCode = statusCode;
+        this.statusText = statusText;
+        this.headers = headers;
+        this.body = body.asReadOnlyBuffer();
+        this.varyHeaders = varyHeaders;
+        this.requestTime = requestTime;
+        this.responseTime = responseTime;
+
+        CacheControl cacheControl = CacheControl.parse(headers);
+        noCache = cacheControl.noCache;
+
+        long date = parseDate(headers.get(DATE), responseTime);
+        freshnessLifetime = freshnessLifetime(headers, cacheControl, date);
+
+        long apparentAge = Math.max(0, responseTime - date);
+        long responseDelay = responseTime - requestTime;
+        correctedInitialAge = Math.max(apparentAge, ageValue(headers) + responseDelay);
+
+        long size = this.body.remaining();
+        for (Map.Entry<String, String> header : headers) {
+            size += header.getKey().length() + header.getValue().length();
+        }
+        this.size = size;
+    }
+
+    private static long freshnessLifetime(HttpHeaders headers, CacheControl cacheControl, long date) {
+        if (cacheControl.maxAge >= 0) {
+            return cacheControl.maxAge * 1000;
+        }
+
+        String expires = headers.get(EXPIRES);
+        if (expires != null) {
+            // invalid dates, like "0", represent a time in the past
+            return Math.max(0, parseDate(expires, date) - date);
+        }
+
+        // RFC 9111 section 4.2.2: a typical heuristic is a fraction of the time since the last modification
+        long lastModified = parseDate(headers.get(LAST_MODIFIED), date);
+        return Math.max(0, (date - lastModified) / 10);
+    }
+
+    private static long parseDate(@Nullable String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        Date date = DateFormatter.parseHttpDate(value);
+        return date != null ? date.toInstant().toEpochMilli() : defaultValue;
+    }
+
+    private static long ageValue(HttpHeaders headers) {
+        String age = headers.get(AGE);
+        if (age != null) {
+            try {
+                return Math.max(0, Long.parseLong(age.trim())) * 1000;
+            } catch (NumberFormatException e) {
+                // ignore
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param responseHeaders the headers of a response
+     * @param requestHeaders  the headers of the request
+     * @return the request headers the response varies on, by lower case name, or null if it varies on everything
+     */
+    static @Nullable Map<String, String> varyHeaders(HttpHeaders responseHeaders, HttpHeaders requestHeaders) {
+        if (!responseHeaders.contains(VARY)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> varyHeaders = new LinkedHashMap<>();
+        for (String value : responseHeaders.getAll(VARY)) {
+            for (String name : value.split(",")) {
+                name = name.trim().toLowerCase(Locale.ROOT);
+                if ("*".equals(name)) {
+                    return null;
+                }
+                if (!name.isEmpty()) {
+                    varyHeaders.put(name, String.join(",", requestHeaders.getAll(name)));
+                }
+            }
+        }
+        return varyHeaders;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getStatusText() {
+        return statusText;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return a new read-only view of the body
+     */
+    public ByteBuffer getBody() {
+        return body.duplicate();
+    }
+
+    public Map<String, String> getVaryHeaders() {
+        return varyHeaders;
+    }
+
+    public long getRequestTime() {
+        return requestTime;
+    }
+
+    public long getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * @return the approximate memory footprint of this response, in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @param body the new body
+     * @return a copy of this response, with the given body
+     */
+    public CachedResponse withBody(ByteBuffer body) {
+        return new CachedResponse(statusCode, statusText, headers, body, varyHeaders, requestTime, responseTime);
+    }
+
+    /**
+     * RFC 9111 section 4.1: a stored response can only be used for a request that has the same values for the headers the response varies on.
+     */
+    boolean matches(HttpHeaders requestHeaders) {
+        for (Map.Entry<String, String> varyHeader : varyHeaders.entrySet()) {
+            if (!varyHeader.getValue().equals(String.join(",", requestHeaders.getAll(varyHeader.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the current age, in milliseconds, see RFC 9111 section 4.2.3
+     */
+    long currentAge(long now) {
+        return correctedInitialAge + Math.max(0, now - responseTime);
+    }
+
+    boolean isFresh(long now, CacheControl requestCacheControl) {
+        if (noCache || requestCacheControl.noCache) {
+            return false;
+        }
+        long age = currentAge(now);
+        if (requestCacheControl.maxAge >= 0 && age > requestCacheControl.maxAge * 1000) {
+            return false;
+        }
+        long remaining = freshnessLifetime - age;
+        return requestCacheControl.minFresh >= 0 ? remaining >= requestCacheControl.minFresh * 1000 : remaining > 0;
+    }
+
+    /**
+     * A response that can't be fresh and can't be validated is useless to a cache.
+     */
+    boolean isUsable() {
+        return !noCache && freshnessLifetime > 0 || hasValidators();
+    }
+
+    boolean hasValidators() {
+        return headers.contains(ETAG) || headers.contains(LAST_MODIFIED);
+    }
+
+    /**
+     * RFC 9111 section 4.3.4: the headers of a 304 response replace the stored ones, except for the framing ones.
+     *
+     * @param notModifiedHeaders the headers of the 304 response
+     * @param requestTime        the time the conditional request was sent
+     * @param responseTime       the time the 304 response was received
+     * @return the updated response
+     */
+    CachedResponse revalidated(HttpHeaders notModifiedHeaders, long requestTime, long responseTime) {
+        HttpHeaders updated = new DefaultHttpHeaders().set(headers);
+        for (String name : notModifiedHeaders.names()) {
+            if (!CONTENT_LENGTH.contentEqualsIgnoreCase(name)
+                    && !TRANSFER_ENCODING.contentEqualsIgnoreCase(name)
+                    && !CONNECTION.contentEqualsIgnoreCase(name)
+                    && !KEEP_ALIVE.contentEqualsIgnoreCase(name)) {
+                updated.set(name, notModifiedHeaders.getAll(name));
+            }
+        }
+        return new CachedResponse(statusCode, statusText, updated, body, varyHeaders, requestTime, responseTime);
+    }
+}
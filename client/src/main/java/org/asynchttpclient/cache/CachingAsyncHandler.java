@@ -0,0 +1,201 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.netty.request.NettyRequest;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
+
+/**
+ * Forwards everything to the user's handler while recording the response, and stores it once complete if it's storable.
+ * <br>
+ * When revalidating a stale response, a 304 isn't forwarded: the stored response is updated and replayed instead.
+ */
+final class CachingAsyncHandler<T> extends ForwardingAsyncHandler<T> {
+
+    private final HttpCache cache;
+    private final String key;
+    private final Request request;
+    private final AsyncHandler<T> delegate;
+    private final @Nullable CachedResponse stale;
+    private long requestTime = System.currentTimeMillis();
+    private boolean notModified;
+    private @Nullable HttpHeaders notModifiedHeaders;
+    private boolean storable;
+    private @Nullable HttpResponseStatus status;
+    private @Nullable HttpHeaders headers;
+    private byte[] body = new byte[0];
+    private int bodyLength;
+
+    CachingAsyncHandler(HttpCache cache, String key, Request request, AsyncHandler<T> delegate, @Nullable CachedResponse stale) {
+        super(delegate);
+        this.cache = cache;
+        this.key = key;
+        this.request = request;
+        this.delegate = delegate;
+        this.stale = stale;
+    }
+
+    /**
+     * Only the statuses that are heuristically cacheable and aren't redirects, which the redirect interceptor must always see.
+     */
+    private static boolean isStorable(int statusCode) {
+        switch (statusCode) {
+            case 200:
+            case 203:
+            case 204:
+            case 404:
+            case 405:
+            case 410:
+            case 414:
+            case 501:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean fitsMaxBodySize(@Nullable String contentLength) {
+        if (contentLength == null) {
+            return true;
+        }
+        try {
+            return Long.parseLong(contentLength.trim()) <= cache.getMaxBodySize();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private State record(State state) {
+        if (state == State.ABORT) {
+            // the response would be incomplete
+            storable = false;
+        }
+        return state;
+    }
+
+    @Override
+    public State onStatusReceived(HttpResponseStatus responseStatus) throws Exception {
+        // a retry starts over
+        notModified = false;
+        notModifiedHeaders = null;
+        headers = null;
+        bodyLength = 0;
+
+        if (stale != null && responseStatus.getStatusCode() == NOT_MODIFIED.code()) {
+            notModified = true;
+            return State.CONTINUE;
+        }
+
+        status = responseStatus;
+        storable = isStorable(responseStatus.getStatusCode()) && key.equals(HttpCache.key(responseStatus.getUri()));
+        return record(delegate.onStatusReceived(responseStatus));
+    }
+
+    @Override
+    public State onHeadersReceived(HttpHeaders responseHeaders) throws Exception {
+        if (notModified) {
+            notModifiedHeaders = responseHeaders;
+            return State.CONTINUE;
+        }
+
+        if (storable) {
+            headers = responseHeaders;
+            storable = !CacheControl.parse(responseHeaders).noStore && fitsMaxBodySize(responseHeaders.get(CONTENT_LENGTH));
+        }
+        return record(delegate.onHeadersReceived(responseHeaders));
+    }
+
+    @Override
+    public State onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception {
+        if (notModified) {
+            return State.CONTINUE;
+        }
+
+        if (storable) {
+            int length = bodyPart.length();
+            if (bodyLength + length > cache.getMaxBodySize()) {
+                storable = false;
+                body = new byte[0];
+            } else {
+                if (bodyLength + length > body.length) {
+                    body = Arrays.copyOf(body, Math.max(bodyLength + length, body.length * 2));
+                }
+                System.arraycopy(bodyPart.getBodyPartBytes(), 0, body, bodyLength, length);
+                bodyLength += length;
+            }
+        }
+        return record(delegate.onBodyPartReceived(bodyPart));
+    }
+
+    @Override
+    public State onTrailingHeadersReceived(HttpHeaders trailingHeaders) throws Exception {
+        if (notModified) {
+            return State.CONTINUE;
+        }
+        // trailers can't be replayed
+        storable = false;
+        return delegate.onTrailingHeadersReceived(trailingHeaders);
+    }
+
+    @Override
+    public void onThrowable(Throwable t) {
+        delegate.onThrowable(t);
+    }
+
+    @Override
+    public @Nullable T onCompleted() throws Exception {
+        long now = System.currentTimeMillis();
+
+        if (notModified && stale != null) {
+            cache.onNotModified();
+            CachedResponse revalidated = notModifiedHeaders != null ? stale.revalidated(notModifiedHeaders, requestTime, now) : stale;
+            cache.store(key, revalidated);
+            return HttpCache.replay(request.getUri(), revalidated, delegate, now);
+        }
+
+        HttpResponseStatus status = this.status;
+        HttpHeaders headers = this.headers;
+        if (storable && status != null && headers != null) {
+            Map<String, String> varyHeaders = CachedResponse.varyHeaders(headers, HttpCache.varyingHeaders(request));
+            if (varyHeaders != null) {
+                CachedResponse response = new CachedResponse(status.getStatusCode(), status.getStatusText(), headers,
+                        ByteBuffer.wrap(body, 0, bodyLength).slice(), varyHeaders, requestTime, now);
+                if (response.isUsable()) {
+                    cache.store(key, response);
+                }
+            }
+        }
+        return delegate.onCompleted();
+    }
+
+    @Override
+    public void onRequestSend(NettyRequest request) {
+        requestTime = System.currentTimeMillis();
+        super.onRequestSend(request);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.AsyncHandler.State;
+import org.asynchttpclient.ListenableFuture;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The future of one of the requests sharing a {@link CoalescingAsyncHandler}, that notifies the request's own handler.
+ * <br>
+ * The handler callbacks are made by the exchange's thread. The future can be cancelled or aborted from any thread, and then no longer
+ * notifies the handler. If a callback is being made at that time, the handler is only notified of the cancellation by the exchange's
+ * thread once it returns, so that its callbacks never overlap.
+ */
+final class CoalescedFuture<T> implements ListenableFuture<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescedFuture.class);
+
+    private final AsyncHandler<T> asyncHandler;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    private volatile @Nullable CoalescingAsyncHandler flight;
+    // guarded by this
+    private boolean finished;
+    private boolean delivering;
+    private @Nullable Throwable interruption;
+
+    CoalescedFuture(AsyncHandler<T> asyncHandler) {
+        this.asyncHandler = asyncHandler;
+    }
+
+    void setFlight(CoalescingAsyncHandler flight) {
+        this.flight = flight;
+    }
+
+    /**
+     * @return whether the handler still expects callbacks
+     */
+    synchronized boolean isActive() {
+        return !finished;
+    }
+
+    private synchronized boolean startCallback() {
+        if (finished) {
+            return false;
+        }
+        delivering = true;
+        return true;
+    }
+
+    private void endCallback() {
+        Throwable interruption;
+        synchronized (this) {
+            delivering = false;
+            interruption = this.interruption;
+            this.interruption = null;
+        }
+        if (interruption != null) {
+            // cancelled or aborted while the callback was made
+            notifyThrowable(interruption);
+        }
+    }
+
+    void deliver(CoalescingAsyncHandler.Callback callback) {
+        if (!startCallback()) {
+            return;
+        }
+        State state;
+        try {
+            state = callback.call(asyncHandler);
+        } catch (Throwable t) {
+            endCallback();
+            fail(t);
+            return;
+        }
+        endCallback();
+        if (state == State.ABORT) {
+            // same as a standalone request: the handler is done as soon as it aborts
+            complete();
+        }
+    }
+
+    void complete() {
+        if (!startCallback()) {
+            return;
+        }
+        T result;
+        try {
+            result = asyncHandler.onCompleted();
+        } catch (Throwable t) {
+            endCallback();
+            fail(t);
+            return;
+        }
+        boolean completed;
+        synchronized (this) {
+            delivering = false;
+            // the handler completed, so a cancellation in the meantime isn't notified anymore
+            interruption = null;
+            completed = !finished;
+            finished = true;
+        }
+        if (completed) {
+            future.complete(result);
+        }
+    }
+
+    void fail(Throwable t) {
+        if (interrupt(t)) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Finishes the handler with a failure: it's notified right away, or by the exchange's thread once the current callback returns.
+     *
+     * @return false if the handler was already finished
+     */
+    private boolean interrupt(Throwable t) {
+        synchronized (this) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            if (delivering) {
+                interruption = t;
+                return true;
+            }
+        }
+        notifyThrowable(t);
+        return true;
+    }
+
+    private void notifyThrowable(Throwable t) {
+        try {
+            asyncHandler.onThrowable(t);
+        } catch (Throwable t2) {
+            LOGGER.debug("asyncHandler.onThrowable", t2);
+        }
+    }
+
+    private void detached() {
+        CoalescingAsyncHandler flight = this.flight;
+        if (flight != null) {
+            flight.onSubscriberDetached();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!interrupt(new CancellationException())) {
+            return false;
+        }
+        boolean cancelled = future.cancel(false);
+        detached();
+        return cancelled;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        return future.get();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(timeout, unit);
+    }
+
+    @Override
+    public void done() {
+    }
+
+    @Override
+    public void abort(Throwable t) {
+        fail(t);
+        detached();
+    }
+
+    @Override
+    public void touch() {
+    }
+
+    @Override
+    public ListenableFuture<T> addListener(Runnable listener, Executor exec) {
+        if (exec == null) {
+            exec = Runnable::run;
+        }
+        future.whenCompleteAsync((r, v) -> listener.run(), exec);
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<T> toCompletableFuture() {
+        return future;
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescedFuture{" +
+                "asyncHandler=" + asyncHandler +
+                ", future=" + future +
+                '}';
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.ListenableFuture;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The handler of a single exchange shared by identical requests: it fans every callback out to the handlers of all of them.
+ * <br>
+ * Requests can only join until the response status is received, so that they all get the whole response without any of it being buffered.
+ * The same status, headers and body parts are then passed to every handler in turn.
+ * The connection events are only notified to the handler of the request that started the exchange.
+ */
+final class CoalescingAsyncHandler extends ForwardingAsyncHandler<Object> {
+
+    private final RequestCoalescer coalescer;
+    private final String key;
+    // guarded by this until the flight is closed, then only read
+    private final List<CoalescedFuture<?>> subscribers = new ArrayList<>();
+    private boolean closed;
+    private volatile @Nullable ListenableFuture<?> exchange;
+
+    CoalescingAsyncHandler(RequestCoalescer coalescer, String key, AsyncHandler<?> firstHandler) {
+        super(firstHandler);
+        this.coalescer = coalescer;
+        this.key = key;
+    }
+
+    /**
+     * @param subscriber the future of a request
+     * @return whether the request joined the exchange, false if it's too late
+     */
+    synchronized boolean join(CoalescedFuture<?> subscriber) {
+        if (closed) {
+            return false;
+        }
+        subscribers.add(subscriber);
+        subscriber.setFlight(this);
+        return true;
+    }
+
+    void setExchange(ListenableFuture<?> exchange) {
+        this.exchange = exchange;
+        onSubscriberDetached();
+    }
+
+    /**
+     * Once no request wants the response anymore, the exchange is cancelled.
+     */
+    void onSubscriberDetached() {
+        synchronized (this) {
+            for (CoalescedFuture<?> subscriber : subscribers) {
+                if (subscriber.isActive()) {
+                    return;
+                }
+            }
+            closed = true;
+        }
+        coalescer.remove(key, this);
+        ListenableFuture<?> exchange = this.exchange;
+        if (exchange != null && !exchange.isDone()) {
+            exchange.cancel(true);
+        }
+    }
+
+    private void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        coalescer.remove(key, this);
+    }
+
+    private State fanOut(Callback callback) {
+        boolean active = false;
+        for (CoalescedFuture<?> subscriber : subscribers) {
+            subscriber.deliver(callback);
+            active |= subscriber.isActive();
+        }
+        return active ? State.CONTINUE : State.ABORT;
+    }
+
+    @Override
+    public State onStatusReceived(HttpResponseStatus responseStatus) {
+        close();
+        return fanOut(handler -> handler.onStatusReceived(responseStatus));
+    }
+
+    @Override
+    public State onHeadersReceived(HttpHeaders headers) {
+        return fanOut(handler -> handler.onHeadersReceived(headers));
+    }
+
+    @Override
+    public State onBodyPartReceived(HttpResponseBodyPart bodyPart) {
+        return fanOut(handler -> handler.onBodyPartReceived(bodyPart));
+    }
+
+    @Override
+    public State onTrailingHeadersReceived(HttpHeaders headers) {
+        return fanOut(handler -> handler.onTrailingHeadersReceived(headers));
+    }
+
+    @Override
+    public void onThrowable(Throwable t) {
+        close();
+        for (CoalescedFuture<?> subscriber : subscribers) {
+            subscriber.fail(t);
+        }
+    }
+
+    @Override
+    public @Nullable Object onCompleted() {
+        close();
+        for (CoalescedFuture<?> subscriber : subscribers) {
+            subscriber.complete();
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    interface Callback {
+        State call(AsyncHandler<?> handler) throws Exception;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.asynchttpclient.util.MessageDigestUtils.pooledSha1MessageDigest;
+import static org.asynchttpclient.util.StringUtils.toHexString;
+
+/**
+ * A {@link HttpCacheStorage} that keeps each response in its own file, and evicts the least recently used files when the directory grows
+ * over its maximum size.
+ * <br>
+ * Files are written aside then moved in place, so readers never see partial responses, and the responses survive restarts.
+ * <br>
+ * As {@link #put(String, CachedResponse)} is called from the event loop once a response is complete, files are written, and the
+ * least recently used ones evicted, on the given {@link Executor}. Until then, the pending responses are served from memory.
+ */
+public final class DiskHttpCacheStorage implements HttpCacheStorage {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskHttpCacheStorage.class);
+
+    private static final int MAGIC = 0x41484331;
+    private static final String SUFFIX = ".cache";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxSize;
+    private final Executor executor;
+    private final AtomicLong size = new AtomicLong();
+    // the responses that haven't been written yet, only written if they're still there
+    private final Map<String, CachedResponse> pending = new ConcurrentHashMap<>();
+    // so a removal can't be undone by the write of a response that was pending
+    private final Object moveLock = new Object();
+
+    /**
+     * @param directory the directory where the responses are stored, created if it doesn't exist
+     * @param maxSize   the maximum size of the directory, in bytes
+     * @param executor  the executor writing the files, typically {@link org.asynchttpclient.AsyncHttpClientConfig#getBlockingIoExecutor()}
+     * @throws IOException if the directory can't be created or listed
+     */
+    public DiskHttpCacheStorage(Path directory, long maxSize, Executor executor) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        this.executor = executor;
+        // left over by a process that stopped while writing
+        for (Path tmp : files(TMP_SUFFIX)) {
+            delete(tmp);
+        }
+        for (Path file : files()) {
+            size.addAndGet(fileSize(file));
+        }
+    }
+
+    private Path file(String key) {
+        return directory.resolve(toHexString(pooledSha1MessageDigest().digest(key.getBytes(UTF_8))) + SUFFIX);
+    }
+
+    private List<Path> files() throws IOException {
+        return files(SUFFIX);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> list = new ArrayList<>();
+            files.filter(file -> file.getFileName().toString().endsWith(suffix)).forEach(list::add);
+            return list;
+        }
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public @Nullable CachedResponse get(String key) {
+        CachedResponse pendingResponse = pending.get(key);
+        if (pendingResponse != null) {
+            return pendingResponse;
+        }
+        Path file = file(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            CachedResponse response = read(in, key, Files.size(file));
+            if (response != null) {
+                // the modification time orders the files for eviction
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return response;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // a corrupted file, e.g. truncated by a crash or tampered with, is a miss
+            LOGGER.debug("Failed to read cached response from {}", file, e);
+            delete(file);
+            return null;
+        }
+    }
+
+    private static @Nullable CachedResponse read(DataInputStream in, String key, long fileSize) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a cached response");
+        }
+        if (!key.equals(readString(in, fileSize))) {
+            // another key with the same hash
+            return null;
+        }
+        int statusCode = in.readInt();
+        String statusText = readString(in, fileSize);
+        long requestTime = in.readLong();
+        long responseTime = in.readLong();
+
+        HttpHeaders headers = new DefaultHttpHeaders();
+        for (int i = in.readInt(); i > 0; i--) {
+            headers.add(readString(in, fileSize), readString(in, fileSize));
+        }
+
+        Map<String, String> varyHeaders = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            varyHeaders.put(readString(in, fileSize), readString(in, fileSize));
+        }
+
+        byte[] body = readBytes(in, fileSize);
+        return new CachedResponse(statusCode, statusText, headers, ByteBuffer.wrap(body), varyHeaders, requestTime, responseTime);
+    }
+
+    private static String readString(DataInputStream in, long fileSize) throws IOException {
+        return new String(readBytes(in, fileSize), UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in, long fileSize) throws IOException {
+        int length = in.readInt();
+        // don't allocate for a corrupted length
+        if (length < 0 || length > fileSize) {
+            throw new IOException("Invalid length " + length + " in a file of " + fileSize + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        pending.put(key, response);
+        try {
+            executor.execute(() -> store(key, response));
+        } catch (RejectedExecutionException e) {
+            pending.remove(key, response);
+            LOGGER.debug("Failed to schedule the write of cached response {}", key, e);
+        }
+    }
+
+    private void store(String key, CachedResponse response) {
+        if (pending.get(key) != response) {
+            // replaced or removed in the meantime
+            return;
+        }
+        Path file = file(key);
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(directory, null, TMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                write(out, key, response);
+            }
+            long newSize = Files.size(tmp);
+            synchronized (moveLock) {
+                if (!pending.remove(key, response)) {
+                    return;
+                }
+                long previousSize = Files.exists(file) ? fileSize(file) : 0;
+                Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+                tmp = null;
+                size.addAndGet(newSize - previousSize);
+            }
+            if (size.get() > maxSize) {
+                evict();
+            }
+        } catch (IOException e) {
+            pending.remove(key, response);
+            LOGGER.debug("Failed to write cached response to {}", file, e);
+        } finally {
+            if (tmp != null) {
+                delete(tmp);
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, String key, CachedResponse response) throws IOException {
+        out.writeInt(MAGIC);
+        writeString(out, key);
+        out.writeInt(response.getStatusCode());
+        writeString(out, response.getStatusText());
+        out.writeLong(response.getRequestTime());
+        out.writeLong(response.getResponseTime());
+
+        out.writeInt(response.getHeaders().size());
+        for (Map.Entry<String, String> header : response.getHeaders()) {
+            writeString(out, header.getKey());
+            writeString(out, header.getValue());
+        }
+
+        out.writeInt(response.getVaryHeaders().size());
+        for (Map.Entry<String, String> varyHeader : response.getVaryHeaders().entrySet()) {
+            writeString(out, varyHeader.getKey());
+            writeString(out, varyHeader.getValue());
+        }
+
+        ByteBuffer body = response.getBody();
+        out.writeInt(body.remaining());
+        if (body.hasArray()) {
+            out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+        } else {
+            byte[] bytes = new byte[body.remaining()];
+            body.get(bytes);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private synchronized void evict() throws IOException {
+        if (size.get() <= maxSize) {
+            return;
+        }
+        List<Path> files = files();
+        files.sort(Comparator.comparingLong(DiskHttpCacheStorage::lastModified));
+        for (Path file : files) {
+            if (size.get() <= maxSize) {
+                break;
+            }
+            delete(file);
+        }
+    }
+
+    private void delete(Path file) {
+        long fileSize = fileSize(file);
+        try {
+            if (Files.deleteIfExists(file) && file.getFileName().toString().endsWith(SUFFIX)) {
+                size.addAndGet(-fileSize);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to delete cached response {}", file, e);
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        synchronized (moveLock) {
+            pending.remove(key);
+            delete(file(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (moveLock) {
+            pending.clear();
+        }
+        try {
+            for (Path file : files()) {
+                delete(file);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to list cached responses in {}", directory, e);
+        }
+    }
+
+    /**
+     * @return the size of the stored responses, in bytes
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DiskHttpCacheStorage{" +
+                "directory=" + directory +
+                ", size=" + size +
+                ", maxSize=" + maxSize +
+                '}';
+    }
+}
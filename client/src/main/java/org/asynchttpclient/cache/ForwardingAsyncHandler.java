@@ -0,0 +1,124 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.channel.Channel;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.handler.ProgressAsyncHandler;
+import org.asynchttpclient.netty.request.NettyRequest;
+
+import javax.net.ssl.SSLSession;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Forwards the connection and progress events to the handler of the user, so that wrapping it doesn't hide them.
+ */
+abstract class ForwardingAsyncHandler<T> implements ProgressAsyncHandler<T> {
+
+    private final AsyncHandler<?> eventHandler;
+
+    ForwardingAsyncHandler(AsyncHandler<?> eventHandler) {
+        this.eventHandler = eventHandler;
+    }
+
+    @Override
+    public State onHeadersWritten() {
+        return eventHandler instanceof ProgressAsyncHandler ? ((ProgressAsyncHandler<?>) eventHandler).onHeadersWritten() : State.CONTINUE;
+    }
+
+    @Override
+    public State onContentWritten() {
+        return eventHandler instanceof ProgressAsyncHandler ? ((ProgressAsyncHandler<?>) eventHandler).onContentWritten() : State.CONTINUE;
+    }
+
+    @Override
+    public State onContentWriteProgress(long amount, long current, long total) {
+        return eventHandler instanceof ProgressAsyncHandler
+                ? ((ProgressAsyncHandler<?>) eventHandler).onContentWriteProgress(amount, current, total)
+                : State.CONTINUE;
+    }
+
+    @Override
+    public void onHostnameResolutionAttempt(String name) {
+        eventHandler.onHostnameResolutionAttempt(name);
+    }
+
+    @Override
+    public void onHostnameResolutionSuccess(String name, List<InetSocketAddress> addresses) {
+        eventHandler.onHostnameResolutionSuccess(name, addresses);
+    }
+
+    @Override
+    public void onHostnameResolutionFailure(String name, Throwable cause) {
+        eventHandler.onHostnameResolutionFailure(name, cause);
+    }
+
+    @Override
+    public void onTcpConnectAttempt(InetSocketAddress remoteAddress) {
+        eventHandler.onTcpConnectAttempt(remoteAddress);
+    }
+
+    @Override
+    public void onTcpConnectSuccess(InetSocketAddress remoteAddress, Channel connection) {
+        eventHandler.onTcpConnectSuccess(remoteAddress, connection);
+    }
+
+    @Override
+    public void onTcpConnectFailure(InetSocketAddress remoteAddress, Throwable cause) {
+        eventHandler.onTcpConnectFailure(remoteAddress, cause);
+    }
+
+    @Override
+    public void onTlsHandshakeAttempt() {
+        eventHandler.onTlsHandshakeAttempt();
+    }
+
+    @Override
+    public void onTlsHandshakeSuccess(SSLSession sslSession) {
+        eventHandler.onTlsHandshakeSuccess(sslSession);
+    }
+
+    @Override
+    public void onTlsHandshakeFailure(Throwable cause) {
+        eventHandler.onTlsHandshakeFailure(cause);
+    }
+
+    @Override
+    public void onConnectionPoolAttempt() {
+        eventHandler.onConnectionPoolAttempt();
+    }
+
+    @Override
+    public void onConnectionPooled(Channel connection) {
+        eventHandler.onConnectionPooled(connection);
+    }
+
+    @Override
+    public void onConnectionOffer(Channel connection) {
+        eventHandler.onConnectionOffer(connection);
+    }
+
+    @Override
+    public void onRequestSend(NettyRequest request) {
+        eventHandler.onRequestSend(request);
+    }
+
+    @Override
+    public void onRetry() {
+        eventHandler.onRetry();
+    }
+}
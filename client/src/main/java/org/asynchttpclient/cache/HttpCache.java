@@ -0,0 +1,265 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.RequestBuilder;
+import org.asynchttpclient.netty.EagerResponseBodyPart;
+import org.asynchttpclient.netty.NettyResponseStatus;
+import org.asynchttpclient.netty.request.NettyRequestSender;
+import org.asynchttpclient.uri.Uri;
+import org.asynchttpclient.ws.WebSocketUpgradeHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.AGE;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpHeaderNames.COOKIE;
+import static io.netty.handler.codec.http.HttpHeaderNames.ETAG;
+import static io.netty.handler.codec.http.HttpHeaderNames.IF_MATCH;
+import static io.netty.handler.codec.http.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.netty.handler.codec.http.HttpHeaderNames.IF_NONE_MATCH;
+import static io.netty.handler.codec.http.HttpHeaderNames.IF_RANGE;
+import static io.netty.handler.codec.http.HttpHeaderNames.IF_UNMODIFIED_SINCE;
+import static io.netty.handler.codec.http.HttpHeaderNames.LAST_MODIFIED;
+import static io.netty.handler.codec.http.HttpHeaderNames.RANGE;
+import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static org.asynchttpclient.util.HttpConstants.Methods.DELETE;
+import static org.asynchttpclient.util.HttpConstants.Methods.GET;
+import static org.asynchttpclient.util.HttpConstants.Methods.PATCH;
+import static org.asynchttpclient.util.HttpConstants.Methods.POST;
+import static org.asynchttpclient.util.HttpConstants.Methods.PUT;
+
+/**
+ * A private HTTP cache, as described in RFC 9111, that sits in front of the request sender.
+ * <br>
+ * Only GET responses are stored. A fresh stored response is served without any network access, a stale one is revalidated with a conditional
+ * request built from its <code>ETag</code> and <code>Last-Modified</code> headers, and served again if the server answers with a 304.
+ * Requests that are already conditional or ranged, and WebSocket upgrades, bypass the cache. Requests with unsafe methods invalidate
+ * the response stored for their URI.
+ * <br>
+ * Stored responses are replayed to the {@link AsyncHandler} in the calling thread, in body parts the size of the ones the codec decodes
+ * by default.
+ */
+public final class HttpCache {
+
+    public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+    private static final int REPLAYED_PART_SIZE = 8 * 1024;
+
+    private final HttpCacheStorage storage;
+    private final int maxBodySize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public HttpCache(HttpCacheStorage storage) {
+        this(storage, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * @param storage     where the responses are stored
+     * @param maxBodySize the maximum body size of the stored responses, in bytes
+     */
+    public HttpCache(HttpCacheStorage storage, int maxBodySize) {
+        this.storage = storage;
+        this.maxBodySize = maxBodySize;
+    }
+
+    public HttpCacheStorage getStorage() {
+        return storage;
+    }
+
+    int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * @return the number of requests that were served a fresh stored response
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of cacheable requests that had no usable stored response
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of conditional requests that were sent to revalidate a stale stored response
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    /**
+     * @return the number of revalidations that the server answered with a 304, and that were served the stored response
+     */
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * Serves the request from the cache when possible, and sends it otherwise.
+     *
+     * @param request       the request
+     * @param asyncHandler  the handler
+     * @param requestSender the sender used on cache misses and revalidations
+     * @param <T>           the type of the value produced by the handler
+     * @return the future of the value produced by the handler
+     */
+    public <T> ListenableFuture<T> execute(Request request, AsyncHandler<T> asyncHandler, NettyRequestSender requestSender) {
+        String method = request.getMethod();
+        if (!GET.equals(method)) {
+            if (POST.equals(method) || PUT.equals(method) || DELETE.equals(method) || PATCH.equals(method)) {
+                // RFC 9111 section 4.4
+                storage.remove(key(request.getUri()));
+            }
+            return requestSender.sendRequest(request, asyncHandler, null);
+        }
+
+        HttpHeaders requestHeaders = request.getHeaders();
+        if (asyncHandler instanceof WebSocketUpgradeHandler || requestHeaders.contains(RANGE) || requestHeaders.contains(IF_NONE_MATCH)
+                || requestHeaders.contains(IF_MODIFIED_SINCE) || requestHeaders.contains(IF_MATCH) || requestHeaders.contains(IF_UNMODIFIED_SINCE)
+                || requestHeaders.contains(IF_RANGE)) {
+            return requestSender.sendRequest(request, asyncHandler, null);
+        }
+
+        CacheControl cacheControl = CacheControl.parse(requestHeaders);
+        if (cacheControl.noStore) {
+            return requestSender.sendRequest(request, asyncHandler, null);
+        }
+
+        String key = key(request.getUri());
+        long now = System.currentTimeMillis();
+        CachedResponse stored = storage.get(key);
+        if (stored != null && !stored.matches(varyingHeaders(request))) {
+            stored = null;
+        }
+
+        if (stored != null && stored.isFresh(now, cacheControl)) {
+            hits.increment();
+            return replayedFuture(request.getUri(), stored, asyncHandler, now);
+        }
+
+        if (cacheControl.onlyIfCached) {
+            misses.increment();
+            CachedResponse gatewayTimeout = new CachedResponse(GATEWAY_TIMEOUT.code(), GATEWAY_TIMEOUT.reasonPhrase(),
+                    new DefaultHttpHeaders().set(CONTENT_LENGTH, 0), Unpooled.EMPTY_BUFFER.nioBuffer(), Collections.emptyMap(), now, now);
+            return replayedFuture(request.getUri(), gatewayTimeout, asyncHandler, now);
+        }
+
+        if (stored != null && stored.hasValidators()) {
+            revalidations.increment();
+            RequestBuilder conditional = request.toBuilder();
+            String etag = stored.getHeaders().get(ETAG);
+            if (etag != null) {
+                conditional.setHeader(IF_NONE_MATCH, etag);
+            }
+            String lastModified = stored.getHeaders().get(LAST_MODIFIED);
+            if (lastModified != null) {
+                conditional.setHeader(IF_MODIFIED_SINCE, lastModified);
+            }
+            return requestSender.sendRequest(conditional.build(), new CachingAsyncHandler<>(this, key, request, asyncHandler, stored), null);
+        }
+
+        misses.increment();
+        return requestSender.sendRequest(request, new CachingAsyncHandler<>(this, key, request, asyncHandler, null), null);
+    }
+
+    static String key(Uri uri) {
+        return uri.toUrl();
+    }
+
+    /**
+     * The cookies of a request are only turned into a header when it's sent, but a response may vary on them.
+     */
+    static HttpHeaders varyingHeaders(Request request) {
+        if (request.getCookies().isEmpty() || request.getHeaders().contains(COOKIE)) {
+            return request.getHeaders();
+        }
+        return new DefaultHttpHeaders().set(request.getHeaders()).set(COOKIE, ClientCookieEncoder.LAX.encode(request.getCookies()));
+    }
+
+    void store(String key, CachedResponse response) {
+        storage.put(key, response);
+    }
+
+    void onNotModified() {
+        notModified.increment();
+    }
+
+    private static <T> ListenableFuture<T> replayedFuture(Uri uri, CachedResponse response, AsyncHandler<T> asyncHandler, long now) {
+        try {
+            return new ListenableFuture.CompletedSuccess<>(replay(uri, response, asyncHandler, now));
+        } catch (Throwable t) {
+            asyncHandler.onThrowable(t);
+            return new ListenableFuture.CompletedFailure<>(t);
+        }
+    }
+
+    /**
+     * Notifies the handler of a stored response, as if it was received, until it aborts.
+     *
+     * @return the value produced by the handler
+     */
+    static <T> @Nullable T replay(Uri uri, CachedResponse response, AsyncHandler<T> asyncHandler, long now) throws Exception {
+        HttpHeaders headers = new DefaultHttpHeaders().set(response.getHeaders()).set(AGE, response.currentAge(now) / 1000);
+        HttpResponseStatus status = HttpResponseStatus.valueOf(response.getStatusCode(), response.getStatusText());
+
+        if (asyncHandler.onStatusReceived(new NettyResponseStatus(uri, new DefaultHttpResponse(HTTP_1_1, status, headers), null)) != AsyncHandler.State.ABORT
+                && asyncHandler.onHeadersReceived(headers) != AsyncHandler.State.ABORT) {
+            ByteBuffer body = response.getBody();
+            while (body.hasRemaining()) {
+                ByteBuffer part = body.slice();
+                part.limit(Math.min(part.remaining(), REPLAYED_PART_SIZE));
+                body.position(body.position() + part.remaining());
+                if (asyncHandler.onBodyPartReceived(new EagerResponseBodyPart(Unpooled.wrappedBuffer(part), !body.hasRemaining()))
+                        == AsyncHandler.State.ABORT) {
+                    break;
+                }
+            }
+        }
+        // as with a received response, the handler completes even if it aborted
+        return asyncHandler.onCompleted();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCache{" +
+                "storage=" + storage +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", revalidations=" + revalidations +
+                ", notModified=" + notModified +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Where an {@link HttpCache} stores its responses.
+ * <br>
+ * Implementations must be thread safe, and are free to evict responses at any time.
+ * They should never throw: a response that can't be read is a miss, and a response that can't be written is simply not stored.
+ * <br>
+ * {@link #put(String, CachedResponse)} is called from the event loop once a response has been received, so it must not block:
+ * implementations writing to a slow medium hand the writes over to another thread, like {@link DiskHttpCacheStorage}.
+ *
+ * @see InMemoryHttpCacheStorage
+ * @see DiskHttpCacheStorage
+ * @see TieredHttpCacheStorage
+ */
+public interface HttpCacheStorage {
+
+    /**
+     * @param key the cache key
+     * @return the response stored with the given key, or null if there's none
+     */
+    @Nullable
+    CachedResponse get(String key);
+
+    /**
+     * Stores a response, replacing the one previously stored with the same key, if any.
+     *
+     * @param key      the cache key
+     * @param response the response
+     */
+    void put(String key, CachedResponse response);
+
+    /**
+     * @param key the cache key
+     */
+    void remove(String key);
+
+    /**
+     * Removes all the stored responses.
+     */
+    void clear();
+}
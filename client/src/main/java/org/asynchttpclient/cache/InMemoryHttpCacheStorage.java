@@ -0,0 +1,123 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A {@link HttpCacheStorage} that keeps the responses in memory, and evicts the least recently used ones when it grows over its maximum size.
+ * <br>
+ * When off heap, the bodies are copied into direct buffers, so that large cached bodies don't weigh on the garbage collector.
+ */
+public final class InMemoryHttpCacheStorage implements HttpCacheStorage {
+
+    private final long maxSize;
+    private final boolean offHeap;
+    private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * @param maxSize the maximum size of the stored responses, in bytes
+     */
+    public InMemoryHttpCacheStorage(long maxSize) {
+        this(maxSize, false);
+    }
+
+    /**
+     * @param maxSize the maximum size of the stored responses, in bytes
+     * @param offHeap whether the bodies are stored off heap
+     */
+    public InMemoryHttpCacheStorage(long maxSize, boolean offHeap) {
+        this.maxSize = maxSize;
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public synchronized @Nullable CachedResponse get(String key) {
+        return responses.get(key);
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        if (response.getSize() > maxSize) {
+            remove(key);
+            return;
+        }
+
+        if (offHeap) {
+            ByteBuffer body = response.getBody();
+            ByteBuffer direct = ByteBuffer.allocateDirect(body.remaining());
+            direct.put(body).flip();
+            response = response.withBody(direct);
+        }
+
+        synchronized (this) {
+            CachedResponse previous = responses.put(key, response);
+            if (previous != null) {
+                size -= previous.getSize();
+            }
+            size += response.getSize();
+
+            Iterator<CachedResponse> it = responses.values().iterator();
+            while (size > maxSize && it.hasNext()) {
+                size -= it.next().getSize();
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        CachedResponse previous = responses.remove(key);
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        responses.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the size of the stored responses, in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of stored responses
+     */
+    public synchronized int getCount() {
+        return responses.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "InMemoryHttpCacheStorage{" +
+                "count=" + responses.size() +
+                ", size=" + size +
+                ", maxSize=" + maxSize +
+                ", offHeap=" + offHeap +
+                '}';
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Realm;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.ws.WebSocketUpgradeHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT_LANGUAGE;
+import static io.netty.handler.codec.http.HttpHeaderNames.AUTHORIZATION;
+import static io.netty.handler.codec.http.HttpHeaderNames.COOKIE;
+import static io.netty.handler.codec.http.HttpHeaderNames.RANGE;
+import static org.asynchttpclient.util.HttpConstants.Methods.GET;
+import static org.asynchttpclient.util.HttpConstants.Methods.HEAD;
+
+/**
+ * Coalesces identical GET and HEAD requests that are in flight at the same time, so that they share a single exchange.
+ * <br>
+ * Two requests are identical when they have the same method, URI, values for the headers that the responses may vary on,
+ * virtual host, address, realm, and user supplied key. Requests with a body, or with a proxy server, are never coalesced. A request joins the exchange of an identical one until the latter receives its response status:
+ * then, the status, headers and body parts are passed to the handlers of all the requests, in turn.
+ * <br>
+ * Only the handler of the request that started an exchange is notified of the connection events. A request whose handler aborts,
+ * or whose future is cancelled, stops receiving callbacks, and the exchange is cancelled once none of its requests need it.
+ */
+public final class RequestCoalescer {
+
+    /**
+     * The request headers that the responses commonly vary on.
+     */
+    public static final List<CharSequence> DEFAULT_VARYING_HEADERS = Arrays.asList(ACCEPT, ACCEPT_ENCODING, ACCEPT_LANGUAGE, AUTHORIZATION, COOKIE, RANGE);
+
+    private final List<String> varyingHeaders;
+    private final Function<Request, @Nullable String> keyFunction;
+    private final ConcurrentMap<String, CoalescingAsyncHandler> flights = new ConcurrentHashMap<>();
+    private final LongAdder exchanges = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public RequestCoalescer() {
+        this(DEFAULT_VARYING_HEADERS, request -> "");
+    }
+
+    /**
+     * @param varyingHeaders the names of the request headers that must have the same values in identical requests
+     * @param keyFunction    computes the user supplied part of the key of a request, or null if the request must not be coalesced
+     */
+    public RequestCoalescer(Collection<? extends CharSequence> varyingHeaders, Function<Request, @Nullable String> keyFunction) {
+        List<String> names = new ArrayList<>(varyingHeaders.size());
+        for (CharSequence name : varyingHeaders) {
+            names.add(name.toString());
+        }
+        this.varyingHeaders = names;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return the number of exchanges started by the coalescer
+     */
+    public long getExchangeCount() {
+        return exchanges.sum();
+    }
+
+    /**
+     * @return the number of requests that joined the exchange of an identical one
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Joins the exchange of an identical request, or starts a new one.
+     *
+     * @param request      the request
+     * @param asyncHandler the handler
+     * @param sender       the sender used to start new exchanges
+     * @param <T>          the type of the value produced by the handler
+     * @return the future of the value produced by the handler
+     */
+    public <T> ListenableFuture<T> execute(Request request, AsyncHandler<T> asyncHandler, Sender sender) {
+        String key = key(request, asyncHandler);
+        if (key == null) {
+            return sender.send(request, asyncHandler);
+        }
+
+        CoalescedFuture<T> future = new CoalescedFuture<>(asyncHandler);
+        for (;;) {
+            CoalescingAsyncHandler flight = flights.get(key);
+            if (flight != null) {
+                if (flight.join(future)) {
+                    coalesced.increment();
+                    return future;
+                }
+                // too late to join, the flight is about to leave the map
+                flights.remove(key, flight);
+                continue;
+            }
+
+            flight = new CoalescingAsyncHandler(this, key, asyncHandler);
+            flight.join(future);
+            if (flights.putIfAbsent(key, flight) == null) {
+                exchanges.increment();
+                try {
+                    flight.setExchange(sender.send(request, flight));
+                } catch (Throwable t) {
+                    flight.onThrowable(t);
+                }
+                return future;
+            }
+        }
+    }
+
+    private @Nullable String key(Request request, AsyncHandler<?> asyncHandler) {
+        String method = request.getMethod();
+        if (!GET.equals(method) && !HEAD.equals(method) || asyncHandler instanceof WebSocketUpgradeHandler
+                || hasBody(request) || request.getProxyServer() != null) {
+            return null;
+        }
+        String userKey = keyFunction.apply(request);
+        if (userKey == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(method).append(' ').append(request.getUri().toUrl());
+        for (String name : varyingHeaders) {
+            sb.append('\n').append(name).append(':');
+            List<String> values = request.getHeaders().getAll(name);
+            for (int i = 0; i < values.size(); i++) {
+                sb.append(i == 0 ? "" : ",").append(values.get(i));
+            }
+            if (COOKIE.contentEqualsIgnoreCase(name) && !request.getCookies().isEmpty()) {
+                // the cookies of a request are only turned into a header when it's sent
+                sb.append(values.isEmpty() ? "" : ";").append(ClientCookieEncoder.LAX.encode(request.getCookies()));
+            }
+        }
+        // everything else that changes where the request goes, or what it asks for
+        sb.append('\n').append(request.getVirtualHost())
+                .append('\n').append(request.getAddress())
+                .append('\n').append(request.getUnixDomainSocket())
+                .append('\n').append(request.getFollowRedirect())
+                .append('\n').append(request.getRangeOffset());
+        Realm realm = request.getRealm();
+        if (realm != null) {
+            sb.append('\n').append(realm.getScheme()).append(' ').append(realm.getPrincipal()).append(':').append(realm.getPassword());
+        }
+        return sb.append('\n').append(userKey).toString();
+    }
+
+    /**
+     * GET requests may have a body too, eg for search APIs, and then their responses depend on it.
+     */
+    private static boolean hasBody(Request request) {
+        return request.getStringData() != null
+                || request.getByteData() != null
+                || request.getCompositeByteData() != null
+                || request.getByteBufferData() != null
+                || request.getStreamData() != null
+                || request.getBodyGenerator() != null
+                || request.getFile() != null
+                || !request.getFormParams().isEmpty()
+                || !request.getBodyParts().isEmpty();
+    }
+
+    void remove(String key, CoalescingAsyncHandler flight) {
+        flights.remove(key, flight);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestCoalescer{" +
+                "inFlight=" + flights.size() +
+                ", exchanges=" + exchanges +
+                ", coalesced=" + coalesced +
+                '}';
+    }
+
+    /**
+     * Sends the requests that start new exchanges.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        <T> ListenableFuture<T> send(Request request, AsyncHandler<T> asyncHandler);
+    }
+}
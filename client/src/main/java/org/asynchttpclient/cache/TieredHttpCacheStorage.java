@@ -0,0 +1,72 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link HttpCacheStorage} made of a small and fast first tier, typically in memory, in front of a larger second tier, typically on disk.
+ * <br>
+ * Responses are written to both tiers, and the ones only found in the second tier are promoted to the first one.
+ */
+public final class TieredHttpCacheStorage implements HttpCacheStorage {
+
+    private final HttpCacheStorage first;
+    private final HttpCacheStorage second;
+
+    public TieredHttpCacheStorage(HttpCacheStorage first, HttpCacheStorage second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public @Nullable CachedResponse get(String key) {
+        CachedResponse response = first.get(key);
+        if (response == null) {
+            response = second.get(key);
+            if (response != null) {
+                first.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        first.put(key, response);
+        second.put(key, response);
+    }
+
+    @Override
+    public void remove(String key) {
+        first.remove(key);
+        second.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        first.clear();
+        second.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "TieredHttpCacheStorage{" +
+                "first=" + first +
+                ", second=" + second +
+                '}';
+    }
+}
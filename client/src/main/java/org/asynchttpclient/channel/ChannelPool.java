@@ -74,4 +74,18 @@ public interface ChannelPool {
      * @return The number of idle channels per host.
      */
     Map<String, Long> getIdleChannelCountPerHost();
+
+    /**
+     * @return the number of partitions, including the empty ones that haven't been evicted yet
+     */
+    default long getPartitionCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of partitions that were evicted once they were left empty
+     */
+    default long getEvictedPartitionCount() {
+        return 0;
+    }
 }
@@ -27,6 +27,15 @@ public interface ChannelPoolPartitioning {
 
     Object getPartitionKey(Uri uri, String virtualHost, ProxyServer proxyServer);
 
+    /**
+     * @return the partition key of the connections made over the given unix domain socket, or {@link #getPartitionKey(Uri, String, ProxyServer)}
+     * if there's none
+     */
+    default Object getPartitionKey(Uri uri, @Nullable String virtualHost, @Nullable ProxyServer proxyServer, @Nullable String unixDomainSocket) {
+        Object partitionKey = getPartitionKey(uri, virtualHost, proxyServer);
+        return unixDomainSocket == null ? partitionKey : new UnixDomainSocketPartitionKey(unixDomainSocket, partitionKey);
+    }
+
     enum PerHostChannelPoolPartitioning implements ChannelPoolPartitioning {
 
         INSTANCE;
@@ -35,18 +44,9 @@ public interface ChannelPoolPartitioning {
         public Object getPartitionKey(Uri uri, @Nullable String virtualHost, @Nullable ProxyServer proxyServer) {
             String targetHostBaseUrl = uri.getBaseUrl();
             if (proxyServer == null) {
-                if (virtualHost == null) {
-                    return targetHostBaseUrl;
-                } else {
-                    return new CompositePartitionKey(
-                            targetHostBaseUrl,
-                            virtualHost,
-                            null,
-                            0,
-                            null);
-                }
+                return PartitionKeyCache.INSTANCE.get(targetHostBaseUrl, virtualHost, null, 0, null);
             } else {
-                return new CompositePartitionKey(
+                return PartitionKeyCache.INSTANCE.get(
                         targetHostBaseUrl,
                         virtualHost,
                         proxyServer.getHost(),
@@ -64,14 +64,35 @@ public interface ChannelPoolPartitioning {
         private final @Nullable String proxyHost;
         private final int proxyPort;
         private final @Nullable ProxyType proxyType;
+        private final int hash;
 
         CompositePartitionKey(String targetHostBaseUrl, @Nullable String virtualHost,
-                              @Nullable String proxyHost, int proxyPort, @Nullable ProxyType proxyType) {
+                              @Nullable String proxyHost, int proxyPort, @Nullable ProxyType proxyType, int hash) {
             this.targetHostBaseUrl = targetHostBaseUrl;
             this.virtualHost = virtualHost;
             this.proxyHost = proxyHost;
             this.proxyPort = proxyPort;
             this.proxyType = proxyType;
+            this.hash = hash;
+        }
+
+        static int hash(String targetHostBaseUrl, @Nullable String virtualHost,
+                        @Nullable String proxyHost, int proxyPort, @Nullable ProxyType proxyType) {
+            int result = targetHostBaseUrl.hashCode();
+            result = 31 * result + (virtualHost != null ? virtualHost.hashCode() : 0);
+            result = 31 * result + (proxyHost != null ? proxyHost.hashCode() : 0);
+            result = 31 * result + proxyPort;
+            result = 31 * result + (proxyType != null ? proxyType.hashCode() : 0);
+            return result;
+        }
+
+        boolean matches(String targetHostBaseUrl, @Nullable String virtualHost,
+                        @Nullable String proxyHost, int proxyPort, @Nullable ProxyType proxyType) {
+            return this.proxyPort == proxyPort
+                    && this.proxyType == proxyType
+                    && this.targetHostBaseUrl.equals(targetHostBaseUrl)
+                    && Objects.equals(this.virtualHost, virtualHost)
+                    && Objects.equals(this.proxyHost, proxyHost);
         }
 
         @Override
@@ -84,30 +105,12 @@ public interface ChannelPoolPartitioning {
             }
 
             CompositePartitionKey that = (CompositePartitionKey) o;
-
-            if (proxyPort != that.proxyPort) {
-                return false;
-            }
-            if (!Objects.equals(targetHostBaseUrl, that.targetHostBaseUrl)) {
-                return false;
-            }
-            if (!Objects.equals(virtualHost, that.virtualHost)) {
-                return false;
-            }
-            if (!Objects.equals(proxyHost, that.proxyHost)) {
-                return false;
-            }
-            return proxyType == that.proxyType;
+            return hash == that.hash && matches(that.targetHostBaseUrl, that.virtualHost, that.proxyHost, that.proxyPort, that.proxyType);
         }
 
         @Override
         public int hashCode() {
-            int result = targetHostBaseUrl != null ? targetHostBaseUrl.hashCode() : 0;
-            result = 31 * result + (virtualHost != null ? virtualHost.hashCode() : 0);
-            result = 31 * result + (proxyHost != null ? proxyHost.hashCode() : 0);
-            result = 31 * result + proxyPort;
-            result = 31 * result + (proxyType != null ? proxyType.hashCode() : 0);
-            return result;
+            return hash;
         }
 
         @Override
@@ -120,4 +123,39 @@ public interface ChannelPoolPartitioning {
                     ", proxyType=" + proxyType;
         }
     }
+
+    class UnixDomainSocketPartitionKey {
+        private final String unixDomainSocket;
+        private final Object partitionKey;
+
+        UnixDomainSocketPartitionKey(String unixDomainSocket, Object partitionKey) {
+            this.unixDomainSocket = unixDomainSocket;
+            this.partitionKey = partitionKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            UnixDomainSocketPartitionKey that = (UnixDomainSocketPartitionKey) o;
+            return unixDomainSocket.equals(that.unixDomainSocket) && partitionKey.equals(that.partitionKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * unixDomainSocket.hashCode() + partitionKey.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "UnixDomainSocketPartitionKey(" +
+                    "unixDomainSocket=" + unixDomainSocket +
+                    ", partitionKey=" + partitionKey + ')';
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.channel;
+
+import org.asynchttpclient.channel.ChannelPoolPartitioning.CompositePartitionKey;
+import org.asynchttpclient.proxy.ProxyType;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded cache of canonical partition keys.
+ * <p>
+ * The keys are looked up in the channel pool and the connection semaphores several times per request. Returning the
+ * same instance for the same partition spares the allocation of a new {@link CompositePartitionKey}, and lets those
+ * lookups match on identity with a precomputed hash. The cache is direct mapped, like the
+ * {@link org.asynchttpclient.uri.UriCache}: a key replaces the one in its slot, which is then only equal, not
+ * identical, to the keys created afterwards.
+ */
+final class PartitionKeyCache {
+
+    static final PartitionKeyCache INSTANCE = new PartitionKeyCache(4096);
+
+    private final @Nullable Object[] keys;
+    private final int mask;
+
+    PartitionKeyCache(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        int capacity = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        keys = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the target base url when there's neither a virtual host nor a proxy, a {@link CompositePartitionKey} otherwise
+     */
+    Object get(String targetHostBaseUrl, @Nullable String virtualHost, @Nullable String proxyHost, int proxyPort, @Nullable ProxyType proxyType) {
+        if (virtualHost == null && proxyHost == null && proxyType == null) {
+            int index = index(targetHostBaseUrl.hashCode());
+            Object key = keys[index];
+            if (key instanceof String && key.equals(targetHostBaseUrl)) {
+                return key;
+            }
+            // racy but safe, as keys are immutable
+            keys[index] = targetHostBaseUrl;
+            return targetHostBaseUrl;
+        }
+
+        int hash = CompositePartitionKey.hash(targetHostBaseUrl, virtualHost, proxyHost, proxyPort, proxyType);
+        int index = index(hash);
+        Object key = keys[index];
+        if (key instanceof CompositePartitionKey) {
+            CompositePartitionKey compositeKey = (CompositePartitionKey) key;
+            if (compositeKey.hashCode() == hash && compositeKey.matches(targetHostBaseUrl, virtualHost, proxyHost, proxyPort, proxyType)) {
+                return compositeKey;
+            }
+        }
+        CompositePartitionKey compositeKey = new CompositePartitionKey(targetHostBaseUrl, virtualHost, proxyHost, proxyPort, proxyType, hash);
+        keys[index] = compositeKey;
+        return compositeKey;
+    }
+
+    private int index(int hash) {
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
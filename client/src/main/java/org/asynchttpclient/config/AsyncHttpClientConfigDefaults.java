@@ -35,6 +35,7 @@ public final class AsyncHttpClientConfigDefaults {
     public static final String READ_TIMEOUT_CONFIG = "readTimeout";
     public static final String REQUEST_TIMEOUT_CONFIG = "requestTimeout";
     public static final String CONNECTION_TTL_CONFIG = "connectionTtl";
+    public static final String MAX_PIPELINED_REQUESTS_CONFIG = "maxPipelinedRequests";
     public static final String FOLLOW_REDIRECT_CONFIG = "followRedirect";
     public static final String MAX_REDIRECTS_CONFIG = "maxRedirects";
     public static final String COMPRESSION_ENFORCED_CONFIG = "compressionEnforced";
@@ -53,6 +54,7 @@ public final class AsyncHttpClientConfigDefaults {
     public static final String KEEP_ALIVE_CONFIG = "keepAlive";
     public static final String MAX_REQUEST_RETRY_CONFIG = "maxRequestRetry";
     public static final String DISABLE_URL_ENCODING_FOR_BOUND_REQUESTS_CONFIG = "disableUrlEncodingForBoundRequests";
+    public static final String URI_CACHE_SIZE_CONFIG = "uriCacheSize";
     public static final String USE_LAX_COOKIE_ENCODER_CONFIG = "useLaxCookieEncoder";
     public static final String USE_OPEN_SSL_CONFIG = "useOpenSsl";
     public static final String USE_INSECURE_TRUST_MANAGER_CONFIG = "useInsecureTrustManager";
@@ -65,6 +67,7 @@ public final class AsyncHttpClientConfigDefaults {
     public static final String SO_LINGER_CONFIG = "soLinger";
     public static final String SO_SND_BUF_CONFIG = "soSndBuf";
     public static final String SO_RCV_BUF_CONFIG = "soRcvBuf";
+    public static final String IP_BIND_ADDRESS_NO_PORT_CONFIG = "ipBindAddressNoPort";
     public static final String HTTP_CLIENT_CODEC_MAX_INITIAL_LINE_LENGTH_CONFIG = "httpClientCodecMaxInitialLineLength";
     public static final String HTTP_CLIENT_CODEC_MAX_HEADER_SIZE_CONFIG = "httpClientCodecMaxHeaderSize";
     public static final String HTTP_CLIENT_CODEC_MAX_CHUNK_SIZE_CONFIG = "httpClientCodecMaxChunkSize";
@@ -72,8 +75,22 @@ public final class AsyncHttpClientConfigDefaults {
     public static final String DISABLE_ZERO_COPY_CONFIG = "disableZeroCopy";
     public static final String HANDSHAKE_TIMEOUT_CONFIG = "handshakeTimeout";
     public static final String CHUNKED_FILE_CHUNK_SIZE_CONFIG = "chunkedFileChunkSize";
+    public static final String USE_ASYNC_FILE_CHANNEL_CONFIG = "useAsyncFileChannel";
+    public static final String BLOCKING_IO_PREFETCH_CHUNKS_CONFIG = "blockingIoPrefetchChunks";
     public static final String WEBSOCKET_MAX_BUFFER_SIZE_CONFIG = "webSocketMaxBufferSize";
     public static final String WEBSOCKET_MAX_FRAME_SIZE_CONFIG = "webSocketMaxFrameSize";
+    public static final String WEBSOCKET_FLUSH_CONSOLIDATION_CONFIG = "webSocketFlushConsolidation";
+    public static final String WEBSOCKET_WRITE_BUFFER_HIGH_WATER_MARK_CONFIG = "webSocketWriteBufferHighWaterMark";
+    public static final String WEBSOCKET_LOW_MEMORY_FOOTPRINT_CONFIG = "webSocketLowMemoryFootprint";
+    public static final String WEBSOCKET_PING_INTERVAL_CONFIG = "webSocketPingInterval";
+    public static final String WEBSOCKET_PONG_TIMEOUT_CONFIG = "webSocketPongTimeout";
+    public static final String WEBSOCKET_CLOSE_ON_MISSED_PONG_CONFIG = "webSocketCloseOnMissedPong";
+    public static final String WEBSOCKET_COMPRESSION_LEVEL_CONFIG = "webSocketCompressionLevel";
+    public static final String WEBSOCKET_COMPRESSION_MIN_SIZE_CONFIG = "webSocketCompressionMinSize";
+    public static final String WEBSOCKET_CLIENT_NO_CONTEXT_TAKEOVER_CONFIG = "webSocketClientNoContextTakeover";
+    public static final String WEBSOCKET_SERVER_NO_CONTEXT_TAKEOVER_CONFIG = "webSocketServerNoContextTakeover";
+    public static final String WEBSOCKET_SERVER_MAX_WINDOW_BITS_CONFIG = "webSocketServerMaxWindowBits";
+    public static final String WEBSOCKET_COMPRESSION_METRICS_CONFIG = "webSocketCompressionMetrics";
     public static final String KEEP_ENCODING_HEADER_CONFIG = "keepEncodingHeader";
     public static final String SHUTDOWN_QUIET_PERIOD_CONFIG = "shutdownQuietPeriod";
     public static final String SHUTDOWN_TIMEOUT_CONFIG = "shutdownTimeout";
@@ -139,6 +156,10 @@ public final class AsyncHttpClientConfigDefaults {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getDuration(ASYNC_CLIENT_CONFIG_ROOT + CONNECTION_TTL_CONFIG);
     }
 
+    public static int defaultMaxPipelinedRequests() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + MAX_PIPELINED_REQUESTS_CONFIG);
+    }
+
     public static boolean defaultFollowRedirect() {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + FOLLOW_REDIRECT_CONFIG);
     }
@@ -207,6 +228,10 @@ public final class AsyncHttpClientConfigDefaults {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + DISABLE_URL_ENCODING_FOR_BOUND_REQUESTS_CONFIG);
     }
 
+    public static int defaultUriCacheSize() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + URI_CACHE_SIZE_CONFIG);
+    }
+
     public static boolean defaultUseLaxCookieEncoder() {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + USE_LAX_COOKIE_ENCODER_CONFIG);
     }
@@ -255,6 +280,10 @@ public final class AsyncHttpClientConfigDefaults {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + SO_RCV_BUF_CONFIG);
     }
 
+    public static boolean defaultIpBindAddressNoPort() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + IP_BIND_ADDRESS_NO_PORT_CONFIG);
+    }
+
     public static int defaultHttpClientCodecMaxInitialLineLength() {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + HTTP_CLIENT_CODEC_MAX_INITIAL_LINE_LENGTH_CONFIG);
     }
@@ -283,6 +312,14 @@ public final class AsyncHttpClientConfigDefaults {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + CHUNKED_FILE_CHUNK_SIZE_CONFIG);
     }
 
+    public static boolean defaultUseAsyncFileChannel() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + USE_ASYNC_FILE_CHANNEL_CONFIG);
+    }
+
+    public static int defaultBlockingIoPrefetchChunks() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + BLOCKING_IO_PREFETCH_CHUNKS_CONFIG);
+    }
+
     public static int defaultWebSocketMaxBufferSize() {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_MAX_BUFFER_SIZE_CONFIG);
     }
@@ -291,6 +328,54 @@ public final class AsyncHttpClientConfigDefaults {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_MAX_FRAME_SIZE_CONFIG);
     }
 
+    public static boolean defaultWebSocketFlushConsolidation() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_FLUSH_CONSOLIDATION_CONFIG);
+    }
+
+    public static int defaultWebSocketWriteBufferHighWaterMark() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_WRITE_BUFFER_HIGH_WATER_MARK_CONFIG);
+    }
+
+    public static boolean defaultWebSocketLowMemoryFootprint() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_LOW_MEMORY_FOOTPRINT_CONFIG);
+    }
+
+    public static Duration defaultWebSocketPingInterval() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getDuration(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_PING_INTERVAL_CONFIG);
+    }
+
+    public static Duration defaultWebSocketPongTimeout() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getDuration(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_PONG_TIMEOUT_CONFIG);
+    }
+
+    public static boolean defaultWebSocketCloseOnMissedPong() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_CLOSE_ON_MISSED_PONG_CONFIG);
+    }
+
+    public static int defaultWebSocketCompressionLevel() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_COMPRESSION_LEVEL_CONFIG);
+    }
+
+    public static int defaultWebSocketCompressionMinSize() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_COMPRESSION_MIN_SIZE_CONFIG);
+    }
+
+    public static boolean defaultWebSocketClientNoContextTakeover() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_CLIENT_NO_CONTEXT_TAKEOVER_CONFIG);
+    }
+
+    public static boolean defaultWebSocketServerNoContextTakeover() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_SERVER_NO_CONTEXT_TAKEOVER_CONFIG);
+    }
+
+    public static int defaultWebSocketServerMaxWindowBits() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getInt(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_SERVER_MAX_WINDOW_BITS_CONFIG);
+    }
+
+    public static boolean defaultWebSocketCompressionMetrics() {
+        return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + WEBSOCKET_COMPRESSION_METRICS_CONFIG);
+    }
+
     public static boolean defaultKeepEncodingHeader() {
         return AsyncHttpClientConfigHelper.getAsyncHttpClientConfig().getBoolean(ASYNC_CLIENT_CONFIG_ROOT + KEEP_ENCODING_HEADER_CONFIG);
     }
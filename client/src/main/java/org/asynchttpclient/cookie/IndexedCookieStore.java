@@ -0,0 +1,504 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cookie;
+
+import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import org.asynchttpclient.uri.Uri;
+import org.asynchttpclient.util.MiscUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * A {@link CookieStore} indexed for jars holding the cookies of a large number of domains, such as a crawler's.
+ * <br>
+ * The domains are stored in a trie of their labels, from the top level one, so that looking up the cookies of a host only walks its labels
+ * without allocating. The cookies of each domain are kept sorted by decreasing path length, the order in which
+ * <a href="https://www.rfc-editor.org/rfc/rfc6265#section-5.4">RFC 6265</a> wants them to be sent, and the cookies with a max age are also
+ * kept in a queue ordered by expiry, so that {@link #evictExpired()} only visits the expired ones.
+ * The {@code name=value} fragment of each cookie is encoded once, when it's added, and reused by {@link #getCookieHeader(Uri)}.
+ * <br>
+ * Lookups don't lock and see the store as of a recent modification, modifications are serialized.
+ * Domain, path and host-only matching follow the same rules as {@link ThreadSafeCookieStore}.
+ */
+public final class IndexedCookieStore implements CookieStore {
+
+    private static final Comparator<StoredCookie> EXPIRY_ORDER = Comparator.<StoredCookie>comparingLong(cookie -> cookie.expiresAt)
+            .thenComparingLong(cookie -> cookie.sequence);
+
+    private final DomainNode root = new DomainNode(null, "");
+    // guarded by this
+    private final TreeSet<StoredCookie> expiryQueue = new TreeSet<>(EXPIRY_ORDER);
+    private long sequence;
+    private int size;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public void add(Uri uri, Cookie cookie) {
+        String requestDomain = requestDomain(uri);
+        String domain;
+        boolean hostOnly;
+        // rfc6265#section-5.2.3
+        if (cookie.domain() != null) {
+            String cookieDomain = cookie.domain().toLowerCase();
+            domain = !cookieDomain.isEmpty() && cookieDomain.charAt(0) == '.' ? cookieDomain.substring(1) : cookieDomain;
+            hostOnly = false;
+        } else {
+            domain = requestDomain;
+            hostOnly = true;
+        }
+        String path = cookiePath(cookie.path(), requestPath(uri));
+        String name = cookie.name().toLowerCase();
+        boolean expired = cookie.maxAge() != Cookie.UNDEFINED_MAX_AGE && cookie.maxAge() <= 0;
+
+        synchronized (this) {
+            DomainNode node = expired ? find(domain) : getOrCreate(domain);
+            if (node == null) {
+                return;
+            }
+            StoredCookie replaced = node.remove(name, path);
+            if (replaced != null) {
+                removed(replaced);
+            }
+            if (!expired) {
+                long now = System.currentTimeMillis();
+                long expiresAt = cookie.maxAge() == Cookie.UNDEFINED_MAX_AGE ? Long.MAX_VALUE : now + cookie.maxAge() * 1000;
+                StoredCookie stored = new StoredCookie(node, cookie, name, path, hostOnly, expiresAt, sequence++);
+                node.add(stored);
+                size++;
+                if (expiresAt != Long.MAX_VALUE) {
+                    expiryQueue.add(stored);
+                }
+            }
+            prune(node);
+        }
+    }
+
+    @Override
+    public List<Cookie> get(Uri uri) {
+        String host = requestDomain(uri);
+        String path = requestPath(uri);
+        boolean secure = uri.isSecured();
+        long now = System.currentTimeMillis();
+
+        List<Cookie> cookies = null;
+        DomainNode deepest = deepest(host);
+        for (DomainNode node = deepest; node != root; node = node.parent) {
+            boolean exactDomain = node == deepest && node.domain.equals(host);
+            for (StoredCookie stored : node.cookies) {
+                if (stored.matches(exactDomain, path, secure, now)) {
+                    if (cookies == null) {
+                        cookies = new ArrayList<>(4);
+                    }
+                    cookies.add(stored.cookie);
+                }
+            }
+        }
+        return cookies == null ? Collections.emptyList() : cookies;
+    }
+
+    @Override
+    public List<Cookie> getAll() {
+        List<Cookie> cookies = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        forEach(root, stored -> {
+            if (stored.expiresAt > now) {
+                cookies.add(stored.cookie);
+            }
+            return false;
+        });
+        return cookies;
+    }
+
+    @Override
+    public synchronized boolean remove(Predicate<Cookie> predicate) {
+        return forEach(root, stored -> {
+            if (!predicate.test(stored.cookie)) {
+                return false;
+            }
+            stored.node.remove(stored.name, stored.path);
+            removed(stored);
+            prune(stored.node);
+            return true;
+        });
+    }
+
+    @Override
+    public synchronized boolean clear() {
+        boolean result = size > 0;
+        root.clear();
+        expiryQueue.clear();
+        size = 0;
+        return result;
+    }
+
+    @Override
+    public synchronized void evictExpired() {
+        long now = System.currentTimeMillis();
+        while (!expiryQueue.isEmpty() && expiryQueue.first().expiresAt <= now) {
+            StoredCookie stored = expiryQueue.pollFirst();
+            stored.node.remove(stored.name, stored.path);
+            size--;
+            prune(stored.node);
+        }
+    }
+
+    @Override
+    public int incrementAndGet() {
+        return counter.incrementAndGet();
+    }
+
+    @Override
+    public int decrementAndGet() {
+        return counter.decrementAndGet();
+    }
+
+    @Override
+    public int count() {
+        return counter.get();
+    }
+
+    /**
+     * @return the number of cookies in the store, including the expired ones that haven't been evicted yet
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Same as encoding the cookies returned by {@link #get(Uri)} with {@link ClientCookieEncoder#LAX}, but from their pre-encoded fragments.
+     *
+     * @param uri the uri of the request
+     * @return the value of the Cookie header of a request to the given uri, or null if no cookie matches
+     */
+    public @Nullable String getCookieHeader(Uri uri) {
+        String host = requestDomain(uri);
+        String path = requestPath(uri);
+        boolean secure = uri.isSecured();
+        long now = System.currentTimeMillis();
+
+        StringBuilder sb = null;
+        DomainNode deepest = deepest(host);
+        for (DomainNode node = deepest; node != root; node = node.parent) {
+            boolean exactDomain = node == deepest && node.domain.equals(host);
+            for (StoredCookie stored : node.cookies) {
+                if (stored.matches(exactDomain, path, secure, now)) {
+                    if (sb == null) {
+                        sb = new StringBuilder(stored.encoded.length() * 4);
+                    } else {
+                        sb.append("; ");
+                    }
+                    sb.append(stored.encoded);
+                }
+            }
+        }
+        return sb == null ? null : sb.toString();
+    }
+
+    /**
+     * @return the node of the longest suffix of the host that has a node, the root if none
+     */
+    private DomainNode deepest(String host) {
+        DomainNode node = root;
+        int end = host.length();
+        while (end > 0) {
+            int dot = host.lastIndexOf('.', end - 1);
+            DomainNode child = node.child(host, dot + 1, end);
+            if (child == null) {
+                break;
+            }
+            node = child;
+            end = dot;
+        }
+        return node;
+    }
+
+    private @Nullable DomainNode find(String domain) {
+        DomainNode node = deepest(domain);
+        return node != root && node.domain.equals(domain) ? node : null;
+    }
+
+    // guarded by this
+    private DomainNode getOrCreate(String domain) {
+        DomainNode node = root;
+        int end = domain.length();
+        while (end > 0) {
+            int dot = domain.lastIndexOf('.', end - 1);
+            DomainNode child = node.child(domain, dot + 1, end);
+            node = child != null ? child : node.addChild(domain.substring(dot + 1, end));
+            end = dot;
+        }
+        return node;
+    }
+
+    // guarded by this
+    private void removed(StoredCookie stored) {
+        size--;
+        if (stored.expiresAt != Long.MAX_VALUE) {
+            expiryQueue.remove(stored);
+        }
+    }
+
+    // guarded by this
+    private void prune(DomainNode node) {
+        while (node != root && node.cookies.length == 0 && node.childCount == 0) {
+            node.parent.removeChild(node);
+            node = node.parent;
+        }
+    }
+
+    private static boolean forEach(DomainNode node, Predicate<StoredCookie> visitor) {
+        boolean result = false;
+        for (StoredCookie stored : node.cookies) {
+            result |= visitor.test(stored);
+        }
+        AtomicReferenceArray<DomainNode> children = node.children;
+        for (int i = 0; i < children.length(); i++) {
+            DomainNode child = children.get(i);
+            if (child != null && child != DomainNode.TOMBSTONE) {
+                result |= forEach(child, visitor);
+            }
+        }
+        return result;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private static String requestDomain(Uri requestUri) {
+        return requestUri.getHost().toLowerCase();
+    }
+
+    private static String requestPath(Uri requestUri) {
+        return requestUri.getPath().isEmpty() ? "/" : requestUri.getPath();
+    }
+
+    // rfc6265#section-5.2.4
+    private static String cookiePath(@Nullable String rawCookiePath, String requestPath) {
+        if (MiscUtils.isNonEmpty(rawCookiePath) && rawCookiePath.charAt(0) == '/') {
+            return rawCookiePath;
+        } else {
+            // rfc6265#section-5.1.4
+            int indexOfLastSlash = requestPath.lastIndexOf('/');
+            if (!requestPath.isEmpty() && requestPath.charAt(0) == '/' && indexOfLastSlash > 0) {
+                return requestPath.substring(0, indexOfLastSlash);
+            } else {
+                return "/";
+            }
+        }
+    }
+
+    // rfc6265#section-5.1.4
+    private static boolean pathsMatch(String cookiePath, String requestPath) {
+        return cookiePath.equals(requestPath) ||
+                requestPath.startsWith(cookiePath) && (cookiePath.charAt(cookiePath.length() - 1) == '/' || requestPath.charAt(cookiePath.length()) == '/');
+    }
+
+    /**
+     * A domain, whose children are the domains with one more label, in an open addressing hash table keyed by label.
+     * The table and the cookies are only modified under the store's lock, lookups read them without locking.
+     */
+    private static final class DomainNode {
+
+        private static final AtomicReferenceArray<DomainNode> NO_CHILDREN = new AtomicReferenceArray<>(0);
+        private static final StoredCookie[] NO_COOKIES = new StoredCookie[0];
+        static final DomainNode TOMBSTONE = new DomainNode(null, "");
+
+        final DomainNode parent;
+        final String label;
+        final int hash;
+        final String domain;
+        volatile AtomicReferenceArray<DomainNode> children = NO_CHILDREN;
+        volatile StoredCookie[] cookies = NO_COOKIES;
+        // guarded by the store
+        int childCount;
+        private int usedSlots;
+
+        DomainNode(@Nullable DomainNode parent, String label) {
+            // the root is its own parent
+            this.parent = parent != null ? parent : this;
+            this.label = label;
+            hash = label.hashCode();
+            domain = parent == null || parent.parent == parent ? label : label + '.' + parent.domain;
+        }
+
+        @Nullable DomainNode child(String host, int start, int end) {
+            AtomicReferenceArray<DomainNode> table = children;
+            int mask = table.length() - 1;
+            if (mask < 0) {
+                return null;
+            }
+            int length = end - start;
+            int hash = hash(host, start, end);
+            for (int i = spread(hash) & mask; ; i = i + 1 & mask) {
+                DomainNode child = table.get(i);
+                if (child == null) {
+                    return null;
+                }
+                if (child != TOMBSTONE && child.hash == hash && child.label.length() == length && child.label.regionMatches(0, host, start, length)) {
+                    return child;
+                }
+            }
+        }
+
+        DomainNode addChild(String label) {
+            DomainNode child = new DomainNode(this, label);
+            AtomicReferenceArray<DomainNode> table = children;
+            // keep empty slots so that lookups terminate
+            if ((usedSlots + 1) * 4 > table.length() * 3) {
+                int capacity = 4;
+                while (capacity < (childCount + 1) * 2) {
+                    capacity <<= 1;
+                }
+                AtomicReferenceArray<DomainNode> resized = new AtomicReferenceArray<>(capacity);
+                usedSlots = 0;
+                for (int i = 0; i < table.length(); i++) {
+                    DomainNode existing = table.get(i);
+                    if (existing != null && existing != TOMBSTONE) {
+                        insert(resized, existing);
+                    }
+                }
+                table = resized;
+            }
+            insert(table, child);
+            childCount++;
+            children = table;
+            return child;
+        }
+
+        private void insert(AtomicReferenceArray<DomainNode> table, DomainNode child) {
+            int mask = table.length() - 1;
+            for (int i = spread(child.hash) & mask; ; i = i + 1 & mask) {
+                DomainNode existing = table.get(i);
+                if (existing == null || existing == TOMBSTONE) {
+                    if (existing == null) {
+                        usedSlots++;
+                    }
+                    table.set(i, child);
+                    return;
+                }
+            }
+        }
+
+        void removeChild(DomainNode child) {
+            AtomicReferenceArray<DomainNode> table = children;
+            int mask = table.length() - 1;
+            for (int i = spread(child.hash) & mask; ; i = i + 1 & mask) {
+                DomainNode existing = table.get(i);
+                if (existing == null) {
+                    return;
+                }
+                if (existing == child) {
+                    table.set(i, TOMBSTONE);
+                    if (--childCount == 0) {
+                        children = NO_CHILDREN;
+                        usedSlots = 0;
+                    }
+                    return;
+                }
+            }
+        }
+
+        void add(StoredCookie stored) {
+            StoredCookie[] current = cookies;
+            StoredCookie[] updated = new StoredCookie[current.length + 1];
+            // longer paths first, then older cookies first
+            int i = 0;
+            while (i < current.length && current[i].path.length() >= stored.path.length()) {
+                updated[i] = current[i];
+                i++;
+            }
+            updated[i] = stored;
+            System.arraycopy(current, i, updated, i + 1, current.length - i);
+            cookies = updated;
+        }
+
+        @Nullable StoredCookie remove(String name, String path) {
+            StoredCookie[] current = cookies;
+            for (int i = 0; i < current.length; i++) {
+                StoredCookie stored = current[i];
+                if (stored.name.equals(name) && stored.path.equals(path)) {
+                    StoredCookie[] updated = new StoredCookie[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    cookies = updated;
+                    return stored;
+                }
+            }
+            return null;
+        }
+
+        void clear() {
+            children = NO_CHILDREN;
+            cookies = NO_COOKIES;
+            childCount = 0;
+            usedSlots = 0;
+        }
+
+        // same as String#hashCode
+        private static int hash(String s, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + s.charAt(i);
+            }
+            return h;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ hash >>> 16;
+        }
+    }
+
+    private static final class StoredCookie {
+        final DomainNode node;
+        final Cookie cookie;
+        final String name;
+        final String path;
+        final boolean hostOnly;
+        final boolean secure;
+        final long expiresAt;
+        final long sequence;
+        final String encoded;
+
+        StoredCookie(DomainNode node, Cookie cookie, String name, String path, boolean hostOnly, long expiresAt, long sequence) {
+            this.node = node;
+            this.cookie = cookie;
+            this.name = name;
+            this.path = path;
+            this.hostOnly = hostOnly;
+            this.expiresAt = expiresAt;
+            this.sequence = sequence;
+            secure = cookie.isSecure();
+            encoded = ClientCookieEncoder.LAX.encode(cookie);
+        }
+
+        boolean matches(boolean exactDomain, String requestPath, boolean secureRequest, long now) {
+            return (exactDomain || !hostOnly) && (secureRequest || !secure) && expiresAt > now && pathsMatch(path, requestPath);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s; hostOnly %s; expiresAt %s", cookie, hostOnly, expiresAt);
+        }
+    }
+}
@@ -72,7 +72,7 @@ public final class ThreadSafeCookieStore implements CookieStore {
             }
         });
         if (removed[0]) {
-            cookieJar.entrySet().removeIf(entry -> entry.getValue() == null || entry.getValue().isEmpty());
+            removeEmptyDomains();
         }
         return removed[0];
     }
@@ -179,11 +179,25 @@ public final class ThreadSafeCookieStore implements CookieStore {
         String keyPath = cookiePath(cookie.path(), requestPath);
         CookieKey key = new CookieKey(cookie.name().toLowerCase(), keyPath);
 
+        // the domain maps are only updated under their entry lock, so that an empty one can't be removed while a cookie is added to it
         if (hasCookieExpired(cookie, 0)) {
-            cookieJar.getOrDefault(keyDomain, Collections.emptyMap()).remove(key);
+            cookieJar.computeIfPresent(keyDomain, (domain, innerMap) -> {
+                innerMap.remove(key);
+                return innerMap.isEmpty() ? null : innerMap;
+            });
         } else {
-            final Map<CookieKey, StoredCookie> innerMap = cookieJar.computeIfAbsent(keyDomain, domain -> new ConcurrentHashMap<>());
-            innerMap.put(key, new StoredCookie(cookie, hostOnly, cookie.maxAge() != Cookie.UNDEFINED_MAX_AGE));
+            StoredCookie storedCookie = new StoredCookie(cookie, hostOnly, cookie.maxAge() != Cookie.UNDEFINED_MAX_AGE);
+            cookieJar.compute(keyDomain, (domain, innerMap) -> {
+                Map<CookieKey, StoredCookie> updatedMap = innerMap != null ? innerMap : new ConcurrentHashMap<>();
+                updatedMap.put(key, storedCookie);
+                return updatedMap;
+            });
+        }
+    }
+
+    private void removeEmptyDomains() {
+        for (String domain : cookieJar.keySet()) {
+            cookieJar.computeIfPresent(domain, (d, innerMap) -> innerMap.isEmpty() ? null : innerMap);
         }
     }
 
@@ -230,7 +244,7 @@ public final class ThreadSafeCookieStore implements CookieStore {
         cookieJar.values().forEach(cookieMap -> removed[0] |= cookieMap.entrySet().removeIf(
                 v -> hasCookieExpired(v.getValue().cookie, v.getValue().createdAt)));
         if (removed[0]) {
-            cookieJar.entrySet().removeIf(entry -> entry.getValue() == null || entry.getValue().isEmpty());
+            removeEmptyDomains();
         }
     }
 
@@ -0,0 +1,51 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.netty.channel.Channel;
+import org.asynchttpclient.netty.channel.Channels;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pauses and resumes reading from the channel a handler receives its response on, to apply backpressure.
+ * <br>
+ * Resuming restores the auto read the channel had before the pause.
+ */
+final class ChannelReadPause {
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    void setPaused(@Nullable Channel channel, boolean pause) {
+        if (channel != null && paused.compareAndSet(!pause, pause)) {
+            // always apply the latest state on the event loop, so concurrent pause/resume can't be reordered
+            if (channel.eventLoop().inEventLoop()) {
+                apply(channel);
+            } else {
+                channel.eventLoop().execute(() -> apply(channel));
+            }
+        }
+    }
+
+    private void apply(Channel channel) {
+        if (paused.get()) {
+            Channels.pauseReading(channel);
+        } else {
+            Channels.resumeReading(channel);
+        }
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.netty.LazyResponseBodyPart;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_RANGE;
+import static io.netty.handler.codec.http.HttpHeaderNames.RANGE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.asynchttpclient.util.Assertions.assertNotNull;
+import static org.asynchttpclient.util.MiscUtils.closeSilently;
+
+/**
+ * An {@link AsyncHandler} that downloads the response body into a file.
+ * <br>
+ * The body parts are written with gathering {@link FileChannel} writes of their {@link ByteBuf#nioBuffers()}, on the given {@link Executor}
+ * so the event loop never blocks on the disk. When the client is configured with
+ * {@link org.asynchttpclient.AsyncHttpClientConfig.ResponseBodyPartFactory#LAZY}, the response {@link ByteBuf}s are written as is,
+ * without being copied. Once more than {@code maxPendingBytes} have been received but not written yet, reading from the channel is paused
+ * until half of them have been written.
+ * <br>
+ * Only 200 and 206 responses are written, other responses are aborted like with
+ * {@link org.asynchttpclient.handler.resumable.ResumableAsyncHandler}. The future of the request completes once the response has been
+ * received, while {@link #getWrittenFuture()} completes once its last bytes have been written and synced according to the {@link SyncPolicy}:
+ * <pre>
+ *     client.prepareGet(url).execute(handler);
+ *     handler.getWrittenFuture().get();
+ * </pre>
+ * <br>
+ * Interrupted downloads can be resumed with {@link #adjustRequestRange(Request)}, which is also applied by
+ * {@link org.asynchttpclient.handler.resumable.ResumableIOExceptionFilter}:
+ * <pre>
+ *     FileDownloadHandler handler = new FileDownloadHandler(file, executor);
+ *     client.executeRequest(handler.adjustRequestRange(get(url).build()), handler).get();
+ * </pre>
+ * As the length of the file is what a new download resumes from, preallocation should not be combined with resuming across restarts:
+ * the file is truncated back to the bytes that have actually been written when the download ends, but not when the JVM crashes.
+ */
+public class FileDownloadHandler implements AsyncHandler<Response> {
+
+    public static final long DEFAULT_MAX_PENDING_BYTES = 256 * 1024;
+
+    /**
+     * When the written bytes are forced to the storage device.
+     */
+    public enum SyncPolicy {
+        /**
+         * Leave it to the operating system.
+         */
+        NONE,
+        /**
+         * Once the download has been written, before completing the future.
+         */
+        ON_COMPLETION,
+        /**
+         * After every write, and once the download has been written.
+         */
+        ALWAYS
+    }
+
+    private final Path file;
+    private final Executor executor;
+    private final Response.ResponseBuilder responseBuilder = new Response.ResponseBuilder();
+    private final ChannelReadPause readPause = new ChannelReadPause();
+    private final CompletableFuture<Response> writtenFuture = new CompletableFuture<>();
+    private long maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+    private SyncPolicy syncPolicy = SyncPolicy.NONE;
+    private boolean preallocate;
+    private int statusCode;
+    private volatile @Nullable Channel channel;
+    // the offset in the file right after the last received byte
+    private volatile long received;
+    private volatile long rangeStart;
+
+    // guarded by this, ByteBufs to write and control Runnables to run on the executor, in order
+    private final ArrayDeque<Object> writes = new ArrayDeque<>();
+    private long pendingBytes;
+    private boolean writing;
+    private @Nullable IOException writeFailure;
+
+    // only accessed by the writer
+    private @Nullable FileChannel fileChannel;
+
+    /**
+     * @param file     the file to download into, created if needed
+     * @param executor the executor running the file operations, including the final sync, typically
+     *                 {@link org.asynchttpclient.AsyncHttpClientConfig#getBlockingIoExecutor()}
+     */
+    public FileDownloadHandler(Path file, Executor executor) {
+        this.file = assertNotNull(file, "file");
+        this.executor = assertNotNull(executor, "executor");
+    }
+
+    /**
+     * @param maxPendingBytes the number of received but unwritten bytes above which reading from the channel is paused
+     * @return this
+     */
+    public FileDownloadHandler setMaxPendingBytes(long maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+        return this;
+    }
+
+    /**
+     * @param syncPolicy when the written bytes are forced to the storage device
+     * @return this
+     */
+    public FileDownloadHandler setSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = assertNotNull(syncPolicy, "syncPolicy");
+        return this;
+    }
+
+    /**
+     * @param preallocate if the file must be extended to its final size as soon as the Content-Length is known, so the file system
+     *                    can reserve contiguous space. The file may be sparse until it has been written, depending on the file system.
+     * @return this
+     */
+    public FileDownloadHandler setPreallocate(boolean preallocate) {
+        this.preallocate = preallocate;
+        return this;
+    }
+
+    /**
+     * @return a future completed with the response once its body has been written, synced according to the {@link SyncPolicy} and the file
+     * closed, or completed exceptionally if the download or a write failed
+     */
+    public CompletableFuture<Response> getWrittenFuture() {
+        return writtenFuture;
+    }
+
+    /**
+     * @return the offset in the file right after the last byte received
+     */
+    public long getReceivedBytes() {
+        return received;
+    }
+
+    /**
+     * Sets the Range header on the request so that it resumes from the bytes already received, or already in the file when nothing
+     * has been received yet. Same as {@link org.asynchttpclient.handler.resumable.ResumableAsyncHandler#adjustRequestRange(Request)},
+     * a Range header that the request already has isn't changed, unless it was set by a previous call.
+     *
+     * @param request the request
+     * @return a request with the Range header properly set
+     * @throws IOException if the length of the file can't be read
+     */
+    public Request adjustRequestRange(Request request) throws IOException {
+        long start = received;
+        if (start == 0 && Files.exists(file)) {
+            start = Files.size(file);
+        }
+        // only replace a Range header that this handler has set
+        if (start == 0 || request.getHeaders().contains(RANGE) && rangeStart == 0) {
+            return request;
+        }
+        rangeStart = start;
+        return request.toBuilder().setHeader(RANGE, "bytes=" + start + '-').build();
+    }
+
+    @Override
+    public void onTcpConnectSuccess(InetSocketAddress remoteAddress, Channel connection) {
+        channel = connection;
+    }
+
+    @Override
+    public void onConnectionPooled(Channel connection) {
+        channel = connection;
+    }
+
+    @Override
+    public State onStatusReceived(HttpResponseStatus responseStatus) {
+        responseBuilder.reset();
+        responseBuilder.accumulate(responseStatus);
+        statusCode = responseStatus.getStatusCode();
+        return statusCode == 200 || statusCode == 206 ? State.CONTINUE : State.ABORT;
+    }
+
+    @Override
+    public State onHeadersReceived(HttpHeaders headers) throws IOException {
+        responseBuilder.accumulate(headers);
+
+        long start = 0;
+        if (statusCode == 206) {
+            start = contentRangeStart(headers.get(CONTENT_RANGE));
+            if (start < 0 || start > Math.max(received, rangeStart)) {
+                throw new IOException("Unexpected Content-Range " + headers.get(CONTENT_RANGE) + " when resuming from " + received);
+            }
+        }
+        // a 200 means that the server ignored the range and sent the whole body again
+        long offset = start;
+        received = offset;
+        enqueue((Runnable) () -> open(offset));
+
+        String contentLength = headers.get(CONTENT_LENGTH);
+        if (preallocate && contentLength != null) {
+            long end = offset + Long.parseLong(contentLength.trim());
+            enqueue((Runnable) () -> preallocate(end));
+        }
+        return State.CONTINUE;
+    }
+
+    @Override
+    public State onTrailingHeadersReceived(HttpHeaders headers) {
+        responseBuilder.accumulate(headers);
+        return State.CONTINUE;
+    }
+
+    @Override
+    public State onBodyPartReceived(HttpResponseBodyPart bodyPart) throws IOException {
+        int length = bodyPart.length();
+        if (length == 0) {
+            return State.CONTINUE;
+        }
+
+        ByteBuf buf = bodyPart instanceof LazyResponseBodyPart
+                // the part is released once this method returns
+                ? ((LazyResponseBodyPart) bodyPart).getBuf().retainedDuplicate()
+                : Unpooled.wrappedBuffer(bodyPart.getBodyPartBytes());
+        received += length;
+        synchronized (this) {
+            if (writeFailure != null) {
+                buf.release();
+                throw writeFailure;
+            }
+            pendingBytes += length;
+            if (pendingBytes > maxPendingBytes && !bodyPart.isLast()) {
+                // under the lock, so the writer can't resume before the pause
+                readPause.setPaused(channel, true);
+            }
+        }
+        enqueue(buf);
+        return State.CONTINUE;
+    }
+
+    @Override
+    public void onThrowable(Throwable t) {
+        // the download may be resumed, keep the bytes received so far
+        enqueue((Runnable) () -> {
+            close();
+            writtenFuture.completeExceptionally(t);
+        });
+        readPause.setPaused(channel, false);
+    }
+
+    /**
+     * Doesn't wait for the pending writes and the sync, they complete {@link #getWrittenFuture()} once they're done on the executor.
+     */
+    @Override
+    public Response onCompleted() throws IOException {
+        readPause.setPaused(channel, false);
+        synchronized (this) {
+            if (writeFailure != null) {
+                throw writeFailure;
+            }
+        }
+        Response response = responseBuilder.build();
+        enqueue((Runnable) this::sync);
+        enqueue((Runnable) () -> {
+            close();
+            IOException failure;
+            synchronized (this) {
+                failure = writeFailure;
+            }
+            if (failure != null) {
+                writtenFuture.completeExceptionally(failure);
+            } else {
+                writtenFuture.complete(response);
+            }
+        });
+        return response;
+    }
+
+    private void enqueue(Object entry) {
+        synchronized (this) {
+            writes.add(entry);
+            if (writing) {
+                return;
+            }
+            writing = true;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                failed(new IOException(e));
+                Object write;
+                while ((write = writes.poll()) != null) {
+                    if (write instanceof ByteBuf) {
+                        ((ByteBuf) write).release();
+                    }
+                }
+                pendingBytes = 0;
+                writing = false;
+            }
+            // the entries completing it were dropped
+            writtenFuture.completeExceptionally(e);
+        }
+    }
+
+    private void drain() {
+        List<ByteBuf> batch = new ArrayList<>();
+        for (;;) {
+            Runnable control = null;
+            synchronized (this) {
+                // batch the consecutive buffers into a single gathering write
+                while (writes.peek() instanceof ByteBuf) {
+                    batch.add((ByteBuf) writes.poll());
+                }
+                if (batch.isEmpty()) {
+                    control = (Runnable) writes.poll();
+                    if (control == null) {
+                        writing = false;
+                        return;
+                    }
+                }
+            }
+
+            if (control != null) {
+                try {
+                    control.run();
+                } catch (RuntimeException e) {
+                    failed(new IOException(e));
+                }
+            } else {
+                long written = 0;
+                try {
+                    written = write(batch);
+                } finally {
+                    for (ByteBuf buf : batch) {
+                        buf.release();
+                    }
+                    batch.clear();
+                }
+                synchronized (this) {
+                    pendingBytes -= written;
+                    if (pendingBytes <= maxPendingBytes / 2) {
+                        readPause.setPaused(channel, false);
+                    }
+                }
+            }
+        }
+    }
+
+    private long write(List<ByteBuf> batch) {
+        long length = 0;
+        List<ByteBuffer> buffers = new ArrayList<>(batch.size());
+        for (ByteBuf buf : batch) {
+            length += buf.readableBytes();
+            Collections.addAll(buffers, buf.nioBuffers());
+        }
+
+        FileChannel fileChannel = this.fileChannel;
+        if (fileChannel == null || !isWriteable()) {
+            return length;
+        }
+        try {
+            ByteBuffer[] srcs = buffers.toArray(new ByteBuffer[0]);
+            long remaining = length;
+            while (remaining > 0) {
+                remaining -= fileChannel.write(srcs);
+            }
+            if (syncPolicy == SyncPolicy.ALWAYS) {
+                fileChannel.force(false);
+            }
+        } catch (IOException e) {
+            failed(e);
+        } catch (RuntimeException e) {
+            failed(new IOException(e));
+        }
+        return length;
+    }
+
+    private synchronized boolean isWriteable() {
+        return writeFailure == null;
+    }
+
+    private synchronized void failed(IOException e) {
+        if (writeFailure == null) {
+            writeFailure = e;
+        }
+    }
+
+    private void open(long offset) {
+        try {
+            FileChannel fileChannel = this.fileChannel;
+            if (fileChannel == null) {
+                fileChannel = this.fileChannel = FileChannel.open(file, CREATE, WRITE);
+            }
+            if (fileChannel.size() > offset) {
+                fileChannel.truncate(offset);
+            }
+            fileChannel.position(offset);
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private void preallocate(long end) {
+        FileChannel fileChannel = this.fileChannel;
+        if (fileChannel == null || !isWriteable()) {
+            return;
+        }
+        try {
+            if (fileChannel.size() < end) {
+                fileChannel.write(ByteBuffer.allocate(1), end - 1);
+            }
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private void sync() {
+        FileChannel fileChannel = this.fileChannel;
+        if (fileChannel == null || !isWriteable() || syncPolicy == SyncPolicy.NONE) {
+            return;
+        }
+        try {
+            fileChannel.force(true);
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private void close() {
+        FileChannel fileChannel = this.fileChannel;
+        if (fileChannel == null) {
+            return;
+        }
+        this.fileChannel = null;
+        try {
+            // drop what was preallocated but not received
+            if (fileChannel.size() > fileChannel.position()) {
+                fileChannel.truncate(fileChannel.position());
+            }
+        } catch (IOException e) {
+            failed(e);
+        } finally {
+            closeSilently(fileChannel);
+        }
+    }
+
+    /**
+     * @return the first byte position of a {@code bytes first-last/length} Content-Range, or -1 if it can't be parsed
+     */
+    private static long contentRangeStart(@Nullable String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return -1;
+        }
+        int dash = contentRange.indexOf('-', 6);
+        try {
+            return dash < 0 ? -1 : Long.parseLong(contentRange.substring(6, dash).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.netty.LazyResponseBodyPart;
+import org.asynchttpclient.request.body.Body;
+import org.asynchttpclient.request.body.generator.BodyGenerator;
+import org.asynchttpclient.request.body.generator.FeedListener;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Pipes the body of a response into the body of another request, typically for gateways that download from one server
+ * and upload the same bytes to another.
+ * <br>
+ * The pipe is both the {@link AsyncHandler} of the download and the {@link BodyGenerator} of the upload:
+ * <pre>
+ *     ResponseBodyPipe pipe = new ResponseBodyPipe();
+ *     client.prepareGet(source).execute(pipe);
+ *     client.preparePut(destination).setBody(pipe).execute();
+ * </pre>
+ * When the client is configured with {@link org.asynchttpclient.AsyncHttpClientConfig.ResponseBodyPartFactory#LAZY}, the response
+ * {@link ByteBuf}s are forwarded as is, without being copied.
+ * <br>
+ * Flow control is linked: once more than {@code maxPendingBytes} have been received but not written yet, typically because the upload
+ * channel is not writable, reading from the download channel is paused until half of them have been written.
+ * <br>
+ * The pipe only forwards the body: the download's status and headers are not inspected. Aborting the upload aborts the download.
+ */
+public class ResponseBodyPipe implements AsyncHandler<Void>, BodyGenerator {
+
+    public static final int DEFAULT_MAX_PENDING_BYTES = 64 * 1024;
+
+    private final long maxPendingBytes;
+    // guards the chunks, the pending bytes and the pause decisions
+    private final Queue<ByteBuf> chunks = new ArrayDeque<>();
+    private long pendingBytes;
+    private final ChannelReadPause readPause = new ChannelReadPause();
+    private volatile @Nullable Channel downloadChannel;
+    private volatile @Nullable FeedListener listener;
+    private volatile boolean completed;
+    private volatile boolean cancelled;
+    private volatile @Nullable Throwable failure;
+
+    public ResponseBodyPipe() {
+        this(DEFAULT_MAX_PENDING_BYTES);
+    }
+
+    public ResponseBodyPipe(long maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    // download side
+
+    @Override
+    public void onTcpConnectSuccess(InetSocketAddress remoteAddress, Channel connection) {
+        downloadChannel = connection;
+    }
+
+    @Override
+    public void onConnectionPooled(Channel connection) {
+        downloadChannel = connection;
+    }
+
+    @Override
+    public State onStatusReceived(HttpResponseStatus responseStatus) {
+        return cancelled ? State.ABORT : State.CONTINUE;
+    }
+
+    @Override
+    public State onHeadersReceived(HttpHeaders headers) {
+        return cancelled ? State.ABORT : State.CONTINUE;
+    }
+
+    @Override
+    public State onBodyPartReceived(HttpResponseBodyPart bodyPart) {
+        if (cancelled) {
+            return State.ABORT;
+        }
+
+        ByteBuf buf = bodyPart instanceof LazyResponseBodyPart
+                // the part is released once this method returns
+                ? ((LazyResponseBodyPart) bodyPart).getBuf().retainedDuplicate()
+                : Unpooled.wrappedBuffer(bodyPart.getBodyPartBytes());
+        if (!buf.isReadable()) {
+            buf.release();
+            return State.CONTINUE;
+        }
+
+        synchronized (chunks) {
+            if (cancelled) {
+                // raced with cancel()
+                buf.release();
+                return State.ABORT;
+            }
+            chunks.add(buf);
+            pendingBytes += buf.readableBytes();
+            chunks.notifyAll();
+            if (pendingBytes > maxPendingBytes && !bodyPart.isLast()) {
+                // under the lock, so the upload can't drain the chunks and resume before the pause
+                readPause.setPaused(downloadChannel, true);
+            }
+        }
+
+        FeedListener listener = this.listener;
+        if (listener != null) {
+            listener.onContentAdded();
+        }
+        return State.CONTINUE;
+    }
+
+    @Override
+    public void onThrowable(Throwable t) {
+        failure = t;
+        synchronized (chunks) {
+            chunks.notifyAll();
+            readPause.setPaused(downloadChannel, false);
+        }
+        FeedListener listener = this.listener;
+        if (listener != null) {
+            listener.onError(t);
+        }
+    }
+
+    @Override
+    public @Nullable Void onCompleted() {
+        synchronized (chunks) {
+            completed = true;
+            chunks.notifyAll();
+            // chunks decoded from the same read may have completed the response after a pause, don't leave the channel paused
+            readPause.setPaused(downloadChannel, false);
+        }
+        FeedListener listener = this.listener;
+        if (listener != null) {
+            listener.onContentAdded();
+        }
+        return null;
+    }
+
+    // upload side
+
+    /**
+     * @param listener notified when chunks are added or the download completes, possibly from a thread that isn't the upload's event loop
+     */
+    public void setListener(FeedListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the next chunk received from the download, or {@code null} if there's none yet. The caller is responsible for releasing it.
+     */
+    public @Nullable ByteBuf poll() {
+        synchronized (chunks) {
+            ByteBuf chunk = chunks.poll();
+            if (chunk != null) {
+                pendingBytes -= chunk.readableBytes();
+                if (pendingBytes <= maxPendingBytes / 2) {
+                    readPause.setPaused(downloadChannel, false);
+                }
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * @return true once the download has completed and all its chunks have been polled
+     * @throws IOException if the download failed
+     */
+    public boolean isEndOfInput() throws IOException {
+        Throwable failure = this.failure;
+        if (failure != null) {
+            throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+        }
+        synchronized (chunks) {
+            return completed && chunks.isEmpty();
+        }
+    }
+
+    /**
+     * Abort the transfer: pending chunks are released and the download is aborted when its next chunk is received.
+     */
+    public void cancel() {
+        synchronized (chunks) {
+            cancelled = true;
+            releaseChunks();
+            chunks.notifyAll();
+            // let the download receive its next chunk so it can be aborted
+            readPause.setPaused(downloadChannel, false);
+        }
+    }
+
+    /**
+     * The client doesn't use this method, it directly writes the piped chunks without blocking.
+     *
+     * @return a body whose {@link Body#transferTo(ByteBuf)} blocks until a chunk has been received, so it must not be read from
+     * the download's event loop
+     */
+    @Override
+    public Body createBody() {
+        return new PipeBody(this);
+    }
+
+    // blocks until a chunk can be polled, or the download is over
+    private void awaitChunk() throws IOException {
+        synchronized (chunks) {
+            while (chunks.isEmpty() && !completed && failure == null && !cancelled) {
+                try {
+                    chunks.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+
+    // guarded by chunks
+    private void releaseChunks() {
+        ByteBuf chunk;
+        while ((chunk = chunks.poll()) != null) {
+            chunk.release();
+        }
+        pendingBytes = 0;
+    }
+
+    private static final class PipeBody implements Body {
+
+        private final ResponseBodyPipe pipe;
+        private @Nullable ByteBuf chunk;
+        private boolean endOfInput;
+
+        private PipeBody(ResponseBodyPipe pipe) {
+            this.pipe = pipe;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public BodyState transferTo(ByteBuf target) throws IOException {
+            while (chunk == null) {
+                if (pipe.isEndOfInput()) {
+                    endOfInput = true;
+                    return BodyState.STOP;
+                }
+                pipe.awaitChunk();
+                if (pipe.cancelled) {
+                    throw new IOException("Pipe was cancelled");
+                }
+                chunk = pipe.poll();
+            }
+
+            target.writeBytes(chunk, Math.min(chunk.readableBytes(), target.writableBytes()));
+            if (!chunk.isReadable()) {
+                chunk.release();
+                chunk = null;
+            }
+            return BodyState.CONTINUE;
+        }
+
+        @Override
+        public void close() {
+            if (chunk != null) {
+                chunk.release();
+                chunk = null;
+            }
+            // closed before the whole download was read: the upload was aborted
+            if (!endOfInput) {
+                endOfInput = true;
+                pipe.cancel();
+            }
+        }
+    }
+}
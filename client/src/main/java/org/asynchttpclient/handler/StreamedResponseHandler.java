@@ -0,0 +1,309 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.netty.LazyResponseBodyPart;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * An {@link AsyncHandler} that exposes the response body as an {@link InputStream} that can be read as soon as the headers
+ * have been received, without ever holding the whole body in memory:
+ * <pre>
+ *     StreamedResponseHandler handler = new StreamedResponseHandler();
+ *     client.prepareGet(url).execute(handler);
+ *     Response response = handler.getResponse(); // blocks until the headers are received
+ *     try (InputStream body = handler.getBodyStream()) {
+ *         // consume the body
+ *     }
+ * </pre>
+ * When the client is configured with {@link org.asynchttpclient.AsyncHttpClientConfig.ResponseBodyPartFactory#LAZY}, the response
+ * {@link ByteBuf}s are read as is, without being copied.
+ * <br>
+ * At most {@code maxPendingBytes} are buffered: once they have been received but not read yet, reading from the channel is paused
+ * until half of them have been read.
+ * <br>
+ * The stream must always be closed. Closing it before the end of the body releases the buffered chunks and discards the rest of the body,
+ * so that the connection can go back to the pool, unless more than {@code maxDrainBytes} remain, in which case the connection is closed.
+ */
+public class StreamedResponseHandler implements AsyncHandler<Response> {
+
+    public static final int DEFAULT_MAX_PENDING_BYTES = 64 * 1024;
+    public static final long DEFAULT_MAX_DRAIN_BYTES = 64 * 1024;
+
+    private final long maxPendingBytes;
+    private final long maxDrainBytes;
+    private final Response.ResponseBuilder responseBuilder = new Response.ResponseBuilder();
+    private final CountDownLatch headersArrived = new CountDownLatch(1);
+    private final BodyStream bodyStream = new BodyStream();
+    private final ChannelReadPause readPause = new ChannelReadPause();
+    private volatile @Nullable Channel channel;
+    private volatile @Nullable Response response;
+    private volatile @Nullable Throwable failure;
+
+    // guarded by bodyStream
+    private final ArrayDeque<ByteBuf> chunks = new ArrayDeque<>();
+    private long pendingBytes;
+    private long drainedBytes;
+    private boolean completed;
+    private boolean closed;
+
+    public StreamedResponseHandler() {
+        this(DEFAULT_MAX_PENDING_BYTES, DEFAULT_MAX_DRAIN_BYTES);
+    }
+
+    /**
+     * @param maxPendingBytes the number of received but unread bytes above which reading from the channel is paused
+     * @param maxDrainBytes   the number of bytes that can be discarded after the stream is closed to keep the connection open
+     */
+    public StreamedResponseHandler(long maxPendingBytes, long maxDrainBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+        this.maxDrainBytes = maxDrainBytes;
+    }
+
+    /**
+     * Blocks until the status and headers have been received.
+     *
+     * @return the response, without its body that's read with {@link #getBodyStream()}
+     * @throws InterruptedException if the current thread was interrupted
+     * @throws IOException          if the request failed before the headers were received
+     */
+    public Response getResponse() throws InterruptedException, IOException {
+        headersArrived.await();
+        Response response = this.response;
+        if (response == null) {
+            Throwable failure = this.failure;
+            if (failure == null) {
+                throw new IOException("Response completed without headers");
+            }
+            throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+        }
+        return response;
+    }
+
+    /**
+     * @return the stream of the response body, that must be closed
+     */
+    public InputStream getBodyStream() {
+        return bodyStream;
+    }
+
+    @Override
+    public void onTcpConnectSuccess(InetSocketAddress remoteAddress, Channel connection) {
+        channel = connection;
+    }
+
+    @Override
+    public void onConnectionPooled(Channel connection) {
+        channel = connection;
+    }
+
+    @Override
+    public State onStatusReceived(HttpResponseStatus responseStatus) {
+        responseBuilder.reset();
+        responseBuilder.accumulate(responseStatus);
+        return State.CONTINUE;
+    }
+
+    @Override
+    public State onHeadersReceived(HttpHeaders headers) {
+        responseBuilder.accumulate(headers);
+        response = responseBuilder.build();
+        headersArrived.countDown();
+        return State.CONTINUE;
+    }
+
+    @Override
+    public State onTrailingHeadersReceived(HttpHeaders headers) {
+        responseBuilder.accumulate(headers);
+        return State.CONTINUE;
+    }
+
+    @Override
+    public State onBodyPartReceived(HttpResponseBodyPart bodyPart) {
+        int length = bodyPart.length();
+        synchronized (bodyStream) {
+            if (closed) {
+                drainedBytes += length;
+                return drainedBytes > maxDrainBytes ? State.ABORT : State.CONTINUE;
+            }
+            if (length == 0) {
+                return State.CONTINUE;
+            }
+
+            ByteBuf buf = bodyPart instanceof LazyResponseBodyPart
+                    // the part is released once this method returns
+                    ? ((LazyResponseBodyPart) bodyPart).getBuf().retainedDuplicate()
+                    : Unpooled.wrappedBuffer(bodyPart.getBodyPartBytes());
+            chunks.add(buf);
+            pendingBytes += buf.readableBytes();
+            bodyStream.notifyAll();
+            if (pendingBytes > maxPendingBytes && !bodyPart.isLast()) {
+                // under the lock, so a reader can't resume before the pause
+                readPause.setPaused(channel, true);
+            }
+        }
+        return State.CONTINUE;
+    }
+
+    @Override
+    public void onThrowable(Throwable t) {
+        failure = t;
+        synchronized (bodyStream) {
+            releaseChunks();
+            bodyStream.notifyAll();
+        }
+        headersArrived.countDown();
+        readPause.setPaused(channel, false);
+    }
+
+    @Override
+    public @Nullable Response onCompleted() {
+        synchronized (bodyStream) {
+            completed = true;
+            bodyStream.notifyAll();
+        }
+        headersArrived.countDown();
+        // chunks decoded from the same read may have completed the response after a pause, don't leave the channel paused
+        readPause.setPaused(channel, false);
+        return response != null ? responseBuilder.build() : null;
+    }
+
+    // guarded by bodyStream
+    private void releaseChunks() {
+        ByteBuf chunk;
+        while ((chunk = chunks.poll()) != null) {
+            chunk.release();
+        }
+        pendingBytes = 0;
+    }
+
+    private final class BodyStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            synchronized (this) {
+                ByteBuf chunk = awaitChunk();
+                if (chunk == null) {
+                    return -1;
+                }
+                int b = chunk.readByte() & 0xFF;
+                consumed(chunk, 1);
+                return b;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            synchronized (this) {
+                int read = 0;
+                // only block for the first chunk, then return what's already been received
+                for (ByteBuf chunk = awaitChunk(); chunk != null && read < len; chunk = chunks.peek()) {
+                    int n = Math.min(len - read, chunk.readableBytes());
+                    chunk.readBytes(b, off + read, n);
+                    read += n;
+                    consumed(chunk, n);
+                }
+                return read == 0 ? -1 : read;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            synchronized (this) {
+                ByteBuf chunk = awaitChunk();
+                if (chunk == null || n <= 0) {
+                    return 0;
+                }
+                int skipped = (int) Math.min(n, chunk.readableBytes());
+                chunk.skipBytes(skipped);
+                consumed(chunk, skipped);
+                return skipped;
+            }
+        }
+
+        @Override
+        public int available() {
+            synchronized (this) {
+                return (int) Math.min(Integer.MAX_VALUE, pendingBytes);
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                releaseChunks();
+                notifyAll();
+            }
+            // let the rest of the body be received so it can be discarded
+            readPause.setPaused(channel, false);
+        }
+
+        private @Nullable ByteBuf awaitChunk() throws IOException {
+            for (;;) {
+                if (closed) {
+                    throw new IOException("Stream closed");
+                }
+                Throwable failure = StreamedResponseHandler.this.failure;
+                if (failure != null) {
+                    throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+                }
+                ByteBuf chunk = chunks.peek();
+                if (chunk != null || completed) {
+                    return chunk;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+
+        private void consumed(ByteBuf chunk, int n) {
+            pendingBytes -= n;
+            if (!chunk.isReadable()) {
+                chunks.poll();
+                chunk.release();
+            }
+            if (pendingBytes <= maxPendingBytes / 2) {
+                readPause.setPaused(channel, false);
+            }
+        }
+    }
+}
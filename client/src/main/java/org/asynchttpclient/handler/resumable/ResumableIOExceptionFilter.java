@@ -15,9 +15,12 @@ package org.asynchttpclient.handler.resumable;
 import org.asynchttpclient.Request;
 import org.asynchttpclient.filter.FilterContext;
 import org.asynchttpclient.filter.IOExceptionFilter;
+import org.asynchttpclient.handler.FileDownloadHandler;
+
+import java.io.IOException;
 
 /**
- * Simple {@link IOExceptionFilter} that replay the current {@link Request} using a {@link ResumableAsyncHandler}
+ * Simple {@link IOExceptionFilter} that replay the current {@link Request} using a {@link ResumableAsyncHandler} or a {@link FileDownloadHandler}
  */
 public class ResumableIOExceptionFilter implements IOExceptionFilter {
 
@@ -27,6 +30,14 @@ public class ResumableIOExceptionFilter implements IOExceptionFilter {
             Request request = ((ResumableAsyncHandler) ctx.getAsyncHandler()).adjustRequestRange(ctx.getRequest());
             return new FilterContext.FilterContextBuilder<>(ctx).request(request).replayRequest(true).build();
         }
+        if (ctx.getIOException() != null && ctx.getAsyncHandler() instanceof FileDownloadHandler) {
+            try {
+                Request request = ((FileDownloadHandler) ctx.getAsyncHandler()).adjustRequestRange(ctx.getRequest());
+                return new FilterContext.FilterContextBuilder<>(ctx).request(request).replayRequest(true).build();
+            } catch (IOException e) {
+                return ctx;
+            }
+        }
         return ctx;
     }
 }
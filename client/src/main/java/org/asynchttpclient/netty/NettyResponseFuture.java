@@ -181,6 +181,7 @@ public final class NettyResponseFuture<V> implements ListenableFuture<V> {
     @Override
     public boolean cancel(boolean force) {
         releasePartitionKeyLock();
+        releaseNettyRequest();
         cancelTimeouts();
 
         if (IS_CANCELLED_FIELD.getAndSet(this, 1) != 0) {
@@ -249,8 +250,16 @@ public final class NettyResponseFuture<V> implements ListenableFuture<V> {
 
     // org.asynchttpclient.ListenableFuture
 
+    private void releaseNettyRequest() {
+        NettyRequest nettyRequest = this.nettyRequest;
+        if (nettyRequest != null) {
+            nettyRequest.releaseIfUnclaimed();
+        }
+    }
+
     private boolean terminateAndExit() {
         releasePartitionKeyLock();
+        releaseNettyRequest();
         cancelTimeouts();
         channel = null;
         reuseChannel = false;
@@ -351,6 +360,10 @@ public final class NettyResponseFuture<V> implements ListenableFuture<V> {
     }
 
     public void setNettyRequest(NettyRequest nettyRequest) {
+        if (this.nettyRequest != nettyRequest) {
+            // the previous request was either written or won't ever be, eg when retrying after a failed connection
+            releaseNettyRequest();
+        }
         this.nettyRequest = nettyRequest;
     }
 
@@ -498,7 +511,7 @@ public final class NettyResponseFuture<V> implements ListenableFuture<V> {
 
     public Object getPartitionKey() {
         return connectionPoolPartitioning.getPartitionKey(targetRequest.getUri(), targetRequest.getVirtualHost(),
-                proxyServer);
+                proxyServer, targetRequest.getUnixDomainSocket());
     }
 
     public void acquirePartitionLockLazily() throws IOException {
@@ -18,13 +18,13 @@ package org.asynchttpclient.netty.channel;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFactory;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
@@ -34,7 +34,7 @@ import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.websocketx.WebSocket08FrameDecoder;
 import io.netty.handler.codec.http.websocketx.WebSocket08FrameEncoder;
 import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
-import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketClientCompressionHandler;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.proxy.ProxyHandler;
@@ -54,20 +54,26 @@ import org.asynchttpclient.AsyncHandler;
 import org.asynchttpclient.AsyncHttpClientConfig;
 import org.asynchttpclient.ClientStats;
 import org.asynchttpclient.HostStats;
+import org.asynchttpclient.PartitionStats;
 import org.asynchttpclient.Realm;
 import org.asynchttpclient.SslEngineFactory;
+import org.asynchttpclient.WebSocketStats;
 import org.asynchttpclient.channel.ChannelPool;
 import org.asynchttpclient.channel.ChannelPoolPartitioning;
 import org.asynchttpclient.channel.NoopChannelPool;
 import org.asynchttpclient.netty.NettyResponseFuture;
 import org.asynchttpclient.netty.OnLastHttpContentCallback;
+import org.asynchttpclient.netty.channel.LowFootprintWebSocketHandlers.LazyWebSocketFrameAggregator;
+import org.asynchttpclient.netty.channel.TransportFactory.DomainSocketTransport;
 import org.asynchttpclient.netty.handler.AsyncHttpClientHandler;
 import org.asynchttpclient.netty.handler.HttpHandler;
 import org.asynchttpclient.netty.handler.WebSocketHandler;
 import org.asynchttpclient.netty.request.NettyRequestSender;
+import org.asynchttpclient.netty.ws.WebSocketHeartbeat;
 import org.asynchttpclient.netty.ssl.DefaultSslEngineFactory;
 import org.asynchttpclient.proxy.ProxyServer;
 import org.asynchttpclient.uri.Uri;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,7 +98,10 @@ public class ChannelManager {
     public static final String WS_DECODER_HANDLER = "ws-decoder";
     public static final String WS_FRAME_AGGREGATOR = "ws-aggregator";
     public static final String WS_COMPRESSOR_HANDLER = "ws-compressor";
+    public static final String WS_COMPRESSED_METER_HANDLER = "ws-compressed-meter";
+    public static final String WS_UNCOMPRESSED_METER_HANDLER = "ws-uncompressed-meter";
     public static final String WS_ENCODER_HANDLER = "ws-encoder";
+    public static final String WS_FLUSH_CONSOLIDATION_HANDLER = "ws-flush-consolidation";
     public static final String AHC_HTTP_HANDLER = "ahc-http";
     public static final String AHC_WS_HANDLER = "ahc-ws";
     public static final String LOGGING_HANDLER = "logging";
@@ -103,10 +112,18 @@ public class ChannelManager {
     private final boolean allowReleaseEventLoopGroup;
     private final Bootstrap httpBootstrap;
     private final Bootstrap wsBootstrap;
+    private final @Nullable DomainSocketTransport domainSocketTransport;
+    private final @Nullable Bootstrap httpDomainSocketBootstrap;
+    private final @Nullable Bootstrap wsDomainSocketBootstrap;
     private final long handshakeTimeout;
 
     private final ChannelPool channelPool;
     private final ChannelGroup openChannels;
+    private final LazyWebSocketFrameAggregator lazyWebSocketFrameAggregator;
+    private final WebSocketHeartbeat webSocketHeartbeat;
+    private final WebSocketCompression webSocketCompression;
+    private final LocalAddressRotation localAddressRotation;
+    private final RequestPipelining requestPipelining;
 
     private AsyncHttpClientHandler wsHandler;
 
@@ -122,6 +139,11 @@ public class ChannelManager {
 
     public ChannelManager(final AsyncHttpClientConfig config, Timer nettyTimer) {
         this.config = config;
+        lazyWebSocketFrameAggregator = new LazyWebSocketFrameAggregator(config.getWebSocketMaxBufferSize());
+        webSocketHeartbeat = new WebSocketHeartbeat(nettyTimer, config);
+        webSocketCompression = new WebSocketCompression(config);
+        localAddressRotation = new LocalAddressRotation(config.getLocalAddresses());
+        requestPipelining = new RequestPipelining(config.getMaxPipelinedRequests());
 
         sslEngineFactory = config.getSslEngineFactory() != null ? config.getSslEngineFactory() : new DefaultSslEngineFactory();
         try {
@@ -171,8 +193,14 @@ public class ChannelManager {
             }
         }
 
+        if (config.isIpBindAddressNoPort() && transportFactory.ipBindAddressNoPortOption() == null) {
+            LOGGER.warn("IP_BIND_ADDRESS_NO_PORT isn't supported by this transport or Netty version, ignoring it");
+        }
         httpBootstrap = newBootstrap(transportFactory, eventLoopGroup, config);
         wsBootstrap = newBootstrap(transportFactory, eventLoopGroup, config);
+        domainSocketTransport = transportFactory.domainSocketTransport();
+        httpDomainSocketBootstrap = newDomainSocketBootstrap(domainSocketTransport, eventLoopGroup, config);
+        wsDomainSocketBootstrap = newDomainSocketBootstrap(domainSocketTransport, eventLoopGroup, config);
     }
 
     private static TransportFactory<? extends Channel, ? extends EventLoopGroup> getNativeTransportFactory(AsyncHttpClientConfig config) {
@@ -203,8 +231,9 @@ public class ChannelManager {
         return pipeline.get(SSL_HANDLER) != null;
     }
 
-    private static Bootstrap newBootstrap(ChannelFactory<? extends Channel> channelFactory, EventLoopGroup eventLoopGroup, AsyncHttpClientConfig config) {
-        Bootstrap bootstrap = new Bootstrap().channelFactory(channelFactory).group(eventLoopGroup)
+    private static Bootstrap newBootstrap(TransportFactory<? extends Channel, ? extends EventLoopGroup> transportFactory, EventLoopGroup eventLoopGroup,
+                                          AsyncHttpClientConfig config) {
+        Bootstrap bootstrap = new Bootstrap().channelFactory(transportFactory).group(eventLoopGroup)
                 .option(ChannelOption.ALLOCATOR, config.getAllocator() != null ? config.getAllocator() : ByteBufAllocator.DEFAULT)
                 .option(ChannelOption.TCP_NODELAY, config.isTcpNoDelay())
                 .option(ChannelOption.SO_REUSEADDR, config.isSoReuseAddress())
@@ -229,6 +258,11 @@ public class ChannelManager {
             bootstrap.option(ChannelOption.SO_RCVBUF, config.getSoRcvBuf());
         }
 
+        ChannelOption<Boolean> ipBindAddressNoPort = transportFactory.ipBindAddressNoPortOption();
+        if (config.isIpBindAddressNoPort() && ipBindAddressNoPort != null) {
+            bootstrap.option(ipBindAddressNoPort, true);
+        }
+
         for (Entry<ChannelOption<Object>, Object> entry : config.getChannelOptions().entrySet()) {
             bootstrap.option(entry.getKey(), entry.getValue());
         }
@@ -236,9 +270,37 @@ public class ChannelManager {
         return bootstrap;
     }
 
+    private static @Nullable Bootstrap newDomainSocketBootstrap(@Nullable DomainSocketTransport domainSocketTransport, EventLoopGroup eventLoopGroup,
+                                                                AsyncHttpClientConfig config) {
+        if (domainSocketTransport == null) {
+            return null;
+        }
+
+        // the TCP options and the custom channel options don't apply to unix domain sockets
+        Bootstrap bootstrap = new Bootstrap().channelFactory(domainSocketTransport.getChannelFactory()).group(eventLoopGroup)
+                .option(ChannelOption.ALLOCATOR, config.getAllocator() != null ? config.getAllocator() : ByteBufAllocator.DEFAULT)
+                .option(ChannelOption.AUTO_CLOSE, false);
+
+        long connectTimeout = config.getConnectTimeout().toMillis();
+        if (connectTimeout > 0) {
+            connectTimeout = Math.min(connectTimeout, Integer.MAX_VALUE);
+            bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout);
+        }
+
+        if (config.getSoSndBuf() >= 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, config.getSoSndBuf());
+        }
+
+        if (config.getSoRcvBuf() >= 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, config.getSoRcvBuf());
+        }
+
+        return bootstrap;
+    }
+
     public void configureBootstraps(NettyRequestSender requestSender) {
         final AsyncHttpClientHandler httpHandler = new HttpHandler(config, this, requestSender);
-        wsHandler = new WebSocketHandler(config, this, requestSender);
+        wsHandler = new WebSocketHandler(config, this, requestSender, webSocketHeartbeat);
 
         httpBootstrap.handler(new ChannelInitializer<Channel>() {
             @Override
@@ -273,7 +335,11 @@ public class ChannelManager {
                         .addLast(AHC_WS_HANDLER, wsHandler);
 
                 if (config.isEnableWebSocketCompression()) {
-                    pipeline.addBefore(AHC_WS_HANDLER, WS_COMPRESSOR_HANDLER, WebSocketClientCompressionHandler.INSTANCE);
+                    addWebSocketCompressionHandlers(pipeline);
+                }
+
+                if (config.isWebSocketFlushConsolidation()) {
+                    pipeline.addBefore(AHC_WS_HANDLER, WS_FLUSH_CONSOLIDATION_HANDLER, newFlushConsolidationHandler());
                 }
 
                 if (LOGGER.isTraceEnabled()) {
@@ -285,6 +351,27 @@ public class ChannelManager {
                 }
             }
         });
+
+        // connections over unix domain sockets get the same pipeline
+        if (httpDomainSocketBootstrap != null) {
+            httpDomainSocketBootstrap.handler(httpBootstrap.config().handler());
+            wsDomainSocketBootstrap.handler(wsBootstrap.config().handler());
+        }
+    }
+
+    private void addWebSocketCompressionHandlers(ChannelPipeline pipeline) {
+        pipeline.addBefore(AHC_WS_HANDLER, WS_COMPRESSOR_HANDLER, webSocketCompression.handler());
+        if (webSocketCompression.isMetrics()) {
+            // the compression handler installs the extension encoder and decoder right after itself, so between the meter's handlers
+            WebSocketCompression.Meter meter = webSocketCompression.newMeter();
+            pipeline.addBefore(WS_COMPRESSOR_HANDLER, WS_COMPRESSED_METER_HANDLER, meter.compressedSide);
+            pipeline.addAfter(WS_COMPRESSOR_HANDLER, WS_UNCOMPRESSED_METER_HANDLER, meter.uncompressedSide);
+        }
+    }
+
+    private static FlushConsolidationHandler newFlushConsolidationHandler() {
+        // also consolidate the flushes of frames sent from outside a read, they're flushed on the next event loop tick
+        return new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true);
     }
 
     private HttpContentDecompressor newHttpContentDecompressor() {
@@ -302,6 +389,11 @@ public class ChannelManager {
 
     public final void tryToOfferChannelToPool(Channel channel, AsyncHandler<?> asyncHandler, boolean keepAlive, Object partitionKey) {
         if (channel.isActive() && keepAlive) {
+            if (requestPipelining.next(channel)) {
+                LOGGER.debug("Channel {} now serves the next pipelined request", channel);
+                return;
+            }
+
             LOGGER.debug("Adding key: {} for channel {}", partitionKey, channel);
             Channels.setDiscard(channel);
 
@@ -322,7 +414,11 @@ public class ChannelManager {
     }
 
     public Channel poll(Uri uri, String virtualHost, ProxyServer proxy, ChannelPoolPartitioning connectionPoolPartitioning) {
-        Object partitionKey = connectionPoolPartitioning.getPartitionKey(uri, virtualHost, proxy);
+        return poll(uri, virtualHost, proxy, null, connectionPoolPartitioning);
+    }
+
+    public Channel poll(Uri uri, String virtualHost, ProxyServer proxy, @Nullable String unixDomainSocket, ChannelPoolPartitioning connectionPoolPartitioning) {
+        Object partitionKey = connectionPoolPartitioning.getPartitionKey(uri, virtualHost, proxy, unixDomainSocket);
         return channelPool.poll(partitionKey);
     }
 
@@ -401,7 +497,11 @@ public class ChannelManager {
             pipeline.addAfter(AHC_HTTP_HANDLER, AHC_WS_HANDLER, wsHandler);
 
             if (config.isEnableWebSocketCompression()) {
-                pipeline.addBefore(AHC_WS_HANDLER, WS_COMPRESSOR_HANDLER, WebSocketClientCompressionHandler.INSTANCE);
+                addWebSocketCompressionHandlers(pipeline);
+            }
+
+            if (config.isWebSocketFlushConsolidation()) {
+                pipeline.addBefore(AHC_WS_HANDLER, WS_FLUSH_CONSOLIDATION_HANDLER, newFlushConsolidationHandler());
             }
 
             pipeline.remove(AHC_HTTP_HANDLER);
@@ -493,13 +593,35 @@ public class ChannelManager {
         return promise;
     }
 
+    /**
+     * @param uri              the uri of the request
+     * @param unixDomainSocket the path of the socket to connect to
+     * @return a bootstrap that connects to the socket, which fails if the transport doesn't support unix domain sockets
+     */
+    public Future<Bootstrap> getDomainSocketBootstrap(Uri uri, String unixDomainSocket) {
+        final Promise<Bootstrap> promise = ImmediateEventExecutor.INSTANCE.newPromise();
+        Bootstrap bootstrap = uri.isWebSocket() ? wsDomainSocketBootstrap : httpDomainSocketBootstrap;
+        if (bootstrap == null) {
+            return promise.setFailure(new UnsupportedOperationException("Unix domain sockets require the epoll or kqueue native transport"));
+        }
+        return promise.setSuccess(bootstrap.clone().remoteAddress(domainSocketTransport.newAddress(unixDomainSocket)));
+    }
+
     public void upgradePipelineForWebSockets(ChannelPipeline pipeline) {
-        pipeline.addAfter(HTTP_CLIENT_CODEC, WS_ENCODER_HANDLER, new WebSocket08FrameEncoder(true));
+        int highWaterMark = config.getWebSocketWriteBufferHighWaterMark();
+        if (highWaterMark >= 0) {
+            pipeline.channel().config().setWriteBufferWaterMark(new WriteBufferWaterMark(highWaterMark / 2, highWaterMark));
+        }
+
+        boolean lowMemoryFootprint = config.isWebSocketLowMemoryFootprint();
+        pipeline.addAfter(HTTP_CLIENT_CODEC, WS_ENCODER_HANDLER, lowMemoryFootprint ? LowFootprintWebSocketHandlers.ENCODER : new WebSocket08FrameEncoder(true));
         pipeline.addAfter(WS_ENCODER_HANDLER, WS_DECODER_HANDLER, new WebSocket08FrameDecoder(false,
                 config.isEnableWebSocketCompression(), config.getWebSocketMaxFrameSize()));
 
         if (config.isAggregateWebSocketFrameFragments()) {
-            pipeline.addAfter(WS_DECODER_HANDLER, WS_FRAME_AGGREGATOR, new WebSocketFrameAggregator(config.getWebSocketMaxBufferSize()));
+            pipeline.addAfter(WS_DECODER_HANDLER, WS_FRAME_AGGREGATOR, lowMemoryFootprint
+                    ? lazyWebSocketFrameAggregator
+                    : new WebSocketFrameAggregator(config.getWebSocketMaxBufferSize()));
         }
 
         pipeline.remove(HTTP_CLIENT_CODEC);
@@ -530,7 +652,15 @@ public class ChannelManager {
         return eventLoopGroup;
     }
 
-    public ClientStats getClientStats() {
+    public LocalAddressRotation getLocalAddressRotation() {
+        return localAddressRotation;
+    }
+
+    public RequestPipelining getRequestPipelining() {
+        return requestPipelining;
+    }
+
+    public ClientStats getClientStats(ConnectionSemaphore connectionSemaphore) {
         Map<String, Long> totalConnectionsPerHost = openChannels.stream()
                 .map(Channel::remoteAddress)
                 .filter(a -> a instanceof InetSocketAddress)
@@ -548,7 +678,12 @@ public class ChannelManager {
                     final long activeConnectionCount = totalConnectionCount - idleConnectionCount;
                     return new HostStats(activeConnectionCount, idleConnectionCount);
                 }));
-        return new ClientStats(statsPerHost);
+        WebSocketStats webSocketStats = new WebSocketStats(webSocketHeartbeat.getMissedPongCount(), webSocketHeartbeat.getClosedForMissedPongCount(),
+                webSocketCompression.uncompressedBytesSent(), webSocketCompression.compressedBytesSent(), webSocketCompression.compressionNanos(),
+                webSocketCompression.compressedBytesReceived(), webSocketCompression.decompressedBytesReceived(), webSocketCompression.decompressionNanos());
+        PartitionStats partitionStats = new PartitionStats(channelPool.getPartitionCount(), channelPool.getEvictedPartitionCount(),
+                connectionSemaphore.getPartitionCount(), connectionSemaphore.getEvictedPartitionCount());
+        return new ClientStats(statsPerHost, webSocketStats, partitionStats, localAddressRotation.getPortExhaustionCount());
     }
 
     public boolean isOpen() {
@@ -19,15 +19,20 @@ import io.netty.channel.Channel;
 import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import org.asynchttpclient.netty.DiscardEvent;
+import org.asynchttpclient.uri.Uri;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
 public final class Channels {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Channels.class);
 
     private static final AttributeKey<Object> DEFAULT_ATTRIBUTE = AttributeKey.valueOf("default");
     private static final AttributeKey<Active> ACTIVE_TOKEN_ATTRIBUTE = AttributeKey.valueOf("activeToken");
+    private static final AttributeKey<Boolean> AUTO_READ_BEFORE_PAUSE_ATTRIBUTE = AttributeKey.valueOf("autoReadBeforePause");
 
     private Channels() {
         // Prevent outside initialization
@@ -50,6 +55,18 @@ public final class Channels {
         return channel != null && channel.isActive();
     }
 
+    /**
+     * @return the channel's remote address, or the uri's unresolved one if the channel is connected to a unix domain socket,
+     * or null if it's closed
+     */
+    public static InetSocketAddress getInetRemoteAddress(Channel channel, Uri uri) {
+        SocketAddress remoteAddress = channel.remoteAddress();
+        if (remoteAddress == null || remoteAddress instanceof InetSocketAddress) {
+            return (InetSocketAddress) remoteAddress;
+        }
+        return InetSocketAddress.createUnresolved(uri.getHost(), uri.getExplicitPort());
+    }
+
     public static void setActiveToken(Channel channel) {
         channel.attr(ACTIVE_TOKEN_ATTRIBUTE).set(Active.INSTANCE);
     }
@@ -58,6 +75,38 @@ public final class Channels {
         return channel != null && channel.attr(ACTIVE_TOKEN_ATTRIBUTE).getAndSet(null) != null;
     }
 
+    /**
+     * Stops reading from the channel until {@link #resumeReading(Channel)}, remembering whether auto read was enabled.
+     * Must be called on the channel's event loop.
+     */
+    public static void pauseReading(Channel channel) {
+        Attribute<Boolean> autoReadBeforePause = channel.attr(AUTO_READ_BEFORE_PAUSE_ATTRIBUTE);
+        if (autoReadBeforePause.get() == null) {
+            autoReadBeforePause.set(channel.config().isAutoRead());
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    /**
+     * Restores the auto read the channel had before {@link #pauseReading(Channel)}, or requests a single read if it was disabled.
+     * Must be called on the channel's event loop.
+     */
+    public static void resumeReading(Channel channel) {
+        Boolean autoReadBeforePause = channel.attr(AUTO_READ_BEFORE_PAUSE_ATTRIBUTE).getAndSet(null);
+        if (autoReadBeforePause != null) {
+            if (autoReadBeforePause) {
+                channel.config().setAutoRead(true);
+            } else {
+                // the read skipped while paused
+                channel.read();
+            }
+        }
+    }
+
+    public static boolean isReadingPaused(Channel channel) {
+        return channel.attr(AUTO_READ_BEFORE_PAUSE_ATTRIBUTE).get() != null;
+    }
+
     public static void silentlyCloseChannel(Channel channel) {
         try {
             if (channel != null && channel.isActive()) {
@@ -16,7 +16,6 @@
 package org.asynchttpclient.netty.channel;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
 /**
  * A combined {@link ConnectionSemaphore} with two limits - a global limit and a per-host limit
@@ -34,7 +33,7 @@ public class CombinedConnectionSemaphore extends PerHostConnectionSemaphore {
         long remainingTime = acquireTimeout > 0 ? acquireGlobalTimed(partitionKey) : acquireGlobal(partitionKey);
 
         try {
-            if (remainingTime < 0 || !getFreeConnectionsForHost(partitionKey).tryAcquire(remainingTime, TimeUnit.MILLISECONDS)) {
+            if (remainingTime < 0 || !tryAcquireForHost(partitionKey, remainingTime)) {
                 releaseGlobal(partitionKey);
                 throw tooManyConnectionsPerHost;
             }
@@ -25,4 +25,18 @@ public interface ConnectionSemaphore {
     void acquireChannelLock(Object partitionKey) throws IOException;
 
     void releaseChannelLock(Object partitionKey);
+
+    /**
+     * @return the number of partitions for which this semaphore currently holds some state
+     */
+    default long getPartitionCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of partitions whose state was evicted once they had no connection left
+     */
+    default long getEvictedPartitionCount() {
+        return 0;
+    }
 }
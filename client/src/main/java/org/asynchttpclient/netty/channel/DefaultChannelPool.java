@@ -38,6 +38,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -47,13 +48,18 @@ import static org.asynchttpclient.util.DateUtils.unpreciseMillisTime;
 
 /**
  * A simple implementation of {@link ChannelPool} based on a {@link ConcurrentHashMap}
+ * <p>
+ * The partitions left empty are evicted by the idle channel detector, so that clients talking to a great many hosts
+ * don't keep a partition for each of them. A channel offered to a partition while it's being evicted is handed over to
+ * a new partition, either by the offer or by the eviction, whichever takes its ownership.
  */
 public final class DefaultChannelPool implements ChannelPool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultChannelPool.class);
     private static final AttributeKey<ChannelCreation> CHANNEL_CREATION_ATTRIBUTE_KEY = AttributeKey.valueOf("channelCreation");
 
-    private final ConcurrentHashMap<Object, ConcurrentLinkedDeque<IdleChannel>> partitions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Partition> partitions = new ConcurrentHashMap<>();
+    private final LongAdder evictedPartitionCount = new LongAdder();
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
     private final Timer nettyTimer;
     private final long connectionTtl;
@@ -127,11 +133,18 @@ public final class DefaultChannelPool implements ChannelPool {
     }
 
     private boolean offer0(Channel channel, Object partitionKey, long now) {
-        ConcurrentLinkedDeque<IdleChannel> partition = partitions.get(partitionKey);
-        if (partition == null) {
-            partition = partitions.computeIfAbsent(partitionKey, pk -> new ConcurrentLinkedDeque<>());
+        for (;;) {
+            Partition partition = partitions.get(partitionKey);
+            if (partition == null) {
+                partition = partitions.computeIfAbsent(partitionKey, pk -> new Partition());
+            }
+            IdleChannel idleChannel = new IdleChannel(channel, now);
+            partition.offerFirst(idleChannel);
+            if (!partition.evicted || !idleChannel.takeOwnership()) {
+                return true;
+            }
+            // the partition was evicted in the meantime, and the channel wasn't handed over by the eviction: retry
         }
-        return partition.offerFirst(new IdleChannel(channel, now));
     }
 
     private static void registerChannelCreation(Channel channel, Object partitionKey, long now) {
@@ -144,7 +157,7 @@ public final class DefaultChannelPool implements ChannelPool {
     @Override
     public Channel poll(Object partitionKey) {
         IdleChannel idleChannel = null;
-        ConcurrentLinkedDeque<IdleChannel> partition = partitions.get(partitionKey);
+        Partition partition = partitions.get(partitionKey);
         if (partition != null) {
             while (idleChannel == null) {
                 idleChannel = poolLeaseStrategy.lease(partition);
@@ -168,7 +181,11 @@ public final class DefaultChannelPool implements ChannelPool {
     @Override
     public boolean removeAll(Channel channel) {
         ChannelCreation creation = connectionTtlEnabled ? channel.attr(CHANNEL_CREATION_ATTRIBUTE_KEY).get() : null;
-        return !isClosed.get() && creation != null && partitions.get(creation.partitionKey).remove(new IdleChannel(channel, Long.MIN_VALUE));
+        if (isClosed.get() || creation == null) {
+            return false;
+        }
+        Partition partition = partitions.get(creation.partitionKey);
+        return partition != null && partition.remove(new IdleChannel(channel, Long.MIN_VALUE));
     }
 
     @Override
@@ -191,18 +208,37 @@ public final class DefaultChannelPool implements ChannelPool {
         Channels.silentlyCloseChannel(channel);
     }
 
-    private void flushPartition(Object partitionKey, ConcurrentLinkedDeque<IdleChannel> partition) {
+    private void flushPartition(Object partitionKey, Partition partition) {
         if (partition != null) {
-            partitions.remove(partitionKey);
+            // marked before it's removed, so that an offer that still sees it retries on a new partition
+            partition.evicted = true;
+            partitions.remove(partitionKey, partition);
             for (IdleChannel idleChannel : partition) {
                 close(idleChannel.channel);
             }
         }
     }
 
+    private void evictIfEmpty(Object partitionKey, Partition partition) {
+        if (partition.isEmpty()) {
+            // same as flushPartition, marked first: remove only fails if the partition was already flushed
+            partition.evicted = true;
+            if (!partitions.remove(partitionKey, partition)) {
+                return;
+            }
+            evictedPartitionCount.increment();
+            // hand over the channels that were offered while evicting
+            for (IdleChannel idleChannel : partition) {
+                if (idleChannel.takeOwnership()) {
+                    offer0(idleChannel.channel, partitionKey, idleChannel.start);
+                }
+            }
+        }
+    }
+
     @Override
     public void flushPartitions(Predicate<Object> predicate) {
-        for (Map.Entry<Object, ConcurrentLinkedDeque<IdleChannel>> partitionsEntry : partitions.entrySet()) {
+        for (Map.Entry<Object, Partition> partitionsEntry : partitions.entrySet()) {
             Object partitionKey = partitionsEntry.getKey();
             if (predicate.test(partitionKey)) {
                 flushPartition(partitionKey, partitionsEntry.getValue());
@@ -223,6 +259,16 @@ public final class DefaultChannelPool implements ChannelPool {
                 .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
     }
 
+    @Override
+    public long getPartitionCount() {
+        return partitions.size();
+    }
+
+    @Override
+    public long getEvictedPartitionCount() {
+        return evictedPartitionCount.sum();
+    }
+
     public enum PoolLeaseStrategy {
         LIFO {
             @Override
@@ -240,6 +286,13 @@ public final class DefaultChannelPool implements ChannelPool {
         abstract <E> E lease(Deque<E> d);
     }
 
+    private static final class Partition extends ConcurrentLinkedDeque<IdleChannel> {
+
+        private static final long serialVersionUID = 1L;
+
+        volatile boolean evicted;
+    }
+
     private static final class ChannelCreation {
         final long creationTime;
         final Object partitionKey;
@@ -290,7 +343,7 @@ public final class DefaultChannelPool implements ChannelPool {
             return maxIdleTimeEnabled && now - idleChannel.start >= maxIdleTime;
         }
 
-        private List<IdleChannel> expiredChannels(ConcurrentLinkedDeque<IdleChannel> partition, long now) {
+        private List<IdleChannel> expiredChannels(Partition partition, long now) {
             // lazy create
             List<IdleChannel> idleTimeoutChannels = null;
             for (IdleChannel idleChannel : partition) {
@@ -347,7 +400,7 @@ public final class DefaultChannelPool implements ChannelPool {
             }
 
             if (LOGGER.isDebugEnabled()) {
-                for (Map.Entry<Object, ConcurrentLinkedDeque<IdleChannel>> entry : partitions.entrySet()) {
+                for (Map.Entry<Object, Partition> entry : partitions.entrySet()) {
                     int size = entry.getValue().size();
                     if (size > 0) {
                         LOGGER.debug("Entry count for : {} : {}", entry.getKey(), size);
@@ -359,7 +412,8 @@ public final class DefaultChannelPool implements ChannelPool {
             int closedCount = 0;
             int totalCount = 0;
 
-            for (ConcurrentLinkedDeque<IdleChannel> partition : partitions.values()) {
+            for (Map.Entry<Object, Partition> entry : partitions.entrySet()) {
+                Partition partition = entry.getValue();
 
                 // store in intermediate unsynchronized lists to minimize
                 // the impact on the ConcurrentLinkedDeque
@@ -373,6 +427,8 @@ public final class DefaultChannelPool implements ChannelPool {
                     partition.removeAll(closedChannels);
                     closedCount += closedChannels.size();
                 }
+
+                evictIfEmpty(entry.getKey(), partition);
             }
 
             if (LOGGER.isDebugEnabled()) {
@@ -15,9 +15,14 @@
  */
 package org.asynchttpclient.netty.channel;
 
+import io.netty.channel.ChannelOption;
 import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -41,4 +46,14 @@ class EpollTransportFactory implements TransportFactory<EpollSocketChannel, Epol
     public EpollEventLoopGroup newEventLoopGroup(int ioThreadsCount, ThreadFactory threadFactory) {
         return new EpollEventLoopGroup(ioThreadsCount, threadFactory);
     }
+
+    @Override
+    public @Nullable ChannelOption<Boolean> ipBindAddressNoPortOption() {
+        return TransportFactory.booleanChannelOption(EpollChannelOption.class, "IP_BIND_ADDRESS_NO_PORT");
+    }
+
+    @Override
+    public DomainSocketTransport domainSocketTransport() {
+        return new DomainSocketTransport(EpollDomainSocketChannel::new, DomainSocketAddress::new);
+    }
 }
@@ -15,9 +15,12 @@
  */
 package org.asynchttpclient.netty.channel;
 
+import io.netty.channel.ChannelOption;
 import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringChannelOption;
 import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
 import io.netty.incubator.channel.uring.IOUringSocketChannel;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -41,4 +44,9 @@ class IoUringIncubatorTransportFactory implements TransportFactory<IOUringSocket
     public IOUringEventLoopGroup newEventLoopGroup(int ioThreadsCount, ThreadFactory threadFactory) {
         return new IOUringEventLoopGroup(ioThreadsCount, threadFactory);
     }
+
+    @Override
+    public @Nullable ChannelOption<Boolean> ipBindAddressNoPortOption() {
+        return TransportFactory.booleanChannelOption(IOUringChannelOption.class, "IP_BIND_ADDRESS_NO_PORT");
+    }
 }
@@ -16,8 +16,10 @@
 package org.asynchttpclient.netty.channel;
 
 import io.netty.channel.kqueue.KQueue;
+import io.netty.channel.kqueue.KQueueDomainSocketChannel;
 import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.kqueue.KQueueSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -41,4 +43,9 @@ class KQueueTransportFactory implements TransportFactory<KQueueSocketChannel, KQ
     public KQueueEventLoopGroup newEventLoopGroup(int ioThreadsCount, ThreadFactory threadFactory) {
         return new KQueueEventLoopGroup(ioThreadsCount, threadFactory);
     }
+
+    @Override
+    public DomainSocketTransport domainSocketTransport() {
+        return new DomainSocketTransport(KQueueDomainSocketChannel::new, DomainSocketAddress::new);
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.net.BindException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spreads new connections over the local addresses of {@link org.asynchttpclient.AsyncHttpClientConfig#getLocalAddresses()}.
+ * <p>
+ * A given destination can only be reached through as many connections from a local address as there are ephemeral
+ * ports, so the connections to each destination are bound to the local addresses of its family in turn. The turns are
+ * tracked by a fixed number of counters that the destinations are hashed to, so that this state doesn't grow with the
+ * number of destinations. A connection that fails because the ports of its local address are exhausted is retried
+ * from the next one, and counted in {@link #getPortExhaustionCount()}.
+ */
+public final class LocalAddressRotation {
+
+    private static final int STRIPES = 64;
+
+    private final InetSocketAddress[] ipv4Addresses;
+    private final InetSocketAddress[] ipv6Addresses;
+    private final AtomicIntegerArray turns = new AtomicIntegerArray(STRIPES);
+    private final LongAdder portExhaustionCount = new LongAdder();
+
+    public LocalAddressRotation(List<InetAddress> localAddresses) {
+        List<InetSocketAddress> ipv4 = new ArrayList<>();
+        List<InetSocketAddress> ipv6 = new ArrayList<>();
+        for (InetAddress localAddress : localAddresses) {
+            (localAddress instanceof Inet6Address ? ipv6 : ipv4).add(new InetSocketAddress(localAddress, 0));
+        }
+        ipv4Addresses = ipv4.toArray(new InetSocketAddress[0]);
+        ipv6Addresses = ipv6.toArray(new InetSocketAddress[0]);
+    }
+
+    private InetSocketAddress[] addresses(InetSocketAddress remoteAddress) {
+        return remoteAddress.getAddress() instanceof Inet6Address ? ipv6Addresses : ipv4Addresses;
+    }
+
+    /**
+     * @param remoteAddress the destination
+     * @return the number of local addresses a connection to this destination can be bound to
+     */
+    public int size(InetSocketAddress remoteAddress) {
+        return addresses(remoteAddress).length;
+    }
+
+    /**
+     * @param remoteAddress the destination
+     * @return the turn of a new connection to this destination, to be passed to {@link #localAddress(InetSocketAddress, int)}
+     */
+    public int nextTurn(InetSocketAddress remoteAddress) {
+        int hash = remoteAddress.hashCode();
+        return turns.getAndIncrement((hash ^ hash >>> 16) & (STRIPES - 1));
+    }
+
+    /**
+     * @param remoteAddress the destination
+     * @param turn          the turn of the connection, incremented when retrying from another local address
+     * @return the local address to bind to, or null if none has the destination's family
+     */
+    public @Nullable InetSocketAddress localAddress(InetSocketAddress remoteAddress, int turn) {
+        InetSocketAddress[] addresses = addresses(remoteAddress);
+        return addresses.length == 0 ? null : addresses[Math.floorMod(turn, addresses.length)];
+    }
+
+    /**
+     * @param cause a connect failure
+     * @return true if it's caused by the lack of a free local port, in which case it's counted
+     */
+    public boolean onConnectFailure(Throwable cause) {
+        if (isPortExhaustion(cause)) {
+            portExhaustionCount.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of connections that failed because no local port was available
+     */
+    public long getPortExhaustionCount() {
+        return portExhaustionCount.sum();
+    }
+
+    static boolean isPortExhaustion(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof BindException) {
+                return true;
+            }
+            String message = t.getMessage();
+            // the native transports report the errno message instead
+            if (message != null && (message.contains("Cannot assign requested address") || message.contains("Address already in use"))) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocket08FrameEncoder;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+
+import static org.asynchttpclient.netty.channel.ChannelManager.WS_FRAME_AGGREGATOR;
+
+/**
+ * Handlers used in WebSocket pipelines when {@link org.asynchttpclient.AsyncHttpClientConfig#isWebSocketLowMemoryFootprint()} is enabled.
+ */
+final class LowFootprintWebSocketHandlers {
+
+    static final WebSocket08FrameEncoder ENCODER = new SharableWebSocket08FrameEncoder();
+
+    private LowFootprintWebSocketHandlers() {
+        // Prevent outside initialization
+    }
+
+    /**
+     * The encoder is stateless, so a single instance can be shared by all the pipelines.
+     */
+    @Sharable
+    private static final class SharableWebSocket08FrameEncoder extends WebSocket08FrameEncoder {
+
+        private SharableWebSocket08FrameEncoder() {
+            super(true);
+        }
+    }
+
+    /**
+     * Stands for the {@link WebSocketFrameAggregator} until a fragmented message is received, then replaces itself with one.
+     */
+    @Sharable
+    static final class LazyWebSocketFrameAggregator extends ChannelInboundHandlerAdapter {
+
+        private final int maxContentLength;
+
+        LazyWebSocketFrameAggregator(int maxContentLength) {
+            this.maxContentLength = maxContentLength;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if ((msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) && !((WebSocketFrame) msg).isFinalFragment()) {
+                WebSocketFrameAggregator aggregator = new WebSocketFrameAggregator(maxContentLength);
+                ctx.pipeline().replace(this, WS_FRAME_AGGREGATOR, aggregator);
+                aggregator.channelRead(ctx.pipeline().context(aggregator), msg);
+            } else {
+                ctx.fireChannelRead(msg);
+            }
+        }
+    }
+}
@@ -17,9 +17,11 @@ package org.asynchttpclient.netty.channel;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import org.asynchttpclient.AsyncHandler;
 import org.asynchttpclient.AsyncHttpClientState;
 import org.asynchttpclient.netty.SimpleChannelFutureListener;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,18 +39,44 @@ public class NettyChannelConnector {
             .newUpdater(NettyChannelConnector.class, "i");
 
     private final AsyncHandler<?> asyncHandler;
-    private final InetSocketAddress localAddress;
+    private final @Nullable InetSocketAddress localAddress;
+    private final @Nullable LocalAddressRotation localAddressRotation;
     private final List<InetSocketAddress> remoteAddresses;
     private final AsyncHttpClientState clientState;
     private volatile int i;
+    private int localAddressTurn;
+    private int localAddressAttempts;
 
     public NettyChannelConnector(InetAddress localAddress, List<InetSocketAddress> remoteAddresses, AsyncHandler<?> asyncHandler, AsyncHttpClientState clientState) {
+        this(localAddress, remoteAddresses, asyncHandler, clientState, null);
+    }
+
+    public NettyChannelConnector(@Nullable InetAddress localAddress, List<InetSocketAddress> remoteAddresses, AsyncHandler<?> asyncHandler,
+                                 AsyncHttpClientState clientState, @Nullable LocalAddressRotation localAddressRotation) {
         this.localAddress = localAddress != null ? new InetSocketAddress(localAddress, 0) : null;
+        this.localAddressRotation = localAddressRotation;
         this.remoteAddresses = remoteAddresses;
         this.asyncHandler = asyncHandler;
         this.clientState = clientState;
     }
 
+    private @Nullable InetSocketAddress localAddress(InetSocketAddress remoteAddress) {
+        if (localAddress != null || localAddressRotation == null) {
+            return localAddress;
+        }
+        if (localAddressAttempts == 0) {
+            localAddressTurn = localAddressRotation.nextTurn(remoteAddress);
+        }
+        return localAddressRotation.localAddress(remoteAddress, localAddressTurn + localAddressAttempts);
+    }
+
+    private boolean pickNextLocalAddress(InetSocketAddress remoteAddress, Throwable cause) {
+        if (localAddressRotation == null || !localAddressRotation.onConnectFailure(cause) || localAddress != null) {
+            return false;
+        }
+        return ++localAddressAttempts < localAddressRotation.size(remoteAddress);
+    }
+
     private boolean pickNextRemoteAddress() {
         I_UPDATER.incrementAndGet(this);
         return i < remoteAddresses.size();
@@ -66,7 +94,8 @@ public class NettyChannelConnector {
         }
 
         try {
-            connect0(bootstrap, connectListener, remoteAddress);
+            // the domain socket bootstraps already have their address
+            connect0(bootstrap, connectListener, remoteAddress, bootstrap.config().remoteAddress() != null ? null : localAddress(remoteAddress));
         } catch (RejectedExecutionException e) {
             if (clientState.isClosed()) {
                 LOGGER.info("Connect crash but engine is shutting down");
@@ -76,9 +105,10 @@ public class NettyChannelConnector {
         }
     }
 
-    private void connect0(Bootstrap bootstrap, final NettyConnectListener<?> connectListener, InetSocketAddress remoteAddress) {
-        bootstrap.connect(remoteAddress, localAddress)
-                .addListener(new SimpleChannelFutureListener() {
+    private void connect0(Bootstrap bootstrap, final NettyConnectListener<?> connectListener, InetSocketAddress remoteAddress,
+                          @Nullable InetSocketAddress localAddress) {
+        ChannelFuture whenChannel = bootstrap.config().remoteAddress() != null ? bootstrap.connect() : bootstrap.connect(remoteAddress, localAddress);
+        whenChannel.addListener(new SimpleChannelFutureListener() {
                     @Override
                     public void onSuccess(Channel channel) {
                         try {
@@ -100,6 +130,12 @@ public class NettyChannelConnector {
                             connectListener.onFailure(channel, e);
                             return;
                         }
+                        if (localAddress != null && pickNextLocalAddress(remoteAddress, t)) {
+                            LOGGER.debug("No free port on {} to connect to {}, trying from the next local address", localAddress, remoteAddress);
+                            connect(bootstrap, connectListener);
+                            return;
+                        }
+                        localAddressAttempts = 0;
                         boolean retry = pickNextRemoteAddress();
                         if (retry) {
                             connect(bootstrap, connectListener);
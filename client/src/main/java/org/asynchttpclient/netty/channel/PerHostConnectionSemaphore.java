@@ -21,11 +21,17 @@ import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.asynchttpclient.util.ThrowableUtil.unknownStackTrace;
 
 /**
  * Max per-host connections limiter.
+ * <p>
+ * The semaphore of a host only lives as long as some of its permits are acquired, or being acquired: it's evicted as
+ * soon as the last one is released, so that clients talking to a great many hosts don't keep a semaphore for each of
+ * them. The semaphores are counted in and out under the {@link ConcurrentHashMap} lock of their entry, so an eviction
+ * never races with an acquire or a release.
  */
 public class PerHostConnectionSemaphore implements ConnectionSemaphore {
 
@@ -33,6 +39,7 @@ public class PerHostConnectionSemaphore implements ConnectionSemaphore {
     protected final int maxConnectionsPerHost;
     protected final IOException tooManyConnectionsPerHost;
     protected final int acquireTimeout;
+    private final LongAdder evictedCount = new LongAdder();
 
     PerHostConnectionSemaphore(int maxConnectionsPerHost, int acquireTimeout) {
         tooManyConnectionsPerHost = unknownStackTrace(new TooManyConnectionsPerHostException(maxConnectionsPerHost),
@@ -44,7 +51,7 @@ public class PerHostConnectionSemaphore implements ConnectionSemaphore {
     @Override
     public void acquireChannelLock(Object partitionKey) throws IOException {
         try {
-            if (!getFreeConnectionsForHost(partitionKey).tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+            if (!tryAcquireForHost(partitionKey, acquireTimeout)) {
                 throw tooManyConnectionsPerHost;
             }
         } catch (InterruptedException e) {
@@ -54,12 +61,78 @@ public class PerHostConnectionSemaphore implements ConnectionSemaphore {
 
     @Override
     public void releaseChannelLock(Object partitionKey) {
-        getFreeConnectionsForHost(partitionKey).release();
+        if (maxConnectionsPerHost <= 0) {
+            return;
+        }
+        Semaphore semaphore = freeChannelsPerHost.get(partitionKey);
+        if (semaphore != null) {
+            semaphore.release();
+            unregister(partitionKey);
+        }
     }
 
+    protected boolean tryAcquireForHost(Object partitionKey, long timeout) throws InterruptedException {
+        if (maxConnectionsPerHost <= 0) {
+            return true;
+        }
+        boolean acquired = false;
+        try {
+            acquired = register(partitionKey).tryAcquire(timeout, TimeUnit.MILLISECONDS);
+            return acquired;
+        } finally {
+            if (!acquired) {
+                unregister(partitionKey);
+            }
+        }
+    }
+
+    /**
+     * @deprecated the semaphore of a host is now evicted once its last permit is released, use {@link #acquireChannelLock(Object)}
+     * and {@link #releaseChannelLock(Object)} instead. The semaphore returned here is kept as long as this limiter.
+     */
+    @Deprecated
     protected Semaphore getFreeConnectionsForHost(Object partitionKey) {
-        return maxConnectionsPerHost > 0 ?
-                freeChannelsPerHost.computeIfAbsent(partitionKey, pk -> new Semaphore(maxConnectionsPerHost)) :
-                InfiniteSemaphore.INSTANCE;
+        // registered but never unregistered, so that it's never evicted
+        return maxConnectionsPerHost > 0 ? register(partitionKey) : InfiniteSemaphore.INSTANCE;
+    }
+
+    private Semaphore register(Object partitionKey) {
+        return freeChannelsPerHost.compute(partitionKey, (pk, semaphore) -> {
+            HostSemaphore registered = semaphore != null ? (HostSemaphore) semaphore : new HostSemaphore(maxConnectionsPerHost);
+            registered.users++;
+            return registered;
+        });
+    }
+
+    private void unregister(Object partitionKey) {
+        freeChannelsPerHost.computeIfPresent(partitionKey, (pk, semaphore) -> {
+            if (--((HostSemaphore) semaphore).users > 0) {
+                return semaphore;
+            }
+            evictedCount.increment();
+            return null;
+        });
+    }
+
+    @Override
+    public long getPartitionCount() {
+        return freeChannelsPerHost.size();
+    }
+
+    @Override
+    public long getEvictedPartitionCount() {
+        return evictedCount.sum();
+    }
+
+    private static final class HostSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        // the permits that are acquired or being acquired, only accessed under the map entry lock
+        private int users;
+
+        HostSemaphore(int permits) {
+            super(permits);
+        }
     }
 }
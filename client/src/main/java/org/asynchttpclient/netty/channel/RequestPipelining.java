@@ -0,0 +1,260 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.util.AttributeKey;
+import org.asynchttpclient.Realm;
+import org.asynchttpclient.Realm.AuthScheme;
+import org.asynchttpclient.netty.DiscardEvent;
+import org.asynchttpclient.netty.NettyResponseFuture;
+import org.asynchttpclient.netty.request.NettyRequest;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * HTTP/1.1 pipelining, see {@link org.asynchttpclient.AsyncHttpClientConfig#getMaxPipelinedRequests()}.
+ * <p>
+ * The channel's attribute stays the future of the request whose response is being read, while the futures of the requests
+ * that were written after it wait in a FIFO attached to the channel. Once a response is complete, the channel is handed over
+ * to the next one instead of being offered to the pool. A single channel per partition accepts pipelined requests, the last one
+ * a pipelinable request was sent on, and it stops doing so once it has no outstanding request left, when it goes back to the pool.
+ * <p>
+ * The requests are queued and written under the lock of their channel's FIFO, so that they're written in the order their
+ * responses are expected. Their handlers are notified before, without holding the lock, and a request only gets attached to the
+ * channel once it's written, so that cancelling it before doesn't close the channel the previous requests are waiting on.
+ */
+public final class RequestPipelining {
+
+    private static final AttributeKey<PipelinedRequests> PIPELINED_REQUESTS_ATTRIBUTE = AttributeKey.valueOf("pipelinedRequests");
+
+    private final int maxPipelinedRequests;
+    private final ConcurrentHashMap<Object, Channel> channels = new ConcurrentHashMap<>();
+
+    public RequestPipelining(int maxPipelinedRequests) {
+        this.maxPipelinedRequests = maxPipelinedRequests;
+    }
+
+    public boolean isEnabled() {
+        return maxPipelinedRequests > 1;
+    }
+
+    /**
+     * Only idempotent requests without a body, which are written at once, can be sent ahead of the responses of the previous
+     * ones. Requests going through a proxy and connection based authentication schemes need a connection of their own, and
+     * requests that don't keep the connection alive would have the following ones written to a connection that's about to be closed.
+     */
+    boolean canPipeline(NettyResponseFuture<?> future) {
+        if (!isEnabled() || future.getProxyServer() != null || future.isDontWriteBodyBecauseExpectContinue()
+                || future.getUri().isWebSocket() || isConnectionBased(future.getRealm())) {
+            return false;
+        }
+        NettyRequest nettyRequest = future.getNettyRequest();
+        if (nettyRequest == null || nettyRequest.getBody() != null) {
+            return false;
+        }
+        HttpRequest httpRequest = nettyRequest.getHttpRequest();
+        if (!HttpUtil.isKeepAlive(httpRequest)) {
+            return false;
+        }
+        HttpMethod method = httpRequest.method();
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS;
+    }
+
+    private static boolean isConnectionBased(@Nullable Realm realm) {
+        return realm != null && realm.getScheme() != AuthScheme.BASIC && realm.getScheme() != AuthScheme.DIGEST;
+    }
+
+    private static PipelinedRequests pipelinedRequests(Channel channel) {
+        PipelinedRequests requests = channel.attr(PIPELINED_REQUESTS_ATTRIBUTE).get();
+        if (requests == null) {
+            requests = new PipelinedRequests();
+            PipelinedRequests previous = channel.attr(PIPELINED_REQUESTS_ATTRIBUTE).setIfAbsent(requests);
+            if (previous != null) {
+                requests = previous;
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Lets the channel accept pipelined requests, once the request of the future that's reading its response was written.
+     *
+     * @param channel the channel
+     * @param future  the future whose request was just written
+     */
+    public void register(Channel channel, NettyResponseFuture<?> future) {
+        if (!canPipeline(future)) {
+            return;
+        }
+        PipelinedRequests requests = pipelinedRequests(channel);
+        synchronized (requests) {
+            // the response may already be complete, and the channel back in the pool
+            if (requests.closed || Channels.getAttribute(channel) != future) {
+                return;
+            }
+            requests.current = future;
+            if (!requests.open) {
+                requests.open = true;
+                requests.partitionKey = future.getPartitionKey();
+                channels.put(requests.partitionKey, channel);
+            }
+        }
+    }
+
+    /**
+     * @param future  the future of a request
+     * @param prepare notifies the handler that the request is pipelined on the channel, called without holding the channel's
+     *                FIFO, returns false if the future was aborted
+     * @param write   writes the request on the channel without calling the handler, called while it can't be handed over to
+     *                another request, returns false if the future was completed before the request was written
+     * @return true if the request was handled by a channel that's still waiting for the responses of the previous ones
+     */
+    public boolean offer(NettyResponseFuture<?> future, Predicate<Channel> prepare, Predicate<Channel> write) {
+        if (!canPipeline(future)) {
+            return false;
+        }
+        Channel channel = channels.get(future.getPartitionKey());
+        if (!Channels.isChannelActive(channel)) {
+            return false;
+        }
+        PipelinedRequests requests = pipelinedRequests(channel);
+        synchronized (requests) {
+            if (!requests.open || requests.queue.size() + requests.preparing + 1 >= maxPipelinedRequests) {
+                return false;
+            }
+            // keeps a slot while the handler is notified
+            requests.preparing++;
+        }
+        boolean prepared = prepare.test(channel);
+        synchronized (requests) {
+            requests.preparing--;
+            if (!prepared) {
+                return true;
+            }
+            if (!requests.open) {
+                // the channel stopped accepting pipelined requests in the meantime, the request goes to another one
+                return false;
+            }
+            requests.queue.add(future);
+            if (!write.test(channel)) {
+                // nothing was written, so no response is expected for it
+                requests.queue.removeLast();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called once the response of the channel's current request is complete.
+     *
+     * @param channel the channel
+     * @return true if the channel was handed over to the next pipelined request, whose response comes next,
+     * false if it has no outstanding request left and can be offered to the pool or reused
+     */
+    public boolean next(Channel channel) {
+        if (!isEnabled()) {
+            return false;
+        }
+        PipelinedRequests requests = pipelinedRequests(channel);
+        synchronized (requests) {
+            NettyResponseFuture<?> next = requests.queue.poll();
+            if (next != null) {
+                requests.current = next;
+                // its read timeout only starts now
+                next.touch();
+                Channels.setAttribute(channel, next);
+                return true;
+            }
+            requests.current = null;
+            if (requests.open) {
+                requests.open = false;
+                channels.remove(requests.partitionKey, channel);
+            }
+            // so that a late register doesn't reopen the channel
+            Channels.setDiscard(channel);
+            return false;
+        }
+    }
+
+    /**
+     * Refreshes the read timeouts of the pipelined requests, as the channel is still receiving data.
+     */
+    public void touch(Channel channel) {
+        if (!isEnabled()) {
+            return;
+        }
+        PipelinedRequests requests = channel.attr(PIPELINED_REQUESTS_ATTRIBUTE).get();
+        if (requests != null) {
+            synchronized (requests) {
+                for (NettyResponseFuture<?> future : requests.queue) {
+                    future.touch();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param channel the channel that was closed
+     * @return the futures of the requests that were sent on the channel but won't get their response, to be replayed
+     */
+    public List<NettyResponseFuture<?>> close(Channel channel) {
+        if (!isEnabled()) {
+            return Collections.emptyList();
+        }
+        PipelinedRequests requests = channel.attr(PIPELINED_REQUESTS_ATTRIBUTE).get();
+        if (requests == null) {
+            return Collections.emptyList();
+        }
+        List<NettyResponseFuture<?>> unanswered;
+        synchronized (requests) {
+            requests.closed = true;
+            if (requests.open) {
+                requests.open = false;
+                channels.remove(requests.partitionKey, channel);
+            }
+            unanswered = new ArrayList<>(requests.queue.size() + 1);
+            // the current request is left to the handler, unless the channel was discarded, e.g. by a pipelined request that was cancelled
+            if (requests.current != null && Channels.getAttribute(channel) == DiscardEvent.DISCARD) {
+                unanswered.add(requests.current);
+            }
+            unanswered.addAll(requests.queue);
+            requests.queue.clear();
+            requests.current = null;
+        }
+        return unanswered;
+    }
+
+    private static final class PipelinedRequests {
+        // the requests that were written after the current one, in order
+        private final ArrayDeque<NettyResponseFuture<?>> queue = new ArrayDeque<>();
+        private @Nullable NettyResponseFuture<?> current;
+        // the requests whose handler is being notified, before they're written
+        private int preparing;
+        private @Nullable Object partitionKey;
+        private boolean open;
+        private boolean closed;
+    }
+}
@@ -17,11 +17,67 @@ package org.asynchttpclient.netty.channel;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFactory;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import org.jetbrains.annotations.Nullable;
 
+import java.net.SocketAddress;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
 
 public interface TransportFactory<C extends Channel, L extends EventLoopGroup> extends ChannelFactory<C> {
 
     L newEventLoopGroup(int ioThreadsCount, ThreadFactory threadFactory);
+
+    /**
+     * @return the {@code IP_BIND_ADDRESS_NO_PORT} socket option, if this transport supports it
+     */
+    default @Nullable ChannelOption<Boolean> ipBindAddressNoPortOption() {
+        return null;
+    }
+
+    /**
+     * @return the unix domain socket channels and addresses of this transport, if it supports them
+     */
+    default @Nullable DomainSocketTransport domainSocketTransport() {
+        return null;
+    }
+
+    /**
+     * Looks up an option that's only defined by some Netty versions.
+     */
+    @SuppressWarnings("unchecked")
+    static @Nullable ChannelOption<Boolean> booleanChannelOption(Class<?> optionsClass, String name) {
+        try {
+            return (ChannelOption<Boolean>) optionsClass.getField(name).get(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * How a transport creates unix domain socket channels, and the addresses they connect to.
+     */
+    final class DomainSocketTransport {
+
+        private final ChannelFactory<? extends Channel> channelFactory;
+        private final Function<String, ? extends SocketAddress> addressFactory;
+
+        public DomainSocketTransport(ChannelFactory<? extends Channel> channelFactory, Function<String, ? extends SocketAddress> addressFactory) {
+            this.channelFactory = channelFactory;
+            this.addressFactory = addressFactory;
+        }
+
+        public ChannelFactory<? extends Channel> getChannelFactory() {
+            return channelFactory;
+        }
+
+        /**
+         * @param path the path of a unix domain socket
+         * @return its address
+         */
+        public SocketAddress newAddress(String path) {
+            return addressFactory.apply(path);
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import io.netty.handler.codec.http.websocketx.extensions.compression.DeflateFrameClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketClientCompressionHandler;
+import org.asynchttpclient.AsyncHttpClientConfig;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Negotiates WebSocket compression as configured, and optionally measures it.
+ */
+final class WebSocketCompression {
+
+    private final ChannelHandler handler;
+    private final boolean metrics;
+    private final LongAdder uncompressedBytesSent = new LongAdder();
+    private final LongAdder compressedBytesSent = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder compressedBytesReceived = new LongAdder();
+    private final LongAdder decompressedBytesReceived = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    WebSocketCompression(AsyncHttpClientConfig config) {
+        handler = newHandler(config);
+        metrics = config.isWebSocketCompressionMetrics();
+    }
+
+    private static ChannelHandler newHandler(AsyncHttpClientConfig config) {
+        boolean clientNoContext = config.isWebSocketLowMemoryFootprint() || config.isWebSocketClientNoContextTakeover();
+        boolean serverNoContext = config.isWebSocketLowMemoryFootprint() || config.isWebSocketServerNoContextTakeover();
+        int level = config.getWebSocketCompressionLevel();
+        int minSize = config.getWebSocketCompressionMinSize();
+        int serverMaxWindowBits = config.getWebSocketServerMaxWindowBits();
+
+        if (!clientNoContext && !serverNoContext && level == 6 && minSize <= 0 && serverMaxWindowBits == 15) {
+            return WebSocketClientCompressionHandler.INSTANCE;
+        }
+
+        WebSocketExtensionFilterProvider filterProvider = minSize > 0 ? new MinSizeFilterProvider(minSize) : WebSocketExtensionFilterProvider.DEFAULT;
+        PerMessageDeflateClientExtensionHandshaker perMessageDeflate = new PerMessageDeflateClientExtensionHandshaker(level,
+                ZlibCodecFactory.isSupportingWindowSizeAndMemLevel(), serverMaxWindowBits, clientNoContext, serverNoContext, filterProvider);
+
+        if (clientNoContext || serverNoContext) {
+            // deflate-frame always keeps the compression context, only offer permessage-deflate
+            return new CompressionHandler(perMessageDeflate);
+        }
+        return new CompressionHandler(perMessageDeflate,
+                new DeflateFrameClientExtensionHandshaker(level, false, filterProvider),
+                new DeflateFrameClientExtensionHandshaker(level, true, filterProvider));
+    }
+
+    /**
+     * @return the handler negotiating compression, shared by all the WebSockets
+     */
+    ChannelHandler handler() {
+        return handler;
+    }
+
+    boolean isMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The two handlers of a meter surround the extension encoder and decoder once the compression handler has installed them.
+     *
+     * @return a new meter, for a single WebSocket
+     */
+    Meter newMeter() {
+        return new Meter();
+    }
+
+    long uncompressedBytesSent() {
+        return uncompressedBytesSent.sum();
+    }
+
+    long compressedBytesSent() {
+        return compressedBytesSent.sum();
+    }
+
+    long compressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    long compressedBytesReceived() {
+        return compressedBytesReceived.sum();
+    }
+
+    long decompressedBytesReceived() {
+        return decompressedBytesReceived.sum();
+    }
+
+    long decompressionNanos() {
+        return decompressionNanos.sum();
+    }
+
+    @Sharable
+    private static final class CompressionHandler extends WebSocketClientExtensionHandler {
+
+        private CompressionHandler(WebSocketClientExtensionHandshaker... handshakers) {
+            super(handshakers);
+        }
+    }
+
+    private static final class MinSizeFilterProvider implements WebSocketExtensionFilterProvider {
+
+        private final WebSocketExtensionFilter encoderFilter;
+
+        private MinSizeFilterProvider(int minSize) {
+            // continuation frames of a message that is being compressed must not be skipped
+            encoderFilter = frame -> (frame instanceof TextWebSocketFrame || frame instanceof BinaryWebSocketFrame)
+                    && frame.isFinalFragment()
+                    && frame.content().readableBytes() < minSize;
+        }
+
+        @Override
+        public WebSocketExtensionFilter encoderFilter() {
+            return encoderFilter;
+        }
+
+        @Override
+        public WebSocketExtensionFilter decoderFilter() {
+            return WebSocketExtensionFilter.NEVER_SKIP;
+        }
+    }
+
+    /**
+     * Encoders and decoders run synchronously: a frame that goes through one side of the extension handlers
+     * comes out on the other side before the call that passed it returns. When the frame that comes out isn't the one that went in,
+     * it was compressed or decompressed.
+     */
+    final class Meter {
+
+        private WebSocketFrame frameToEncode;
+        private int sizeToEncode;
+        private long encodeStart;
+        private WebSocketFrame frameToDecode;
+        private int sizeToDecode;
+        private long decodeStart;
+
+        final ChannelHandler compressedSide = new ChannelDuplexHandler() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                if (msg instanceof WebSocketFrame) {
+                    frameToDecode = (WebSocketFrame) msg;
+                    sizeToDecode = frameToDecode.content().readableBytes();
+                    decodeStart = System.nanoTime();
+                    try {
+                        ctx.fireChannelRead(msg);
+                    } finally {
+                        frameToDecode = null;
+                    }
+                } else {
+                    ctx.fireChannelRead(msg);
+                }
+            }
+
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                if (frameToEncode != null && msg != frameToEncode && msg instanceof WebSocketFrame) {
+                    compressionNanos.add(System.nanoTime() - encodeStart);
+                    uncompressedBytesSent.add(sizeToEncode);
+                    compressedBytesSent.add(((WebSocketFrame) msg).content().readableBytes());
+                }
+                ctx.write(msg, promise);
+            }
+        };
+
+        final ChannelHandler uncompressedSide = new ChannelDuplexHandler() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                if (frameToDecode != null && msg != frameToDecode && msg instanceof WebSocketFrame) {
+                    decompressionNanos.add(System.nanoTime() - decodeStart);
+                    compressedBytesReceived.add(sizeToDecode);
+                    decompressedBytesReceived.add(((WebSocketFrame) msg).content().readableBytes());
+                }
+                ctx.fireChannelRead(msg);
+            }
+
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                if (msg instanceof WebSocketFrame) {
+                    frameToEncode = (WebSocketFrame) msg;
+                    sizeToEncode = frameToEncode.content().readableBytes();
+                    encodeStart = System.nanoTime();
+                    try {
+                        ctx.write(msg, promise);
+                    } finally {
+                        frameToEncode = null;
+                    }
+                } else {
+                    ctx.write(msg, promise);
+                }
+            }
+        };
+    }
+}
@@ -72,6 +72,7 @@ public abstract class AsyncHttpClientHandler extends ChannelInboundHandlerAdapte
             } else if (attribute instanceof NettyResponseFuture) {
                 NettyResponseFuture<?> future = (NettyResponseFuture<?>) attribute;
                 future.touch();
+                channelManager.getRequestPipelining().touch(channel);
                 handleRead(channel, future, msg);
             } else if (attribute != DiscardEvent.DISCARD) {
                 // unhandled message
@@ -91,6 +92,7 @@ public abstract class AsyncHttpClientHandler extends ChannelInboundHandlerAdapte
 
         Channel channel = ctx.channel();
         channelManager.removeAll(channel);
+        requestSender.replayPipelinedRequests(channel);
 
         Object attribute = Channels.getAttribute(channel);
         logger.debug("Channel Closed: {} with attribute {}", channel, attribute);
@@ -178,7 +180,10 @@ public abstract class AsyncHttpClientHandler extends ChannelInboundHandlerAdapte
 
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) {
-        ctx.read();
+        // reading may have been paused to apply backpressure, e.g. by a ResponseBodyPipe
+        if (!Channels.isReadingPaused(ctx.channel())) {
+            ctx.read();
+        }
 //        if (!isHandledByReactiveStreams(ctx)) {
 //            ctx.read();
 //        } else {
@@ -17,6 +17,7 @@ package org.asynchttpclient.netty.handler;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
@@ -32,6 +33,7 @@ import org.asynchttpclient.netty.channel.ChannelManager;
 import org.asynchttpclient.netty.channel.Channels;
 import org.asynchttpclient.netty.request.NettyRequestSender;
 import org.asynchttpclient.netty.ws.NettyWebSocket;
+import org.asynchttpclient.netty.ws.WebSocketHeartbeat;
 import org.asynchttpclient.ws.WebSocketUpgradeHandler;
 
 import java.io.IOException;
@@ -46,8 +48,11 @@ import static org.asynchttpclient.ws.WebSocketUtils.getAcceptKey;
 @Sharable
 public final class WebSocketHandler extends AsyncHttpClientHandler {
 
-    public WebSocketHandler(AsyncHttpClientConfig config, ChannelManager channelManager, NettyRequestSender requestSender) {
+    private final WebSocketHeartbeat webSocketHeartbeat;
+
+    public WebSocketHandler(AsyncHttpClientConfig config, ChannelManager channelManager, NettyRequestSender requestSender, WebSocketHeartbeat webSocketHeartbeat) {
         super(config, channelManager, requestSender);
+        this.webSocketHeartbeat = webSocketHeartbeat;
     }
 
     private static WebSocketUpgradeHandler getWebSocketUpgradeHandler(NettyResponseFuture<?> future) {
@@ -90,6 +95,9 @@ public final class WebSocketHandler extends AsyncHttpClientHandler {
         } catch (Exception ex) {
             logger.warn("onSuccess unexpected exception", ex);
         }
+        if (webSocketHeartbeat.isEnabled()) {
+            handler.onCompleted().startHeartbeat(webSocketHeartbeat);
+        }
         future.done();
     }
 
@@ -141,6 +149,18 @@ public final class WebSocketHandler extends AsyncHttpClientHandler {
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        Object attribute = Channels.getAttribute(ctx.channel());
+        if (attribute instanceof NettyResponseFuture<?>) {
+            NettyWebSocket webSocket = getNettyWebSocket((NettyResponseFuture<?>) attribute);
+            if (webSocket != null) {
+                webSocket.onWritabilityChanged(ctx.channel().isWritable());
+            }
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void handleException(NettyResponseFuture<?> future, Throwable e) {
         logger.warn("onError", e);
@@ -16,16 +16,15 @@
 package org.asynchttpclient.netty.handler.intercept;
 
 import io.netty.channel.Channel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpUtil;
-import io.netty.handler.codec.http.cookie.Cookie;
 import org.asynchttpclient.AsyncHttpClientConfig;
 import org.asynchttpclient.Realm;
 import org.asynchttpclient.Realm.AuthScheme;
 import org.asynchttpclient.Request;
 import org.asynchttpclient.RequestBuilder;
-import org.asynchttpclient.cookie.CookieStore;
 import org.asynchttpclient.handler.MaxRedirectException;
 import org.asynchttpclient.netty.NettyResponseFuture;
 import org.asynchttpclient.netty.channel.ChannelManager;
@@ -35,7 +34,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.AUTHORIZATION;
@@ -105,6 +103,7 @@ public class Redirect30xInterceptor {
                         .setChannelPoolPartitioning(request.getChannelPoolPartitioning())
                         .setFollowRedirect(true)
                         .setLocalAddress(request.getLocalAddress())
+                        .setUnixDomainSocket(request.getUnixDomainSocket())
                         .setNameResolver(request.getNameResolver())
                         .setProxyServer(request.getProxyServer())
                         .setRealm(request.getRealm())
@@ -139,16 +138,7 @@ public class Redirect30xInterceptor {
                 Uri newUri = Uri.create(future.getUri(), location);
                 LOGGER.debug("Redirecting to {}", newUri);
 
-                CookieStore cookieStore = config.getCookieStore();
-                if (cookieStore != null) {
-                    // Update request's cookies assuming that cookie store is already updated by Interceptors
-                    List<Cookie> cookies = cookieStore.get(newUri);
-                    if (!cookies.isEmpty()) {
-                        for (Cookie cookie : cookies) {
-                            requestBuilder.addOrReplaceCookie(cookie);
-                        }
-                    }
-                }
+                // the cookies from the cookie store, already updated by Interceptors, are added when the next request is encoded
 
                 boolean sameBase = request.getUri().isSameBase(newUri);
                 if (sameBase) {
@@ -184,7 +174,8 @@ public class Redirect30xInterceptor {
     }
 
     private static HttpHeaders propagatedHeaders(Request request, Realm realm, boolean keepBody) {
-        HttpHeaders headers = request.getHeaders()
+        // copied, as the request's headers may be shared, e.g. by a RequestTemplate
+        HttpHeaders headers = new DefaultHttpHeaders().add(request.getHeaders())
                 .remove(HOST)
                 .remove(CONTENT_LENGTH);
 
@@ -16,12 +16,16 @@
 package org.asynchttpclient.netty.request;
 
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.util.ReferenceCountUtil;
 import org.asynchttpclient.netty.request.body.NettyBody;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public final class NettyRequest {
 
     private final HttpRequest httpRequest;
     private final NettyBody body;
+    private final AtomicBoolean claimed = new AtomicBoolean();
 
     NettyRequest(HttpRequest httpRequest, NettyBody body) {
         this.httpRequest = httpRequest;
@@ -35,4 +39,22 @@ public final class NettyRequest {
     public NettyBody getBody() {
         return body;
     }
+
+    /**
+     * Claims the {@link HttpRequest} before writing it: the channel then owns its content, and releases it once written.
+     *
+     * @return false if the request was already written or released
+     */
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Releases the content of a request that was never written, eg because the connection failed or the request was aborted.
+     */
+    public void releaseIfUnclaimed() {
+        if (claim()) {
+            ReferenceCountUtil.release(httpRequest);
+        }
+    }
 }
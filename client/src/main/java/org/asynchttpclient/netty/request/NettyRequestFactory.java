@@ -16,8 +16,10 @@
 package org.asynchttpclient.netty.request;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -25,30 +27,44 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
+import io.netty.handler.codec.http.cookie.Cookie;
 import org.asynchttpclient.AsyncHttpClientConfig;
 import org.asynchttpclient.Realm;
 import org.asynchttpclient.Request;
+import org.asynchttpclient.cookie.CookieStore;
+import org.asynchttpclient.cookie.IndexedCookieStore;
+import org.asynchttpclient.handler.ResponseBodyPipe;
 import org.asynchttpclient.netty.request.body.NettyBody;
 import org.asynchttpclient.netty.request.body.NettyBodyBody;
 import org.asynchttpclient.netty.request.body.NettyByteArrayBody;
 import org.asynchttpclient.netty.request.body.NettyByteBufferBody;
 import org.asynchttpclient.netty.request.body.NettyCompositeByteArrayBody;
+import org.asynchttpclient.netty.request.body.NettyCompressedBody;
 import org.asynchttpclient.netty.request.body.NettyDirectBody;
 import org.asynchttpclient.netty.request.body.NettyFileBody;
+import org.asynchttpclient.netty.request.body.NettyFormBody;
 import org.asynchttpclient.netty.request.body.NettyInputStreamBody;
 import org.asynchttpclient.netty.request.body.NettyMultipartBody;
+import org.asynchttpclient.netty.request.body.NettyPipeBody;
+import org.asynchttpclient.netty.request.body.NettyPublisherBody;
+import org.asynchttpclient.netty.request.body.NettyStringBody;
 import org.asynchttpclient.proxy.ProxyServer;
 import org.asynchttpclient.request.body.generator.FileBodyGenerator;
 import org.asynchttpclient.request.body.generator.InputStreamBodyGenerator;
+import org.asynchttpclient.request.body.generator.PublisherBodyGenerator;
 import org.asynchttpclient.uri.Uri;
 import org.asynchttpclient.util.StringUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
 import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT_ENCODING;
 import static io.netty.handler.codec.http.HttpHeaderNames.AUTHORIZATION;
 import static io.netty.handler.codec.http.HttpHeaderNames.CONNECTION;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_ENCODING;
 import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
 import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
 import static io.netty.handler.codec.http.HttpHeaderNames.COOKIE;
@@ -60,6 +76,7 @@ import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_VERSION;
 import static io.netty.handler.codec.http.HttpHeaderNames.TRANSFER_ENCODING;
 import static io.netty.handler.codec.http.HttpHeaderNames.UPGRADE;
 import static io.netty.handler.codec.http.HttpHeaderNames.USER_AGENT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.asynchttpclient.util.AuthenticatorUtils.perRequestAuthorizationHeader;
 import static org.asynchttpclient.util.AuthenticatorUtils.perRequestProxyAuthorizationHeader;
 import static org.asynchttpclient.util.HttpUtils.ACCEPT_ALL_HEADER_VALUE;
@@ -77,10 +94,12 @@ public final class NettyRequestFactory {
 
     private final AsyncHttpClientConfig config;
     private final ClientCookieEncoder cookieEncoder;
+    private final ByteBufAllocator allocator;
 
     NettyRequestFactory(AsyncHttpClientConfig config) {
         this.config = config;
         cookieEncoder = config.isUseLaxCookieEncoder() ? ClientCookieEncoder.LAX : ClientCookieEncoder.STRICT;
+        allocator = config.getAllocator() != null ? config.getAllocator() : ByteBufAllocator.DEFAULT;
     }
 
     private NettyBody body(Request request) {
@@ -92,14 +111,22 @@ public final class NettyRequestFactory {
         } else if (request.getCompositeByteData() != null) {
             nettyBody = new NettyCompositeByteArrayBody(request.getCompositeByteData());
         } else if (request.getStringData() != null) {
-            nettyBody = new NettyByteBufferBody(StringUtils.charSequence2ByteBuffer(request.getStringData(), bodyCharset));
+            if (NettyStringBody.isSupported(bodyCharset)) {
+                nettyBody = new NettyStringBody(request.getStringData(), bodyCharset, allocator);
+            } else {
+                nettyBody = new NettyByteBufferBody(StringUtils.charSequence2ByteBuffer(request.getStringData(), bodyCharset));
+            }
         } else if (request.getByteBufferData() != null) {
             nettyBody = new NettyByteBufferBody(request.getByteBufferData());
         } else if (request.getStreamData() != null) {
-            nettyBody = new NettyInputStreamBody(request.getStreamData());
+            nettyBody = new NettyInputStreamBody(request.getStreamData(), -1L, config);
         } else if (isNonEmpty(request.getFormParams())) {
             CharSequence contentTypeOverride = request.getHeaders().contains(CONTENT_TYPE) ? null : HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED;
-            nettyBody = new NettyByteBufferBody(urlEncodeFormParams(request.getFormParams(), bodyCharset), contentTypeOverride);
+            if (UTF_8.equals(bodyCharset)) {
+                nettyBody = new NettyFormBody(request.getFormParams(), allocator, contentTypeOverride);
+            } else {
+                nettyBody = new NettyByteBufferBody(urlEncodeFormParams(request.getFormParams(), bodyCharset), contentTypeOverride);
+            }
         } else if (isNonEmpty(request.getBodyParts())) {
             nettyBody = new NettyMultipartBody(request.getBodyParts(), request.getHeaders(), config);
         } else if (request.getFile() != null) {
@@ -109,11 +136,20 @@ public final class NettyRequestFactory {
             nettyBody = new NettyFileBody(fileBodyGenerator.getFile(), fileBodyGenerator.getRegionSeek(), fileBodyGenerator.getRegionLength(), config);
         } else if (request.getBodyGenerator() instanceof InputStreamBodyGenerator) {
             InputStreamBodyGenerator inStreamGenerator = (InputStreamBodyGenerator) request.getBodyGenerator();
-            nettyBody = new NettyInputStreamBody(inStreamGenerator.getInputStream(), inStreamGenerator.getContentLength());
+            nettyBody = new NettyInputStreamBody(inStreamGenerator.getInputStream(), inStreamGenerator.getContentLength(), config);
+        } else if (request.getBodyGenerator() instanceof ResponseBodyPipe) {
+            nettyBody = new NettyPipeBody((ResponseBodyPipe) request.getBodyGenerator());
+        } else if (request.getBodyGenerator() instanceof PublisherBodyGenerator) {
+            PublisherBodyGenerator publisherGenerator = (PublisherBodyGenerator) request.getBodyGenerator();
+            nettyBody = new NettyPublisherBody(publisherGenerator.getPublisher(), publisherGenerator.getContentLength());
         } else if (request.getBodyGenerator() != null) {
             nettyBody = new NettyBodyBody(request.getBodyGenerator().createBody(), config);
         }
 
+        if (nettyBody != null && request.getBodyCompression() != null) {
+            nettyBody = new NettyCompressedBody(nettyBody, request.getBodyCompression());
+        }
+
         return nettyBody;
     }
 
@@ -130,6 +166,44 @@ public final class NettyRequestFactory {
         }
     }
 
+    /**
+     * The cookies from the cookie store are merged here, when the request is encoded, rather than copied into the request.
+     * Same as {@link org.asynchttpclient.RequestBuilderBase#addOrReplaceCookie(Cookie)}, a cookie from the store replaces
+     * the request's cookie with the same name.
+     */
+    private @Nullable String cookieHeader(Request request) {
+        List<Cookie> cookies = request.getCookies();
+        CookieStore cookieStore = config.getCookieStore();
+        if (cookieStore != null) {
+            if (cookies.isEmpty() && cookieStore instanceof IndexedCookieStore && cookieEncoder == ClientCookieEncoder.LAX) {
+                // reuse the pre-encoded cookies
+                return ((IndexedCookieStore) cookieStore).getCookieHeader(request.getUri());
+            }
+            cookies = mergeCookies(cookies, cookieStore.get(request.getUri()));
+        }
+        return cookies.isEmpty() ? null : cookieEncoder.encode(cookies);
+    }
+
+    static List<Cookie> mergeCookies(List<Cookie> requestCookies, List<Cookie> storeCookies) {
+        if (storeCookies.isEmpty()) {
+            return requestCookies;
+        }
+        List<Cookie> merged = new ArrayList<>(requestCookies.size() + storeCookies.size());
+        merged.addAll(requestCookies);
+        for (Cookie cookie : storeCookies) {
+            int index = 0;
+            while (index < merged.size() && !merged.get(index).name().equals(cookie.name())) {
+                index++;
+            }
+            if (index < merged.size()) {
+                merged.set(index, cookie);
+            } else {
+                merged.add(cookie);
+            }
+        }
+        return merged;
+    }
+
     public NettyRequest newNettyRequest(Request request, boolean performConnectRequest, ProxyServer proxyServer, Realm realm, Realm proxyRealm) {
         Uri uri = request.getUri();
         HttpMethod method = performConnectRequest ? HttpMethod.CONNECT : HttpMethod.valueOf(request.getMethod());
@@ -140,22 +214,7 @@ public final class NettyRequestFactory {
 
         NettyBody body = connect ? null : body(request);
 
-        NettyRequest nettyRequest;
-        if (body == null) {
-            HttpRequest httpRequest = new DefaultFullHttpRequest(httpVersion, method, requestUri, Unpooled.EMPTY_BUFFER);
-            nettyRequest = new NettyRequest(httpRequest, null);
-
-        } else if (body instanceof NettyDirectBody) {
-            ByteBuf buf = ((NettyDirectBody) body).byteBuf();
-            HttpRequest httpRequest = new DefaultFullHttpRequest(httpVersion, method, requestUri, buf);
-            // body is passed as null as it's written directly with the request
-            nettyRequest = new NettyRequest(httpRequest, null);
-        } else {
-            HttpRequest httpRequest = new DefaultHttpRequest(httpVersion, method, requestUri);
-            nettyRequest = new NettyRequest(httpRequest, body);
-        }
-
-        HttpHeaders headers = nettyRequest.getHttpRequest().headers();
+        HttpHeaders headers = new DefaultHttpHeaders();
 
         if (connect) {
             // assign proxy-auth as configured on request
@@ -166,8 +225,9 @@ public final class NettyRequestFactory {
             // assign headers as configured on request
             headers.set(request.getHeaders());
 
-            if (isNonEmpty(request.getCookies())) {
-                headers.set(COOKIE, cookieEncoder.encode(request.getCookies()));
+            String cookieHeader = cookieHeader(request);
+            if (cookieHeader != null) {
+                headers.set(COOKIE, cookieHeader);
             }
 
             String userDefinedAcceptEncoding = headers.get(ACCEPT_ENCODING);
@@ -183,6 +243,12 @@ public final class NettyRequestFactory {
             }
         }
 
+        if (body instanceof NettyCompressedBody) {
+            // compressed length is only known once fully sent
+            headers.remove(CONTENT_LENGTH);
+            headers.set(CONTENT_ENCODING, ((NettyCompressedBody) body).getCompression().getContentEncoding());
+        }
+
         if (!headers.contains(CONTENT_LENGTH)) {
             if (body != null) {
                 if (body.getContentLength() < 0) {
@@ -239,7 +305,21 @@ public final class NettyRequestFactory {
             headers.set(USER_AGENT, config.getUserAgent());
         }
 
-        return nettyRequest;
+        // the request is only built once its headers are, so that nothing can throw after a pooled body buffer is allocated
+        if (body == null) {
+            HttpRequest httpRequest = new DefaultFullHttpRequest(httpVersion, method, requestUri, Unpooled.EMPTY_BUFFER, headers, new DefaultHttpHeaders());
+            return new NettyRequest(httpRequest, null);
+
+        } else if (body instanceof NettyDirectBody) {
+            ByteBuf buf = ((NettyDirectBody) body).byteBuf();
+            HttpRequest httpRequest = new DefaultFullHttpRequest(httpVersion, method, requestUri, buf, headers, new DefaultHttpHeaders());
+            // body is passed as null as it's written directly with the request
+            return new NettyRequest(httpRequest, null);
+
+        } else {
+            HttpRequest httpRequest = new DefaultHttpRequest(httpVersion, method, requestUri, headers);
+            return new NettyRequest(httpRequest, body);
+        }
     }
 
     private static String requestUri(Uri uri, ProxyServer proxyServer, boolean connect) {
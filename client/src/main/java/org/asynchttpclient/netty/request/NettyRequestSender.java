@@ -62,7 +62,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.SocketAddress;
 import java.util.List;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.EXPECT;
@@ -97,6 +96,10 @@ public final class NettyRequestSender {
         requestFactory = new NettyRequestFactory(config);
     }
 
+    public ConnectionSemaphore getConnectionSemaphore() {
+        return connectionSemaphore;
+    }
+
     public <T> ListenableFuture<T> sendRequest(final Request request, final AsyncHandler<T> asyncHandler, NettyResponseFuture<T> future) {
         if (isClosed()) {
             throw new IllegalStateException("Closed");
@@ -139,9 +142,15 @@ public final class NettyRequestSender {
                                                                        ProxyServer proxyServer, boolean performConnectRequest) {
         NettyResponseFuture<T> newFuture = newNettyRequestAndResponseFuture(request, asyncHandler, future, proxyServer, performConnectRequest);
         Channel channel = getOpenChannel(future, request, proxyServer, asyncHandler);
-        return Channels.isChannelActive(channel)
-                ? sendRequestWithOpenChannel(newFuture, asyncHandler, channel)
-                : sendRequestWithNewChannel(request, proxyServer, newFuture, asyncHandler);
+        if (Channels.isChannelActive(channel)) {
+            return sendRequestWithOpenChannel(newFuture, asyncHandler, channel);
+        } else if (channelManager.getRequestPipelining().offer(newFuture,
+                pipelinedChannel -> preparePipelinedRequest(newFuture, asyncHandler, pipelinedChannel),
+                pipelinedChannel -> writePipelinedRequest(newFuture, pipelinedChannel))) {
+            return newFuture;
+        } else {
+            return sendRequestWithNewChannel(request, proxyServer, newFuture, asyncHandler);
+        }
     }
 
     /**
@@ -227,10 +236,10 @@ public final class NettyRequestSender {
             return future;
         }
 
-        SocketAddress channelRemoteAddress = channel.remoteAddress();
+        InetSocketAddress channelRemoteAddress = Channels.getInetRemoteAddress(channel, future.getUri());
         if (channelRemoteAddress != null) {
             // otherwise, bad luck, the channel was closed, see bellow
-            scheduleRequestTimeout(future, (InetSocketAddress) channelRemoteAddress);
+            scheduleRequestTimeout(future, channelRemoteAddress);
         }
 
         future.setChannelState(ChannelState.POOLED);
@@ -258,6 +267,71 @@ public final class NettyRequestSender {
         return future;
     }
 
+    /**
+     * Notifies the handler that its request is about to be pipelined on the channel, without holding the channel's FIFO.
+     *
+     * @return false if the future was aborted
+     */
+    private <T> boolean preparePipelinedRequest(NettyResponseFuture<T> future, AsyncHandler<T> asyncHandler, Channel channel) {
+        try {
+            asyncHandler.onConnectionPooled(channel);
+        } catch (Exception e) {
+            LOGGER.error("onConnectionPooled crashed", e);
+            // the channel is still reading the response of another request
+            abort(null, future, e);
+            return false;
+        }
+
+        InetSocketAddress channelRemoteAddress = Channels.getInetRemoteAddress(channel, future.getUri());
+        if (channelRemoteAddress != null) {
+            scheduleRequestTimeout(future, channelRemoteAddress);
+        }
+
+        NettyRequest nettyRequest = future.getNettyRequest();
+        if (asyncHandler instanceof TransferCompletionHandler) {
+            configureTransferAdapter(asyncHandler, nettyRequest.getHttpRequest());
+        }
+        try {
+            asyncHandler.onRequestSend(nettyRequest);
+        } catch (Exception e) {
+            LOGGER.error("onRequestSend crashed", e);
+            abort(null, future, e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Unlike with an idle channel, the channel's attribute stays the future whose response is being read,
+     * the channel is handed over to this one once the responses of the requests before it are complete.
+     * Called under the lock of the channel's FIFO, so that pipelined requests, which have no body, are written in order.
+     *
+     * @return false if the future was completed before the request was written
+     */
+    private boolean writePipelinedRequest(NettyResponseFuture<?> future, Channel channel) {
+        NettyRequest nettyRequest = future.getNettyRequest();
+        boolean active = Channels.isChannelActive(channel);
+        if (active && !nettyRequest.claim()) {
+            // already released, as the future was completed in the meantime
+            return false;
+        }
+
+        future.setChannelState(ChannelState.POOLED);
+        // only attached now, so that cancelling the request before doesn't close the channel
+        future.attachChannel(channel, false);
+
+        if (active) {
+            if (LOGGER.isDebugEnabled()) {
+                HttpRequest httpRequest = nettyRequest.getHttpRequest();
+                LOGGER.debug("Pipelining {} '{}' on Channel {}", httpRequest.method(), httpRequest.uri(), channel);
+            }
+            channel.writeAndFlush(nettyRequest.getHttpRequest(), channel.newPromise()).addListener(new WriteCompleteListener(future));
+            scheduleReadTimeout(future);
+        }
+        // otherwise, the request is replayed with the other unanswered ones once the channel's closing is handled
+        return true;
+    }
+
     private <T> ListenableFuture<T> sendRequestWithNewChannel(Request request, ProxyServer proxy, NettyResponseFuture<T> future, AsyncHandler<T> asyncHandler) {
         // some headers are only set when performing the first request
         HttpHeaders headers = future.getNettyRequest().getHttpRequest().headers();
@@ -294,11 +368,16 @@ public final class NettyRequestSender {
             @Override
             protected void onSuccess(List<InetSocketAddress> addresses) {
                 NettyConnectListener<T> connectListener = new NettyConnectListener<>(future, NettyRequestSender.this, channelManager, connectionSemaphore);
-                NettyChannelConnector connector = new NettyChannelConnector(request.getLocalAddress(), addresses, asyncHandler, clientState);
+                NettyChannelConnector connector = new NettyChannelConnector(request.getLocalAddress(), addresses, asyncHandler, clientState,
+                        channelManager.getLocalAddressRotation());
                 if (!future.isDone()) {
                     // Do not throw an exception when we need an extra connection for a redirect
                     // FIXME why? This violate the max connection per host handling, right?
-                    channelManager.getBootstrap(request.getUri(), request.getNameResolver(), proxy).addListener((Future<Bootstrap> whenBootstrap) -> {
+                    String unixDomainSocket = request.getUnixDomainSocket();
+                    Future<Bootstrap> bootstrap = unixDomainSocket != null
+                            ? channelManager.getDomainSocketBootstrap(request.getUri(), unixDomainSocket)
+                            : channelManager.getBootstrap(request.getUri(), request.getNameResolver(), proxy);
+                    bootstrap.addListener((Future<Bootstrap> whenBootstrap) -> {
                         if (whenBootstrap.isSuccess()) {
                             connector.connect(whenBootstrap.get(), connectListener);
                         } else {
@@ -332,7 +411,10 @@ public final class NettyRequestSender {
             InetSocketAddress unresolvedRemoteAddress = InetSocketAddress.createUnresolved(uri.getHost(), port);
             scheduleRequestTimeout(future, unresolvedRemoteAddress);
 
-            if (request.getAddress() != null) {
+            if (request.getUnixDomainSocket() != null) {
+                // the socket is connected to instead, this address only shows up in the timeouts and the handler's events
+                return promise.setSuccess(singletonList(unresolvedRemoteAddress));
+            } else if (request.getAddress() != null) {
                 // bypass resolution
                 InetSocketAddress inetSocketAddress = new InetSocketAddress(request.getAddress(), port);
                 return promise.setSuccess(singletonList(inetSocketAddress));
@@ -386,6 +468,11 @@ public final class NettyRequestSender {
                     return;
                 }
 
+                if (!nettyRequest.claim()) {
+                    // already released, as the future was completed in the meantime
+                    return;
+                }
+
                 // if the request has a body, we want to track progress
                 if (writeBody) {
                     // FIXME does this really work??? the promise is for the request without body!!!
@@ -409,6 +496,8 @@ public final class NettyRequestSender {
                 scheduleReadTimeout(future);
             }
 
+            channelManager.getRequestPipelining().register(channel, future);
+
         } catch (Exception e) {
             LOGGER.error("Can't write request", e);
             abort(channel, future, e);
@@ -466,6 +555,22 @@ public final class NettyRequestSender {
         }
     }
 
+    /**
+     * Replays the requests that were pipelined on a channel that closed before answering them.
+     */
+    public void replayPipelinedRequests(Channel channel) {
+        for (NettyResponseFuture<?> future : channelManager.getRequestPipelining().close(channel)) {
+            if (future.isDone()) {
+                continue;
+            }
+            if (future.incrementRetryAndCheck() && retry(future)) {
+                future.pendingException = null;
+            } else {
+                abort(null, future, future.pendingException != null ? future.pendingException : RemotelyClosedException.INSTANCE);
+            }
+        }
+    }
+
     public boolean retry(NettyResponseFuture<?> future) {
         if (isClosed()) {
             return false;
@@ -547,7 +652,7 @@ public final class NettyRequestSender {
 
         Uri uri = request.getUri();
         String virtualHost = request.getVirtualHost();
-        final Channel channel = channelManager.poll(uri, virtualHost, proxy, request.getChannelPoolPartitioning());
+        final Channel channel = channelManager.poll(uri, virtualHost, proxy, request.getUnixDomainSocket(), request.getChannelPoolPartitioning());
 
         if (channel != null) {
             LOGGER.debug("Using pooled Channel '{}' for '{}' to '{}'", channel, request.getMethod(), uri);
@@ -583,6 +688,10 @@ public final class NettyRequestSender {
         Channels.setAttribute(channel, new OnLastHttpContentCallback(future) {
             @Override
             public void call() {
+                if (channelManager.getRequestPipelining().next(channel)) {
+                    // the next response on the channel is the one of a pipelined request
+                    future.setReuseChannel(false);
+                }
                 sendNextRequest(nextRequest, future);
             }
         });
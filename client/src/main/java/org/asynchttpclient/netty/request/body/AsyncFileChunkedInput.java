@@ -0,0 +1,200 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.asynchttpclient.util.MiscUtils.closeSilently;
+
+/**
+ * A {@link ChunkedInput} that reads a file region with an {@link AsynchronousFileChannel}, so that disk I/O never blocks the event loop.
+ * <p>
+ * One read is always kept in flight ahead of the writes. When the next chunk isn't ready yet, {@link #readChunk(ByteBufAllocator)} returns
+ * {@code null}, which suspends the {@link ChunkedWriteHandler}, and the transfer is resumed once the read completes.
+ * Reads are sized after the channel's writability: as long as the outbound buffer has room, chunks grow up to {@code maxChunkSize}.
+ * <p>
+ * All state is confined to the channel's event loop: read completions are handed back to it before being processed.
+ */
+class AsyncFileChunkedInput implements ChunkedInput<ByteBuf> {
+
+    private final Channel channel;
+    private final AsynchronousFileChannel fileChannel;
+    private final long endOffset;
+    private final long length;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private long readOffset;
+    private long progress;
+    private boolean readInFlight;
+    private boolean closed;
+    private ByteBuf ready;
+    private Throwable failure;
+
+    AsyncFileChunkedInput(Channel channel, File file, long offset, long length, int chunkSize, ExecutorService executor) throws IOException {
+        this.channel = channel;
+        fileChannel = AsynchronousFileChannel.open(file.toPath(), Collections.singleton(StandardOpenOption.READ), executor);
+        readOffset = offset;
+        endOffset = offset + length;
+        this.length = length;
+        minChunkSize = chunkSize;
+        maxChunkSize = chunkSize * 8;
+        // prefetch the first chunk while the request headers are being written
+        scheduleRead(channel.alloc());
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+        return ready == null && !readInFlight && readOffset >= endOffset;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        if (ready != null) {
+            ready.release();
+            ready = null;
+        }
+        // a pending read will fail with an AsynchronousCloseException and release its buffer
+        fileChannel.close();
+    }
+
+    @Override
+    @Deprecated
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+
+        ByteBuf chunk = ready;
+        ready = null;
+        if (chunk != null) {
+            progress += chunk.readableBytes();
+        }
+        scheduleRead(allocator);
+        // null suspends the ChunkedWriteHandler until the pending read completes
+        return chunk;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    private int nextChunkSize() {
+        long size = Math.max(minChunkSize, Math.min(maxChunkSize, channel.bytesBeforeUnwritable()));
+        return (int) Math.min(size, endOffset - readOffset);
+    }
+
+    private void scheduleRead(ByteBufAllocator allocator) {
+        if (readInFlight || ready != null || closed || readOffset >= endOffset) {
+            return;
+        }
+
+        int size = nextChunkSize();
+        ByteBuf buf = allocator.buffer(size);
+        readInFlight = true;
+        try {
+            fileChannel.read(buf.nioBuffer(buf.writerIndex(), size), readOffset, buf, new CompletionHandler<Integer, ByteBuf>() {
+                @Override
+                public void completed(Integer read, ByteBuf buf) {
+                    onEventLoop(buf, () -> onReadComplete(buf, read));
+                }
+
+                @Override
+                public void failed(Throwable cause, ByteBuf buf) {
+                    onEventLoop(buf, () -> onReadFailure(buf, cause));
+                }
+            });
+        } catch (RuntimeException e) {
+            readInFlight = false;
+            buf.release();
+            throw e;
+        }
+    }
+
+    private void onEventLoop(ByteBuf buf, Runnable task) {
+        try {
+            channel.eventLoop().execute(task);
+        } catch (RejectedExecutionException e) {
+            // event loop is shutting down, nobody will consume this chunk
+            buf.release();
+            closeSilently(fileChannel);
+        }
+    }
+
+    private void onReadComplete(ByteBuf buf, int read) {
+        readInFlight = false;
+        if (closed) {
+            buf.release();
+            return;
+        }
+
+        if (read < 0) {
+            // file was truncated while being uploaded
+            buf.release();
+            failure = new EOFException("Unexpected end of file at offset " + readOffset + ", expected " + endOffset);
+        } else {
+            buf.writerIndex(buf.writerIndex() + read);
+            readOffset += read;
+            ready = buf;
+        }
+        resumeTransfer();
+    }
+
+    private void onReadFailure(ByteBuf buf, Throwable cause) {
+        readInFlight = false;
+        buf.release();
+        if (!closed) {
+            failure = cause;
+            resumeTransfer();
+        }
+    }
+
+    private void resumeTransfer() {
+        ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+        if (chunkedWriteHandler != null) {
+            chunkedWriteHandler.resumeTransfer();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.stream.ChunkedInput;
+import org.asynchttpclient.request.body.Body;
+
+import java.io.IOException;
+
+import static org.asynchttpclient.util.Assertions.assertNotNull;
+
+/**
+ * A {@link Body} that compresses the content of a {@link ChunkedInput} on the fly.
+ * <p>
+ * Source chunks are only pulled when all the previously compressed bytes have been transferred,
+ * so at most one chunk of input and its encoded output are held in memory.
+ */
+class CompressedBody implements Body {
+
+    private final ChunkedInput<ByteBuf> source;
+    private final EmbeddedChannel encoder;
+    private ByteBuf pending;
+    private boolean finished;
+
+    CompressedBody(ChunkedInput<ByteBuf> source, ChannelHandler encoder) {
+        this.source = assertNotNull(source, "source");
+        this.encoder = new EmbeddedChannel(assertNotNull(encoder, "encoder"));
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public BodyState transferTo(ByteBuf target) throws IOException {
+        int start = target.writerIndex();
+
+        while (target.isWritable()) {
+            if (pending == null) {
+                pending = encoder.readOutbound();
+            }
+
+            if (pending != null) {
+                target.writeBytes(pending, Math.min(pending.readableBytes(), target.writableBytes()));
+                if (!pending.isReadable()) {
+                    pending.release();
+                    pending = null;
+                }
+            } else if (finished) {
+                break;
+            } else if (isSourceEnded()) {
+                // flushes the encoder trailer
+                encoder.finish();
+                finished = true;
+            } else {
+                ByteBuf chunk = readSourceChunk(target);
+                if (chunk == null) {
+                    if (!isSourceEnded()) {
+                        // source is suspended, wait for more content
+                        break;
+                    }
+                } else {
+                    encoder.writeOutbound(chunk);
+                }
+            }
+        }
+
+        if (target.writerIndex() > start) {
+            return BodyState.CONTINUE;
+        }
+        return finished ? BodyState.STOP : BodyState.SUSPEND;
+    }
+
+    private boolean isSourceEnded() throws IOException {
+        try {
+            return source.isEndOfInput();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private ByteBuf readSourceChunk(ByteBuf target) throws IOException {
+        try {
+            return source.readChunk(target.alloc());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pending != null) {
+            pending.release();
+            pending = null;
+        }
+        encoder.finishAndReleaseAll();
+        try {
+            source.close();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
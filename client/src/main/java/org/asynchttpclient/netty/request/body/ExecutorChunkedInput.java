@@ -0,0 +1,214 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.asynchttpclient.util.Assertions.assertNotNull;
+
+/**
+ * A {@link ChunkedInput} that runs the reads of a blocking {@link ChunkedInput}, typically a {@link io.netty.handler.stream.ChunkedStream},
+ * on an {@link Executor} instead of the event loop.
+ * <p>
+ * At most one read is running on the executor at any time, and reads stop once {@code maxPrefetch} chunks are waiting to be written.
+ * When no chunk is available, {@link #readChunk(ByteBufAllocator)} returns {@code null}, which suspends the {@link ChunkedWriteHandler}
+ * until the next read completes.
+ * <p>
+ * Except for the delegate reads, all state is confined to the channel's event loop. The allocator the reads use is taken there as well,
+ * once, rather than from the executor's threads.
+ */
+class ExecutorChunkedInput implements ChunkedInput<ByteBuf> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorChunkedInput.class);
+
+    private final ChunkedInput<ByteBuf> delegate;
+    private final Channel channel;
+    private final Executor executor;
+    private final int maxPrefetch;
+    private final Queue<ByteBuf> chunks = new ArrayDeque<>();
+    private ByteBufAllocator allocator;
+    private boolean reading;
+    private boolean delegateEnded;
+    private boolean closed;
+    private long progress;
+    private Throwable failure;
+
+    ExecutorChunkedInput(ChunkedInput<ByteBuf> delegate, Channel channel, Executor executor, int maxPrefetch) {
+        this.delegate = assertNotNull(delegate, "delegate");
+        this.channel = assertNotNull(channel, "channel");
+        this.executor = assertNotNull(executor, "executor");
+        this.maxPrefetch = Math.max(1, maxPrefetch);
+        // start reading while the request headers are being written
+        if (channel.eventLoop().inEventLoop()) {
+            start();
+        } else {
+            try {
+                channel.eventLoop().execute(this::start);
+            } catch (RejectedExecutionException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private void start() {
+        allocator = channel.alloc();
+        scheduleRead();
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+        return delegateEnded && chunks.isEmpty();
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        ByteBuf chunk;
+        while ((chunk = chunks.poll()) != null) {
+            chunk.release();
+        }
+        // if a read is still running, the delegate gets closed once it completes
+        if (!reading) {
+            delegate.close();
+        }
+    }
+
+    @Override
+    @Deprecated
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+
+        ByteBuf chunk = chunks.poll();
+        if (chunk != null) {
+            progress += chunk.readableBytes();
+        }
+        scheduleRead();
+        // null suspends the ChunkedWriteHandler until the running read completes
+        return chunk;
+    }
+
+    @Override
+    public long length() {
+        return delegate.length();
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    private void scheduleRead() {
+        // the allocator is null until the reads are started on the event loop
+        if (allocator == null || reading || delegateEnded || closed || failure != null || chunks.size() >= maxPrefetch) {
+            return;
+        }
+
+        reading = true;
+        ByteBufAllocator allocator = this.allocator;
+        try {
+            executor.execute(() -> read(allocator));
+        } catch (RejectedExecutionException e) {
+            reading = false;
+            failure = e;
+        }
+    }
+
+    // runs on the executor
+    private void read(ByteBufAllocator allocator) {
+        ByteBuf chunk = null;
+        boolean ended = false;
+        Throwable cause = null;
+        try {
+            chunk = delegate.readChunk(allocator);
+            ended = delegate.isEndOfInput();
+        } catch (Throwable t) {
+            cause = t;
+        }
+
+        final ByteBuf readChunk = chunk;
+        final boolean readEnded = ended;
+        final Throwable readCause = cause;
+        try {
+            channel.eventLoop().execute(() -> onReadComplete(readChunk, readEnded, readCause));
+        } catch (RejectedExecutionException e) {
+            // event loop is shutting down, nobody will consume this chunk
+            if (readChunk != null) {
+                readChunk.release();
+            }
+            closeDelegate();
+        }
+    }
+
+    private void onReadComplete(ByteBuf chunk, boolean ended, Throwable cause) {
+        reading = false;
+        if (closed) {
+            if (chunk != null) {
+                chunk.release();
+            }
+            closeDelegate();
+            return;
+        }
+
+        if (cause != null) {
+            failure = cause;
+        } else {
+            if (chunk != null) {
+                chunks.add(chunk);
+            }
+            delegateEnded = ended;
+            scheduleRead();
+        }
+        resumeTransfer();
+    }
+
+    private void closeDelegate() {
+        try {
+            delegate.close();
+        } catch (Exception e) {
+            LOGGER.debug("Failed to close ChunkedInput", e);
+        }
+    }
+
+    private void resumeTransfer() {
+        ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+        if (chunkedWriteHandler != null) {
+            chunkedWriteHandler.resumeTransfer();
+        }
+    }
+}
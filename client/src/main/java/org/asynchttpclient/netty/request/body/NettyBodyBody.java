@@ -15,9 +15,11 @@
  */
 package org.asynchttpclient.netty.request.body;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelProgressiveFuture;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import org.asynchttpclient.AsyncHttpClientConfig;
 import org.asynchttpclient.netty.NettyResponseFuture;
@@ -29,6 +31,8 @@ import org.asynchttpclient.request.body.generator.BodyGenerator;
 import org.asynchttpclient.request.body.generator.FeedListener;
 import org.asynchttpclient.request.body.generator.FeedableBodyGenerator;
 
+import java.util.concurrent.ExecutorService;
+
 import static org.asynchttpclient.util.MiscUtils.closeSilently;
 
 public class NettyBodyBody implements NettyBody {
@@ -50,30 +54,50 @@ public class NettyBodyBody implements NettyBody {
         return body.getContentLength();
     }
 
+    /**
+     * @return true if transferring the body may block, e.g. because it reads from an {@link java.io.InputStream}
+     */
+    boolean isBlocking() {
+        return false;
+    }
+
+    private ExecutorService blockingIoExecutor() {
+        return isBlocking() ? config.getBlockingIoExecutor() : null;
+    }
+
+    ChunkedInput<ByteBuf> newChunkedInput(Channel channel, NettyResponseFuture<?> future) {
+        BodyGenerator bg = future.getTargetRequest().getBodyGenerator();
+        if (bg instanceof FeedableBodyGenerator) {
+            final ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+            ((FeedableBodyGenerator) bg).setListener(new FeedListener() {
+                @Override
+                public void onContentAdded() {
+                    chunkedWriteHandler.resumeTransfer();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+            });
+        }
+
+        ExecutorService executor = blockingIoExecutor();
+        if (executor != null) {
+            return new ExecutorChunkedInput(new BodyChunkedInput(body), channel, executor, config.getBlockingIoPrefetchChunks());
+        }
+        return new BodyChunkedInput(body);
+    }
+
     @Override
     public void write(final Channel channel, NettyResponseFuture<?> future) {
 
         Object msg;
-        if (body instanceof RandomAccessBody && !ChannelManager.isSslHandlerConfigured(channel.pipeline()) && !config.isDisableZeroCopy() && getContentLength() > 0) {
+        if (body instanceof RandomAccessBody && !ChannelManager.isSslHandlerConfigured(channel.pipeline()) && !config.isDisableZeroCopy() && getContentLength() > 0
+                && blockingIoExecutor() == null) {
             msg = new BodyFileRegion((RandomAccessBody) body);
 
         } else {
-            msg = new BodyChunkedInput(body);
-
-            BodyGenerator bg = future.getTargetRequest().getBodyGenerator();
-            if (bg instanceof FeedableBodyGenerator) {
-                final ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
-                ((FeedableBodyGenerator) bg).setListener(new FeedListener() {
-                    @Override
-                    public void onContentAdded() {
-                        chunkedWriteHandler.resumeTransfer();
-                    }
-
-                    @Override
-                    public void onError(Throwable t) {
-                    }
-                });
-            }
+            msg = newChunkedInput(channel, future);
         }
 
         channel.write(msg, channel.newProgressivePromise())
@@ -0,0 +1,128 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelProgressiveFuture;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedStream;
+import org.asynchttpclient.netty.NettyResponseFuture;
+import org.asynchttpclient.netty.request.WriteProgressListener;
+import org.asynchttpclient.request.body.Body;
+import org.asynchttpclient.request.body.BodyCompression;
+
+import java.io.IOException;
+
+import static org.asynchttpclient.util.Assertions.assertNotNull;
+import static org.asynchttpclient.util.MiscUtils.closeSilently;
+
+/**
+ * Wraps another {@link NettyBody} and compresses it on the fly while it's being written.
+ * <p>
+ * Whatever the type of the wrapped body, it's streamed through a {@link BodyChunkedInput}, so the compressed length is unknown
+ * and the request has to be sent chunked. All the bodies created by the client can be compressed, other implementations are rejected
+ * upfront.
+ */
+public class NettyCompressedBody implements NettyBody {
+
+    private final NettyBody body;
+    private final BodyCompression compression;
+
+    /**
+     * @param body        the body to compress
+     * @param compression the compression
+     * @throws IllegalArgumentException if the body isn't one whose content can be read as chunks, see {@link #isCompressible(NettyBody)}
+     * @throws IllegalStateException if the compression isn't available, see {@link BodyCompression#ensureAvailable()}
+     */
+    public NettyCompressedBody(NettyBody body, BodyCompression compression) {
+        this.body = assertNotNull(body, "body");
+        this.compression = assertNotNull(compression, "compression");
+        if (!isCompressible(body)) {
+            throw new IllegalArgumentException("Can't compress body of type " + body.getClass().getName());
+        }
+        compression.ensureAvailable();
+    }
+
+    /**
+     * @param body a body
+     * @return true if the content of the body can be read as chunks to be compressed
+     */
+    public static boolean isCompressible(NettyBody body) {
+        return body instanceof NettyDirectBody
+                || body instanceof NettyFileBody
+                || body instanceof NettyInputStreamBody
+                || body instanceof NettyPipeBody
+                || body instanceof NettyPublisherBody
+                || body instanceof NettyBodyBody;
+    }
+
+    public NettyBody getBody() {
+        return body;
+    }
+
+    public BodyCompression getCompression() {
+        return compression;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public CharSequence getContentTypeOverride() {
+        return body.getContentTypeOverride();
+    }
+
+    @Override
+    public void write(Channel channel, NettyResponseFuture<?> future) throws IOException {
+        ChunkedInput<ByteBuf> source = source(channel, future);
+        if (source == null) {
+            return;
+        }
+
+        final Body compressedBody = new CompressedBody(source, compression.newEncoder());
+        channel.write(new BodyChunkedInput(compressedBody), channel.newProgressivePromise())
+                .addListener(new WriteProgressListener(future, false, getContentLength()) {
+                    @Override
+                    public void operationComplete(ChannelProgressiveFuture cf) {
+                        closeSilently(compressedBody);
+                        super.operationComplete(cf);
+                    }
+                });
+        channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, channel.voidPromise());
+    }
+
+    private ChunkedInput<ByteBuf> source(Channel channel, NettyResponseFuture<?> future) throws IOException {
+        if (body instanceof NettyDirectBody) {
+            return new ChunkedStream(new ByteBufInputStream(((NettyDirectBody) body).byteBuf(), true));
+        } else if (body instanceof NettyFileBody) {
+            return ((NettyFileBody) body).newChunkedInput(channel);
+        } else if (body instanceof NettyInputStreamBody) {
+            return ((NettyInputStreamBody) body).newChunkedInput(channel, future);
+        } else if (body instanceof NettyPipeBody) {
+            return ((NettyPipeBody) body).newChunkedInput(channel, future);
+        } else if (body instanceof NettyPublisherBody) {
+            return ((NettyPublisherBody) body).newChunkedInput(channel, future);
+        } else {
+            // checked by the constructor
+            return ((NettyBodyBody) body).newChunkedInput(channel, future);
+        }
+    }
+}
@@ -15,9 +15,11 @@
  */
 package org.asynchttpclient.netty.request.body;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.handler.stream.ChunkedNioFile;
 import org.asynchttpclient.AsyncHttpClientConfig;
 import org.asynchttpclient.netty.NettyResponseFuture;
@@ -59,13 +61,28 @@ public class NettyFileBody implements NettyBody {
         return length;
     }
 
+    @SuppressWarnings("resource")
+    ChunkedInput<ByteBuf> newChunkedInput(Channel channel) throws IOException {
+        if (config.isUseAsyncFileChannel()) {
+            return new AsyncFileChunkedInput(channel, file, offset, length, config.getChunkedFileChunkSize(), config.getBlockingIoExecutor());
+        }
+        // closed along with the ChunkedNioFile
+        FileChannel fileChannel = new RandomAccessFile(file, "r").getChannel();
+        return new ChunkedNioFile(fileChannel, offset, length, config.getChunkedFileChunkSize());
+    }
+
     @Override
     public void write(Channel channel, NettyResponseFuture<?> future) throws IOException {
-        @SuppressWarnings("resource")
-        // netty will close the FileChannel
-        FileChannel fileChannel = new RandomAccessFile(file, "r").getChannel();
         boolean noZeroCopy = ChannelManager.isSslHandlerConfigured(channel.pipeline()) || config.isDisableZeroCopy();
-        Object body = noZeroCopy ? new ChunkedNioFile(fileChannel, offset, length, config.getChunkedFileChunkSize()) : new DefaultFileRegion(fileChannel, offset, length);
+        Object body;
+        if (noZeroCopy) {
+            body = newChunkedInput(channel);
+        } else {
+            @SuppressWarnings("resource")
+            // netty will close the FileChannel
+            FileChannel fileChannel = new RandomAccessFile(file, "r").getChannel();
+            body = new DefaultFileRegion(fileChannel, offset, length);
+        }
 
         channel.write(body, channel.newProgressivePromise())
                 .addListener(new WriteProgressListener(future, false, length));
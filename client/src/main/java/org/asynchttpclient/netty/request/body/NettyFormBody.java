@@ -0,0 +1,60 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.asynchttpclient.Param;
+
+import java.util.List;
+
+import static org.asynchttpclient.util.HttpUtils.urlEncodeFormParams;
+import static org.asynchttpclient.util.HttpUtils.urlEncodedFormParamsLength;
+
+/**
+ * UTF-8 form parameters, url encoded straight into a buffer from the allocator when the request is built.
+ */
+public class NettyFormBody extends NettyDirectBody {
+
+    private final List<Param> params;
+    private final ByteBufAllocator allocator;
+    private final CharSequence contentTypeOverride;
+    private final int length;
+
+    public NettyFormBody(List<Param> params, ByteBufAllocator allocator, CharSequence contentTypeOverride) {
+        this.params = params;
+        this.allocator = allocator;
+        this.contentTypeOverride = contentTypeOverride;
+        length = urlEncodedFormParamsLength(params);
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public CharSequence getContentTypeOverride() {
+        return contentTypeOverride;
+    }
+
+    @Override
+    public ByteBuf byteBuf() {
+        ByteBuf buf = allocator.buffer(length);
+        urlEncodeFormParams(params, buf);
+        return buf;
+    }
+}
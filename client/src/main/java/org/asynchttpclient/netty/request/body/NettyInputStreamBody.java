@@ -15,10 +15,13 @@
  */
 package org.asynchttpclient.netty.request.body;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelProgressiveFuture;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.handler.stream.ChunkedStream;
+import org.asynchttpclient.AsyncHttpClientConfig;
 import org.asynchttpclient.netty.NettyResponseFuture;
 import org.asynchttpclient.netty.request.WriteProgressListener;
 import org.slf4j.Logger;
@@ -26,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 import static org.asynchttpclient.util.MiscUtils.closeSilently;
 
@@ -35,14 +39,20 @@ public class NettyInputStreamBody implements NettyBody {
 
     private final InputStream inputStream;
     private final long contentLength;
+    private final AsyncHttpClientConfig config;
 
     public NettyInputStreamBody(InputStream inputStream) {
         this(inputStream, -1L);
     }
 
     public NettyInputStreamBody(InputStream inputStream, long contentLength) {
+        this(inputStream, contentLength, null);
+    }
+
+    public NettyInputStreamBody(InputStream inputStream, long contentLength, AsyncHttpClientConfig config) {
         this.inputStream = inputStream;
         this.contentLength = contentLength;
+        this.config = config;
     }
 
     public InputStream getInputStream() {
@@ -54,8 +64,11 @@ public class NettyInputStreamBody implements NettyBody {
         return contentLength;
     }
 
-    @Override
-    public void write(Channel channel, NettyResponseFuture<?> future) throws IOException {
+    /**
+     * @return the stream as a {@link ChunkedInput}, or {@code null} if it was already consumed by a previous attempt and can't be reset.
+     * If a blocking I/O executor is configured, the stream is read on it.
+     */
+    ChunkedInput<ByteBuf> newChunkedInput(Channel channel, NettyResponseFuture<?> future) throws IOException {
         final InputStream is = inputStream;
 
         if (future.isStreamConsumed()) {
@@ -63,13 +76,28 @@ public class NettyInputStreamBody implements NettyBody {
                 is.reset();
             } else {
                 LOGGER.warn("Stream has already been consumed and cannot be reset");
-                return;
+                return null;
             }
         } else {
             future.setStreamConsumed(true);
         }
 
-        channel.write(new ChunkedStream(is), channel.newProgressivePromise()).addListener(
+        ExecutorService executor = config != null ? config.getBlockingIoExecutor() : null;
+        if (executor != null) {
+            return new ExecutorChunkedInput(new ChunkedStream(is), channel, executor, config.getBlockingIoPrefetchChunks());
+        }
+        return new ChunkedStream(is);
+    }
+
+    @Override
+    public void write(Channel channel, NettyResponseFuture<?> future) throws IOException {
+        final InputStream is = inputStream;
+        ChunkedInput<ByteBuf> chunkedInput = newChunkedInput(channel, future);
+        if (chunkedInput == null) {
+            return;
+        }
+
+        channel.write(chunkedInput, channel.newProgressivePromise()).addListener(
                 new WriteProgressListener(future, false, getContentLength()) {
                     @Override
                     public void operationComplete(ChannelProgressiveFuture cf) {
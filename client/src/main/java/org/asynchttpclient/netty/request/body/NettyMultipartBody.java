@@ -17,6 +17,7 @@ package org.asynchttpclient.netty.request.body;
 
 import io.netty.handler.codec.http.HttpHeaders;
 import org.asynchttpclient.AsyncHttpClientConfig;
+import org.asynchttpclient.request.body.multipart.InputStreamPart;
 import org.asynchttpclient.request.body.multipart.MultipartBody;
 import org.asynchttpclient.request.body.multipart.Part;
 
@@ -27,14 +28,21 @@ import static org.asynchttpclient.request.body.multipart.MultipartUtils.newMulti
 public class NettyMultipartBody extends NettyBodyBody {
 
     private final String contentTypeOverride;
+    private final boolean blocking;
 
     public NettyMultipartBody(List<Part> parts, HttpHeaders headers, AsyncHttpClientConfig config) {
-        this(newMultipartBody(parts, headers), config);
+        this(newMultipartBody(parts, headers), parts, config);
     }
 
-    private NettyMultipartBody(MultipartBody body, AsyncHttpClientConfig config) {
+    private NettyMultipartBody(MultipartBody body, List<Part> parts, AsyncHttpClientConfig config) {
         super(body, config);
         contentTypeOverride = body.getContentType();
+        blocking = parts.stream().anyMatch(part -> part instanceof InputStreamPart);
+    }
+
+    @Override
+    boolean isBlocking() {
+        return blocking;
     }
 
     @Override
@@ -0,0 +1,146 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import org.asynchttpclient.handler.ResponseBodyPipe;
+import org.asynchttpclient.netty.NettyResponseFuture;
+import org.asynchttpclient.netty.request.WriteProgressListener;
+import org.asynchttpclient.request.body.generator.FeedListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class NettyPipeBody implements NettyBody {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyPipeBody.class);
+
+    private final ResponseBodyPipe pipe;
+
+    public NettyPipeBody(ResponseBodyPipe pipe) {
+        this.pipe = pipe;
+    }
+
+    public ResponseBodyPipe getPipe() {
+        return pipe;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    /**
+     * @return a {@link ChunkedInput} draining the pipe, or {@code null} if it was already drained by a previous attempt
+     */
+    ChunkedInput<ByteBuf> newChunkedInput(Channel channel, NettyResponseFuture<?> future) {
+        if (future.isStreamConsumed()) {
+            LOGGER.warn("Pipe has already been consumed and cannot be replayed");
+            return null;
+        }
+        future.setStreamConsumed(true);
+
+        final ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+        pipe.setListener(new FeedListener() {
+            @Override
+            public void onContentAdded() {
+                chunkedWriteHandler.resumeTransfer();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                chunkedWriteHandler.resumeTransfer();
+            }
+        });
+        return new PipeChunkedInput(pipe);
+    }
+
+    @Override
+    public void write(Channel channel, NettyResponseFuture<?> future) {
+        ChunkedInput<ByteBuf> chunkedInput = newChunkedInput(channel, future);
+        if (chunkedInput == null) {
+            return;
+        }
+
+        channel.write(chunkedInput, channel.newProgressivePromise())
+                .addListener(new WriteProgressListener(future, false, getContentLength()));
+        channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, channel.voidPromise());
+    }
+
+    /**
+     * Hands the piped chunks over to the {@link ChunkedWriteHandler}, which only polls while the channel is writable,
+     * so that the pipe pauses the download when the upload can't keep up.
+     */
+    private static final class PipeChunkedInput implements ChunkedInput<ByteBuf> {
+
+        private final ResponseBodyPipe pipe;
+        private boolean endOfInput;
+        private long progress;
+
+        private PipeChunkedInput(ResponseBodyPipe pipe) {
+            this.pipe = pipe;
+        }
+
+        @Override
+        public boolean isEndOfInput() throws Exception {
+            if (!endOfInput) {
+                endOfInput = pipe.isEndOfInput();
+            }
+            return endOfInput;
+        }
+
+        @Override
+        public void close() {
+            // closed before the whole download was written: the upload was aborted
+            if (!endOfInput) {
+                endOfInput = true;
+                pipe.cancel();
+            }
+        }
+
+        @Override
+        @Deprecated
+        public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+            return readChunk(ctx.alloc());
+        }
+
+        @Override
+        public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+            ByteBuf chunk = pipe.poll();
+            if (chunk != null) {
+                progress += chunk.readableBytes();
+            } else if (pipe.isEndOfInput()) {
+                endOfInput = true;
+            }
+            return chunk;
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public long progress() {
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
+import org.asynchttpclient.netty.NettyResponseFuture;
+import org.asynchttpclient.netty.request.WriteProgressListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+public class NettyPublisherBody implements NettyBody {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyPublisherBody.class);
+
+    private final Flow.Publisher<ByteBuffer> publisher;
+    private final long contentLength;
+
+    public NettyPublisherBody(Flow.Publisher<ByteBuffer> publisher, long contentLength) {
+        this.publisher = publisher;
+        this.contentLength = contentLength;
+    }
+
+    public Flow.Publisher<ByteBuffer> getPublisher() {
+        return publisher;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * @return a {@link ChunkedInput} subscribed to the publisher, or {@code null} if it was already subscribed to by a previous attempt
+     */
+    ChunkedInput<ByteBuf> newChunkedInput(Channel channel, NettyResponseFuture<?> future) {
+        if (future.isStreamConsumed()) {
+            LOGGER.warn("Publisher has already been subscribed to and cannot be replayed");
+            return null;
+        }
+        future.setStreamConsumed(true);
+        return new PublisherChunkedInput(channel, publisher, contentLength);
+    }
+
+    @Override
+    public void write(Channel channel, NettyResponseFuture<?> future) {
+        ChunkedInput<ByteBuf> chunkedInput = newChunkedInput(channel, future);
+        if (chunkedInput == null) {
+            return;
+        }
+
+        channel.write(chunkedInput, channel.newProgressivePromise())
+                .addListener(new WriteProgressListener(future, false, getContentLength()));
+        channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, channel.voidPromise());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A String encoded straight into a buffer from the allocator when the request is built.
+ * Only charsets whose encoded length is known upfront are supported, see {@link #isSupported(Charset)}.
+ */
+public class NettyStringBody extends NettyDirectBody {
+
+    private final String string;
+    private final boolean utf8;
+    private final ByteBufAllocator allocator;
+    private final int length;
+
+    public NettyStringBody(String string, Charset charset, ByteBufAllocator allocator) {
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("Unsupported charset " + charset);
+        }
+        this.string = string;
+        this.allocator = allocator;
+        utf8 = UTF_8.equals(charset);
+        length = utf8 ? ByteBufUtil.utf8Bytes(string) : string.length();
+    }
+
+    public static boolean isSupported(Charset charset) {
+        return UTF_8.equals(charset) || ISO_8859_1.equals(charset);
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public ByteBuf byteBuf() {
+        ByteBuf buf = allocator.buffer(length);
+        if (utf8) {
+            ByteBufUtil.writeUtf8(buf, string);
+        } else {
+            // chars that can't be mapped are written as '?', same as the JDK encoder
+            ByteBufUtil.writeAscii(buf, string);
+        }
+        return buf;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A {@link ChunkedInput} fed by a {@link Flow.Publisher}.
+ * <p>
+ * The {@link ChunkedWriteHandler} only polls its input while the channel is writable, so the next buffer is requested from upstream
+ * when the handler polls again after the previous one was written, and never more than one buffer is held here.
+ * While waiting for it, {@link #readChunk(ByteBufAllocator)} returns {@code null}, which suspends the handler until the publisher signals.
+ * <p>
+ * Publisher signals may come from any thread and are handed over to the channel's event loop, where all state is confined.
+ */
+class PublisherChunkedInput implements ChunkedInput<ByteBuf>, Flow.Subscriber<ByteBuffer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PublisherChunkedInput.class);
+
+    private final Channel channel;
+    private final long length;
+    private Flow.Subscription subscription;
+    private ByteBuf pending;
+    private boolean requested;
+    private boolean completed;
+    private boolean closed;
+    private long progress;
+    private Throwable failure;
+
+    PublisherChunkedInput(Channel channel, Flow.Publisher<ByteBuffer> publisher, long length) {
+        this.channel = channel;
+        this.length = length;
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        onEventLoop(() -> {
+            if (closed || this.subscription != null) {
+                subscription.cancel();
+            } else {
+                this.subscription = subscription;
+                requestNext();
+            }
+        });
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        onEventLoop(() -> {
+            requested = false;
+            if (closed) {
+                return;
+            }
+            if (item.hasRemaining()) {
+                pending = Unpooled.wrappedBuffer(item);
+                resumeTransfer();
+            } else {
+                requestNext();
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        onEventLoop(() -> {
+            failure = throwable;
+            resumeTransfer();
+        });
+    }
+
+    @Override
+    public void onComplete() {
+        onEventLoop(() -> {
+            completed = true;
+            resumeTransfer();
+        });
+    }
+
+    @Override
+    public boolean isEndOfInput() throws Exception {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+        return completed && pending == null;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        if (pending != null) {
+            pending.release();
+            pending = null;
+        }
+        if (subscription != null && !completed && failure == null) {
+            subscription.cancel();
+        }
+    }
+
+    @Override
+    @Deprecated
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+
+        ByteBuf chunk = pending;
+        pending = null;
+        if (chunk != null) {
+            progress += chunk.readableBytes();
+        } else {
+            // being polled again means the previous chunk was written and the channel is still writable
+            requestNext();
+        }
+        return chunk;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    private void requestNext() {
+        if (subscription != null && !requested && pending == null && !completed && !closed && failure == null) {
+            requested = true;
+            subscription.request(1);
+        }
+    }
+
+    private void onEventLoop(Runnable task) {
+        try {
+            channel.eventLoop().execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Event loop rejected publisher signal", e);
+        }
+    }
+
+    private void resumeTransfer() {
+        ChunkedWriteHandler chunkedWriteHandler = channel.pipeline().get(ChunkedWriteHandler.class);
+        if (chunkedWriteHandler != null) {
+            chunkedWriteHandler.resumeTransfer();
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.asynchttpclient.netty.ws;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
@@ -29,16 +30,20 @@ import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import org.asynchttpclient.netty.channel.Channels;
+import org.asynchttpclient.ws.ByteBufWebSocketListener;
 import org.asynchttpclient.ws.WebSocket;
 import org.asynchttpclient.ws.WebSocketListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static io.netty.buffer.Unpooled.wrappedBuffer;
@@ -54,6 +59,10 @@ public final class NettyWebSocket implements WebSocket {
     // no need for volatile because only mutated in IO thread
     private boolean ready;
     private List<WebSocketFrame> bufferedFrames;
+    // frames sent when writable, only accessed in IO thread
+    private Queue<PendingFrame> pendingFrames;
+    private long pendingBytes;
+    private volatile WebSocketHeartbeat.Task heartbeat;
 
     public NettyWebSocket(Channel channel, HttpHeaders upgradeHeaders) {
         this(channel, upgradeHeaders, new ConcurrentLinkedQueue<>());
@@ -168,11 +177,122 @@ public final class NettyWebSocket implements WebSocket {
         return ImmediateEventExecutor.INSTANCE.newSucceededFuture(null);
     }
 
+    @Override
+    public Future<Void> writeTextFrame(String payload) {
+        return channel.write(new TextWebSocketFrame(payload));
+    }
+
+    @Override
+    public Future<Void> writeTextFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        return channel.write(new TextWebSocketFrame(finalFragment, rsv, payload));
+    }
+
+    @Override
+    public Future<Void> writeBinaryFrame(byte[] payload) {
+        return writeBinaryFrame(wrappedBuffer(payload), true, 0);
+    }
+
+    @Override
+    public Future<Void> writeBinaryFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        return channel.write(new BinaryWebSocketFrame(finalFragment, rsv, payload));
+    }
+
+    @Override
+    public Future<Void> writeContinuationFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        return channel.write(new ContinuationWebSocketFrame(finalFragment, rsv, payload));
+    }
+
+    @Override
+    public WebSocket flush() {
+        channel.flush();
+        return this;
+    }
+
+    @Override
+    public Future<Void> sendTextFrameWhenWritable(String payload) {
+        return sendWhenWritable(new TextWebSocketFrame(payload));
+    }
+
+    @Override
+    public Future<Void> sendBinaryFrameWhenWritable(byte[] payload) {
+        return sendBinaryFrameWhenWritable(wrappedBuffer(payload), true, 0);
+    }
+
+    @Override
+    public Future<Void> sendBinaryFrameWhenWritable(ByteBuf payload, boolean finalFragment, int rsv) {
+        return sendWhenWritable(new BinaryWebSocketFrame(finalFragment, rsv, payload));
+    }
+
+    private Future<Void> sendWhenWritable(WebSocketFrame frame) {
+        ChannelPromise accepted = channel.newPromise();
+        if (channel.eventLoop().inEventLoop()) {
+            enqueueFrame(frame, accepted);
+        } else {
+            channel.eventLoop().execute(() -> enqueueFrame(frame, accepted));
+        }
+        return accepted;
+    }
+
+    private void enqueueFrame(WebSocketFrame frame, ChannelPromise accepted) {
+        if (!channel.isActive()) {
+            frame.release();
+            accepted.tryFailure(new ClosedChannelException());
+            return;
+        }
+        if (pendingFrames == null) {
+            pendingFrames = new ArrayDeque<>(2);
+        }
+        int size = frame.content().readableBytes();
+        // the frames held back are bounded like the outbound buffer, but a single frame is always accepted
+        if (!pendingFrames.isEmpty() && pendingBytes + size > channel.config().getWriteBufferHighWaterMark()) {
+            frame.release();
+            accepted.tryFailure(new IllegalStateException("Too many frames waiting for the WebSocket to be writable, wait for the previous sends to complete"));
+            return;
+        }
+        pendingFrames.add(new PendingFrame(frame, accepted));
+        pendingBytes += size;
+        writePendingFrames();
+    }
+
+    private void writePendingFrames() {
+        if (pendingFrames == null) {
+            return;
+        }
+        boolean written = false;
+        PendingFrame pending;
+        // writing a frame adds its bytes to the outbound buffer, and updates the writability
+        while (channel.isWritable() && (pending = pendingFrames.poll()) != null) {
+            pendingBytes -= pending.frame.content().readableBytes();
+            channel.write(pending.frame);
+            pending.accepted.trySuccess();
+            written = true;
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    private void failPendingFrames() {
+        if (pendingFrames != null) {
+            PendingFrame pending;
+            while ((pending = pendingFrames.poll()) != null) {
+                pending.frame.release();
+                pending.accepted.tryFailure(new ClosedChannelException());
+            }
+            pendingBytes = 0;
+        }
+    }
+
     @Override
     public boolean isOpen() {
         return channel.isOpen();
     }
 
+    @Override
+    public boolean isWritable() {
+        return channel.isWritable();
+    }
+
     @Override
     public WebSocket addWebSocketListener(WebSocketListener l) {
         listeners.add(l);
@@ -246,6 +366,23 @@ public final class NettyWebSocket implements WebSocket {
         }
     }
 
+    public void startHeartbeat(WebSocketHeartbeat webSocketHeartbeat) {
+        heartbeat = webSocketHeartbeat.start(channel);
+    }
+
+    public void onWritabilityChanged(boolean writable) {
+        if (writable) {
+            writePendingFrames();
+        }
+        for (WebSocketListener listener : listeners) {
+            try {
+                listener.onWritabilityChanged(this, writable);
+            } catch (Throwable t) {
+                listener.onError(t);
+            }
+        }
+    }
+
     public void onError(Throwable t) {
         try {
             for (WebSocketListener listener : listeners) {
@@ -272,6 +409,11 @@ public final class NettyWebSocket implements WebSocket {
             listeners.clear();
         } finally {
             releaseBufferedFrames();
+            failPendingFrames();
+            WebSocketHeartbeat.Task heartbeat = this.heartbeat;
+            if (heartbeat != null) {
+                heartbeat.cancel();
+            }
         }
     }
 
@@ -288,9 +430,17 @@ public final class NettyWebSocket implements WebSocket {
     }
 
     private void onBinaryFrame0(WebSocketFrame frame) {
-        byte[] bytes = ByteBufUtil.getBytes(frame.content());
+        // only copied if some listener needs it
+        byte[] bytes = null;
         for (WebSocketListener listener : listeners) {
-            listener.onBinaryFrame(bytes, frame.isFinalFragment(), frame.rsv());
+            if (listener instanceof ByteBufWebSocketListener) {
+                ((ByteBufWebSocketListener) listener).onBinaryFrame(frame.content().retainedDuplicate(), frame.isFinalFragment(), frame.rsv());
+            } else {
+                if (bytes == null) {
+                    bytes = ByteBufUtil.getBytes(frame.content());
+                }
+                listener.onBinaryFrame(bytes, frame.isFinalFragment(), frame.rsv());
+            }
         }
     }
 
@@ -302,8 +452,17 @@ public final class NettyWebSocket implements WebSocket {
     }
 
     private void onTextFrame0(WebSocketFrame frame) {
+        // only decoded if some listener needs it
+        String text = null;
         for (WebSocketListener listener : listeners) {
-            listener.onTextFrame(frame.content().toString(StandardCharsets.UTF_8), frame.isFinalFragment(), frame.rsv());
+            if (listener instanceof ByteBufWebSocketListener) {
+                ((ByteBufWebSocketListener) listener).onTextFrame(frame.content().retainedDuplicate(), frame.isFinalFragment(), frame.rsv());
+            } else {
+                if (text == null) {
+                    text = frame.content().toString(StandardCharsets.UTF_8);
+                }
+                listener.onTextFrame(text, frame.isFinalFragment(), frame.rsv());
+            }
         }
     }
 
@@ -331,20 +490,49 @@ public final class NettyWebSocket implements WebSocket {
     }
 
     private void onPingFrame(PingWebSocketFrame frame) {
-        byte[] bytes = ByteBufUtil.getBytes(frame.content());
+        byte[] bytes = null;
         for (WebSocketListener listener : listeners) {
-            listener.onPingFrame(bytes);
+            if (listener instanceof ByteBufWebSocketListener) {
+                ((ByteBufWebSocketListener) listener).onPingFrame(frame.content().retainedDuplicate());
+            } else {
+                if (bytes == null) {
+                    bytes = ByteBufUtil.getBytes(frame.content());
+                }
+                listener.onPingFrame(bytes);
+            }
         }
     }
 
     private void onPongFrame(PongWebSocketFrame frame) {
-        byte[] bytes = ByteBufUtil.getBytes(frame.content());
+        WebSocketHeartbeat.Task heartbeat = this.heartbeat;
+        if (heartbeat != null) {
+            heartbeat.onPong();
+        }
+        byte[] bytes = null;
         for (WebSocketListener listener : listeners) {
-            listener.onPongFrame(bytes);
+            if (listener instanceof ByteBufWebSocketListener) {
+                ((ByteBufWebSocketListener) listener).onPongFrame(frame.content().retainedDuplicate());
+            } else {
+                if (bytes == null) {
+                    bytes = ByteBufUtil.getBytes(frame.content());
+                }
+                listener.onPongFrame(bytes);
+            }
         }
     }
 
     private enum FragmentedFrameType {
         TEXT, BINARY
     }
+
+    private static final class PendingFrame {
+
+        private final WebSocketFrame frame;
+        private final ChannelPromise accepted;
+
+        private PendingFrame(WebSocketFrame frame, ChannelPromise accepted) {
+            this.frame = frame;
+            this.accepted = accepted;
+        }
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.ws;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.asynchttpclient.AsyncHttpClientConfig;
+import org.asynchttpclient.netty.channel.Channels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pings every WebSocket at a fixed interval and detects the dead peers, the ones that don't answer with a pong in time.
+ * <br>
+ * All the WebSockets share the client's {@link Timer}: each of them only ever has a single pending {@link Timeout},
+ * either for sending its next ping or for checking that the last one was answered.
+ */
+public final class WebSocketHeartbeat {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketHeartbeat.class);
+
+    // the payload is empty and can't be released, so the same frame can be written on all the channels
+    private static final PingWebSocketFrame PING_FRAME = new PingWebSocketFrame(Unpooled.unreleasableBuffer(Unpooled.EMPTY_BUFFER));
+
+    private final Timer timer;
+    private final long pingIntervalMillis;
+    private final long pongTimeoutMillis;
+    private final boolean closeOnMissedPong;
+    private final LongAdder missedPongs = new LongAdder();
+    private final LongAdder closedForMissedPong = new LongAdder();
+
+    public WebSocketHeartbeat(Timer timer, AsyncHttpClientConfig config) {
+        this.timer = timer;
+        pingIntervalMillis = config.getWebSocketPingInterval().toMillis();
+        pongTimeoutMillis = config.getWebSocketPongTimeout().toMillis();
+        closeOnMissedPong = config.isWebSocketCloseOnMissedPong();
+    }
+
+    public boolean isEnabled() {
+        return pingIntervalMillis > 0;
+    }
+
+    /**
+     * @return the number of pings that weren't answered in time
+     */
+    public long getMissedPongCount() {
+        return missedPongs.sum();
+    }
+
+    /**
+     * @return the number of WebSockets that were closed because a ping wasn't answered in time
+     */
+    public long getClosedForMissedPongCount() {
+        return closedForMissedPong.sum();
+    }
+
+    Task start(Channel channel) {
+        Task task = new Task(channel);
+        task.schedule(pingIntervalMillis);
+        return task;
+    }
+
+    final class Task implements TimerTask {
+
+        private final Channel channel;
+        private volatile Timeout timeout;
+        private volatile boolean awaitingPong;
+        private volatile boolean pongReceived;
+        private volatile boolean cancelled;
+
+        private Task(Channel channel) {
+            this.channel = channel;
+        }
+
+        void onPong() {
+            pongReceived = true;
+        }
+
+        void cancel() {
+            cancelled = true;
+            Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        private void schedule(long delayMillis) {
+            if (!cancelled && channel.isActive()) {
+                timeout = timer.newTimeout(this, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            if (cancelled || !channel.isActive()) {
+                return;
+            }
+
+            if (awaitingPong) {
+                awaitingPong = false;
+                if (!pongReceived) {
+                    missedPongs.increment();
+                    if (closeOnMissedPong) {
+                        LOGGER.debug("Closing WebSocket {} as the last ping wasn't answered within {} ms", channel, pongTimeoutMillis);
+                        closedForMissedPong.increment();
+                        Channels.silentlyCloseChannel(channel);
+                        return;
+                    }
+                }
+                schedule(Math.max(pingIntervalMillis - pongTimeoutMillis, 0));
+
+            } else {
+                pongReceived = false;
+                awaitingPong = true;
+                channel.writeAndFlush(PING_FRAME);
+                schedule(pongTimeoutMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.request.body;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.compression.ZstdEncoder;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.AsciiString;
+
+/**
+ * Content codings that can be applied on the fly to a request body.
+ * <p>
+ * When set on a request, the body is compressed chunk by chunk while being written, the {@code Content-Encoding} header is set
+ * and the request is sent with {@code Transfer-Encoding: chunked}, as the compressed length can't be known upfront.
+ */
+public enum BodyCompression {
+
+    GZIP(HttpHeaderValues.GZIP) {
+        @Override
+        public MessageToByteEncoder<ByteBuf> newEncoder() {
+            return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP);
+        }
+    },
+
+    DEFLATE(HttpHeaderValues.DEFLATE) {
+        @Override
+        public MessageToByteEncoder<ByteBuf> newEncoder() {
+            return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.ZLIB);
+        }
+    },
+
+    /**
+     * Requires <a href="https://github.com/luben/zstd-jni">zstd-jni</a> to be present on the classpath.
+     */
+    ZSTD(AsciiString.cached("zstd")) {
+        @Override
+        public void ensureAvailable() {
+            if (!Zstd.isAvailable()) {
+                throw new IllegalStateException("zstd request body compression requires zstd-jni on the classpath", Zstd.cause());
+            }
+        }
+
+        @Override
+        public MessageToByteEncoder<ByteBuf> newEncoder() {
+            ensureAvailable();
+            return new ZstdEncoder();
+        }
+    };
+
+    private final AsciiString contentEncoding;
+
+    BodyCompression(AsciiString contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return the value of the {@code Content-Encoding} header matching this coding
+     */
+    public AsciiString getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * @throws IllegalStateException if the libraries this coding requires aren't on the classpath
+     */
+    public void ensureAvailable() {
+        // the zlib codings are always available
+    }
+
+    /**
+     * @return a new, stateful, encoder for a single request body
+     */
+    public abstract MessageToByteEncoder<ByteBuf> newEncoder();
+}
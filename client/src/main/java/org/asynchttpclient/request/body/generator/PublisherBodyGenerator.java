@@ -0,0 +1,194 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.request.body.generator;
+
+import io.netty.buffer.ByteBuf;
+import org.asynchttpclient.request.body.Body;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+import static org.asynchttpclient.util.Assertions.assertNotNull;
+
+/**
+ * Creates a request body from a {@link Flow.Publisher}.
+ * <p>
+ * Unlike a {@link FeedableBodyGenerator}, the publisher is subscribed to when the body starts being written, and is then asked for one buffer
+ * at a time, only when the channel is writable and the previous buffer has been written. Memory usage is therefore bounded, even when the
+ * publisher is faster than the connection, e.g. when streaming a response from one server to another.
+ * <p>
+ * Buffers are written without being copied, so publishers must not reuse a buffer once it has been emitted.
+ */
+public final class PublisherBodyGenerator implements BodyGenerator {
+
+    private final Flow.Publisher<ByteBuffer> publisher;
+    private final long contentLength;
+
+    public PublisherBodyGenerator(Flow.Publisher<ByteBuffer> publisher) {
+        this(publisher, -1L);
+    }
+
+    public PublisherBodyGenerator(Flow.Publisher<ByteBuffer> publisher, long contentLength) {
+        this.publisher = assertNotNull(publisher, "publisher");
+        this.contentLength = contentLength;
+    }
+
+    public Flow.Publisher<ByteBuffer> getPublisher() {
+        return publisher;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * The client doesn't use this method, it directly subscribes to the publisher without blocking.
+     *
+     * @return a body that subscribes to the publisher when it's first read, and whose {@link Body#transferTo(ByteBuf)} blocks until
+     * the next buffer has been published, so it must not be read from a thread the publisher depends on
+     */
+    @Override
+    public Body createBody() {
+        return new PublisherBody(publisher, contentLength);
+    }
+
+    /**
+     * Holds at most one published buffer, the next one is only requested once it has been transferred.
+     */
+    private static final class PublisherBody implements Body, Flow.Subscriber<ByteBuffer> {
+
+        private final Flow.Publisher<ByteBuffer> publisher;
+        private final long contentLength;
+        private boolean subscribed;
+        private @Nullable Flow.Subscription subscription;
+        private @Nullable ByteBuffer buffer;
+        private boolean completed;
+        private boolean closed;
+        private @Nullable Throwable failure;
+
+        private PublisherBody(Flow.Publisher<ByteBuffer> publisher, long contentLength) {
+            this.publisher = publisher;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public BodyState transferTo(ByteBuf target) throws IOException {
+            if (!subscribed) {
+                subscribed = true;
+                publisher.subscribe(this);
+            }
+
+            Flow.Subscription toRequest = null;
+            synchronized (this) {
+                while (buffer == null && !completed && !closed && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                if (failure != null) {
+                    throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+                }
+                ByteBuffer buffer = this.buffer;
+                if (buffer == null) {
+                    return BodyState.STOP;
+                }
+
+                int length = Math.min(buffer.remaining(), target.writableBytes());
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(slice.position() + length);
+                target.writeBytes(slice);
+                buffer.position(buffer.position() + length);
+                if (!buffer.hasRemaining()) {
+                    this.buffer = null;
+                    toRequest = subscription;
+                }
+            }
+            // outside the lock, as the publisher may emit synchronously
+            if (toRequest != null) {
+                toRequest.request(1);
+            }
+            return BodyState.CONTINUE;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                if (this.subscription != null || closed) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            Flow.Subscription toRequest = null;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (item.hasRemaining()) {
+                    buffer = item;
+                    notifyAll();
+                } else {
+                    toRequest = subscription;
+                }
+            }
+            if (toRequest != null) {
+                toRequest.request(1);
+            }
+        }
+
+        @Override
+        public synchronized void onError(Throwable throwable) {
+            failure = throwable;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            completed = true;
+            notifyAll();
+        }
+
+        @Override
+        public void close() {
+            Flow.Subscription toCancel;
+            synchronized (this) {
+                closed = true;
+                buffer = null;
+                notifyAll();
+                toCancel = completed || failure != null ? null : subscription;
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+    }
+}
@@ -39,6 +39,10 @@ public class Uri {
     private final String path;
     private final @Nullable String fragment;
     private @Nullable String url;
+    // lazily computed, as Uris are immutable and often shared
+    private @Nullable String relativeUrl;
+    private @Nullable String baseUrl;
+    private @Nullable String hostHeader;
     private final boolean secured;
     private final boolean webSocket;
 
@@ -157,17 +161,23 @@ public class Uri {
     }
 
     public String toRelativeUrl() {
-        StringBuilder sb = StringBuilderPool.DEFAULT.stringBuilder();
-        if (isNonEmpty(path)) {
-            sb.append(path);
-        } else {
-            sb.append('/');
-        }
-        if (query != null) {
-            sb.append('?').append(query);
+        String relativeUrl = this.relativeUrl;
+        if (relativeUrl == null) {
+            if (query == null) {
+                relativeUrl = getNonEmptyPath();
+            } else {
+                StringBuilder sb = StringBuilderPool.DEFAULT.stringBuilder();
+                if (isNonEmpty(path)) {
+                    sb.append(path);
+                } else {
+                    sb.append('/');
+                }
+                sb.append('?').append(query);
+                relativeUrl = sb.toString();
+            }
+            this.relativeUrl = relativeUrl;
         }
-
-        return sb.toString();
+        return relativeUrl;
     }
 
     public String toFullUrl() {
@@ -175,7 +185,24 @@ public class Uri {
     }
 
     public String getBaseUrl() {
-        return scheme + "://" + host + ':' + getExplicitPort();
+        String baseUrl = this.baseUrl;
+        if (baseUrl == null) {
+            baseUrl = scheme + "://" + host + ':' + getExplicitPort();
+            this.baseUrl = baseUrl;
+        }
+        return baseUrl;
+    }
+
+    /**
+     * @return [hostname](:[port]), the value of the Host header. Port is omitted if it matches the scheme's default one.
+     */
+    public String getHostHeader() {
+        String hostHeader = this.hostHeader;
+        if (hostHeader == null) {
+            hostHeader = port == -1 || port == getSchemeDefaultPort() ? host : host + ':' + port;
+            this.hostHeader = hostHeader;
+        }
+        return hostHeader;
     }
 
     public String getAuthority() {
@@ -0,0 +1,71 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.uri;
+
+import org.jetbrains.annotations.Nullable;
+
+import static org.asynchttpclient.util.Assertions.assertNotNull;
+
+/**
+ * A bounded cache of parsed {@link Uri}s, for clients that keep requesting the same urls.
+ * <p>
+ * As {@link Uri}s are immutable, a cached one is shared by all the requests to its url, along with the strings it has
+ * computed, such as its base url and its Host header. The cache is direct mapped: each url has a single slot, and a new
+ * url replaces the one in its slot, so a lookup never allocates nor locks.
+ */
+public final class UriCache {
+
+    private final @Nullable Entry[] entries;
+    private final int mask;
+
+    /**
+     * @param size the maximum number of cached {@link Uri}s, rounded up to a power of 2
+     */
+    public UriCache(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        int capacity = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        entries = new Entry[capacity];
+        mask = capacity - 1;
+    }
+
+    public Uri get(String url) {
+        assertNotNull(url, "url");
+        int hash = url.hashCode();
+        int index = (hash ^ hash >>> 16) & mask;
+        Entry entry = entries[index];
+        if (entry != null && entry.url.equals(url)) {
+            return entry.uri;
+        }
+
+        Uri uri = Uri.create(url);
+        // racy but safe, as entries are immutable
+        entries[index] = new Entry(url, uri);
+        return uri;
+    }
+
+    private static final class Entry {
+
+        private final String url;
+        private final Uri uri;
+
+        private Entry(String url, Uri uri) {
+            this.url = url;
+            this.uri = uri;
+        }
+    }
+}
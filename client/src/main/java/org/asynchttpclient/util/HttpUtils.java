@@ -12,6 +12,7 @@
  */
 package org.asynchttpclient.util;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.util.AsciiString;
 import org.asynchttpclient.AsyncHttpClient;
@@ -46,9 +47,7 @@ public final class HttpUtils {
     }
 
     public static String hostHeader(Uri uri) {
-        String host = uri.getHost();
-        int port = uri.getPort();
-        return port == -1 || port == uri.getSchemeDefaultPort() ? host : host + ':' + port;
+        return uri.getHostHeader();
     }
 
     public static String originHeader(Uri uri) {
@@ -139,6 +138,41 @@ public final class HttpUtils {
         return StringUtils.charSequence2ByteBuffer(urlEncodeFormParams0(params, charset), US_ASCII);
     }
 
+    /**
+     * @return the number of bytes written by {@link #urlEncodeFormParams(List, ByteBuf)}
+     */
+    public static int urlEncodedFormParamsLength(List<Param> params) {
+        int length = -1;
+        for (Param param : params) {
+            // name, '=' and '&'
+            length += Utf8UrlEncoder.formElementEncodedLength(param.getName()) + 1;
+            String value = param.getValue();
+            if (value != null) {
+                length += Utf8UrlEncoder.formElementEncodedLength(value) + 1;
+            }
+        }
+        return Math.max(length, 0);
+    }
+
+    /**
+     * Same as {@link #urlEncodeFormParams(List, Charset)} with UTF-8, but writes the encoded bytes.
+     */
+    public static void urlEncodeFormParams(List<Param> params, ByteBuf buf) {
+        boolean first = true;
+        for (Param param : params) {
+            if (!first) {
+                buf.writeByte('&');
+            }
+            first = false;
+            Utf8UrlEncoder.encodeAndWriteFormElement(buf, param.getName());
+            String value = param.getValue();
+            if (value != null) {
+                buf.writeByte('=');
+                Utf8UrlEncoder.encodeAndWriteFormElement(buf, value);
+            }
+        }
+    }
+
     private static StringBuilder urlEncodeFormParams0(List<Param> params, Charset charset) {
         StringBuilder sb = StringBuilderPool.DEFAULT.stringBuilder();
         for (Param param : params) {
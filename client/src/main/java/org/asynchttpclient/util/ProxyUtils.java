@@ -82,6 +82,10 @@ public final class ProxyUtils {
      * @return the proxy server to be used for this request (can be null)
      */
     public static @Nullable ProxyServer getProxyServer(AsyncHttpClientConfig config, Request request) {
+        if (request.getUnixDomainSocket() != null) {
+            // the socket is the local proxy, if any
+            return null;
+        }
         ProxyServer proxyServer = request.getProxyServer();
         if (proxyServer == null) {
             ProxyServerSelector selector = config.getProxyServerSelector();
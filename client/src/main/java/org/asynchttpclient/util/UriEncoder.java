@@ -60,10 +60,8 @@ public enum UriEncoder {
 
         @Override
         protected String withQueryWithoutParams(final String query) {
-            // encode query
-            StringBuilder sb = StringBuilderPool.DEFAULT.stringBuilder();
-            encodeAndAppendQuery(sb, query);
-            return sb.toString();
+            // encode query, returned as is if there's nothing to encode
+            return Utf8UrlEncoder.encodeQuery(query);
         }
 
         @Override
@@ -143,6 +141,10 @@ public enum UriEncoder {
     public Uri encode(Uri uri, @Nullable List<Param> queryParams) {
         String newPath = encodePath(uri.getPath());
         String newQuery = encodeQuery(uri.getQuery(), queryParams);
+        if (newPath == uri.getPath() && newQuery == uri.getQuery()) {
+            // already encoded, keep the same instance and the strings it has computed
+            return uri;
+        }
         return new Uri(uri.getScheme(),
                 uri.getUserInfo(),
                 uri.getHost(),
@@ -15,120 +15,130 @@
  */
 package org.asynchttpclient.util;
 
+import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.BitSet;
-
 public final class Utf8UrlEncoder {
 
     // see http://tools.ietf.org/html/rfc3986#section-3.4
     // ALPHA / DIGIT / "-" / "." / "_" / "~"
-    private static final BitSet RFC3986_UNRESERVED_CHARS = new BitSet();
+    private static final boolean[] RFC3986_UNRESERVED_CHARS = new boolean[128];
     // gen-delims = ":" / "/" / "?" / "#" / "[" / "]" / "@"
-    private static final BitSet RFC3986_GENDELIM_CHARS = new BitSet();
+    private static final boolean[] RFC3986_GENDELIM_CHARS = new boolean[128];
     // "!" / "$" / "&" / "'" / "(" / ")" / "*" / "+" / "," / ";" / "="
-    private static final BitSet RFC3986_SUBDELIM_CHARS = new BitSet();
+    private static final boolean[] RFC3986_SUBDELIM_CHARS = new boolean[128];
     // gen-delims / sub-delims
-    private static final BitSet RFC3986_RESERVED_CHARS = new BitSet();
+    private static final boolean[] RFC3986_RESERVED_CHARS = new boolean[128];
     // unreserved / pct-encoded / sub-delims / ":" / "@"
-    private static final BitSet RFC3986_PCHARS = new BitSet();
-    private static final BitSet BUILT_PATH_UNTOUCHED_CHARS = new BitSet();
-    private static final BitSet BUILT_QUERY_UNTOUCHED_CHARS = new BitSet();
+    private static final boolean[] RFC3986_PCHARS = new boolean[128];
+    private static final boolean[] BUILT_PATH_UNTOUCHED_CHARS = new boolean[128];
+    private static final boolean[] BUILT_QUERY_UNTOUCHED_CHARS = new boolean[128];
     // http://www.w3.org/TR/html5/forms.html#application/x-www-form-urlencoded-encoding-algorithm
-    private static final BitSet FORM_URL_ENCODED_SAFE_CHARS = new BitSet();
+    private static final boolean[] FORM_URL_ENCODED_SAFE_CHARS = new boolean[128];
     private static final char[] HEX = "0123456789ABCDEF".toCharArray();
 
     static {
         for (int i = 'a'; i <= 'z'; ++i) {
-            RFC3986_UNRESERVED_CHARS.set(i);
+            RFC3986_UNRESERVED_CHARS[i] = true;
         }
         for (int i = 'A'; i <= 'Z'; ++i) {
-            RFC3986_UNRESERVED_CHARS.set(i);
+            RFC3986_UNRESERVED_CHARS[i] = true;
         }
         for (int i = '0'; i <= '9'; ++i) {
-            RFC3986_UNRESERVED_CHARS.set(i);
+            RFC3986_UNRESERVED_CHARS[i] = true;
         }
-        RFC3986_UNRESERVED_CHARS.set('-');
-        RFC3986_UNRESERVED_CHARS.set('.');
-        RFC3986_UNRESERVED_CHARS.set('_');
-        RFC3986_UNRESERVED_CHARS.set('~');
+        RFC3986_UNRESERVED_CHARS['-'] = true;
+        RFC3986_UNRESERVED_CHARS['.'] = true;
+        RFC3986_UNRESERVED_CHARS['_'] = true;
+        RFC3986_UNRESERVED_CHARS['~'] = true;
     }
 
     static {
-        RFC3986_GENDELIM_CHARS.set(':');
-        RFC3986_GENDELIM_CHARS.set('/');
-        RFC3986_GENDELIM_CHARS.set('?');
-        RFC3986_GENDELIM_CHARS.set('#');
-        RFC3986_GENDELIM_CHARS.set('[');
-        RFC3986_GENDELIM_CHARS.set(']');
-        RFC3986_GENDELIM_CHARS.set('@');
+        RFC3986_GENDELIM_CHARS[':'] = true;
+        RFC3986_GENDELIM_CHARS['/'] = true;
+        RFC3986_GENDELIM_CHARS['?'] = true;
+        RFC3986_GENDELIM_CHARS['#'] = true;
+        RFC3986_GENDELIM_CHARS['['] = true;
+        RFC3986_GENDELIM_CHARS[']'] = true;
+        RFC3986_GENDELIM_CHARS['@'] = true;
     }
 
     static {
-        RFC3986_SUBDELIM_CHARS.set('!');
-        RFC3986_SUBDELIM_CHARS.set('$');
-        RFC3986_SUBDELIM_CHARS.set('&');
-        RFC3986_SUBDELIM_CHARS.set('\'');
-        RFC3986_SUBDELIM_CHARS.set('(');
-        RFC3986_SUBDELIM_CHARS.set(')');
-        RFC3986_SUBDELIM_CHARS.set('*');
-        RFC3986_SUBDELIM_CHARS.set('+');
-        RFC3986_SUBDELIM_CHARS.set(',');
-        RFC3986_SUBDELIM_CHARS.set(';');
-        RFC3986_SUBDELIM_CHARS.set('=');
+        RFC3986_SUBDELIM_CHARS['!'] = true;
+        RFC3986_SUBDELIM_CHARS['$'] = true;
+        RFC3986_SUBDELIM_CHARS['&'] = true;
+        RFC3986_SUBDELIM_CHARS['\''] = true;
+        RFC3986_SUBDELIM_CHARS['('] = true;
+        RFC3986_SUBDELIM_CHARS[')'] = true;
+        RFC3986_SUBDELIM_CHARS['*'] = true;
+        RFC3986_SUBDELIM_CHARS['+'] = true;
+        RFC3986_SUBDELIM_CHARS[','] = true;
+        RFC3986_SUBDELIM_CHARS[';'] = true;
+        RFC3986_SUBDELIM_CHARS['='] = true;
     }
 
     static {
-        RFC3986_RESERVED_CHARS.or(RFC3986_GENDELIM_CHARS);
-        RFC3986_RESERVED_CHARS.or(RFC3986_SUBDELIM_CHARS);
+        or(RFC3986_RESERVED_CHARS, RFC3986_GENDELIM_CHARS);
+        or(RFC3986_RESERVED_CHARS, RFC3986_SUBDELIM_CHARS);
     }
 
     static {
-        RFC3986_PCHARS.or(RFC3986_UNRESERVED_CHARS);
-        RFC3986_PCHARS.or(RFC3986_SUBDELIM_CHARS);
-        RFC3986_PCHARS.set(':');
-        RFC3986_PCHARS.set('@');
+        or(RFC3986_PCHARS, RFC3986_UNRESERVED_CHARS);
+        or(RFC3986_PCHARS, RFC3986_SUBDELIM_CHARS);
+        RFC3986_PCHARS[':'] = true;
+        RFC3986_PCHARS['@'] = true;
     }
 
     static {
-        BUILT_PATH_UNTOUCHED_CHARS.or(RFC3986_PCHARS);
-        BUILT_PATH_UNTOUCHED_CHARS.set('%');
-        BUILT_PATH_UNTOUCHED_CHARS.set('/');
+        or(BUILT_PATH_UNTOUCHED_CHARS, RFC3986_PCHARS);
+        BUILT_PATH_UNTOUCHED_CHARS['%'] = true;
+        BUILT_PATH_UNTOUCHED_CHARS['/'] = true;
     }
 
     static {
-        BUILT_QUERY_UNTOUCHED_CHARS.or(RFC3986_PCHARS);
-        BUILT_QUERY_UNTOUCHED_CHARS.set('%');
-        BUILT_QUERY_UNTOUCHED_CHARS.set('/');
-        BUILT_QUERY_UNTOUCHED_CHARS.set('?');
+        or(BUILT_QUERY_UNTOUCHED_CHARS, RFC3986_PCHARS);
+        BUILT_QUERY_UNTOUCHED_CHARS['%'] = true;
+        BUILT_QUERY_UNTOUCHED_CHARS['/'] = true;
+        BUILT_QUERY_UNTOUCHED_CHARS['?'] = true;
     }
 
     static {
         for (int i = 'a'; i <= 'z'; ++i) {
-            FORM_URL_ENCODED_SAFE_CHARS.set(i);
+            FORM_URL_ENCODED_SAFE_CHARS[i] = true;
         }
         for (int i = 'A'; i <= 'Z'; ++i) {
-            FORM_URL_ENCODED_SAFE_CHARS.set(i);
+            FORM_URL_ENCODED_SAFE_CHARS[i] = true;
         }
         for (int i = '0'; i <= '9'; ++i) {
-            FORM_URL_ENCODED_SAFE_CHARS.set(i);
+            FORM_URL_ENCODED_SAFE_CHARS[i] = true;
         }
 
-        FORM_URL_ENCODED_SAFE_CHARS.set('-');
-        FORM_URL_ENCODED_SAFE_CHARS.set('.');
-        FORM_URL_ENCODED_SAFE_CHARS.set('_');
-        FORM_URL_ENCODED_SAFE_CHARS.set('*');
+        FORM_URL_ENCODED_SAFE_CHARS['-'] = true;
+        FORM_URL_ENCODED_SAFE_CHARS['.'] = true;
+        FORM_URL_ENCODED_SAFE_CHARS['_'] = true;
+        FORM_URL_ENCODED_SAFE_CHARS['*'] = true;
     }
 
     private Utf8UrlEncoder() {
     }
 
+    private static void or(boolean[] chars, boolean[] otherChars) {
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] |= otherChars[i];
+        }
+    }
+
     public static String encodePath(String input) {
         StringBuilder sb = lazyAppendEncoded(null, input, BUILT_PATH_UNTOUCHED_CHARS, false);
         return sb == null ? input : sb.toString();
     }
 
+    public static String encodeQuery(String input) {
+        StringBuilder sb = lazyAppendEncoded(null, input, BUILT_QUERY_UNTOUCHED_CHARS, false);
+        return sb == null ? input : sb.toString();
+    }
+
     public static StringBuilder encodeAndAppendQuery(StringBuilder sb, String query) {
         return appendEncoded(sb, query, BUILT_QUERY_UNTOUCHED_CHARS, false);
     }
@@ -147,6 +157,44 @@ public final class Utf8UrlEncoder {
         return appendEncoded(sb, input, FORM_URL_ENCODED_SAFE_CHARS, true);
     }
 
+    /**
+     * Same as {@link #encodeAndAppendFormElement(StringBuilder, CharSequence)}, but writes the encoded bytes.
+     */
+    public static void encodeAndWriteFormElement(ByteBuf buf, CharSequence input) {
+        int c;
+        for (int i = 0; i < input.length(); i += Character.charCount(c)) {
+            c = Character.codePointAt(input, i);
+            if (c <= 127) {
+                if (FORM_URL_ENCODED_SAFE_CHARS[c]) {
+                    buf.writeByte(c);
+                } else if (c == ' ') {
+                    buf.writeByte('+');
+                } else {
+                    writeSingleByteEncoded(buf, c);
+                }
+            } else {
+                writeMultiByteEncoded(buf, c);
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes written by {@link #encodeAndWriteFormElement(ByteBuf, CharSequence)}
+     */
+    public static int formElementEncodedLength(CharSequence input) {
+        int length = 0;
+        int c;
+        for (int i = 0; i < input.length(); i += Character.charCount(c)) {
+            c = Character.codePointAt(input, i);
+            if (c <= 127) {
+                length += FORM_URL_ENCODED_SAFE_CHARS[c] || c == ' ' ? 1 : 3;
+            } else {
+                length += c < 0x800 ? 6 : c < 0x10000 ? 9 : 12;
+            }
+        }
+        return length;
+    }
+
     @Contract(value = "!null -> !null")
     public static @Nullable String percentEncodeQueryElement(@Nullable String input) {
         if (input == null) {
@@ -161,45 +209,45 @@ public final class Utf8UrlEncoder {
         return appendEncoded(sb, input, RFC3986_UNRESERVED_CHARS, false);
     }
 
-    private static StringBuilder lazyInitStringBuilder(CharSequence input, int firstNonUsAsciiPosition) {
-        StringBuilder sb = new StringBuilder(input.length() + 6);
-        for (int i = 0; i < firstNonUsAsciiPosition; i++) {
-            sb.append(input.charAt(i));
+    /**
+     * @return the index of the first char that needs to be encoded, or the input length if there's none
+     */
+    private static int firstToEncode(CharSequence input, boolean[] dontNeedEncoding) {
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c > 127 || !dontNeedEncoding[c]) {
+                return i;
+            }
         }
-        return sb;
+        return length;
     }
 
-    private static @Nullable StringBuilder lazyAppendEncoded(@Nullable StringBuilder sb, CharSequence input, BitSet dontNeedEncoding, boolean encodeSpaceAsPlus) {
-        int c;
-        for (int i = 0; i < input.length(); i += Character.charCount(c)) {
-            c = Character.codePointAt(input, i);
-            if (c <= 127) {
-                if (dontNeedEncoding.get(c)) {
-                    if (sb != null) {
-                        sb.append((char) c);
-                    }
-                } else {
-                    if (sb == null) {
-                        sb = lazyInitStringBuilder(input, i);
-                    }
-                    appendSingleByteEncoded(sb, c, encodeSpaceAsPlus);
-                }
-            } else {
-                if (sb == null) {
-                    sb = lazyInitStringBuilder(input, i);
-                }
-                appendMultiByteEncoded(sb, c);
-            }
+    private static @Nullable StringBuilder lazyAppendEncoded(@Nullable StringBuilder sb, CharSequence input, boolean[] dontNeedEncoding, boolean encodeSpaceAsPlus) {
+        int firstToEncode = firstToEncode(input, dontNeedEncoding);
+        if (firstToEncode == input.length()) {
+            // nothing to encode
+            return sb == null ? null : sb.append(input);
         }
-        return sb;
+        if (sb == null) {
+            sb = new StringBuilder(input.length() + 6);
+        }
+        sb.append(input, 0, firstToEncode);
+        return appendEncoded(sb, input, firstToEncode, dontNeedEncoding, encodeSpaceAsPlus);
+    }
+
+    private static StringBuilder appendEncoded(StringBuilder sb, CharSequence input, boolean[] dontNeedEncoding, boolean encodeSpaceAsPlus) {
+        int firstToEncode = firstToEncode(input, dontNeedEncoding);
+        sb.append(input, 0, firstToEncode);
+        return appendEncoded(sb, input, firstToEncode, dontNeedEncoding, encodeSpaceAsPlus);
     }
 
-    private static StringBuilder appendEncoded(StringBuilder sb, CharSequence input, BitSet dontNeedEncoding, boolean encodeSpaceAsPlus) {
+    private static StringBuilder appendEncoded(StringBuilder sb, CharSequence input, int from, boolean[] dontNeedEncoding, boolean encodeSpaceAsPlus) {
         int c;
-        for (int i = 0; i < input.length(); i += Character.charCount(c)) {
+        for (int i = from; i < input.length(); i += Character.charCount(c)) {
             c = Character.codePointAt(input, i);
             if (c <= 127) {
-                if (dontNeedEncoding.get(c)) {
+                if (dontNeedEncoding[c]) {
                     sb.append((char) c);
                 } else {
                     appendSingleByteEncoded(sb, c, encodeSpaceAsPlus);
@@ -238,4 +286,26 @@ public final class Utf8UrlEncoder {
             appendSingleByteEncoded(sb, 0x80 | value & 0x3f, false);
         }
     }
+
+    private static void writeSingleByteEncoded(ByteBuf buf, int value) {
+        buf.writeByte('%');
+        buf.writeByte(HEX[value >> 4]);
+        buf.writeByte(HEX[value & 0xF]);
+    }
+
+    private static void writeMultiByteEncoded(ByteBuf buf, int value) {
+        if (value < 0x800) {
+            writeSingleByteEncoded(buf, 0xc0 | value >> 6);
+            writeSingleByteEncoded(buf, 0x80 | value & 0x3f);
+        } else if (value < 0x10000) {
+            writeSingleByteEncoded(buf, 0xe0 | value >> 12);
+            writeSingleByteEncoded(buf, 0x80 | value >> 6 & 0x3f);
+            writeSingleByteEncoded(buf, 0x80 | value & 0x3f);
+        } else {
+            writeSingleByteEncoded(buf, 0xf0 | value >> 18);
+            writeSingleByteEncoded(buf, 0x80 | value >> 12 & 0x3f);
+            writeSingleByteEncoded(buf, 0x80 | value >> 6 & 0x3f);
+            writeSingleByteEncoded(buf, 0x80 | value & 0x3f);
+        }
+    }
 }
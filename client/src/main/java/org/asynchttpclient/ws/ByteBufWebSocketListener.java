@@ -0,0 +1,70 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.ws;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link WebSocketListener} that receives frame payloads as the {@link ByteBuf}s read from the network, without copying them
+ * into byte arrays or decoding them into {@link String}s.
+ * <br>
+ * Each payload is a retained view of the frame content that belongs to the listener: it must be released once it has been processed,
+ * possibly on another thread. Payloads must not be modified, as they may be shared with other listeners.
+ * <br>
+ * The byte array and {@link String} based callbacks of {@link WebSocketListener} are never invoked on such listeners.
+ */
+public interface ByteBufWebSocketListener extends WebSocketListener {
+
+    /**
+     * Invoked when a binary frame is received.
+     *
+     * @param payload       the frame content, to be released by the listener
+     * @param finalFragment true if this frame is the final fragment
+     * @param rsv           extension bits
+     */
+    default void onBinaryFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        payload.release();
+    }
+
+    /**
+     * Invoked when a text frame is received.
+     *
+     * @param payload       the raw UTF-8 frame content, to be released by the listener
+     * @param finalFragment true if this frame is the final fragment
+     * @param rsv           extension bits
+     */
+    default void onTextFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        payload.release();
+    }
+
+    /**
+     * Invoked when a ping frame is received
+     *
+     * @param payload the frame content, to be released by the listener
+     */
+    default void onPingFrame(ByteBuf payload) {
+        payload.release();
+    }
+
+    /**
+     * Invoked when a pong frame is received
+     *
+     * @param payload the frame content, to be released by the listener
+     */
+    default void onPongFrame(ByteBuf payload) {
+        payload.release();
+    }
+}
@@ -193,11 +193,121 @@ public interface WebSocket {
      */
     Future<Void> sendCloseFrame(int statusCode, String reasonText);
 
+    /**
+     * Write a full text frame without flushing it: it's only sent once {@link #flush()} is called or another frame is sent.
+     * Implementations that don't batch writes send the frame right away.
+     *
+     * @param payload a text payload
+     * @return a future that will be completed once the frame will be actually written on the wire
+     */
+    default Future<Void> writeTextFrame(String payload) {
+        return sendTextFrame(payload);
+    }
+
+    /**
+     * Write a text frame with fragmentation or extension bits without flushing it.
+     *
+     * @param payload       a ByteBuf fragment.
+     * @param finalFragment flag indicating whether or not this is the final fragment
+     * @param rsv           extension bits, 0 otherwise
+     * @return a future that will be completed once the frame will be actually written on the wire
+     * @see #writeTextFrame(String)
+     */
+    default Future<Void> writeTextFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        return sendTextFrame(payload, finalFragment, rsv);
+    }
+
+    /**
+     * Write a full binary frame without flushing it: it's only sent once {@link #flush()} is called or another frame is sent.
+     *
+     * @param payload a binary payload
+     * @return a future that will be completed once the frame will be actually written on the wire
+     */
+    default Future<Void> writeBinaryFrame(byte[] payload) {
+        return sendBinaryFrame(payload);
+    }
+
+    /**
+     * Write a binary frame with fragmentation or extension bits without flushing it.
+     *
+     * @param payload       a ByteBuf payload
+     * @param finalFragment flag indicating whether or not this is the last fragment
+     * @param rsv           extension bits, 0 otherwise
+     * @return a future that will be completed once the frame will be actually written on the wire
+     * @see #writeBinaryFrame(byte[])
+     */
+    default Future<Void> writeBinaryFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        return sendBinaryFrame(payload, finalFragment, rsv);
+    }
+
+    /**
+     * Write a continuation frame without flushing it.
+     *
+     * @param payload       a ByteBuf fragment
+     * @param finalFragment flag indicating whether or not this is the last fragment
+     * @param rsv           extension bits, 0 otherwise
+     * @return a future that will be completed once the frame will be actually written on the wire
+     * @see #sendContinuationFrame(ByteBuf, boolean, int)
+     */
+    default Future<Void> writeContinuationFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+        return sendContinuationFrame(payload, finalFragment, rsv);
+    }
+
+    /**
+     * Flush the frames written with the write* methods, so that a burst of them goes out with as few syscalls as possible.
+     * Implementations that don't batch writes have nothing to flush.
+     *
+     * @return this
+     */
+    default WebSocket flush() {
+        return this;
+    }
+
+    /**
+     * Send a full text frame once the WebSocket is writable.
+     * <br>
+     * Producers that wait for the returned future before sending their next frame keep the memory used by the WebSocket bounded
+     * by the high water mark of its outbound buffer, see {@link org.asynchttpclient.AsyncHttpClientConfig#getWebSocketWriteBufferHighWaterMark()}.
+     * The frames waiting for the WebSocket to become writable are bounded by that same mark: past it, the future of a new frame is
+     * failed with an {@link IllegalStateException}.
+     *
+     * @param payload a text payload
+     * @return a future that will be completed once the frame has been accepted in the outbound buffer, or failed if the WebSocket gets closed first
+     */
+    Future<Void> sendTextFrameWhenWritable(String payload);
+
+    /**
+     * Send a full binary frame once the WebSocket is writable.
+     *
+     * @param payload a binary payload
+     * @return a future that will be completed once the frame has been accepted in the outbound buffer, or failed if the WebSocket gets closed first
+     * @see #sendTextFrameWhenWritable(String)
+     */
+    Future<Void> sendBinaryFrameWhenWritable(byte[] payload);
+
+    /**
+     * Send a binary frame with fragmentation or extension bits once the WebSocket is writable.
+     *
+     * @param payload       a ByteBuf payload
+     * @param finalFragment flag indicating whether or not this is the last fragment
+     * @param rsv           extension bits, 0 otherwise
+     * @return a future that will be completed once the frame has been accepted in the outbound buffer, or failed if the WebSocket gets closed first
+     * @see #sendTextFrameWhenWritable(String)
+     */
+    Future<Void> sendBinaryFrameWhenWritable(ByteBuf payload, boolean finalFragment, int rsv);
+
     /**
      * @return {@code true} if the WebSocket is open/connected.
      */
     boolean isOpen();
 
+    /**
+     * @return {@code true} if frames can be sent without growing the outbound buffer past its high water mark, see
+     * {@link org.asynchttpclient.AsyncHttpClientConfig#getWebSocketWriteBufferHighWaterMark()}.
+     * Changes are notified with {@link WebSocketListener#onWritabilityChanged(WebSocket, boolean)}.
+     */
+    boolean isWritable();
+
     /**
      * Add a {@link WebSocketListener}
      *
@@ -76,4 +76,13 @@ public interface WebSocketListener {
      */
     default void onPongFrame(byte[] payload) {
     }
+
+    /**
+     * Invoked when the outbound buffer of the {@link WebSocket} crosses its high or low water mark.
+     *
+     * @param websocket the WebSocket
+     * @param writable  the new value of {@link WebSocket#isWritable()}
+     */
+    default void onWritabilityChanged(WebSocket websocket, boolean writable) {
+    }
 }
@@ -78,6 +78,12 @@ public class AsyncHttpClientDefaultsTest {
         testDurationSystemProperty("connectionTtl", "defaultConnectionTtl", "PT0.1S");
     }
 
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void testDefaultMaxPipelinedRequests() {
+        assertEquals(AsyncHttpClientConfigDefaults.defaultMaxPipelinedRequests(), 1);
+        testIntegerSystemProperty("maxPipelinedRequests", "defaultMaxPipelinedRequests", "8");
+    }
+
     @RepeatedIfExceptionsTest(repeats = 5)
     public void testDefaultFollowRedirect() {
         assertFalse(AsyncHttpClientConfigDefaults.defaultFollowRedirect());
@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.asynchttpclient.Dsl.config;
+import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_BYTES;
 import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_FILE;
 import static org.asynchttpclient.test.TestUtils.SIMPLE_TEXT_FILE;
 import static org.asynchttpclient.test.TestUtils.SIMPLE_TEXT_FILE_STRING;
@@ -94,6 +95,21 @@ public class BasicHttpsTest extends HttpTest {
         logger.debug("<<< postLargeFileOverHttps");
     }
 
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void postLargeFileOverHttpsWithAsyncFileChannel() throws Throwable {
+        logger.debug(">>> postLargeFileOverHttpsWithAsyncFileChannel");
+        withClient(config().setSslEngineFactory(createSslEngineFactory()).setUseAsyncFileChannel(true)).run(client ->
+                withServer(server).run(server -> {
+                    server.enqueueEcho();
+
+                    Response resp = client.preparePost(getTargetUrl()).setBody(LARGE_IMAGE_FILE).setHeader(CONTENT_TYPE, "image/png").execute().get();
+                    assertNotNull(resp);
+                    assertEquals(resp.getStatusCode(), HttpServletResponse.SC_OK);
+                    assertArrayEquals(resp.getResponseBodyAsBytes(), LARGE_IMAGE_BYTES);
+                }));
+        logger.debug("<<< postLargeFileOverHttpsWithAsyncFileChannel");
+    }
+
     @RepeatedIfExceptionsTest(repeats = 5)
     public void multipleSequentialPostRequestsOverHttps() throws Throwable {
         logger.debug(">>> multipleSequentialPostRequestsOverHttps");
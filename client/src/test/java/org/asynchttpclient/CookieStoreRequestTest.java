@@ -0,0 +1,66 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import org.asynchttpclient.cookie.CookieStore;
+import org.asynchttpclient.cookie.IndexedCookieStore;
+import org.asynchttpclient.cookie.ThreadSafeCookieStore;
+import org.asynchttpclient.uri.Uri;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.asynchttpclient.Dsl.get;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CookieStoreRequestTest extends AbstractBasicTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void cookieStoreCookiesReplaceRequestCookies() throws Exception {
+        CookieStore cookieStore = new ThreadSafeCookieStore();
+        cookieStore.add(Uri.create(getTargetUrl()), new DefaultCookie("a", "1"));
+
+        try (AsyncHttpClient client = asyncHttpClient(config().setCookieStore(cookieStore))) {
+            Request request = get(getTargetUrl()).addCookie(new DefaultCookie("a", "0")).addCookie(new DefaultCookie("b", "2")).build();
+            Response response = client.executeRequest(request).get(TIMEOUT, SECONDS);
+
+            // the echo server sends the request headers back
+            assertEquals("a=1; b=2", response.getHeader("X-Cookie"));
+            // the request isn't rebuilt with the cookies from the store
+            assertEquals(2, request.getCookies().size());
+            assertEquals("0", request.getCookies().get(0).value());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void indexedCookieStoreHeader() throws Exception {
+        IndexedCookieStore cookieStore = new IndexedCookieStore();
+        cookieStore.add(Uri.create(getTargetUrl()), new DefaultCookie("a", "1"));
+
+        try (AsyncHttpClient client = asyncHttpClient(config().setCookieStore(cookieStore).setUseLaxCookieEncoder(true))) {
+            Response response = client.prepareGet(getTargetUrl()).execute().get(TIMEOUT, SECONDS);
+            assertEquals("a=1", response.getHeader("X-Cookie"));
+
+            // the echo server sends the request cookies back as Set-Cookie headers, which are stored
+            response = client.prepareGet(getTargetUrl()).addCookie(new DefaultCookie("b", "2")).execute().get(TIMEOUT, SECONDS);
+            assertEquals("b=2; a=1", response.getHeader("X-Cookie"));
+            assertTrue(cookieStore.getAll().stream().anyMatch(cookie -> "b".equals(cookie.name())));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
+import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.DefaultCookie;
+import org.asynchttpclient.cookie.IndexedCookieStore;
+import org.asynchttpclient.uri.Uri;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexedCookieStoreTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void matchDomainsAndPaths() {
+        IndexedCookieStore store = new IndexedCookieStore();
+        store.add(Uri.create("http://foo.com"), ClientCookieDecoder.LAX.decode("ROOT=1; Domain=.foo.com; Path=/"));
+        store.add(Uri.create("http://sub.foo.com/a/b"), ClientCookieDecoder.LAX.decode("HOST=2"));
+        store.add(Uri.create("http://sub.foo.com"), ClientCookieDecoder.LAX.decode("DEEP=3; Path=/a/b/c"));
+
+        List<Cookie> cookies = store.get(Uri.create("http://sub.foo.com/a/b/c/d"));
+        assertEquals(3, cookies.size());
+        // host cookies first, longer paths first
+        assertEquals("DEEP", cookies.get(0).name());
+        assertEquals("HOST", cookies.get(1).name());
+        assertEquals("ROOT", cookies.get(2).name());
+
+        // host only cookies aren't sent to subdomains
+        assertEquals(1, store.get(Uri.create("http://x.sub.foo.com/a/b/c")).size());
+        assertTrue(store.get(Uri.create("http://bar.com")).isEmpty());
+        assertTrue(store.get(Uri.create("http://oo.com")).isEmpty());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void replaceAndRemoveCookies() {
+        IndexedCookieStore store = new IndexedCookieStore();
+        Uri uri = Uri.create("https://foo.org/");
+        store.add(uri, ClientCookieDecoder.LAX.decode("cookie1=VALUE1; Path=/"));
+        store.add(uri, ClientCookieDecoder.LAX.decode("COOKIE1=VALUE2; Path=/"));
+        store.add(uri, ClientCookieDecoder.LAX.decode("cookie2=VALUE3; Path=/; Secure"));
+        assertEquals(2, store.size());
+        assertEquals("VALUE2", store.get(uri).get(0).value());
+        assertEquals(1, store.get(Uri.create("http://foo.org/")).size());
+
+        store.add(uri, ClientCookieDecoder.LAX.decode("cookie2=EXPIRED; Path=/; Expires=Sun, 06 Nov 1994 08:49:37 GMT"));
+        assertEquals(1, store.size());
+        assertTrue(store.remove(cookie -> "VALUE2".equals(cookie.value())));
+        assertTrue(store.getAll().isEmpty());
+        assertNull(store.getCookieHeader(uri));
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void evictOnlyExpiredCookies() throws Exception {
+        IndexedCookieStore store = new IndexedCookieStore();
+        for (int i = 0; i < 1000; i++) {
+            DefaultCookie cookie = new DefaultCookie("session", "value" + i);
+            cookie.setMaxAge(i % 2 == 0 ? 1 : 3600);
+            store.add(Uri.create("https://www.site" + i + ".com/"), cookie);
+        }
+        assertEquals(1000, store.getAll().size());
+
+        Thread.sleep(1100);
+        // expired cookies aren't returned even before being evicted
+        assertTrue(store.get(Uri.create("https://www.site0.com/")).isEmpty());
+        assertEquals(1000, store.size());
+
+        store.evictExpired();
+        assertEquals(500, store.size());
+        assertEquals("value1", store.get(Uri.create("https://www.site1.com/")).get(0).value());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void cookieHeaderMatchesEncodedCookies() {
+        IndexedCookieStore store = new IndexedCookieStore();
+        store.add(Uri.create("http://www.foo.com/bar"), ClientCookieDecoder.LAX.decode("A=1; Domain=foo.com; Path=/"));
+        store.add(Uri.create("http://www.foo.com/bar"), ClientCookieDecoder.LAX.decode("B=\"2\"; Path=/bar"));
+
+        Uri uri = Uri.create("http://www.foo.com/bar/baz");
+        assertEquals(ClientCookieEncoder.LAX.encode(store.get(uri)), store.getCookieHeader(uri));
+        assertEquals("B=\"2\"; A=1", store.getCookieHeader(uri));
+    }
+}
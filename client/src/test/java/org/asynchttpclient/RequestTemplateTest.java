@@ -0,0 +1,157 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.util.AsciiString;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_TYPE;
+import static io.netty.handler.codec.http.HttpHeaderNames.HOST;
+import static io.netty.handler.codec.http.HttpHeaderNames.LOCATION;
+import static io.netty.handler.codec.http.HttpResponseStatus.FOUND;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.get;
+import static org.asynchttpclient.Dsl.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestTemplateTest extends AbstractBasicTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void compileHeaders() {
+        RequestTemplate template = new RequestTemplate(get("http://localhost:8080/api?v=1").setHeader("X-Foo", "bar").build());
+
+        Request request = template.newRequest("users/a b", Arrays.asList(new Param("q", "x&y"), new Param("flag", null)));
+        assertEquals("http://localhost:8080/api/users/a%20b?v=1&q=x%26y&flag", request.getUrl());
+        request.getHeaders().iteratorCharSequence().forEachRemaining(header -> assertTrue(header.getValue() instanceof AsciiString));
+        assertEquals("localhost:8080", request.getHeaders().get("Host"));
+        assertEquals("*/*", request.getHeaders().get("Accept"));
+
+        // requests without extra headers share the compiled ones
+        assertSame(request.getHeaders(), template.newRequest("/other").getHeaders());
+        assertEquals("http://localhost:8080/api/other?v=1", template.newRequest("/other").getUrl());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void executeTemplatedRequests() throws Exception {
+        RequestTemplate template = new RequestTemplate(post(getTargetUrl()).setHeader("X-Foo", "bar").setHeader("X-Bar", "baz").build());
+
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            for (int i = 0; i < 3; i++) {
+                HttpHeaders headers = new DefaultHttpHeaders().set("X-Bar", "request" + i);
+                Request request = template.newRequest("/items", Collections.singletonList(new Param("id", String.valueOf(i))), headers,
+                        ("body" + i).getBytes(UTF_8));
+
+                Response response = client.executeRequest(request).get(TIMEOUT, SECONDS);
+                assertEquals(200, response.getStatusCode());
+                assertEquals("bar", response.getHeader("X-Foo"));
+                assertEquals("request" + i, response.getHeader("X-Bar"));
+                assertEquals("/foo/test/items", response.getHeader("X-pathInfo"));
+                assertEquals("id=" + i, response.getHeader("X-queryString"));
+                // the echo server writes the parameter names before the body
+                assertEquals("id_body" + i, response.getResponseBody());
+            }
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void redirectDoesNotModifyTemplateHeaders() throws Exception {
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startRedirectServer(group);
+            String url = "http://localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            String host = "localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            RequestTemplate template = new RequestTemplate(get(url).setHeader(CONTENT_TYPE, "application/json").setFollowRedirect(true).build());
+
+            try (AsyncHttpClient client = asyncHttpClient()) {
+                // a 302 drops the content type of the redirected request
+                Response redirected = client.executeRequest(template.newRequest("/redirect")).get(TIMEOUT, SECONDS);
+                assertEquals(200, redirected.getStatusCode());
+                assertEquals("null " + host, redirected.getResponseBody());
+
+                // but not the one of the template
+                Response response = client.executeRequest(template.newRequest("/target")).get(TIMEOUT, SECONDS);
+                assertEquals("application/json " + host, response.getResponseBody());
+                assertEquals(host, template.newRequest("/target").getHeaders().get(HOST));
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    /**
+     * Redirects {@code /redirect} to {@code /target}, and answers other requests with their content type and host.
+     */
+    private static Channel startRedirectServer(EventLoopGroup group) throws InterruptedException {
+        return new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        ch.pipeline()
+                                .addLast(new HttpServerCodec())
+                                .addLast(new HttpObjectAggregator(8192))
+                                .addLast(new SimpleChannelInboundHandler<FullHttpRequest>() {
+                                    @Override
+                                    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+                                        FullHttpResponse response;
+                                        if ("/redirect".equals(request.uri())) {
+                                            response = new DefaultFullHttpResponse(HTTP_1_1, FOUND);
+                                            response.headers().set(LOCATION, "/target");
+                                        } else {
+                                            response = new DefaultFullHttpResponse(HTTP_1_1, OK, Unpooled.copiedBuffer(
+                                                    request.headers().get(CONTENT_TYPE) + " " + request.headers().get(HOST), UTF_8));
+                                        }
+                                        HttpUtil.setContentLength(response, response.content().readableBytes());
+                                        ctx.writeAndFlush(response);
+                                    }
+                                });
+                    }
+                })
+                .bind(new InetSocketAddress("localhost", 0))
+                .sync()
+                .channel();
+    }
+}
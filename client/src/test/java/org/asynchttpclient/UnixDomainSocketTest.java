@@ -0,0 +1,112 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.HOST;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UnixDomainSocketTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    @EnabledOnOs(OS.LINUX)
+    public void requestsOverUnixDomainSocketArePooled() throws Exception {
+        File socket = new File(Files.createTempDirectory("ahc").toFile(), "server.sock");
+        AtomicInteger connections = new AtomicInteger();
+        EpollEventLoopGroup group = new EpollEventLoopGroup(1);
+        try {
+            Channel server = new ServerBootstrap()
+                    .group(group)
+                    .channel(EpollServerDomainSocketChannel.class)
+                    .childHandler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(Channel ch) {
+                            connections.incrementAndGet();
+                            ch.pipeline()
+                                    .addLast(new HttpServerCodec())
+                                    .addLast(new HttpObjectAggregator(8192))
+                                    .addLast(new SimpleChannelInboundHandler<FullHttpRequest>() {
+                                        @Override
+                                        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+                                            FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, OK,
+                                                    Unpooled.copiedBuffer(request.headers().get(HOST) + request.uri(), UTF_8));
+                                            HttpUtil.setContentLength(response, response.content().readableBytes());
+                                            ctx.writeAndFlush(response);
+                                        }
+                                    });
+                        }
+                    })
+                    .bind(new DomainSocketAddress(socket))
+                    .sync()
+                    .channel();
+
+            AsyncHttpClientConfig config = config().setUseNativeTransport(true).setUseOnlyEpollNativeTransport(true).build();
+            try (AsyncHttpClient client = asyncHttpClient(config)) {
+                for (int i = 0; i < 3; i++) {
+                    Response response = client.prepareGet("http://sidecar/foo").setUnixDomainSocket(socket.getPath()).execute().get();
+                    assertEquals(200, response.getStatusCode());
+                    assertEquals("sidecar/foo", response.getResponseBody());
+                }
+                assertEquals(1, connections.get());
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+            socket.delete();
+            socket.getParentFile().delete();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void unixDomainSocketsRequireNativeTransport() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config().setUseNativeTransport(false))) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.prepareGet("http://sidecar/foo").setUnixDomainSocket("/tmp/ahc-missing.sock").execute().get());
+            assertInstanceOf(UnsupportedOperationException.class, e.getCause());
+        }
+    }
+}
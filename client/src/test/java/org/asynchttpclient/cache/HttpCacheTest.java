@@ -0,0 +1,259 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.io.FileUtils;
+import org.asynchttpclient.AbstractBasicTest;
+import org.asynchttpclient.AsyncCompletionHandlerBase;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.uri.Uri;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HttpCacheTest extends AbstractBasicTest {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @Override
+    public AbstractHandler configureHandler() throws Exception {
+        return new CacheHandler();
+    }
+
+    private String getTargetUrl(String path) {
+        return "http://localhost:" + port1 + path;
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void freshResponsesAreServedFromCache() throws Exception {
+        requestCount.set(0);
+        HttpCache cache = new HttpCache(new InMemoryHttpCacheStorage(1024 * 1024));
+        try (AsyncHttpClient client = asyncHttpClient(config().setHttpCache(cache))) {
+            for (int i = 0; i < 3; i++) {
+                Response response = client.prepareGet(getTargetUrl("/fresh")).execute().get(TIMEOUT, SECONDS);
+                assertEquals(200, response.getStatusCode());
+                assertEquals("/fresh", response.getResponseBody());
+            }
+
+            assertEquals(1, requestCount.get());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(2, cache.getHitCount());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void staleResponsesAreRevalidated() throws Exception {
+        requestCount.set(0);
+        HttpCache cache = new HttpCache(new InMemoryHttpCacheStorage(1024 * 1024, true));
+        try (AsyncHttpClient client = asyncHttpClient(config().setHttpCache(cache))) {
+            for (int i = 0; i < 3; i++) {
+                Response response = client.prepareGet(getTargetUrl("/etag")).execute().get(TIMEOUT, SECONDS);
+                assertEquals(200, response.getStatusCode());
+                assertEquals("/etag", response.getResponseBody());
+            }
+
+            assertEquals(3, requestCount.get());
+            assertEquals(2, cache.getRevalidationCount());
+            assertEquals(2, cache.getNotModifiedCount());
+            assertEquals(0, cache.getHitCount());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void unsafeRequestsInvalidateStoredResponses() throws Exception {
+        requestCount.set(0);
+        HttpCache cache = new HttpCache(new InMemoryHttpCacheStorage(1024 * 1024));
+        try (AsyncHttpClient client = asyncHttpClient(config().setHttpCache(cache))) {
+            client.prepareGet(getTargetUrl("/fresh")).execute().get(TIMEOUT, SECONDS);
+            client.preparePost(getTargetUrl("/fresh")).execute().get(TIMEOUT, SECONDS);
+            client.prepareGet(getTargetUrl("/fresh")).execute().get(TIMEOUT, SECONDS);
+
+            assertEquals(3, requestCount.get());
+            assertEquals(0, cache.getHitCount());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void diskTierOutlivesClient() throws Exception {
+        requestCount.set(0);
+        Path directory = Files.createTempDirectory("ahc-cache");
+        try {
+            for (int i = 0; i < 2; i++) {
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                HttpCache cache = new HttpCache(new TieredHttpCacheStorage(new InMemoryHttpCacheStorage(1024 * 1024),
+                        new DiskHttpCacheStorage(directory, 1024 * 1024, executor)));
+                try (AsyncHttpClient client = asyncHttpClient(config().setHttpCache(cache))) {
+                    Response response = client.prepareGet(getTargetUrl("/fresh")).execute().get(TIMEOUT, SECONDS);
+                    assertEquals("/fresh", response.getResponseBody());
+                } finally {
+                    // wait for the response to be written
+                    executor.shutdown();
+                    executor.awaitTermination(TIMEOUT, SECONDS);
+                }
+            }
+
+            assertEquals(1, requestCount.get());
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void diskStorageWritesOnExecutor() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        Path directory = Files.createTempDirectory("ahc-cache");
+        try {
+            DiskHttpCacheStorage storage = new DiskHttpCacheStorage(directory, 1024 * 1024, tasks::add);
+            CachedResponse response = new CachedResponse(200, "OK", new DefaultHttpHeaders(), ByteBuffer.wrap(new byte[100]),
+                    Collections.emptyMap(), 0, 0);
+
+            // served from memory until written
+            storage.put("a", response);
+            storage.put("b", response);
+            assertSame(response, storage.get("a"));
+            assertEquals(0, storage.getSize());
+
+            // a removal isn't undone by the pending write
+            storage.remove("b");
+            tasks.forEach(Runnable::run);
+            tasks.clear();
+            assertNull(storage.get("b"));
+
+            CachedResponse written = storage.get("a");
+            assertNotNull(written);
+            assertEquals(200, written.getStatusCode());
+            assertEquals(100, written.getBody().remaining());
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void corruptedDiskFilesAreMisses() throws Exception {
+        Path directory = Files.createTempDirectory("ahc-cache");
+        try {
+            DiskHttpCacheStorage storage = new DiskHttpCacheStorage(directory, 1024 * 1024, Runnable::run);
+            CachedResponse response = new CachedResponse(200, "OK", new DefaultHttpHeaders(), ByteBuffer.wrap(new byte[100]),
+                    Collections.emptyMap(), 0, 0);
+
+            for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+                storage.put("a", response);
+                Path file;
+                try (Stream<Path> files = Files.list(directory)) {
+                    file = files.findFirst().orElseThrow();
+                }
+                // a valid magic number followed by a corrupted key length
+                ByteBuffer corrupted = ByteBuffer.allocate(8).putInt(0x41484331).putInt(length);
+                Files.write(file, corrupted.array());
+
+                assertNull(storage.get("a"));
+                assertFalse(Files.exists(file));
+            }
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void leftoverTemporaryFilesAreDeletedOnStart() throws Exception {
+        Path directory = Files.createTempDirectory("ahc-cache");
+        try {
+            Path tmp = Files.createTempFile(directory, null, ".tmp");
+            new DiskHttpCacheStorage(directory, 1024 * 1024, Runnable::run);
+            assertFalse(Files.exists(tmp));
+        } finally {
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void replayStopsWhenHandlerAborts() throws Exception {
+        CachedResponse response = new CachedResponse(200, "OK", new DefaultHttpHeaders(), ByteBuffer.wrap(new byte[100 * 1024]),
+                Collections.emptyMap(), 0, 0);
+        AtomicInteger parts = new AtomicInteger();
+        AtomicInteger completions = new AtomicInteger();
+
+        HttpCache.replay(Uri.create("http://localhost/"), response, new AsyncCompletionHandlerBase() {
+            @Override
+            public State onBodyPartReceived(HttpResponseBodyPart content) {
+                parts.incrementAndGet();
+                return State.ABORT;
+            }
+
+            @Override
+            public Response onCompleted(Response response) {
+                completions.incrementAndGet();
+                return response;
+            }
+        }, 0);
+
+        assertEquals(1, parts.get());
+        assertEquals(1, completions.get());
+    }
+
+    private class CacheHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+            requestCount.incrementAndGet();
+
+            if ("/etag".equals(target)) {
+                response.setHeader("Cache-Control", "no-cache");
+                response.setHeader("ETag", "\"v1\"");
+                if ("\"v1\"".equals(request.getHeader("If-None-Match"))) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    baseRequest.setHandled(true);
+                    return;
+                }
+            } else {
+                response.setHeader("Cache-Control", "max-age=60");
+            }
+
+            byte[] body = target.getBytes(StandardCharsets.UTF_8);
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            baseRequest.setHandled(true);
+        }
+    }
+}
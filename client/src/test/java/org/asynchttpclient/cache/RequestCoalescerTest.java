@@ -0,0 +1,189 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.cache;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.asynchttpclient.AbstractBasicTest;
+import org.asynchttpclient.AsyncCompletionHandlerBase;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Response;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.asynchttpclient.Dsl.get;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestCoalescerTest extends AbstractBasicTest {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @Override
+    public AbstractHandler configureHandler() throws Exception {
+        return new SlowHandler();
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void identicalRequestsShareOneExchange() throws Exception {
+        requestCount.set(0);
+        RequestCoalescer coalescer = new RequestCoalescer();
+        try (AsyncHttpClient client = asyncHttpClient(config().setRequestCoalescer(coalescer))) {
+            List<ListenableFuture<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(client.prepareGet(getTargetUrl()).execute());
+            }
+            ListenableFuture<Response> other = client.prepareGet(getTargetUrl()).setHeader("Accept", "text/plain").execute();
+
+            for (ListenableFuture<Response> future : futures) {
+                Response response = future.get(TIMEOUT, SECONDS);
+                assertEquals(200, response.getStatusCode());
+                assertEquals("/foo/test", response.getResponseBody());
+            }
+            assertEquals("/foo/test", other.get(TIMEOUT, SECONDS).getResponseBody());
+
+            assertEquals(2, requestCount.get());
+            assertEquals(2, coalescer.getExchangeCount());
+            assertEquals(9, coalescer.getCoalescedCount());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void cancelledRequestsLeaveTheExchange() throws Exception {
+        requestCount.set(0);
+        try (AsyncHttpClient client = asyncHttpClient(config().setRequestCoalescer(new RequestCoalescer()))) {
+            ListenableFuture<Response> first = client.prepareGet(getTargetUrl()).execute();
+            ListenableFuture<Response> second = client.prepareGet(getTargetUrl()).execute();
+            second.cancel(true);
+
+            assertEquals("/foo/test", first.get(TIMEOUT, SECONDS).getResponseBody());
+            assertTrue(second.isCancelled());
+            assertEquals(1, requestCount.get());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void cancellationIsNotifiedOnceTheCurrentCallbackReturns() throws Exception {
+        CountDownLatch inCallback = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicInteger bodyParts = new AtomicInteger();
+        AtomicReference<Thread> notifiedThread = new AtomicReference<>();
+        CoalescedFuture<Response> future = new CoalescedFuture<>(new AsyncCompletionHandlerBase() {
+            @Override
+            public State onBodyPartReceived(HttpResponseBodyPart content) throws Exception {
+                bodyParts.incrementAndGet();
+                inCallback.countDown();
+                assertTrue(cancelled.await(TIMEOUT, SECONDS));
+                // not notified while this callback is being made
+                assertNull(notifiedThread.get());
+                return State.CONTINUE;
+            }
+
+            @Override
+            public void onThrowable(Throwable t) {
+                notifiedThread.set(Thread.currentThread());
+            }
+        });
+
+        Thread exchangeThread = new Thread(() -> future.deliver(handler -> handler.onBodyPartReceived(null)));
+        exchangeThread.start();
+        assertTrue(inCallback.await(TIMEOUT, SECONDS));
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        cancelled.countDown();
+        exchangeThread.join();
+
+        assertSame(exchangeThread, notifiedThread.get());
+        future.deliver(handler -> handler.onBodyPartReceived(null));
+        assertEquals(1, bodyParts.get());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void requestsWithDifferentBodiesAreNotCoalesced() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        List<org.asynchttpclient.Request> sent = new ArrayList<>();
+        RequestCoalescer.Sender sender = new RequestCoalescer.Sender() {
+            @Override
+            public <T> ListenableFuture<T> send(org.asynchttpclient.Request request, AsyncHandler<T> asyncHandler) {
+                sent.add(request);
+                // never completes, so that the exchange stays in flight
+                return new ListenableFuture.CompletedFailure<>(new IOException("not sent"));
+            }
+        };
+
+        String url = "http://localhost/search";
+        coalescer.execute(get(url).setBody("{\"q\":\"a\"}").build(), new AsyncCompletionHandlerBase(), sender);
+        coalescer.execute(get(url).setBody("{\"q\":\"b\"}").build(), new AsyncCompletionHandlerBase(), sender);
+        assertEquals(2, sent.size());
+        assertEquals(0, coalescer.getCoalescedCount());
+
+        // without a body, they would share the exchange
+        coalescer.execute(get(url).build(), new AsyncCompletionHandlerBase(), sender);
+        coalescer.execute(get(url).build(), new AsyncCompletionHandlerBase(), sender);
+        assertEquals(3, sent.size());
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void postRequestsAreNotCoalesced() throws Exception {
+        requestCount.set(0);
+        try (AsyncHttpClient client = asyncHttpClient(config().setRequestCoalescer(new RequestCoalescer()))) {
+            ListenableFuture<Response> first = client.preparePost(getTargetUrl()).execute();
+            ListenableFuture<Response> second = client.preparePost(getTargetUrl()).execute();
+
+            first.get(TIMEOUT, SECONDS);
+            second.get(TIMEOUT, SECONDS);
+            assertEquals(2, requestCount.get());
+        }
+    }
+
+    private class SlowHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+            requestCount.incrementAndGet();
+            try {
+                // leave time for the identical requests to join
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            byte[] body = target.getBytes(StandardCharsets.UTF_8);
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            baseRequest.setHandled(true);
+        }
+    }
+}
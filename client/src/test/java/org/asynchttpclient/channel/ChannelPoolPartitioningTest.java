@@ -0,0 +1,61 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.channel;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import org.asynchttpclient.proxy.ProxyServer;
+import org.asynchttpclient.proxy.ProxyType;
+import org.asynchttpclient.uri.Uri;
+
+import static org.asynchttpclient.Dsl.proxyServer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChannelPoolPartitioningTest {
+
+    private static final ChannelPoolPartitioning PARTITIONING = ChannelPoolPartitioning.PerHostChannelPoolPartitioning.INSTANCE;
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void partitionKeysAreInterned() {
+        Object key = PARTITIONING.getPartitionKey(Uri.create("http://localhost:8080/foo"), null, null);
+        assertEquals("http://localhost:8080", key);
+        assertSame(key, PARTITIONING.getPartitionKey(Uri.create("http://localhost:8080/bar"), null, null));
+
+        ProxyServer proxy = proxyServer("proxy", 3128).setSecuredPort(3129).build();
+        Object proxiedKey = PARTITIONING.getPartitionKey(Uri.create("https://localhost/foo"), "vhost", proxy);
+        assertSame(proxiedKey, PARTITIONING.getPartitionKey(Uri.create("https://localhost/bar"), "vhost", proxy));
+        assertNotEquals(proxiedKey, PARTITIONING.getPartitionKey(Uri.create("http://localhost/foo"), "vhost", proxy));
+        assertNotEquals(proxiedKey, PARTITIONING.getPartitionKey(Uri.create("https://localhost/foo"), null, proxy));
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void evictedKeysAreStillEqual() {
+        PartitionKeyCache cache = new PartitionKeyCache(1);
+        Object first = cache.get("http://localhost", "vhost", "proxy", 3128, ProxyType.HTTP);
+        Object second = cache.get("http://localhost", null, null, 0, null);
+        assertSame(second, cache.get("http://localhost", null, null, 0, null));
+
+        // the first key has been replaced
+        Object third = cache.get("http://localhost", "vhost", "proxy", 3128, ProxyType.HTTP);
+        assertNotSame(first, third);
+        assertEquals(first, third);
+        assertEquals(first.hashCode(), third.hashCode());
+        assertThrows(IllegalArgumentException.class, () -> new PartitionKeyCache(0));
+    }
+}
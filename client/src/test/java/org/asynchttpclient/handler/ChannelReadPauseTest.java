@@ -0,0 +1,72 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.asynchttpclient.netty.channel.Channels;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChannelReadPauseTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void resumeRestoresEnabledAutoRead() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelReadPause readPause = new ChannelReadPause();
+
+        readPause.setPaused(channel, true);
+        assertFalse(channel.config().isAutoRead());
+        assertTrue(Channels.isReadingPaused(channel));
+
+        readPause.setPaused(channel, false);
+        assertTrue(channel.config().isAutoRead());
+        assertFalse(Channels.isReadingPaused(channel));
+        channel.finishAndReleaseAll();
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void resumeKeepsDisabledAutoReadAndRequestsTheSkippedRead() {
+        AtomicInteger reads = new AtomicInteger();
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void read(ChannelHandlerContext ctx) {
+                reads.incrementAndGet();
+                ctx.read();
+            }
+        });
+        channel.config().setAutoRead(false);
+        // ignore the read issued when the channel became active
+        reads.set(0);
+        ChannelReadPause readPause = new ChannelReadPause();
+
+        readPause.setPaused(channel, true);
+        assertTrue(Channels.isReadingPaused(channel));
+        assertEquals(0, reads.get());
+
+        readPause.setPaused(channel, false);
+        assertFalse(channel.config().isAutoRead());
+        assertFalse(Channels.isReadingPaused(channel));
+        assertEquals(1, reads.get());
+        channel.finishAndReleaseAll();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.asynchttpclient.AbstractBasicTest;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.AsyncHttpClientConfig.ResponseBodyPartFactory;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.handler.FileDownloadHandler.SyncPolicy;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.asynchttpclient.Dsl.get;
+import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_BYTES;
+import static org.asynchttpclient.test.TestUtils.TMP_DIR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FileDownloadHandlerTest extends AbstractBasicTest {
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    public static void startExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterAll
+    public static void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public AbstractHandler configureHandler() throws Exception {
+        return new RangeHandler();
+    }
+
+    private static Path tempFile() throws IOException {
+        File file = File.createTempFile("download-", ".data", TMP_DIR);
+        file.deleteOnExit();
+        return file.toPath();
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void downloadLazyResponseBodyParts() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config().setResponseBodyPartFactory(ResponseBodyPartFactory.LAZY))) {
+            Path file = tempFile();
+            FileDownloadHandler handler = new FileDownloadHandler(file, executor).setMaxPendingBytes(16 * 1024);
+
+            Response response = client.prepareGet(getTargetUrl()).execute(handler).get(TIMEOUT, SECONDS);
+            assertEquals(200, response.getStatusCode());
+            assertSame(response, handler.getWrittenFuture().get(TIMEOUT, SECONDS));
+            assertArrayEquals(LARGE_IMAGE_BYTES, Files.readAllBytes(file));
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void downloadReplacesPreallocatedAndSyncedFile() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            Path file = tempFile();
+            Files.write(file, new byte[LARGE_IMAGE_BYTES.length * 2]);
+            FileDownloadHandler handler = new FileDownloadHandler(file, executor).setPreallocate(true).setSyncPolicy(SyncPolicy.ON_COMPLETION);
+
+            Response response = client.prepareGet(getTargetUrl()).execute(handler).get(TIMEOUT, SECONDS);
+            assertEquals(200, response.getStatusCode());
+            assertSame(response, handler.getWrittenFuture().get(TIMEOUT, SECONDS));
+            assertArrayEquals(LARGE_IMAGE_BYTES, Files.readAllBytes(file));
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void downloadResumesFromPartialFile() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            Path file = tempFile();
+            Files.write(file, Arrays.copyOf(LARGE_IMAGE_BYTES, 12345));
+            FileDownloadHandler handler = new FileDownloadHandler(file, executor);
+            Request request = handler.adjustRequestRange(get(getTargetUrl()).build());
+
+            Response response = client.executeRequest(request, handler).get(TIMEOUT, SECONDS);
+            assertEquals(206, response.getStatusCode());
+            assertSame(response, handler.getWrittenFuture().get(TIMEOUT, SECONDS));
+            assertArrayEquals(LARGE_IMAGE_BYTES, Files.readAllBytes(file));
+        }
+    }
+
+    private static class RangeHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, org.eclipse.jetty.server.Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
+            String range = request.getHeader("Range");
+            int start = 0;
+            if (range != null) {
+                start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                response.setStatus(206);
+                response.setHeader("Content-Range", "bytes " + start + '-' + (LARGE_IMAGE_BYTES.length - 1) + '/' + LARGE_IMAGE_BYTES.length);
+            } else {
+                response.setStatus(200);
+            }
+            response.setContentLength(LARGE_IMAGE_BYTES.length - start);
+            response.getOutputStream().write(LARGE_IMAGE_BYTES, start, LARGE_IMAGE_BYTES.length - start);
+            baseRequest.setHandled(true);
+        }
+    }
+}
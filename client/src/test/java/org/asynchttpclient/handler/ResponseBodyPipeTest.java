@@ -0,0 +1,155 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import org.asynchttpclient.AbstractBasicTest;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.AsyncHttpClientConfig.ResponseBodyPartFactory;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.netty.EagerResponseBodyPart;
+import org.asynchttpclient.request.body.Body;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_BYTES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseBodyPipeTest extends AbstractBasicTest {
+
+    private void pipe(AsyncHttpClient downloadClient, ResponseBodyPipe pipe) throws Exception {
+        try (AsyncHttpClient uploadClient = asyncHttpClient()) {
+            // the echo server sends the downloaded bytes back, and then the uploaded ones
+            ListenableFuture<Void> download = downloadClient.preparePost(getTargetUrl()).setBody(LARGE_IMAGE_BYTES).execute(pipe);
+            Response upload = uploadClient.preparePut(getTargetUrl()).setBody(pipe).execute().get(TIMEOUT, SECONDS);
+            download.get(TIMEOUT, SECONDS);
+
+            assertEquals(200, upload.getStatusCode());
+            assertArrayEquals(LARGE_IMAGE_BYTES, upload.getResponseBodyAsBytes());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void pipeLazyResponseBodyParts() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config().setResponseBodyPartFactory(ResponseBodyPartFactory.LAZY))) {
+            pipe(client, new ResponseBodyPipe());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void pipeEagerResponseBodyParts() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            pipe(client, new ResponseBodyPipe());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void pipePausesDownloadWhenUploadLags() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            AutoReadRecordingPipe pipe = new AutoReadRecordingPipe(1024);
+            pipe(client, pipe);
+            assertTrue(pipe.paused, "the download was never paused");
+            assertTrue(pipe.resumed, "the download was never resumed");
+
+            // the download channel went back to the pool with auto read enabled
+            Response response = client.preparePost(getTargetUrl()).setBody("ping").execute().get(TIMEOUT, SECONDS);
+            assertEquals("ping", response.getResponseBody());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void createBodyBlocksUntilChunksAreReceived() throws Exception {
+        ResponseBodyPipe pipe = new ResponseBodyPipe();
+        CompletableFuture<String> uploaded = CompletableFuture.supplyAsync(() -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (Body body = pipe.createBody()) {
+                ByteBuf target = Unpooled.buffer(4);
+                Body.BodyState state;
+                do {
+                    target.clear();
+                    state = body.transferTo(target);
+                    target.readBytes(bytes, target.readableBytes());
+                } while (state != Body.BodyState.STOP);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return new String(bytes.toByteArray(), UTF_8);
+        });
+
+        pipe.onBodyPartReceived(new EagerResponseBodyPart(Unpooled.copiedBuffer("Hello ", UTF_8), false));
+        Thread.sleep(100);
+        pipe.onBodyPartReceived(new EagerResponseBodyPart(Unpooled.copiedBuffer("World", UTF_8), true));
+        pipe.onCompleted();
+
+        assertEquals("Hello World", uploaded.get(TIMEOUT, SECONDS));
+    }
+
+    /**
+     * Records the download channel's auto read, as seen from its event loop where it's applied right away.
+     */
+    private static final class AutoReadRecordingPipe extends ResponseBodyPipe {
+
+        private volatile Channel channel;
+        private volatile boolean paused;
+        private volatile boolean resumed;
+
+        private AutoReadRecordingPipe(long maxPendingBytes) {
+            super(maxPendingBytes);
+        }
+
+        @Override
+        public void onTcpConnectSuccess(InetSocketAddress remoteAddress, Channel connection) {
+            super.onTcpConnectSuccess(remoteAddress, connection);
+            channel = connection;
+        }
+
+        @Override
+        public State onBodyPartReceived(HttpResponseBodyPart bodyPart) {
+            recordResume();
+            State state = super.onBodyPartReceived(bodyPart);
+            if (!channel.config().isAutoRead()) {
+                paused = true;
+            }
+            return state;
+        }
+
+        @Override
+        public Void onCompleted() {
+            Void result = super.onCompleted();
+            recordResume();
+            return result;
+        }
+
+        private void recordResume() {
+            if (paused && channel.config().isAutoRead()) {
+                resumed = true;
+            }
+        }
+    }
+}
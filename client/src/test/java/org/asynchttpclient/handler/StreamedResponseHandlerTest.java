@@ -0,0 +1,84 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.handler;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import org.apache.commons.io.IOUtils;
+import org.asynchttpclient.AbstractBasicTest;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.AsyncHttpClientConfig.ResponseBodyPartFactory;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Response;
+
+import java.io.InputStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_BYTES;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamedResponseHandlerTest extends AbstractBasicTest {
+
+    private static void stream(AsyncHttpClient client, String url) throws Exception {
+        // the echo server sends the uploaded bytes back
+        StreamedResponseHandler handler = new StreamedResponseHandler(8 * 1024, StreamedResponseHandler.DEFAULT_MAX_DRAIN_BYTES);
+        ListenableFuture<Response> future = client.preparePost(url).setBody(LARGE_IMAGE_BYTES).execute(handler);
+
+        assertEquals(200, handler.getResponse().getStatusCode());
+        try (InputStream body = handler.getBodyStream()) {
+            assertArrayEquals(LARGE_IMAGE_BYTES, IOUtils.toByteArray(body));
+        }
+        assertEquals(200, future.get(TIMEOUT, SECONDS).getStatusCode());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void streamLazyResponseBodyParts() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config().setResponseBodyPartFactory(ResponseBodyPartFactory.LAZY))) {
+            stream(client, getTargetUrl());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void streamEagerResponseBodyParts() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            stream(client, getTargetUrl());
+
+            // the connection went back to the pool with auto read enabled
+            Response response = client.preparePost(getTargetUrl()).setBody("ping").execute().get(TIMEOUT, SECONDS);
+            assertEquals("ping", response.getResponseBody());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void closingTheStreamEarlyDrainsTheConnection() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            StreamedResponseHandler handler = new StreamedResponseHandler(8 * 1024, Long.MAX_VALUE);
+            ListenableFuture<Response> future = client.preparePost(getTargetUrl()).setBody(LARGE_IMAGE_BYTES).execute(handler);
+
+            try (InputStream body = handler.getBodyStream()) {
+                assertTrue(body.read(new byte[16]) > 0);
+            }
+            future.get(TIMEOUT, SECONDS);
+
+            Response response = client.preparePost(getTargetUrl()).setBody("ping").execute().get(TIMEOUT, SECONDS);
+            assertEquals("ping", response.getResponseBody());
+            assertEquals(1, client.getClientStats().getTotalConnectionCount());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DefaultChannelPoolTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    @Timeout(unit = TimeUnit.MILLISECONDS, value = 5000)
+    public void emptyPartitionsAreEvicted() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS);
+        try {
+            DefaultChannelPool pool = new DefaultChannelPool(Duration.ofMinutes(1), Duration.ZERO, timer, Duration.ofMillis(20));
+            EmbeddedChannel channel = new EmbeddedChannel();
+            pool.offer(channel, "host1");
+            pool.offer(new EmbeddedChannel(), "host2");
+            assertEquals(2, pool.getPartitionCount());
+
+            assertSame(channel, pool.poll("host1"));
+            while (pool.getPartitionCount() > 1) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, pool.getEvictedPartitionCount());
+            assertNull(pool.poll("host1"));
+
+            // the partition is created again
+            pool.offer(channel, "host1");
+            assertSame(channel, pool.poll("host1"));
+            pool.destroy();
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalAddressRotationTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void rotateLocalAddressesPerFamily() throws Exception {
+        InetAddress ipv4a = InetAddress.getByName("127.0.0.2");
+        InetAddress ipv4b = InetAddress.getByName("127.0.0.3");
+        InetAddress ipv6 = InetAddress.getByName("::1");
+        LocalAddressRotation rotation = new LocalAddressRotation(Arrays.asList(ipv4a, ipv6, ipv4b));
+
+        InetSocketAddress remoteIpv4 = new InetSocketAddress(InetAddress.getByName("10.0.0.1"), 80);
+        assertEquals(2, rotation.size(remoteIpv4));
+        Set<InetAddress> used = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            InetSocketAddress localAddress = rotation.localAddress(remoteIpv4, rotation.nextTurn(remoteIpv4));
+            assertEquals(0, localAddress.getPort());
+            used.add(localAddress.getAddress());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(ipv4a, ipv4b)), used);
+
+        InetSocketAddress remoteIpv6 = new InetSocketAddress(InetAddress.getByName("::2"), 80);
+        assertEquals(ipv6, rotation.localAddress(remoteIpv6, rotation.nextTurn(remoteIpv6)).getAddress());
+
+        LocalAddressRotation ipv4Only = new LocalAddressRotation(Arrays.asList(ipv4a));
+        assertNull(ipv4Only.localAddress(remoteIpv6, ipv4Only.nextTurn(remoteIpv6)));
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void countPortExhaustion() {
+        LocalAddressRotation rotation = new LocalAddressRotation(Collections.emptyList());
+        assertTrue(rotation.onConnectFailure(new IOException(new BindException("Cannot assign requested address"))));
+        assertTrue(rotation.onConnectFailure(new ConnectException("connect(..) failed: Cannot assign requested address")));
+        assertFalse(rotation.onConnectFailure(new ConnectException("Connection refused")));
+        assertEquals(2, rotation.getPortExhaustionCount());
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.channel;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import org.asynchttpclient.AsyncCompletionHandlerBase;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.netty.request.NettyRequest;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestPipeliningTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void pipelineRequestsOnOneConnection() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        CountDownLatch firstRequest = new CountDownLatch(1);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group, connections, firstRequest, false);
+            String url = "http://localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            try (AsyncHttpClient client = asyncHttpClient(config().setMaxPipelinedRequests(4))) {
+                List<Future<Response>> responses = new ArrayList<>();
+                responses.add(client.prepareGet(url + "/0").execute());
+                assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+                for (int i = 1; i < 4; i++) {
+                    responses.add(client.prepareGet(url + '/' + i).execute());
+                }
+
+                for (int i = 0; i < 4; i++) {
+                    Response response = responses.get(i).get(5, TimeUnit.SECONDS);
+                    assertEquals(200, response.getStatusCode());
+                    assertEquals("/" + i, response.getResponseBody());
+                }
+                assertEquals(1, connections.get());
+
+                // the channel went back to the pool once it had no outstanding request left
+                assertEquals("/4", client.prepareGet(url + "/4").execute().get(5, TimeUnit.SECONDS).getResponseBody());
+                assertEquals(1, connections.get());
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void replayPipelinedRequestsWhenConnectionIsClosed() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        CountDownLatch firstRequest = new CountDownLatch(1);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group, connections, firstRequest, true);
+            String url = "http://localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            try (AsyncHttpClient client = asyncHttpClient(config().setMaxPipelinedRequests(4))) {
+                List<Future<Response>> responses = new ArrayList<>();
+                responses.add(client.prepareGet(url + "/0").execute());
+                assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+                for (int i = 1; i < 4; i++) {
+                    responses.add(client.prepareGet(url + '/' + i).execute());
+                }
+
+                for (int i = 0; i < 4; i++) {
+                    Response response = responses.get(i).get(5, TimeUnit.SECONDS);
+                    assertEquals(200, response.getStatusCode());
+                    assertEquals("/" + i, response.getResponseBody());
+                }
+                assertTrue(connections.get() > 1);
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void doNotPipelineWithoutKeepAlive() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        CountDownLatch firstRequest = new CountDownLatch(1);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group, connections, firstRequest, false);
+            String url = "http://localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            try (AsyncHttpClient client = asyncHttpClient(config().setKeepAlive(false).setMaxPipelinedRequests(4))) {
+                List<Future<Response>> responses = new ArrayList<>();
+                responses.add(client.prepareGet(url + "/0").execute());
+                assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+                for (int i = 1; i < 4; i++) {
+                    responses.add(client.prepareGet(url + '/' + i).execute());
+                }
+
+                for (int i = 0; i < 4; i++) {
+                    assertEquals("/" + i, responses.get(i).get(5, TimeUnit.SECONDS).getResponseBody());
+                }
+                // each request has its own connection, as it's closed after the response
+                assertEquals(4, connections.get());
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void crashingOnConnectionPooledOnlyAbortsItsRequest() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        CountDownLatch firstRequest = new CountDownLatch(1);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group, connections, firstRequest, false);
+            String url = "http://localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            try (AsyncHttpClient client = asyncHttpClient(config().setMaxPipelinedRequests(4))) {
+                Future<Response> first = client.prepareGet(url + "/0").execute();
+                assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+                Future<Response> crashed = client.prepareGet(url + "/1").execute(new AsyncCompletionHandlerBase() {
+                    @Override
+                    public void onConnectionPooled(Channel connection) {
+                        throw new IllegalStateException("crash");
+                    }
+                });
+                Future<Response> next = client.prepareGet(url + "/2").execute();
+
+                ExecutionException e = assertThrows(ExecutionException.class, () -> crashed.get(5, TimeUnit.SECONDS));
+                assertEquals("crash", e.getCause().getMessage());
+                // the shared channel is still used by the other requests
+                assertEquals("/0", first.get(5, TimeUnit.SECONDS).getResponseBody());
+                assertEquals("/2", next.get(5, TimeUnit.SECONDS).getResponseBody());
+                assertEquals(1, connections.get());
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void requestTimingOutBeforeBeingWrittenKeepsTheConnection() throws Exception {
+        AtomicInteger connections = new AtomicInteger();
+        CountDownLatch firstRequest = new CountDownLatch(1);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = startServer(group, connections, firstRequest, false);
+            String url = "http://localhost:" + ((InetSocketAddress) server.localAddress()).getPort();
+            try (AsyncHttpClient client = asyncHttpClient(config().setMaxPipelinedRequests(4))) {
+                Future<Response> first = client.prepareGet(url + "/0").execute();
+                assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+
+                CountDownLatch sending = new CountDownLatch(1);
+                CountDownLatch timedOut = new CountDownLatch(1);
+                CompletableFuture<Future<Response>> slow = CompletableFuture.supplyAsync(() -> client.prepareGet(url + "/1")
+                        .setRequestTimeout(Duration.ofMillis(100))
+                        .execute(new AsyncCompletionHandlerBase() {
+                            @Override
+                            public void onRequestSend(NettyRequest request) {
+                                sending.countDown();
+                                try {
+                                    // the request times out before it's written
+                                    timedOut.await(5, TimeUnit.SECONDS);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+
+                            @Override
+                            public void onThrowable(Throwable t) {
+                                timedOut.countDown();
+                            }
+                        }));
+                assertTrue(sending.await(5, TimeUnit.SECONDS));
+                // the channel's FIFO isn't held while the handler is notified
+                Future<Response> next = client.prepareGet(url + "/2").execute();
+
+                ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+                assertInstanceOf(TimeoutException.class, e.getCause());
+                // the shared channel wasn't closed
+                assertEquals("/0", first.get(5, TimeUnit.SECONDS).getResponseBody());
+                assertEquals("/2", next.get(5, TimeUnit.SECONDS).getResponseBody());
+                assertEquals(1, connections.get());
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    /**
+     * Answers each request in order, after a delay so that the following ones get pipelined.
+     *
+     * @param closeFirstConnection whether to close the first connection right after its first response
+     */
+    private static Channel startServer(EventLoopGroup group, AtomicInteger connections, CountDownLatch firstRequest,
+                                       boolean closeFirstConnection) throws InterruptedException {
+        return new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        boolean close = connections.incrementAndGet() == 1 && closeFirstConnection;
+                        ch.pipeline()
+                                .addLast(new HttpServerCodec())
+                                .addLast(new HttpObjectAggregator(8192))
+                                .addLast(new SimpleChannelInboundHandler<FullHttpRequest>() {
+                                    @Override
+                                    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+                                        firstRequest.countDown();
+                                        FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, OK,
+                                                Unpooled.copiedBuffer(request.uri(), UTF_8));
+                                        HttpUtil.setContentLength(response, response.content().readableBytes());
+                                        ctx.executor().schedule(() -> {
+                                            if (ctx.channel().isActive()) {
+                                                ctx.writeAndFlush(response);
+                                                if (close) {
+                                                    ctx.close();
+                                                }
+                                            }
+                                        }, 200, TimeUnit.MILLISECONDS);
+                                    }
+                                });
+                    }
+                })
+                .bind(new InetSocketAddress("localhost", 0))
+                .sync()
+                .channel();
+    }
+}
@@ -27,12 +27,18 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -171,4 +177,74 @@ public class SemaphoreTest {
         }
         assertFalse(tooManyCaught);
     }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    @Timeout(unit = TimeUnit.MILLISECONDS, value = 1000)
+    public void perHostSemaphoresAreEvicted() throws IOException {
+        PerHostConnectionSemaphore semaphore = new PerHostConnectionSemaphore(2, 0);
+        semaphore.acquireChannelLock(PK);
+        semaphore.acquireChannelLock(PK);
+        boolean tooManyCaught = false;
+        try {
+            semaphore.acquireChannelLock(PK);
+        } catch (TooManyConnectionsPerHostException e) {
+            tooManyCaught = true;
+        }
+        assertTrue(tooManyCaught);
+        assertEquals(1, semaphore.getPartitionCount());
+
+        semaphore.releaseChannelLock(PK);
+        assertEquals(1, semaphore.getPartitionCount());
+        semaphore.releaseChannelLock(PK);
+        assertEquals(0, semaphore.getPartitionCount());
+        assertEquals(1, semaphore.getEvictedPartitionCount());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    @Timeout(unit = TimeUnit.MILLISECONDS, value = 1000)
+    @SuppressWarnings("deprecation")
+    public void perHostSemaphoreLookedUpBySubclassesIsntEvicted() throws IOException {
+        PerHostConnectionSemaphore semaphore = new PerHostConnectionSemaphore(2, 0);
+        Semaphore hostSemaphore = semaphore.getFreeConnectionsForHost(PK);
+        assertTrue(hostSemaphore.tryAcquire());
+
+        semaphore.acquireChannelLock(PK);
+        semaphore.releaseChannelLock(PK);
+        assertEquals(1, semaphore.getPartitionCount());
+        assertSame(hostSemaphore, semaphore.getFreeConnectionsForHost(PK));
+        assertEquals(1, hostSemaphore.availablePermits());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    @Timeout(unit = TimeUnit.MILLISECONDS, value = 10000)
+    public void perHostEvictionDoesntRaceWithAcquires() throws Exception {
+        int keyCount = 4;
+        PerHostConnectionSemaphore semaphore = new PerHostConnectionSemaphore(1, 1000);
+        AtomicInteger[] holders = new AtomicInteger[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            holders[i] = new AtomicInteger();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = IntStream.range(0, 8).mapToObj(thread -> executor.submit(() -> {
+                int maxHolders = 0;
+                for (int i = 0; i < 10_000; i++) {
+                    int key = (thread + i) % keyCount;
+                    semaphore.acquireChannelLock("host" + key);
+                    maxHolders = Math.max(maxHolders, holders[key].incrementAndGet());
+                    holders[key].decrementAndGet();
+                    semaphore.releaseChannelLock("host" + key);
+                }
+                return maxHolders;
+            })).collect(Collectors.toList());
+
+            for (Future<Integer> future : futures) {
+                assertEquals(1, (int) future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, semaphore.getPartitionCount());
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.netty.ws;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import org.asynchttpclient.netty.channel.ChannelManager;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.asynchttpclient.Dsl.config;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NettyWebSocketTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void framesWaitingForWritabilityAreBounded() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(512, 1024));
+        NettyWebSocket webSocket = new NettyWebSocket(channel, EmptyHttpHeaders.INSTANCE);
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        // a single frame is held back even if it's larger than the high water mark
+        Future<Void> first = webSocket.sendBinaryFrameWhenWritable(new byte[2048]);
+        Future<Void> rejected = webSocket.sendBinaryFrameWhenWritable(new byte[16]);
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        webSocket.onWritabilityChanged(true);
+        first.get();
+        BinaryWebSocketFrame frame = channel.readOutbound();
+        assertEquals(2048, frame.content().readableBytes());
+        frame.release();
+
+        // the bytes of the written frame aren't counted anymore
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        Future<Void> second = webSocket.sendBinaryFrameWhenWritable(new byte[512]);
+        Future<Void> third = webSocket.sendBinaryFrameWhenWritable(new byte[512]);
+        assertFalse(second.isDone());
+        assertFalse(third.isDone());
+
+        webSocket.onClose(1000, "");
+        assertInstanceOf(ClosedChannelException.class, assertThrows(ExecutionException.class, third::get).getCause());
+        channel.finishAndReleaseAll();
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void upgradeKeepsChannelWaterMarkByDefault() {
+        Timer timer = new HashedWheelTimer();
+        ChannelManager channelManager = new ChannelManager(config()
+                .addChannelOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(1024, 4096))
+                .build(), timer);
+        try {
+            EmbeddedChannel channel = new EmbeddedChannel();
+            channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1024, 4096));
+            channel.pipeline().addLast(ChannelManager.HTTP_CLIENT_CODEC, new HttpClientCodec());
+
+            channelManager.upgradePipelineForWebSockets(channel.pipeline());
+            assertEquals(4096, channel.config().getWriteBufferHighWaterMark());
+            assertEquals(1024, channel.config().getWriteBufferLowWaterMark());
+            channel.finishAndReleaseAll();
+        } finally {
+            channelManager.close();
+            timer.stop();
+        }
+    }
+}
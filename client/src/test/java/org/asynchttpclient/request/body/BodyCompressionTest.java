@@ -0,0 +1,179 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.request.body;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.asynchttpclient.AbstractBasicTest;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.BoundRequestBuilder;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.netty.NettyResponseFuture;
+import org.asynchttpclient.netty.request.body.NettyBody;
+import org.asynchttpclient.netty.request.body.NettyByteArrayBody;
+import org.asynchttpclient.netty.request.body.NettyCompressedBody;
+import org.asynchttpclient.request.body.generator.UnboundedQueueFeedableBodyGenerator;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_ENCODING;
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static io.netty.handler.codec.http.HttpHeaderNames.TRANSFER_ENCODING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.get;
+import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_BYTES;
+import static org.asynchttpclient.test.TestUtils.LARGE_IMAGE_FILE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BodyCompressionTest extends AbstractBasicTest {
+
+    @Override
+    public AbstractHandler configureHandler() throws Exception {
+        return new DecompressingHandler();
+    }
+
+    private static void assertEchoed(Response response, String expectedEncoding, byte[] expectedBytes) {
+        assertEquals(200, response.getStatusCode());
+        assertEquals(expectedEncoding, response.getHeader("X-" + CONTENT_ENCODING));
+        assertEquals("chunked", response.getHeader("X-" + TRANSFER_ENCODING));
+        assertNull(response.getHeader("X-" + CONTENT_LENGTH));
+        assertArrayEquals(expectedBytes, response.getResponseBodyAsBytes());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void compressByteArrayBodyWithGzip() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            Response response = client.preparePost(getTargetUrl())
+                    .setBody(LARGE_IMAGE_BYTES)
+                    .setBodyCompression(BodyCompression.GZIP)
+                    .execute().get(TIMEOUT, SECONDS);
+            assertEchoed(response, "gzip", LARGE_IMAGE_BYTES);
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void compressFileBodyWithDeflate() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            Response response = client.preparePut(getTargetUrl())
+                    .setBody(LARGE_IMAGE_FILE)
+                    .setBodyCompression(BodyCompression.DEFLATE)
+                    .execute().get(TIMEOUT, SECONDS);
+            assertEchoed(response, "deflate", LARGE_IMAGE_BYTES);
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void compressInputStreamBodyWithGzip() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            Response response = client.preparePost(getTargetUrl())
+                    .setBody(new ByteArrayInputStream(LARGE_IMAGE_BYTES))
+                    .setBodyCompression(BodyCompression.GZIP)
+                    .execute().get(TIMEOUT, SECONDS);
+            assertEchoed(response, "gzip", LARGE_IMAGE_BYTES);
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void compressFeedableBodyWithGzip() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            UnboundedQueueFeedableBodyGenerator generator = new UnboundedQueueFeedableBodyGenerator();
+            BoundRequestBuilder requestBuilder = client.preparePost(getTargetUrl())
+                    .setBody(generator)
+                    .setBodyCompression(BodyCompression.GZIP);
+            ListenableFuture<Response> responseFuture = requestBuilder.execute();
+
+            int half = LARGE_IMAGE_BYTES.length / 2;
+            generator.feed(Unpooled.wrappedBuffer(LARGE_IMAGE_BYTES, 0, half), false);
+            generator.feed(Unpooled.wrappedBuffer(LARGE_IMAGE_BYTES, half, LARGE_IMAGE_BYTES.length - half), true);
+
+            assertEchoed(responseFuture.get(TIMEOUT, SECONDS), "gzip", LARGE_IMAGE_BYTES);
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void explicitContentLengthIsDropped() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient()) {
+            Response response = client.preparePost(getTargetUrl())
+                    .setHeader(CONTENT_LENGTH, LARGE_IMAGE_BYTES.length)
+                    .setBody(LARGE_IMAGE_BYTES)
+                    .setBodyCompression(BodyCompression.GZIP)
+                    .execute().get(TIMEOUT, SECONDS);
+            assertEchoed(response, "gzip", LARGE_IMAGE_BYTES);
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void rejectUnknownBodyTypes() {
+        NettyBody custom = new NettyBody() {
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public void write(Channel channel, NettyResponseFuture<?> future) {
+            }
+        };
+        assertThrows(IllegalArgumentException.class, () -> new NettyCompressedBody(custom, BodyCompression.GZIP));
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void rejectUnavailableCompressionUpfront() {
+        // zstd-jni isn't a dependency
+        assertThrows(IllegalStateException.class, () -> get("http://localhost").setBodyCompression(BodyCompression.ZSTD));
+        assertThrows(IllegalStateException.class, () -> new NettyCompressedBody(new NettyByteArrayBody(new byte[0]), BodyCompression.ZSTD));
+    }
+
+    private static class DecompressingHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String contentEncoding = request.getHeader(CONTENT_ENCODING.toString());
+            InputStream is = request.getInputStream();
+            if ("gzip".equals(contentEncoding)) {
+                is = new GZIPInputStream(is);
+            } else if ("deflate".equals(contentEncoding)) {
+                is = new InflaterInputStream(is);
+            }
+            byte[] body = is.readAllBytes();
+
+            response.setStatus(200);
+            response.addHeader("X-" + CONTENT_ENCODING, contentEncoding);
+            response.addHeader("X-" + TRANSFER_ENCODING, request.getHeader(TRANSFER_ENCODING.toString()));
+            if (request.getHeader(CONTENT_LENGTH.toString()) != null) {
+                response.addHeader("X-" + CONTENT_LENGTH, request.getHeader(CONTENT_LENGTH.toString()));
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            response.getOutputStream().flush();
+            baseRequest.setHandled(true);
+        }
+    }
+}
@@ -22,13 +22,18 @@ import org.asynchttpclient.Request;
 import org.asynchttpclient.Response;
 import org.asynchttpclient.request.body.generator.FeedableBodyGenerator;
 import org.asynchttpclient.request.body.generator.InputStreamBodyGenerator;
+import org.asynchttpclient.request.body.generator.PublisherBodyGenerator;
 import org.asynchttpclient.request.body.generator.UnboundedQueueFeedableBodyGenerator;
 
 import java.io.BufferedInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
 
 import static org.asynchttpclient.Dsl.asyncHttpClient;
 import static org.asynchttpclient.Dsl.config;
@@ -64,6 +69,11 @@ public class ChunkingTest extends AbstractBasicTest {
         doTestWithFeedableBodyGenerator(Files.newInputStream(LARGE_IMAGE_FILE.toPath()));
     }
 
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void testDirectFileWithPublisherBodyGenerator() throws Throwable {
+        doTestWithPublisherBodyGenerator(Files.newInputStream(LARGE_IMAGE_FILE.toPath()));
+    }
+
     private void doTestWithInputStreamBodyGenerator(InputStream is) throws Throwable {
         try {
             try (AsyncHttpClient c = asyncHttpClient(httpClientBuilder())) {
@@ -89,6 +99,23 @@ public class ChunkingTest extends AbstractBasicTest {
         }
     }
 
+    private void doTestWithPublisherBodyGenerator(InputStream is) throws Throwable {
+        try (AsyncHttpClient c = asyncHttpClient(httpClientBuilder());
+             SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), 1)) {
+            Request r = post(getTargetUrl()).setBody(new PublisherBodyGenerator(publisher)).build();
+            ListenableFuture<Response> responseFuture = c.executeRequest(r);
+            // submit blocks while the single slot buffer is full, so the upload paces the publisher
+            try (InputStream inputStream = is) {
+                byte[] buffer = new byte[512];
+                for (int i; (i = inputStream.read(buffer)) > -1; ) {
+                    publisher.submit(ByteBuffer.wrap(Arrays.copyOf(buffer, i)));
+                }
+            }
+            publisher.close();
+            waitForAndAssertResponse(responseFuture);
+        }
+    }
+
     private static void feed(FeedableBodyGenerator feedableBodyGenerator, InputStream is) throws Exception {
         try (InputStream inputStream = is) {
             byte[] buffer = new byte[512];
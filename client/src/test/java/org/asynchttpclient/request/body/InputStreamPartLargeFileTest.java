@@ -32,6 +32,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.asynchttpclient.Dsl.asyncHttpClient;
@@ -113,4 +115,32 @@ public class InputStreamPartLargeFileTest extends AbstractBasicTest {
             assertEquals(200, response.getStatusCode());
         }
     }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void testPutImageFileOnBlockingIoExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (AsyncHttpClient client = asyncHttpClient(config().setRequestTimeout(Duration.ofMinutes(10)).setBlockingIoExecutor(executor))) {
+            InputStream inputStream = new BufferedInputStream(new FileInputStream(LARGE_IMAGE_FILE));
+            Response response = client.preparePut(getTargetUrl()).addBodyPart(new InputStreamPart("test", inputStream, LARGE_IMAGE_FILE.getName(),
+                    LARGE_IMAGE_FILE.length(), "application/octet-stream", UTF_8)).execute().get();
+            assertEquals(200, response.getStatusCode());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void testPutInputStreamBodyOnBlockingIoExecutor() throws Exception {
+        File file = createTempFile(1024 * 1024);
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try (AsyncHttpClient client = asyncHttpClient(config().setRequestTimeout(Duration.ofMinutes(10)).setBlockingIoExecutor(executor).setBlockingIoPrefetchChunks(2))) {
+            Response response = client.preparePut(getTargetUrl()).setBody(inputStream).execute().get();
+            assertEquals(200, response.getStatusCode());
+            assertEquals(String.valueOf(file.length()), response.getHeader("X-TRANSFERRED"));
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
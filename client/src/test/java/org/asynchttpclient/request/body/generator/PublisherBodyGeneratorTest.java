@@ -0,0 +1,79 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.request.body.generator;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.asynchttpclient.request.body.Body;
+import org.asynchttpclient.request.body.Body.BodyState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.SubmissionPublisher;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PublisherBodyGeneratorTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void createBodyTransfersPublishedBuffers() throws IOException {
+        SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>();
+        Body body = new PublisherBodyGenerator(publisher).createBody();
+        ByteBuf chunkBuffer = Unpooled.buffer(4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try {
+            new Thread(() -> {
+                // wait for the body to subscribe when it's first read
+                while (publisher.getNumberOfSubscribers() == 0) {
+                    Thread.onSpinWait();
+                }
+                publisher.submit(ByteBuffer.wrap("Hello ".getBytes(UTF_8)));
+                publisher.submit(ByteBuffer.allocate(0));
+                publisher.submit(ByteBuffer.wrap("World".getBytes(UTF_8)));
+                publisher.close();
+            }).start();
+
+            while (body.transferTo(chunkBuffer) != BodyState.STOP) {
+                chunkBuffer.readBytes(bytes, chunkBuffer.readableBytes());
+                chunkBuffer.clear();
+            }
+            assertEquals("Hello World", new String(bytes.toByteArray(), UTF_8));
+        } finally {
+            body.close();
+            chunkBuffer.release();
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void createBodyPropagatesPublisherFailure() throws IOException {
+        SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>();
+        publisher.closeExceptionally(new IOException("boom"));
+        Body body = new PublisherBodyGenerator(publisher).createBody();
+        ByteBuf chunkBuffer = Unpooled.buffer(4);
+
+        try {
+            assertEquals("boom", assertThrows(IOException.class, () -> body.transferTo(chunkBuffer)).getMessage());
+        } finally {
+            body.close();
+            chunkBuffer.release();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.uri;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.util.UriEncoder;
+
+import java.util.Collections;
+
+import static org.asynchttpclient.Dsl.get;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UriCacheTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void reuseParsedUris() {
+        UriCache cache = new UriCache(16);
+        Uri uri = cache.get("http://localhost:8080/foo?bar=baz");
+        assertEquals("http://localhost:8080/foo?bar=baz", uri.toUrl());
+        assertSame(uri, cache.get(new String("http://localhost:8080/foo?bar=baz")));
+        assertNotSame(uri, cache.get("http://localhost:8080/foo?bar=qux"));
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void boundedCache() {
+        UriCache cache = new UriCache(1);
+        Uri first = cache.get("http://localhost/1");
+        Uri second = cache.get("http://localhost/2");
+        assertSame(second, cache.get("http://localhost/2"));
+        // the first one has been replaced
+        assertNotSame(first, cache.get("http://localhost/1"));
+        assertThrows(IllegalArgumentException.class, () -> new UriCache(0));
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void encodedUrisArentCopied() {
+        Uri uri = new UriCache(16).get("http://localhost/foo%20bar?q=1");
+        assertSame(uri, UriEncoder.FIXING.encode(uri, Collections.emptyList()));
+
+        Request request = get("http://localhost/foo%20bar?q=1").setUri(uri).build();
+        assertSame(uri, request.getUri());
+    }
+}
@@ -22,6 +22,7 @@ import java.net.URI;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -352,4 +353,18 @@ public class UriTest {
         Uri uri = Uri.create("http://stackoverflow.com");
         assertEquals("/", uri.getNonEmptyPath(), "Incorrect path returned from getNonEmptyPath");
     }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void testDerivedStringsAreCached() {
+        Uri uri = Uri.create("http://stackoverflow.com:8443/questions?tab=votes");
+        assertEquals("stackoverflow.com:8443", uri.getHostHeader());
+        assertEquals("/questions?tab=votes", uri.toRelativeUrl());
+        assertEquals("http://stackoverflow.com:8443", uri.getBaseUrl());
+        assertSame(uri.getHostHeader(), uri.getHostHeader());
+        assertSame(uri.toRelativeUrl(), uri.toRelativeUrl());
+        assertSame(uri.getBaseUrl(), uri.getBaseUrl());
+
+        assertEquals("stackoverflow.com", Uri.create("https://stackoverflow.com:443").getHostHeader());
+        assertEquals("/", Uri.create("https://stackoverflow.com").toRelativeUrl());
+    }
 }
@@ -140,6 +140,24 @@ public class HttpUtilsTest {
         formUrlEncoding(Charset.forName("GBK"));
     }
 
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void formUrlEncodingIntoByteBufMatchesByteBuffer() {
+        List<Param> params = new ArrayList<>();
+        params.add(new Param("key", "中文 a+b&c=d*-._~"));
+        params.add(new Param("emoji", "😀é"));
+        params.add(new Param("empty", ""));
+        params.add(new Param("noValue", null));
+
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            HttpUtils.urlEncodeFormParams(params, buf);
+            assertEquals(toUsAsciiString(HttpUtils.urlEncodeFormParams(params, UTF_8)), buf.toString(US_ASCII));
+            assertEquals(buf.readableBytes(), HttpUtils.urlEncodedFormParamsLength(params));
+        } finally {
+            buf.release();
+        }
+    }
+
     @RepeatedIfExceptionsTest(repeats = 5)
     public void computeOriginForPlainUriWithImplicitPort() {
         assertEquals("http://foo.com", HttpUtils.originHeader(Uri.create("ws://foo.com/bar")));
@@ -18,6 +18,7 @@ package org.asynchttpclient.util;
 import io.github.artsok.RepeatedIfExceptionsTest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class Utf8UrlEncoderTest {
 
@@ -34,4 +35,14 @@ public class Utf8UrlEncoderTest {
         assertEquals("foo%2Abar", Utf8UrlEncoder.percentEncodeQueryElement("foo*bar"));
         assertEquals("foo~b_ar", Utf8UrlEncoder.percentEncodeQueryElement("foo~b_ar"));
     }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void testNothingToEncodeReturnsInput() {
+        String path = "/foo/bar;v=1/%20baz";
+        assertSame(path, Utf8UrlEncoder.encodePath(path));
+        String query = "a=1&b=/c?d";
+        assertSame(query, Utf8UrlEncoder.encodeQuery(query));
+        assertEquals("/foo/a%20b/%C3%A9t%C3%A9", Utf8UrlEncoder.encodePath("/foo/a b/\u00e9t\u00e9"));
+        assertEquals("a=1&b=%7Cc%7C", Utf8UrlEncoder.encodeQuery("a=1&b=|c|"));
+    }
 }
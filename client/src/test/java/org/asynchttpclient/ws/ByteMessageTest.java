@@ -13,15 +13,23 @@
 package org.asynchttpclient.ws;
 
 import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.AsyncHttpClientConfig;
+import org.asynchttpclient.WebSocketStats;
 
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.asynchttpclient.Dsl.asyncHttpClient;
 import static org.asynchttpclient.Dsl.config;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ByteMessageTest extends AbstractBasicWebSocketTest {
 
@@ -74,6 +82,94 @@ public class ByteMessageTest extends AbstractBasicWebSocketTest {
         echoByte0(true);
     }
 
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoByteCompressedWithMetrics() throws Exception {
+        try (AsyncHttpClient c = asyncHttpClient(config()
+                .setEnablewebSocketCompression(true)
+                .setWebSocketCompressionMetrics(true)
+                .setWebSocketCompressionMinSize(1024)
+                .setWebSocketServerNoContextTakeover(true))) {
+            final byte[] payload = new byte[10_000];
+            final CountDownLatch latch = new CountDownLatch(2);
+            final AtomicInteger receivedBytes = new AtomicInteger();
+
+            WebSocket websocket = c.prepareGet(getTargetUrl()).execute(new WebSocketUpgradeHandler.Builder().addWebSocketListener(new WebSocketListener() {
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                }
+
+                @Override
+                public void onBinaryFrame(byte[] frame, boolean finalFragment, int rsv) {
+                    receivedBytes.addAndGet(frame.length);
+                    latch.countDown();
+                }
+            }).build()).get();
+
+            // too small to be compressed
+            websocket.sendBinaryFrame(ECHO_BYTES);
+            websocket.sendBinaryFrame(payload);
+
+            assertTrue(latch.await(TIMEOUT, SECONDS));
+            assertEquals(ECHO_BYTES.length + payload.length, receivedBytes.get());
+
+            WebSocketStats stats = c.getClientStats().getWebSocketStats();
+            assertEquals(payload.length, stats.getUncompressedBytesSent());
+            assertTrue(stats.getCompressedBytesSent() < payload.length);
+            assertTrue(stats.getCompressionSavedBytes() > 0);
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoByteBuf() throws Exception {
+        try (AsyncHttpClient c = asyncHttpClient()) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicReference<byte[]> receivedBytes = new AtomicReference<>(BYTES);
+
+            WebSocket websocket = c.prepareGet(getTargetUrl()).execute(new WebSocketUpgradeHandler.Builder().addWebSocketListener(new ByteBufWebSocketListener() {
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                    latch.countDown();
+                }
+
+                @Override
+                public void onBinaryFrame(ByteBuf frame, boolean finalFragment, int rsv) {
+                    try {
+                        receivedBytes.set(ByteBufUtil.getBytes(frame));
+                    } finally {
+                        frame.release();
+                    }
+                    latch.countDown();
+                }
+            }).build()).get();
+
+            websocket.sendBinaryFrame(ECHO_BYTES);
+
+            latch.await();
+            assertArrayEquals(ECHO_BYTES, receivedBytes.get());
+        }
+    }
+
     @RepeatedIfExceptionsTest(repeats = 5)
     public void echoTwoMessagesTest() throws Exception {
         try (AsyncHttpClient client = asyncHttpClient()) {
@@ -120,6 +216,100 @@ public class ByteMessageTest extends AbstractBasicWebSocketTest {
         }
     }
 
+    private void echoWrittenMessages0(boolean flushConsolidation) throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config().setWebSocketFlushConsolidation(flushConsolidation))) {
+            final CountDownLatch latch = new CountDownLatch(3);
+            final AtomicReference<byte[]> text = new AtomicReference<>(BYTES);
+
+            WebSocket websocket = client.prepareGet(getTargetUrl()).execute(new WebSocketUpgradeHandler.Builder().addWebSocketListener(new WebSocketListener() {
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                    latch.countDown();
+                }
+
+                @Override
+                public void onBinaryFrame(byte[] frame, boolean finalFragment, int rsv) {
+                    byte[] n = new byte[text.get().length + frame.length];
+                    System.arraycopy(text.get(), 0, n, 0, text.get().length);
+                    System.arraycopy(frame, 0, n, text.get().length, frame.length);
+                    text.set(n);
+                    latch.countDown();
+                }
+
+            }).build()).get();
+
+            websocket.writeBinaryFrame(ECHO_BYTES);
+            websocket.writeBinaryFrame(ECHO_BYTES);
+            websocket.flush();
+            websocket.sendBinaryFrame(ECHO_BYTES);
+
+            latch.await();
+            assertArrayEquals("ECHOECHOECHO".getBytes(), text.get());
+        }
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoWrittenMessages() throws Exception {
+        echoWrittenMessages0(false);
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoWrittenMessagesWithFlushConsolidation() throws Exception {
+        echoWrittenMessages0(true);
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoMessagesSentWhenWritable() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config().setWebSocketWriteBufferHighWaterMark(1024))) {
+            final int count = 100;
+            final byte[] payload = new byte[512];
+            final CountDownLatch latch = new CountDownLatch(count);
+            final AtomicInteger receivedBytes = new AtomicInteger();
+
+            WebSocket websocket = client.prepareGet(getTargetUrl()).execute(new WebSocketUpgradeHandler.Builder().addWebSocketListener(new WebSocketListener() {
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                }
+
+                @Override
+                public void onBinaryFrame(byte[] frame, boolean finalFragment, int rsv) {
+                    receivedBytes.addAndGet(frame.length);
+                    latch.countDown();
+                }
+
+            }).build()).get();
+
+            for (int i = 0; i < count; i++) {
+                websocket.sendBinaryFrameWhenWritable(payload).get(TIMEOUT, SECONDS);
+            }
+
+            assertTrue(latch.await(TIMEOUT, SECONDS));
+            assertEquals(count * payload.length, receivedBytes.get());
+            assertTrue(websocket.isWritable());
+        }
+    }
+
     @RepeatedIfExceptionsTest(repeats = 5)
     public void echoOnOpenMessagesTest() throws Exception {
         try (AsyncHttpClient client = asyncHttpClient()) {
@@ -165,9 +355,8 @@ public class ByteMessageTest extends AbstractBasicWebSocketTest {
         }
     }
 
-    @RepeatedIfExceptionsTest(repeats = 5)
-    public void echoFragments() throws Exception {
-        try (AsyncHttpClient client = asyncHttpClient()) {
+    private void echoFragments0(AsyncHttpClientConfig config) throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config)) {
             final CountDownLatch latch = new CountDownLatch(1);
             final AtomicReference<byte[]> text = new AtomicReference<>(null);
 
@@ -208,4 +397,14 @@ public class ByteMessageTest extends AbstractBasicWebSocketTest {
             assertArrayEquals("ECHOECHO".getBytes(), text.get());
         }
     }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoFragments() throws Exception {
+        echoFragments0(config().build());
+    }
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void echoFragmentsWithLowMemoryFootprint() throws Exception {
+        echoFragments0(config().setWebSocketLowMemoryFootprint(true).setEnablewebSocketCompression(true).build());
+    }
 }
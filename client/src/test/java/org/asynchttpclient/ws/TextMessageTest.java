@@ -13,6 +13,7 @@
 package org.asynchttpclient.ws;
 
 import io.github.artsok.RepeatedIfExceptionsTest;
+import io.netty.buffer.ByteBuf;
 import org.asynchttpclient.AsyncHttpClient;
 import org.junit.jupiter.api.Timeout;
 
@@ -23,6 +24,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.asynchttpclient.Dsl.asyncHttpClient;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -249,6 +251,70 @@ public class TextMessageTest extends AbstractBasicWebSocketTest {
         }
     }
 
+    @RepeatedIfExceptionsTest(repeats = 5)
+    @Timeout(unit = TimeUnit.MILLISECONDS, value = 60000)
+    public void echoTextToByteBufAndStringListeners() throws Exception {
+        try (AsyncHttpClient c = asyncHttpClient()) {
+            final CountDownLatch latch = new CountDownLatch(2);
+            final AtomicReference<String> bufText = new AtomicReference<>("");
+            final AtomicReference<String> text = new AtomicReference<>("");
+
+            WebSocket websocket = c.prepareGet(getTargetUrl()).execute(new WebSocketUpgradeHandler.Builder().addWebSocketListener(new ByteBufWebSocketListener() {
+
+                @Override
+                public void onTextFrame(ByteBuf payload, boolean finalFragment, int rsv) {
+                    try {
+                        bufText.set(payload.toString(UTF_8));
+                    } finally {
+                        payload.release();
+                    }
+                    latch.countDown();
+                }
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                    latch.countDown();
+                }
+            }).addWebSocketListener(new WebSocketListener() {
+
+                @Override
+                public void onTextFrame(String payload, boolean finalFragment, int rsv) {
+                    text.set(payload);
+                    latch.countDown();
+                }
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                    latch.countDown();
+                }
+            }).build()).get();
+
+            websocket.sendTextFrame("ECHO");
+
+            latch.await();
+            assertEquals("ECHO", bufText.get());
+            assertEquals("ECHO", text.get());
+        }
+    }
+
     @RepeatedIfExceptionsTest(repeats = 5)
     public void echoTwoMessagesTest() throws Exception {
         try (AsyncHttpClient c = asyncHttpClient()) {
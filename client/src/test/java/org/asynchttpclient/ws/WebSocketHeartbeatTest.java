@@ -0,0 +1,69 @@
+/*
+ *    Copyright (c) 2023 AsyncHttpClient Project. All rights reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.asynchttpclient.ws;
+
+import io.github.artsok.RepeatedIfExceptionsTest;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.WebSocketStats;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.asynchttpclient.Dsl.asyncHttpClient;
+import static org.asynchttpclient.Dsl.config;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WebSocketHeartbeatTest extends AbstractBasicWebSocketTest {
+
+    @RepeatedIfExceptionsTest(repeats = 5)
+    public void heartbeatPingsAreAnswered() throws Exception {
+        try (AsyncHttpClient client = asyncHttpClient(config()
+                .setWebSocketPingInterval(Duration.ofMillis(200))
+                .setWebSocketPongTimeout(Duration.ofSeconds(5)))) {
+            final CountDownLatch pongs = new CountDownLatch(3);
+
+            WebSocket websocket = client.prepareGet(getTargetUrl()).execute(new WebSocketUpgradeHandler.Builder().addWebSocketListener(new WebSocketListener() {
+
+                @Override
+                public void onOpen(WebSocket websocket) {
+                }
+
+                @Override
+                public void onClose(WebSocket websocket, int code, String reason) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    t.printStackTrace();
+                }
+
+                @Override
+                public void onPongFrame(byte[] payload) {
+                    pongs.countDown();
+                }
+            }).build()).get();
+
+            assertTrue(pongs.await(TIMEOUT, SECONDS));
+            assertTrue(websocket.isOpen());
+
+            WebSocketStats stats = client.getClientStats().getWebSocketStats();
+            assertEquals(0, stats.getMissedPongCount());
+            assertEquals(0, stats.getClosedForMissedPongCount());
+        }
+    }
+}